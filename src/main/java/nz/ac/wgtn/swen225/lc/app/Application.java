@@ -38,13 +38,26 @@ public class Application extends JFrame implements ApplicationDebugger {
     private ApplicationState state;
 
     /**
-     * Constructs a new instance of the "Chips Challenge" application.
+     * Constructs a new instance of the "Chips Challenge" application, saving games and playbacks as Json.
      */
     public Application() {
+        this(new FileBasedPersistenceImpl());
+    }
+
+    /**
+     * Constructs a new instance of the "Chips Challenge" application with the given persistence, which decides the
+     * format of the saved games and playbacks, e.g. a {@link nz.ac.wgtn.swen225.lc.persistency.BinaryPersistenceImpl}.
+     *
+     * @param persistence The persistence used to load levels and to save and load games and playbacks.
+     */
+    public Application(Persistence persistence) {
         super("Chips Challenge");
 
         // Initialize persistence
-        this.persistence = new FileBasedPersistenceImpl();
+        if (persistence == null) {
+            throw new IllegalArgumentException("Persistence cannot be null");
+        }
+        this.persistence = persistence;
 
         // Set frame properties
         setResizable(false);
@@ -1,62 +1,19 @@
 package nz.ac.wgtn.swen225.lc.app;
 
 
-import nz.ac.wgtn.swen225.lc.utils.Vector2D;
-import nz.ac.wgtn.swen225.lc.domain.events.GameEventListener;
-import nz.ac.wgtn.swen225.lc.domain.level.characters.Enemy;
-
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
-import java.util.Map;
 import java.util.function.Consumer;
 
 /**
- * The GameEngine interface defines methods for managing the game state and input handling.
+ * The GameEngine interface extends {@link SimulationEngine} with the Swing specific parts: keyboard input handling
+ * and the glass pane used for overlays.
  *
  * @author Shuja M Syed
  * Student ID: 300592409
  */
-public interface GameEngine extends GameEventListener {
-
-    /**
-     * Called when the game engine is started.
-     */
-    void onStart();
-
-    /**
-     * Checks if the game is over.
-     *
-     * @return True if the game is over, false otherwise.
-     */
-    boolean isGameOver();
-
-    /**
-     * Gets the current tick number in the game.
-     *
-     * @return The tick number.
-     */
-    int getTickNo();
-
-    /**
-     * Updates the game state based on the player's movement.
-     *
-     * @param playerMovement The movement vector of the player.
-     */
-    void update(Vector2D playerMovement);
-
-    /**
-     * Updates the game state based on the player's and enemies' movement.
-     *
-     * @param playerMovement The movement vector of the player.
-     * @param enemyMovement  A map of enemy movement vectors.
-     */
-    void update(Vector2D playerMovement, Map<Enemy, Vector2D> enemyMovement);
-
-    /**
-     * Called when the game engine is destroyed or finished.
-     */
-    void onDestroy();
+public interface GameEngine extends SimulationEngine {
 
     /**
      * Binds a keyboard input key stroke to an action.
@@ -73,13 +30,6 @@ public interface GameEngine extends GameEventListener {
      */
     void unbindInputWithAction(KeyStroke keyStroke);
 
-    /**
-     * Allows accessing the player position.
-     *
-     * @return The game instance.
-     */
-    Vector2D getPlayerPos();
-
     /**
      * Gets the glass pane component, which may be used for overlays or GUI elements.
      *
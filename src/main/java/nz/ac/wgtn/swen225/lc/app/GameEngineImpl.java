@@ -1,7 +1,9 @@
 package nz.ac.wgtn.swen225.lc.app;
 
 import nz.ac.wgtn.swen225.lc.domain.Game;
+import nz.ac.wgtn.swen225.lc.domain.RenderBuffers;
 import nz.ac.wgtn.swen225.lc.domain.events.*;
+import nz.ac.wgtn.swen225.lc.domain.level.items.Key;
 import nz.ac.wgtn.swen225.lc.renderer.assets.ImageLoader;
 import nz.ac.wgtn.swen225.lc.utils.Vector2D;
 import nz.ac.wgtn.swen225.lc.domain.level.characters.Enemy;
@@ -10,15 +12,21 @@ import nz.ac.wgtn.swen225.lc.renderer.GameWindow;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.function.Consumer;
-import java.util.stream.Collectors;
 
 /**
  * The GameEngineImpl class is responsible for managing the game state and rendering in the application.
+ * <p>
+ * The game may be advanced on any thread. After every tick, the changes of the tick are applied to preallocated
+ * {@link RenderBuffers} and published, and the latest published snapshot is displayed on the event dispatch thread;
+ * if the display falls behind, only the latest snapshot is shown. The display therefore never reads the live game
+ * while it is advancing, and the simulation never waits for the display.
  *
  * @author Shuja M Syed
  * Student ID: 300592409
@@ -27,12 +35,15 @@ public class GameEngineImpl implements GameEngine {
 
     private final Game game; // The game instance managed by this class
     private final JComponent parentComponent; // The parent container component
-    private final Component gameDisplay; // The game display component
+    private final GameWindow gameDisplay; // The game display component
     private final JLayeredPane layeredPane;
     private final JPanel glassPane;
     private final InputMap inputMap; // Input map for the keyboard input
     private final ActionMap actionMap; // Action map for binding keys to actions
     private final Set<KeyStroke> boundKeyStrokes = new HashSet<>(); // Set to keep track of the bound keystrokes
+    private final RenderBuffers renderBuffers = new RenderBuffers(); // Snapshots published to the display
+    private volatile boolean displaying; // Whether snapshots are shown, between onStart and onDestroy
+    private final int[] displayedKeyCounts = new int[Key.Color.values().length]; // The keys shown, by colour ordinal
 
     // Labels for displaying game information
     private final JLabel levelLabel;
@@ -92,13 +103,14 @@ public class GameEngineImpl implements GameEngine {
     }
 
     // Create the game display component
-    private Component createGameDisplay() {
+    private GameWindow createGameDisplay() {
         return new GameWindow(game, 600);
     }
 
     @Override
     public void onStart() {
-        game.addListener(this); // Register this engine as a game listener
+        displaying = true;
+        game.addListener(TickDelta.class, this); // Register this engine to the per-tick summary of changes
         this.addGameDisplayToParent(); // Add the game display to the parent component
         this.setLabels(); // Initialize the labels displaying game information
     }
@@ -114,12 +126,15 @@ public class GameEngineImpl implements GameEngine {
         this.levelLabel.setText(Integer.toString(this.game.getLevel().getLevelNo()));
         this.timeLabel.setText(Integer.toString(this.game.getCountDown()));
         this.chipsLeftLabel.setText(Integer.toString(this.game.getChipsLeft()));
-        setInventory();
+        var keyColors = game.getLevel().getPlayer().getKeys().stream().map(Key::getColor).sorted().toList();
+        Arrays.fill(displayedKeyCounts, 0);
+        keyColors.forEach(color -> displayedKeyCounts[color.ordinal()]++);
+        setInventory(keyColors);
     }
 
-    private void setInventory() {
+    private void setInventory(List<Key.Color> keyColors) {
         this.inventoryContainer.removeAll();
-        game.getLevel().getPlayer().getKeys().forEach(k ->
+        keyColors.forEach(color ->
                 {
                     var url = Objects.requireNonNull(ImageLoader.class.getResource("/images/keys_gems/key.png"));
                     var originalImageIcon = new ImageIcon(url);
@@ -129,7 +144,7 @@ public class GameEngineImpl implements GameEngine {
                         @Override
                         public synchronized void paintIcon(Component c, Graphics g, int x, int y) {
                             super.paintIcon(c, g, x, y);
-                            g.setColor(switch (k.getColor()) {
+                            g.setColor(switch (color) {
                                 case GREEN -> Color.GREEN;
                                 case RED ->  Color.RED;
                                 case BLUE ->  Color.BLUE;
@@ -162,14 +177,7 @@ public class GameEngineImpl implements GameEngine {
 
     @Override
     public void update(Vector2D playerMovement) {
-        var enemyMovementMap = getEnemyMovementMap(); // Get enemy movement information
-        this.update(playerMovement, enemyMovementMap);
-    }
-
-    // Get a map of enemy movement
-    private Map<Enemy, Vector2D> getEnemyMovementMap() {
-        return this.game.getLevel().getEnemies()
-                .stream().collect(Collectors.toMap(e -> e, Enemy::nextMove));
+        this.game.tick(playerMovement); // Enemies decide their own moves, without building a map
     }
 
     // Update the game state
@@ -178,8 +186,15 @@ public class GameEngineImpl implements GameEngine {
         this.game.update(playerMovement, enemyMovement);
     }
 
+    // Update the game state with the enemies' moves by slot
+    @Override
+    public void updateBySlot(Vector2D playerMovement, Vector2D[] enemyMoves) {
+        this.game.updateBySlot(playerMovement, enemyMoves);
+    }
+
     @Override
     public void onDestroy() {
+        displaying = false;
         this.levelLabel.setText("0");
         this.timeLabel.setText("0");
         this.chipsLeftLabel.setText("0");
@@ -248,24 +263,37 @@ public class GameEngineImpl implements GameEngine {
 
     @Override
     public void onGameEvent(GameEvent gameEvent) {
-        // Handle game events, such as countdown and chip picked up events
-        if (gameEvent instanceof CountDownEvent) {
-            this.updateTimeLabel();
-        } else if (gameEvent instanceof ChipPickedUpEvent) {
-            this.updateChipsLeftLabel();
-        } else if (gameEvent instanceof KeyPickedUpEvent || gameEvent instanceof KeyConsumedEvent) {
-            setInventory();
+        // Called on the thread advancing the game: publish the tick, and schedule a display unless one is pending
+        if (gameEvent instanceof TickDelta delta && displaying) {
+            if (renderBuffers.publish(game, delta)) {
+                SwingUtilities.invokeLater(this::displayLatestSnapshot);
+            }
         }
     }
 
-    // Update the time label
-    private void updateTimeLabel() {
-        this.timeLabel.setText(Integer.toString(this.game.getCountDown()));
-    }
-
-    // Update the chips left label
-    private void updateChipsLeftLabel() {
-        this.chipsLeftLabel.setText(Integer.toString(this.game.getChipsLeft()));
+    // Show the latest published snapshot, on the event dispatch thread
+    private void displayLatestSnapshot() {
+        if (!displaying) {
+            return;
+        }
+        var snapshot = renderBuffers.take();
+        if (snapshot == null) {
+            return;
+        }
+        // Labels ignore texts that did not change
+        this.timeLabel.setText(Integer.toString(snapshot.getCountDown()));
+        this.chipsLeftLabel.setText(Integer.toString(snapshot.getChipsLeft()));
+        boolean keysChanged = false;
+        for (var color : Key.Color.values()) {
+            if (snapshot.getKeyCount(color) != displayedKeyCounts[color.ordinal()]) {
+                displayedKeyCounts[color.ordinal()] = snapshot.getKeyCount(color);
+                keysChanged = true;
+            }
+        }
+        if (keysChanged) {
+            setInventory(snapshot.getKeyColors());
+        }
+        this.gameDisplay.render(snapshot);
     }
 
     // This is just a small piece of code which I've added to allow fuzzer to access the player position
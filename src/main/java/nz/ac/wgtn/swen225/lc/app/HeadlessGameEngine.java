@@ -0,0 +1,119 @@
+package nz.ac.wgtn.swen225.lc.app;
+
+import nz.ac.wgtn.swen225.lc.domain.Game;
+import nz.ac.wgtn.swen225.lc.domain.events.GameEvent;
+import nz.ac.wgtn.swen225.lc.domain.events.GameOverEvent;
+import nz.ac.wgtn.swen225.lc.domain.level.characters.Enemy;
+import nz.ac.wgtn.swen225.lc.utils.Vector2D;
+
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A {@link SimulationEngine} that has no display and no timer. Ticks are advanced as fast as the caller asks for them,
+ * using the same {@link Game#update(Vector2D, Map)} and {@link Enemy#nextMove()} semantics as {@link GameEngineImpl},
+ * so that bots, validation and benchmarks can run many times faster than real time (and under
+ * {@code java.awt.headless=true}).
+ *
+ * @author Shuja M Syed
+ * Student ID: 300592409
+ */
+public class HeadlessGameEngine implements SimulationEngine {
+
+    private final Game game; // The game instance managed by this engine
+    private GameOverEvent gameOverEvent; // The event that ended the game, if any
+
+    /**
+     * Constructor to initialize the HeadlessGameEngine with the game instance.
+     *
+     * @param game The game instance to be managed by this engine.
+     */
+    public HeadlessGameEngine(Game game) {
+        if (game == null) {
+            throw new IllegalArgumentException("Game cannot be null");
+        }
+        this.game = game;
+    }
+
+    /**
+     * Gets the game managed by this engine.
+     *
+     * @return The game instance.
+     */
+    public Game getGame() {
+        return game;
+    }
+
+    @Override
+    public void onStart() {
+        game.addListener(GameOverEvent.class, this); // Only the end of the game is of interest
+    }
+
+    @Override
+    public boolean isGameOver() {
+        return game.isGameOver();
+    }
+
+    @Override
+    public int getTickNo() {
+        return game.getTickNo();
+    }
+
+    @Override
+    public void update(Vector2D playerMovement) {
+        this.game.tick(playerMovement); // Enemies decide their own moves, without building a map
+    }
+
+    @Override
+    public void update(Vector2D playerMovement, Map<Enemy, Vector2D> enemyMovement) {
+        game.update(playerMovement, enemyMovement);
+    }
+
+    @Override
+    public void updateBySlot(Vector2D playerMovement, Vector2D[] enemyMoves) {
+        game.updateBySlot(playerMovement, enemyMoves);
+    }
+
+    /**
+     * Runs the game back to back until it is over or the given number of ticks has been simulated, whichever happens
+     * first. The player input for each tick is asked from the given function right before the tick is applied.
+     *
+     * @param playerInput A function returning the player's movement for the current game state, may return null.
+     * @param maxTicks    The maximum number of ticks to simulate.
+     * @return The number of ticks actually simulated.
+     */
+    public int run(Function<Game, Vector2D> playerInput, int maxTicks) {
+        if (playerInput == null) {
+            throw new IllegalArgumentException("Player input cannot be null");
+        }
+        return game.advance(maxTicks, playerInput::apply);
+    }
+
+    @Override
+    public void onDestroy() {
+        game.removeListener(this);
+    }
+
+    @Override
+    public Vector2D getPlayerPos() {
+        return game.getLevel().getPlayer().getPosition();
+    }
+
+    /**
+     * Gets the event that ended the game, e.g. {@link nz.ac.wgtn.swen225.lc.domain.events.PlayerWonEvent}. Only
+     * events fired after {@link #onStart()} are seen.
+     *
+     * @return The game over event, or null if the game is not over yet.
+     */
+    public GameOverEvent getGameOverEvent() {
+        return gameOverEvent;
+    }
+
+    @Override
+    public void onGameEvent(GameEvent gameEvent) {
+        // Nothing to display, only remember how the game ended
+        if (gameEvent instanceof GameOverEvent e && gameOverEvent == null) {
+            gameOverEvent = e;
+        }
+    }
+}
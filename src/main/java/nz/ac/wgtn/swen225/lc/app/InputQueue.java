@@ -0,0 +1,222 @@
+package nz.ac.wgtn.swen225.lc.app;
+
+import nz.ac.wgtn.swen225.lc.utils.Vector2D;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded, lock-free queue of player moves between the key bindings and the tick loop, so that several key presses
+ * within one tick are not lost.
+ * <p>
+ * The queue is a ring buffer for exactly one producer thread (the thread running the key actions) and one consumer
+ * thread (the thread running the ticks); they may be the same thread. Each move is stamped with
+ * {@link System#nanoTime()} when offered, and the delay until it is taken by a tick is measured, so the input latency
+ * can be monitored.
+ *
+ * @author Shuja M Syed
+ * Student ID: 300592409
+ */
+public class InputQueue {
+
+    /**
+     * How the moves queued since the last tick are consumed by a tick.
+     */
+    public enum ConsumptionPolicy {
+        /**
+         * Each tick applies the oldest queued move and leaves the others for the following ticks, so every key press
+         * is applied in order.
+         */
+        QUEUED,
+        /**
+         * Each tick applies only the most recent move and discards the older ones, so at most one move is applied
+         * per tick and input never lags behind.
+         */
+        LATEST
+    }
+
+    private final Vector2D[] moves;
+    private final long[] timestamps; // When each move was offered, in System.nanoTime() units
+    private final int mask;
+    private final ConsumptionPolicy policy;
+    private final AtomicLong head = new AtomicLong(); // Next slot to take, written by the consumer only
+    private final AtomicLong tail = new AtomicLong(); // Next slot to offer, written by the producer only
+    private final AtomicLong discardBefore = new AtomicLong(); // Slots before this are discarded by the next take
+
+    // Latency statistics, written by the consumer only
+    private volatile long lastLatencyNanos;
+    private volatile long maxLatencyNanos;
+    private volatile long totalLatencyNanos;
+    private volatile long appliedMoves;
+    private volatile long droppedMoves;
+
+    /**
+     * Creates an empty queue.
+     *
+     * @param capacity The most moves the queue holds, rounded up to a power of two. Moves offered to a full queue are
+     *                 dropped.
+     * @param policy   How each tick consumes the queued moves.
+     */
+    public InputQueue(int capacity, ConsumptionPolicy policy) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30");
+        }
+        if (policy == null) {
+            throw new IllegalArgumentException("Policy cannot be null");
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.moves = new Vector2D[Math.max(1, size)];
+        this.timestamps = new long[moves.length];
+        this.mask = moves.length - 1;
+        this.policy = policy;
+    }
+
+    /**
+     * Adds a move to the queue. Producer thread only.
+     *
+     * @param move The move, one of Vector2D.LEFT, Vector2D.UP, Vector2D.RIGHT or Vector2D.DOWN.
+     * @return True if the move was queued, false if the queue is full.
+     */
+    public boolean offer(Vector2D move) {
+        if (move == null) {
+            throw new IllegalArgumentException("Move cannot be null");
+        }
+        long t = tail.get();
+        if (t - head.get() == moves.length) {
+            return false;
+        }
+        int slot = (int) t & mask;
+        moves[slot] = move;
+        timestamps[slot] = System.nanoTime();
+        tail.lazySet(t + 1); // Publishes the slot to the consumer
+        return true;
+    }
+
+    /**
+     * Takes the move for the current tick according to the consumption policy. Consumer thread only.
+     *
+     * @return The move, or Vector2D.ZERO if there is none.
+     */
+    public Vector2D take() {
+        long h = discardRequested(head.get());
+        long t = tail.get();
+        if (h == t) {
+            return Vector2D.ZERO;
+        }
+        if (policy == ConsumptionPolicy.LATEST && t - h > 1) {
+            droppedMoves += t - h - 1;
+            h = t - 1;
+        }
+        int slot = (int) h & mask;
+        var move = moves[slot];
+        recordLatency(System.nanoTime() - timestamps[slot]);
+        moves[slot] = null;
+        head.lazySet(h + 1); // Frees the slot for the producer
+        return move;
+    }
+
+    /**
+     * Discards all queued moves. Consumer thread only.
+     */
+    public void clear() {
+        long t = tail.get();
+        long h = head.get();
+        for (long i = h; i < t; i++) {
+            moves[(int) i & mask] = null;
+        }
+        head.lazySet(t);
+    }
+
+    /**
+     * Discards the moves offered so far, but not the moves offered afterwards, when the consumer next takes a move.
+     * Unlike {@link #clear()} this may be called from any thread, e.g. by the producer while the consumer is stopped.
+     */
+    public void discardOffered() {
+        discardBefore.set(tail.get());
+    }
+
+    /**
+     * Gets the number of queued moves. The result is approximate while the other thread is using the queue.
+     *
+     * @return The number of queued moves.
+     */
+    public int size() {
+        return (int) (tail.get() - head.get());
+    }
+
+    /**
+     * Gets the consumption policy.
+     *
+     * @return The policy.
+     */
+    public ConsumptionPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Gets the delay between the key press and the tick applying it, for the most recently applied move.
+     *
+     * @return The latency in nanoseconds, 0 if no move has been applied.
+     */
+    public long getLastLatencyNanos() {
+        return lastLatencyNanos;
+    }
+
+    /**
+     * Gets the longest delay between a key press and the tick applying it.
+     *
+     * @return The latency in nanoseconds, 0 if no move has been applied.
+     */
+    public long getMaxLatencyNanos() {
+        return maxLatencyNanos;
+    }
+
+    /**
+     * Gets the average delay between a key press and the tick applying it.
+     *
+     * @return The latency in nanoseconds, 0 if no move has been applied.
+     */
+    public long getAverageLatencyNanos() {
+        long applied = appliedMoves;
+        return applied == 0 ? 0 : totalLatencyNanos / applied;
+    }
+
+    /**
+     * Gets the number of moves applied by ticks.
+     *
+     * @return The number of moves.
+     */
+    public long getAppliedMoves() {
+        return appliedMoves;
+    }
+
+    /**
+     * Gets the number of moves discarded by the {@link ConsumptionPolicy#LATEST} policy.
+     *
+     * @return The number of moves.
+     */
+    public long getDroppedMoves() {
+        return droppedMoves;
+    }
+
+    // Carries out a discard requested by discardOffered, returning the new head
+    private long discardRequested(long h) {
+        long d = discardBefore.get();
+        if (d <= h) {
+            return h;
+        }
+        for (long i = h; i < d; i++) {
+            moves[(int) i & mask] = null;
+        }
+        head.lazySet(d);
+        return d;
+    }
+
+    private void recordLatency(long latency) {
+        lastLatencyNanos = latency;
+        if (latency > maxLatencyNanos) {
+            maxLatencyNanos = latency;
+        }
+        totalLatencyNanos += latency;
+        appliedMoves++;
+    }
+}
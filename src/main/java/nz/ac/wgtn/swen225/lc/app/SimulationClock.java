@@ -0,0 +1,159 @@
+package nz.ac.wgtn.swen225.lc.app;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A fixed-timestep clock that drives the simulation from its own thread instead of a {@code javax.swing.Timer}.
+ * <p>
+ * Ticks are scheduled against {@link System#nanoTime()}: each tick is due exactly one period after the previous one,
+ * however long the ticks themselves or the display took. Due ticks are handed to the step executor in batches. With
+ * {@link #ON_CLOCK_THREAD} the steps run on the clock thread itself, back to back until the simulation has caught up.
+ * With an executor such as {@code SwingUtilities::invokeLater}, while a batch is waiting to run newly due ticks are
+ * added to it rather than queued as separate events, so a slow repaint makes the next batch run several ticks to
+ * catch up instead of slowing the game down. Either way, if the steps fall more than the lag budget behind, the
+ * surplus ticks are dropped and the clock carries on from the current time, so the game never fast-forwards through a
+ * long stall.
+ *
+ * @author Shuja M Syed
+ * Student ID: 300592409
+ */
+public class SimulationClock {
+
+    /**
+     * A lag budget of half a second at the default tick rate.
+     */
+    public static final int DEFAULT_MAX_LAG_TICKS = 5;
+
+    /**
+     * Runs the steps on the clock thread, off the event dispatch thread.
+     */
+    public static final Executor ON_CLOCK_THREAD = Runnable::run;
+
+    private final Runnable step; // Advances the simulation by one tick
+    private final Executor stepExecutor; // Where the steps run
+    private final int maxLagTicks; // Most ticks a batch may catch up
+    private final AtomicInteger pendingTicks = new AtomicInteger(); // Ticks due but not yet stepped
+    private volatile long periodNanos;
+    private volatile Thread thread; // The clock thread, null while stopped
+    private Thread lastThread; // The latest clock thread, kept after stopping so that stop can wait for it
+
+    /**
+     * Creates a stopped clock.
+     *
+     * @param ticksPerSecond The tick rate.
+     * @param maxLagTicks    The most ticks the steps may fall behind before ticks are dropped.
+     * @param step           The action advancing the simulation by one tick.
+     * @param stepExecutor   The executor the steps are run on, in batches.
+     */
+    public SimulationClock(double ticksPerSecond, int maxLagTicks, Runnable step, Executor stepExecutor) {
+        if (maxLagTicks <= 0) {
+            throw new IllegalArgumentException("Max lag must be positive");
+        }
+        if (step == null || stepExecutor == null) {
+            throw new IllegalArgumentException("Step and step executor cannot be null");
+        }
+        this.maxLagTicks = maxLagTicks;
+        this.step = step;
+        this.stepExecutor = stepExecutor;
+        setTicksPerSecond(ticksPerSecond);
+    }
+
+    /**
+     * Changes the tick rate. Takes effect from the next tick.
+     *
+     * @param ticksPerSecond The tick rate.
+     */
+    public void setTicksPerSecond(double ticksPerSecond) {
+        if (!(ticksPerSecond > 0)) {
+            throw new IllegalArgumentException("Tick rate must be positive");
+        }
+        this.periodNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / ticksPerSecond));
+    }
+
+    /**
+     * Starts the clock. The first tick is due one period from now. Does nothing if the clock is running.
+     */
+    public synchronized void start() {
+        if (thread != null) {
+            return;
+        }
+        pendingTicks.set(0);
+        var clockThread = new Thread(this::run, "simulation-clock");
+        clockThread.setDaemon(true);
+        clockThread.setPriority(Thread.MAX_PRIORITY);
+        thread = clockThread;
+        lastThread = clockThread;
+        clockThread.start();
+    }
+
+    /**
+     * Stops the clock. Ticks that are due but have not been stepped yet are discarded. Unless called from a step on
+     * the clock thread, waits for a step running on the clock thread to finish, so that the simulation can be read
+     * safely afterwards. This holds even if the clock was already stopped, e.g. by the step itself, which is still
+     * finishing. May be called from a step.
+     */
+    public void stop() {
+        Thread clockThread;
+        synchronized (this) {
+            clockThread = lastThread;
+            if (clockThread == null) {
+                return;
+            }
+            thread = null;
+        }
+        if (clockThread == Thread.currentThread()) {
+            return; // Called from a step: the thread exits once the step returns
+        }
+        LockSupport.unpark(clockThread);
+        try {
+            clockThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Checks if the clock is running.
+     *
+     * @return True if the clock is running, false otherwise.
+     */
+    public boolean isRunning() {
+        return thread != null;
+    }
+
+    // Clock thread: wait for each tick to be due and hand it to the step executor
+    private void run() {
+        long nextTick = System.nanoTime() + periodNanos;
+        // A stopped clock thread exits even if the clock has been started again with a new one
+        while (thread == Thread.currentThread()) {
+            long wait = nextTick - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(this, wait);
+                continue;
+            }
+            if (-wait > maxLagTicks * periodNanos) {
+                // Steps on this thread took too long: skip the ticks missed beyond the lag budget
+                nextTick = System.nanoTime() - maxLagTicks * periodNanos;
+            }
+            nextTick += periodNanos;
+            if (pendingTicks.getAndIncrement() == 0) {
+                stepExecutor.execute(this::stepPending);
+            } else if (pendingTicks.get() > maxLagTicks) {
+                // Too far behind: give up on the surplus ticks and restart the schedule from now
+                pendingTicks.set(maxLagTicks);
+                nextTick = System.nanoTime() + periodNanos;
+            }
+        }
+    }
+
+    // Step executor: run every tick that is due, including those that became due while running
+    private void stepPending() {
+        while (thread != null && pendingTicks.get() > 0) {
+            step.run();
+            pendingTicks.getAndUpdate(n -> Math.max(0, n - 1)); // The count may have been reset by stop and start
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package nz.ac.wgtn.swen225.lc.app;
+
+import nz.ac.wgtn.swen225.lc.domain.events.GameEventListener;
+import nz.ac.wgtn.swen225.lc.domain.level.characters.Enemy;
+import nz.ac.wgtn.swen225.lc.utils.Vector2D;
+
+import java.util.Map;
+
+/**
+ * The display-independent part of a game engine: starting, advancing and stopping a game. Implementations must not
+ * depend on Swing or AWT so that they can run under {@code java.awt.headless=true}.
+ *
+ * @author Shuja M Syed
+ * Student ID: 300592409
+ */
+public interface SimulationEngine extends GameEventListener {
+
+    /**
+     * Called when the engine is started.
+     */
+    void onStart();
+
+    /**
+     * Checks if the game is over.
+     *
+     * @return True if the game is over, false otherwise.
+     */
+    boolean isGameOver();
+
+    /**
+     * Gets the current tick number in the game.
+     *
+     * @return The tick number.
+     */
+    int getTickNo();
+
+    /**
+     * Updates the game state based on the player's movement. Enemies move according to {@link Enemy#nextMove()}.
+     *
+     * @param playerMovement The movement vector of the player.
+     */
+    void update(Vector2D playerMovement);
+
+    /**
+     * Updates the game state based on the player's and enemies' movement.
+     *
+     * @param playerMovement The movement vector of the player.
+     * @param enemyMovement  A map of enemy movement vectors.
+     */
+    void update(Vector2D playerMovement, Map<Enemy, Vector2D> enemyMovement);
+
+    /**
+     * Updates the game state based on the player's and enemies' movement, with the enemies' movement given by enemy
+     * slot as in {@link nz.ac.wgtn.swen225.lc.domain.Game#updateBySlot(Vector2D, Vector2D[])}.
+     *
+     * @param playerMovement The movement vector of the player.
+     * @param enemyMoves     The movement vectors of the enemies, indexed by enemy slot.
+     */
+    void updateBySlot(Vector2D playerMovement, Vector2D[] enemyMoves);
+
+    /**
+     * Called when the engine is destroyed or finished.
+     */
+    void onDestroy();
+
+    /**
+     * Allows accessing the player position.
+     *
+     * @return The player position.
+     */
+    Vector2D getPlayerPos();
+}
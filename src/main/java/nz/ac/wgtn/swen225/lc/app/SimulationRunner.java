@@ -0,0 +1,133 @@
+package nz.ac.wgtn.swen225.lc.app;
+
+import nz.ac.wgtn.swen225.lc.domain.Entity;
+import nz.ac.wgtn.swen225.lc.domain.Game;
+import nz.ac.wgtn.swen225.lc.domain.InputSource;
+import nz.ac.wgtn.swen225.lc.domain.events.GameOverEvent;
+import nz.ac.wgtn.swen225.lc.domain.events.PlayerDiedEvent;
+import nz.ac.wgtn.swen225.lc.domain.events.PlayerWonEvent;
+import nz.ac.wgtn.swen225.lc.domain.events.TimeoutEvent;
+import nz.ac.wgtn.swen225.lc.persistency.Persistence;
+import nz.ac.wgtn.swen225.lc.utils.Vector2D;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Runs many independent games at the same time on a {@link ForkJoinPool}, each driven by a
+ * {@link HeadlessGameEngine}. Every game is loaded in its own ID space (see {@link Entity#withOwnIdSpace}) and has its
+ * own listeners, so simulations share no mutable state and scale with the number of cores.
+ *
+ * @author Shuja M Syed
+ * Student ID: 300592409
+ */
+public class SimulationRunner implements AutoCloseable {
+
+    /**
+     * How a simulated game ended.
+     */
+    public enum Outcome {
+        WON, DIED, TIMEOUT, UNFINISHED
+    }
+
+    /**
+     * A single simulation to run.
+     *
+     * @param levelNo     The level to load.
+     * @param playerInput A function returning the player's movement for the current game state, may return null.
+     * @param maxTicks    The maximum number of ticks to simulate.
+     */
+    public record Scenario(int levelNo, Function<Game, Vector2D> playerInput, int maxTicks) {
+
+        /**
+         * Creates a scenario replaying a fixed list of player moves, one per tick, standing still afterwards.
+         *
+         * @param levelNo  The level to load.
+         * @param moves    The player moves, one per tick.
+         * @param maxTicks The maximum number of ticks to simulate.
+         * @return The scenario.
+         */
+        public static Scenario scripted(int levelNo, List<Vector2D> moves, int maxTicks) {
+            return new Scenario(levelNo, InputSource.of(moves)::nextMove, maxTicks);
+        }
+    }
+
+    /**
+     * The result of a single simulation.
+     *
+     * @param scenario  The scenario that was run.
+     * @param outcome   How the game ended.
+     * @param ticks     The number of ticks simulated.
+     * @param chipsLeft The number of chips left on the level at the end.
+     * @param playerPos The player position at the end.
+     */
+    public record Result(Scenario scenario, Outcome outcome, int ticks, int chipsLeft, Vector2D playerPos) {
+    }
+
+    private final Persistence persistence;
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a runner using as many worker threads as there are available processors.
+     *
+     * @param persistence The persistence used to load levels. It must be safe to use from several threads.
+     */
+    public SimulationRunner(Persistence persistence) {
+        this(persistence, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a runner using the given number of worker threads.
+     *
+     * @param persistence The persistence used to load levels. It must be safe to use from several threads.
+     * @param parallelism The number of worker threads.
+     */
+    public SimulationRunner(Persistence persistence, int parallelism) {
+        if (persistence == null) {
+            throw new IllegalArgumentException("Persistence cannot be null");
+        }
+        this.persistence = persistence;
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * Runs all given scenarios in parallel and waits for them to finish.
+     *
+     * @param scenarios The scenarios to run.
+     * @return The results, in the same order as the scenarios.
+     */
+    public Stream<Result> run(List<Scenario> scenarios) {
+        var results = pool.submit(() -> scenarios.parallelStream().map(this::simulate).toList()).join();
+        return results.stream();
+    }
+
+    // Load and run a single game to its end or tick limit
+    private Result simulate(Scenario scenario) {
+        var game = Entity.withOwnIdSpace(() -> persistence.loadGame(scenario.levelNo()));
+        var engine = new HeadlessGameEngine(game);
+        engine.onStart();
+        int ticks = engine.run(scenario.playerInput(), scenario.maxTicks());
+        engine.onDestroy();
+        return new Result(scenario, toOutcome(engine.getGameOverEvent()), ticks, game.getChipsLeft(),
+                engine.getPlayerPos());
+    }
+
+    // Map the event that ended the game to an outcome
+    private static Outcome toOutcome(GameOverEvent event) {
+        if (event instanceof PlayerWonEvent) {
+            return Outcome.WON;
+        } else if (event instanceof PlayerDiedEvent) {
+            return Outcome.DIED;
+        } else if (event instanceof TimeoutEvent) {
+            return Outcome.TIMEOUT;
+        }
+        return Outcome.UNFINISHED;
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+}
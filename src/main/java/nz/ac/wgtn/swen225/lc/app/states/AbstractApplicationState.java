@@ -112,7 +112,7 @@ public abstract class AbstractApplicationState implements ApplicationState {
         var result = fileChooser.showOpenDialog(null);
         switch (result) {
             case JFileChooser.APPROVE_OPTION -> {
-                var playback = application.getPersistence().loadPlayback(fileChooser.getSelectedFile());
+                var playback = application.getPersistence().openPlayback(fileChooser.getSelectedFile());
                 application.setApplicationState(new PlaybackState(application, playback));
             }
             case JFileChooser.CANCEL_OPTION -> onExitPause();
@@ -9,7 +9,7 @@ import nz.ac.wgtn.swen225.lc.domain.events.GameEventListener;
 import nz.ac.wgtn.swen225.lc.domain.events.GameOverEvent;
 import nz.ac.wgtn.swen225.lc.domain.events.PlayerWonEvent;
 import nz.ac.wgtn.swen225.lc.recorder.DefaultReplayer;
-import nz.ac.wgtn.swen225.lc.recorder.Playback;
+import nz.ac.wgtn.swen225.lc.recorder.PlaybackSource;
 import nz.ac.wgtn.swen225.lc.recorder.Replayer;
 
 /**
@@ -28,9 +28,9 @@ public class PlaybackState extends AbstractApplicationState implements GameEvent
      * Constructs a `PlaybackState` object.
      *
      * @param application The game application instance.
-     * @param playback    The recorded gameplay to be played back.
+     * @param playback    The recorded gameplay to be played back. Closed when the state is exited.
      */
-    public PlaybackState(Application application, Playback playback) {
+    public PlaybackState(Application application, PlaybackSource playback) {
         super(application);
         game = playback.getSince();
         this.gameEngine = new GameEngineImpl(
@@ -50,7 +50,7 @@ public class PlaybackState extends AbstractApplicationState implements GameEvent
     public void onStateEnter() {
         gameEngine.onStart();
         replayer.onStart();
-        game.addListener(this);
+        game.addListener(GameOverEvent.class, this);
     }
 
     /**
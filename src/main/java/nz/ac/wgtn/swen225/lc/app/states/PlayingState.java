@@ -3,18 +3,17 @@ package nz.ac.wgtn.swen225.lc.app.states;
 import nz.ac.wgtn.swen225.lc.app.Application;
 import nz.ac.wgtn.swen225.lc.app.GameEngine;
 import nz.ac.wgtn.swen225.lc.app.GameEngineImpl;
+import nz.ac.wgtn.swen225.lc.app.InputQueue;
+import nz.ac.wgtn.swen225.lc.app.SimulationClock;
 import nz.ac.wgtn.swen225.lc.domain.Game;
 import nz.ac.wgtn.swen225.lc.domain.events.*;
 import nz.ac.wgtn.swen225.lc.utils.Vector2D;
-import nz.ac.wgtn.swen225.lc.domain.level.characters.Enemy;
 import nz.ac.wgtn.swen225.lc.recorder.DefaultRecorder;
 import nz.ac.wgtn.swen225.lc.recorder.Recorder;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.KeyEvent;
-import java.util.stream.Collectors;
-import java.util.List;
 
 /**
  * The `PlayingState` class represents the state of the game when actively playing.
@@ -24,14 +23,18 @@ import java.util.List;
  */
 public class PlayingState extends AbstractApplicationState implements GameEventListener {
 
+    // Enough for a burst of key presses, small enough that a held key does not build up a backlog
+    private static final int INPUT_CAPACITY = 4;
+
     private final Game game;
     private final GameEngine gameEngine;
     private final Recorder recorder;
-    private final Timer timer;
+    private final SimulationClock clock;
 
     JLabel paused = new JLabel("Paused");
 
-    private Vector2D playerMovement = Vector2D.ZERO;
+    private final InputQueue input = new InputQueue(INPUT_CAPACITY, InputQueue.ConsumptionPolicy.QUEUED);
+    private Vector2D[] enemyMoves = new Vector2D[0]; // Reused every tick, indexed by enemy slot
 
     /**
      * Constructs a `PlayingState` object.
@@ -50,50 +53,53 @@ public class PlayingState extends AbstractApplicationState implements GameEventL
                 application.getChipsLeftLabel(),
                 application.getInventoryPanel());
         recorder = new DefaultRecorder(getApplication().getPersistence(), game);
-        timer = new Timer(1000 / Game.FRAME_RATE, e -> update());
+        // The game is advanced on the clock thread; the display only reads snapshots published by the game engine
+        clock = new SimulationClock(game.getTickRate(), SimulationClock.DEFAULT_MAX_LAG_TICKS, this::update,
+                SimulationClock.ON_CLOCK_THREAD);
         paused.setForeground(Color.WHITE);
         paused.setFont(new Font("Serif", Font.PLAIN, 50));
     }
 
     /**
-     * Called when this state is entered. Starts the game engine, recorder, and timer.
+     * Called when this state is entered. Starts the game engine, recorder, and simulation clock.
      */
     @Override
     public void onStateEnter() {
         gameEngine.onStart();
         recorder.onStart();
-        game.addListener(this);
+        game.addListener(GameOverEvent.class, this);
         bindKeyStrokes();
-        timer.start();
+        clock.start();
     }
 
     /**
-     * Called when the game is paused. Stops the timer and displays a "Paused" message.
+     * Called when the game is paused. Stops the clock and displays a "Paused" message.
      */
     @Override
     public void onPauseGame() {
-        timer.stop();
+        clock.stop();
         gameEngine.getGlassPane().add(paused);
         gameEngine.getGlassPane().setVisible(true);
     }
 
     /**
-     * Called when exiting the pause state. Resumes the timer and removes the "Paused" message.
+     * Called when exiting the pause state. Resumes the clock and removes the "Paused" message.
      */
     @Override
     public void onExitPause() {
-        timer.start();
+        input.discardOffered(); // Keys pressed while paused are dropped by the first tick after resuming
+        clock.start();
         gameEngine.getGlassPane().remove(paused);
         gameEngine.getGlassPane().setVisible(false);
     }
 
     /**
-     * Called when saving and exiting the game. Stops the timer and prompts the user to save the game.
+     * Called when saving and exiting the game. Stops the clock and prompts the user to save the game.
      * Upon selecting a file to save, transitions to the welcoming state.
      */
     @Override
     public void onSaveAndExitGame() {
-        timer.stop();
+        clock.stop();
 
         var fileChooser = new JFileChooser();
         var result = fileChooser.showSaveDialog(null);
@@ -102,26 +108,26 @@ public class PlayingState extends AbstractApplicationState implements GameEventL
                 getApplication().getPersistence().saveGame(fileChooser.getSelectedFile(), game);
                 getApplication().setApplicationState(new WelcomingState(getApplication()));
             }
-            case JFileChooser.CANCEL_OPTION -> timer.start();
+            case JFileChooser.CANCEL_OPTION -> clock.start();
         }
     }
 
     /**
-     * Called when exiting the game. Stops the timer and transitions to the welcoming state.
+     * Called when exiting the game. Stops the clock and transitions to the welcoming state.
      */
     @Override
     public void onExitGame() {
-        timer.stop();
+        clock.stop();
         getApplication().setApplicationState(new WelcomingState(getApplication()));
     }
 
     /**
-     * Called when this state is exited. Stops the timer, unbinds key strokes, removes listeners,
+     * Called when this state is exited. Stops the clock, unbinds key strokes, removes listeners,
      * and cleans up resources.
      */
     @Override
     public void onStateExit() {
-        timer.stop();
+        clock.stop();
         unbindKeyStrokes();
         game.removeListener(this);
         recorder.onDestroy();
@@ -129,22 +135,29 @@ public class PlayingState extends AbstractApplicationState implements GameEventL
     }
 
     /**
-     * Handles game events, such as game over events.
+     * Handles game events, such as game over events. Called on the clock thread: stops the clock and changes state
+     * on the event dispatch thread.
      *
      * @param gameEvent The game event to handle.
      */
     @Override
     public void onGameEvent(GameEvent gameEvent) {
+        clock.stop();
+        SwingUtilities.invokeLater(() -> onGameOver(gameEvent));
+    }
+
+    // Moves on to the next level or to the game over state
+    private void onGameOver(GameEvent gameEvent) {
+        clock.stop(); // Waits for the step that raised the event to return before the game is read
         if (gameEvent instanceof PlayerWonEvent) {
             int currentLevel = game.getLevel().getLevelNo();
-            List<Integer> availableLevels = getApplication().getPersistence().getAllLevelNos();
-            if (currentLevel == availableLevels.get(availableLevels.size() - 1)) {
+            var nextLevelNo = getApplication().getPersistence().getNextLevelNo(currentLevel);
+            if (nextLevelNo.isEmpty()) {
                 // Player won the last level.
                 getApplication().setApplicationState(new GameOverState(getApplication(), true));
             } else {
                 // Player won a level, advance to the next available level.
-                int nextLevelNo = availableLevels.get(availableLevels.indexOf(currentLevel) + 1);
-                onNewGame(nextLevelNo);
+                onNewGame(nextLevelNo.get());
             }
         } else if (gameEvent instanceof PlayerDiedEvent || gameEvent instanceof TimeoutEvent) {
             // Player lost the game, go to game over state (player lost).
@@ -153,35 +166,69 @@ public class PlayingState extends AbstractApplicationState implements GameEventL
     }
 
     /**
-     * Updates the game state, records player and enemy movements, and updates the game engine.
+     * Gets the delay between the key press and the tick applying it, for the most recently applied move.
+     *
+     * @return The latency in nanoseconds, 0 if no move has been applied.
+     */
+    public long getLastInputLatencyNanos() {
+        return input.getLastLatencyNanos();
+    }
+
+    /**
+     * Gets the longest delay between a key press and the tick applying it.
+     *
+     * @return The latency in nanoseconds, 0 if no move has been applied.
+     */
+    public long getMaxInputLatencyNanos() {
+        return input.getMaxLatencyNanos();
+    }
+
+    /**
+     * Gets the average delay between a key press and the tick applying it.
+     *
+     * @return The latency in nanoseconds, 0 if no move has been applied.
+     */
+    public long getAverageInputLatencyNanos() {
+        return input.getAverageLatencyNanos();
+    }
+
+    /**
+     * Updates the game state, records player and enemy movements, and updates the game engine. Called on the clock
+     * thread.
      */
     private void update() {
-        var enemyMovementMap =
-                game.getLevel()
-                        .getEnemies()
-                        .stream()
-                        .collect(Collectors.toMap(e -> e, Enemy::nextMove));
-        recorder.update(playerMovement, enemyMovementMap);
-        gameEngine.update(playerMovement, enemyMovementMap);
-        playerMovement = Vector2D.ZERO;
+        if (game.isGameOver()) {
+            return;
+        }
+        var playerMovement = input.take();
+        // All enemies decide before any of them moves, into the same array every tick
+        var level = game.getLevel();
+        if (enemyMoves.length != level.getEnemyCount()) {
+            enemyMoves = new Vector2D[level.getEnemyCount()];
+        }
+        for (int i = 0; i < enemyMoves.length; i++) {
+            enemyMoves[i] = level.getEnemy(i).nextMove();
+        }
+        recorder.updateBySlot(playerMovement, enemyMoves);
+        gameEngine.updateBySlot(playerMovement, enemyMoves);
     }
 
     /**
-     * Binds player movement to arrow keys.
+     * Binds player movement to arrow keys. Key presses are queued and applied by the following ticks.
      */
     private void bindKeyStrokes() {
         gameEngine.bindInputWithAction(
                 KeyStroke.getKeyStroke(KeyEvent.VK_LEFT, 0),
-                e -> playerMovement = Vector2D.LEFT);
+                e -> input.offer(Vector2D.LEFT));
         gameEngine.bindInputWithAction(
                 KeyStroke.getKeyStroke(KeyEvent.VK_UP, 0),
-                e -> playerMovement = Vector2D.UP);
+                e -> input.offer(Vector2D.UP));
         gameEngine.bindInputWithAction(
                 KeyStroke.getKeyStroke(KeyEvent.VK_RIGHT, 0),
-                e -> playerMovement = Vector2D.RIGHT);
+                e -> input.offer(Vector2D.RIGHT));
         gameEngine.bindInputWithAction(
                 KeyStroke.getKeyStroke(KeyEvent.VK_DOWN, 0),
-                e -> playerMovement = Vector2D.DOWN);
+                e -> input.offer(Vector2D.DOWN));
     }
 
     /**
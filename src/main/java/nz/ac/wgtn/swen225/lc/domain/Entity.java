@@ -2,6 +2,7 @@ package nz.ac.wgtn.swen225.lc.domain;
 
 import java.io.Serializable;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 /**
  * Root class for all entities in the game. Contains a unique identifier of all objects on the level
@@ -11,13 +12,16 @@ import java.util.concurrent.atomic.AtomicInteger;
 public abstract class Entity implements Serializable {
 
     private static final AtomicInteger ID_GENERATOR = new AtomicInteger(0);
+    private static final ThreadLocal<AtomicInteger> SCOPED_ID_GENERATOR = new ThreadLocal<>();
 
     private final int id;
     /**
-     * Creates a new entity with an automatically generated unique identifier.
+     * Creates a new entity with an automatically generated unique identifier. The identifier comes from the ID space
+     * of the current thread if one is open (see {@link #withOwnIdSpace(Supplier)}), or the global one otherwise.
      */
     public Entity() {
-        this.id = ID_GENERATOR.getAndIncrement();
+        var scoped = SCOPED_ID_GENERATOR.get();
+        this.id = (scoped != null ? scoped : ID_GENERATOR).getAndIncrement();
     }
     /**
      * Creates a new entity with the specified unique identifier.
@@ -36,4 +40,28 @@ public abstract class Entity implements Serializable {
         return id;
     }
 
+    /**
+     * Runs the given action with a fresh ID space bound to the current thread, so entities created by the action are
+     * numbered independently of (and without contending with) entities created by other games. Identifiers are
+     * therefore only unique within the objects created in the same ID space. The previous ID space is restored when
+     * the action returns.
+     *
+     * @param action The action creating entities, e.g. loading a game.
+     * @param <T> The type of the action's result.
+     * @return The result of the action.
+     */
+    public static <T> T withOwnIdSpace(Supplier<T> action) {
+        var previous = SCOPED_ID_GENERATOR.get();
+        SCOPED_ID_GENERATOR.set(new AtomicInteger(0));
+        try {
+            return action.get();
+        } finally {
+            if (previous != null) {
+                SCOPED_ID_GENERATOR.set(previous);
+            } else {
+                SCOPED_ID_GENERATOR.remove();
+            }
+        }
+    }
+
 }
@@ -6,10 +6,11 @@ import nz.ac.wgtn.swen225.lc.domain.level.characters.Enemy;
 import nz.ac.wgtn.swen225.lc.domain.level.tiles.ChipTile;
 import nz.ac.wgtn.swen225.lc.persistency.Persistence;
 import nz.ac.wgtn.swen225.lc.utils.Vector2D;
+import nz.ac.wgtn.swen225.lc.utils.Zobrist;
 
 import java.io.*;
+import java.time.Duration;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Presents a game. Contains methods to update the game's internal state. It will notify other modules about those state
@@ -19,15 +20,20 @@ import java.util.stream.Collectors;
  */
 public class Game extends Entity {
 
+    /**
+     * The default number of ticks per second of simulated time.
+     */
     public static final int FRAME_RATE = 10;
 
     private Level level;
     private int tickNo = 0;
+    private int tickRate = FRAME_RATE;  // ticks per second of simulated time
     private boolean gameOver = false;
 
-    private transient List<GameEventListener> listeners = new ArrayList<>();
-    private transient List<GameEventListener> listenersToAdd = new ArrayList<>();
-    private transient List<GameEventListener> listenersToRemove = new ArrayList<>();
+    private transient EventBus eventBus = new EventBus();
+    private transient TickDelta.Builder tickDelta;  // collects the changes of the current tick, null if nobody listens
+    private transient TickDelta.Builder tickDeltaBuilder;  // reused every tick, created when first needed
+    private transient Vector2D[] enemyMoves;  // reusable per-tick enemy inputs, indexed by enemy slot
 
     public Game() {
         super();
@@ -36,11 +42,30 @@ public class Game extends Entity {
      * Creates a new game.
      */
     public Game(int id, int tickNo, Level level) {
+        this(id, tickNo, level, FRAME_RATE);
+    }
+    /**
+     * Creates a new game running at the given tick rate.
+     *
+     * @param id The identifier of the game.
+     * @param tickNo The current tick number.
+     * @param level The level.
+     * @param tickRate The number of ticks per second of simulated time.
+     */
+    public Game(int id, int tickNo, Level level, int tickRate) {
         super(id);
         this.tickNo = tickNo;
+        this.tickRate = checkTickRate(tickRate);
         setLevel(level);
     }
 
+    private static int checkTickRate(int tickRate) {
+        if (tickRate <= 0) {
+            throw new IllegalArgumentException("Tick rate must be positive");
+        }
+        return tickRate;
+    }
+
     /**
      * Updates the game (domain) with provided player input (the only allowed input is an one-tile-movement, i.e. one of
      * Vector2D.LEFT, Vector2D.UP, Vector2D.RIGHT, Vector2D.DOWN) and auto enemies inputs
@@ -55,40 +80,140 @@ public class Game extends Entity {
             throw new IllegalStateException("Game is over");
         }
 
+        // collect enemy inputs by slot, nulls are handled in step()
+        var moves = enemyMoves();
+        for (int i = 0; i < moves.length; i++) {
+            moves[i] = enemyMovementMap != null ? enemyMovementMap.get(level.getEnemy(i)) : null;
+        }
+        step(playerMovement, moves);
+    }
+
+    /**
+     * Updates the game (domain) with provided player input and enemies inputs given by enemy slot: the input of
+     * {@code getLevel().getEnemy(i)} is {@code enemyMoves[i]}. This is equivalent to passing the same inputs in a map
+     * to {@link #update(Vector2D, Map)}, but allocates nothing in the steady state. The array is not modified.
+     * <p>
+     * Nulls will be converted to Vector2D.ZEROs.
+     *
+     * @param playerMovement player input
+     * @param enemyMoves enemies inputs, one per enemy of the level, indexed by enemy slot
+     */
+    public void updateBySlot(Vector2D playerMovement, Vector2D[] enemyMoves) {
+        if (gameOver) {
+            throw new IllegalStateException("Game is over");
+        }
+        if (enemyMoves == null || enemyMoves.length != level.getEnemyCount()) {
+            throw new IllegalArgumentException("One input per enemy is required");
+        }
+
+        // step() clears the inputs it applies, so they are copied
+        var moves = enemyMoves();
+        System.arraycopy(enemyMoves, 0, moves, 0, moves.length);
+        step(playerMovement, moves);
+    }
+
+    /**
+     * Updates the game (domain) with provided player input, letting every enemy decide its own move with
+     * {@link Enemy#nextMove()}. This is equivalent to passing a map of all enemies' next moves to
+     * {@link #update(Vector2D, Map)}, but allocates nothing in the steady state.
+     * <p>
+     * Null will be converted to Vector2D.ZERO.
+     *
+     * @param playerMovement player input
+     */
+    public void tick(Vector2D playerMovement) {
+        if (gameOver) {
+            throw new IllegalStateException("Game is over");
+        }
+
+        // all enemies decide before any of them moves
+        var moves = enemyMoves();
+        for (int i = 0; i < moves.length; i++) {
+            moves[i] = level.getEnemy(i).nextMove();
+        }
+        step(playerMovement, moves);
+    }
+
+    /**
+     * Advances the game by up to the given number of ticks in one call, asking the input source for the player's
+     * movement before every tick and letting every enemy decide its own move with {@link Enemy#nextMove()}, as
+     * {@link #tick(Vector2D)} does. Stops early as soon as the game is over.
+     *
+     * @param maxTicks The maximum number of ticks to advance.
+     * @param source The source of the player's input.
+     * @return The number of ticks actually advanced.
+     */
+    public int advance(int maxTicks, InputSource source) {
+        if (maxTicks < 0) {
+            throw new IllegalArgumentException("Max ticks cannot be negative");
+        }
+        if (source == null) {
+            throw new IllegalArgumentException("Input source cannot be null");
+        }
+        int ticks = 0;
+        while (ticks < maxTicks && !gameOver) {
+            tick(source.nextMove(this));
+            ticks++;
+        }
+        return ticks;
+    }
+
+    // Gets the reusable per-tick enemy input buffer, indexed by enemy slot
+    private Vector2D[] enemyMoves() {
+        int count = level.getEnemyCount();
+        if (enemyMoves == null || enemyMoves.length != count) {
+            enemyMoves = new Vector2D[count];
+        }
+        return enemyMoves;
+    }
+
+    // Gets the builder of the tick deltas, which build() clears for the next tick
+    private TickDelta.Builder tickDeltaBuilder() {
+        if (tickDeltaBuilder == null) {
+            tickDeltaBuilder = new TickDelta.Builder();
+        }
+        return tickDeltaBuilder;
+    }
+
+    // Applies one tick of inputs. enemyMoves is indexed by enemy slot and may contain nulls
+    private void step(Vector2D playerMovement, Vector2D[] enemyMoves) {
+        tickDelta = eventBus.hasSubscribers(TickDelta.class) ? tickDeltaBuilder() : null;
+
         // null check and handling
         if (playerMovement == null) {
             playerMovement = Vector2D.ZERO;
         }
-        if (enemyMovementMap == null) {
-            enemyMovementMap = Map.of();
-        }
-        var emm = enemyMovementMap.entrySet().stream().collect(Collectors.toMap(
-                Map.Entry::getKey,
-                e -> e.getValue() != null ? e.getValue() : Vector2D.ZERO));
 
         // update player position and enemy position if possible
         level.movePlayer(playerMovement);
-        emm.forEach(level::move);
-        if (level.getEnemies().stream().anyMatch(e -> e.getPosition().equals(level.getPlayer().getPosition()))) {
+        for (int i = 0; i < enemyMoves.length; i++) {
+            if (enemyMoves[i] != null) {
+                level.move(level.getEnemy(i), enemyMoves[i]);
+                enemyMoves[i] = null;
+            }
+        }
+        if (level.getEnemyCount() > 0 && level.isEnemyAt(level.getPlayer().getPosition())) {
             fire(new PlayerDiedEvent(level.getPlayer()));
         }
 
-        // update counters
+        // update counters. Per-tick events are not created when nobody listens to them
         tickNo++;
-        if (tickNo % FRAME_RATE == 0) {
+        if (tickNo % tickRate == 0 && hasListeners(CountDownEvent.class)) {
             fire(new CountDownEvent(getCountDown()));
         }
-        fire(new TickEvent(tickNo));
+        if (eventBus.hasSubscribers(TickEvent.class)) {
+            fire(new TickEvent(tickNo));
+        }
         if (getCountDown() <= 0) {
             fire(new TimeoutEvent());
         }
-
-        // To avoid java.util.ConcurrentModificationException
-        listeners.removeAll(listenersToRemove);
-        listenersToRemove.clear();
-        listeners.addAll(listenersToAdd);
-        listenersToAdd.clear();
+        if (tickDelta != null) {
+            var delta = tickDelta.build(tickNo, getCountDown(), getChipsLeft());
+            tickDelta = null;
+            fire(delta);
+        }
     }
+
     /**
      * Gets the current level in the game.
      *
@@ -122,6 +247,64 @@ public class Game extends Entity {
     public void setTickNo(int tickNo) {
         this.tickNo = tickNo;
     }
+    /**
+     * Gets the number of ticks per second of simulated time. Countdowns and enemy intervals are measured in simulated
+     * time, so a level plays the same at any tick rate, only with finer or coarser steps.
+     *
+     * @return The tick rate.
+     */
+    public int getTickRate() {
+        return tickRate;
+    }
+    /**
+     * Sets the number of ticks per second of simulated time, e.g. 30 to 60 for responsive play, or 1 for cheap batch
+     * evaluation. Can only be changed before the first tick.
+     *
+     * @param tickRate The tick rate.
+     * @throws IllegalStateException if the game has started.
+     */
+    public void setTickRate(int tickRate) {
+        if (tickNo != 0) {
+            throw new IllegalStateException("Tick rate cannot change once the game has started");
+        }
+        this.tickRate = checkTickRate(tickRate);
+    }
+    /**
+     * Gets the simulated time elapsed since the start of the game.
+     *
+     * @return The elapsed time.
+     */
+    public Duration getElapsedTime() {
+        return Duration.ofMillis(tickNo * 1000L / tickRate);
+    }
+    /**
+     * Checks if something happening at a regular interval of simulated time, e.g. an enemy's move, is due in the
+     * current tick, i.e. if a multiple of the interval falls within the tick. It is always due in the first tick.
+     * Intervals shorter than a tick are due every tick.
+     *
+     * @param interval The interval, which must be positive.
+     * @return True if it is due, false otherwise.
+     */
+    public boolean isDue(Duration interval) {
+        return isDue(tickNo, tickRate, interval.toMillis());
+    }
+    /**
+     * Checks if something happening at a regular interval of simulated time is due in a tick. See
+     * {@link #isDue(Duration)}.
+     *
+     * @param tickNo The tick number.
+     * @param tickRate The number of ticks per second.
+     * @param intervalMillis The interval in milliseconds, which must be positive.
+     * @return True if it is due, false otherwise.
+     */
+    public static boolean isDue(int tickNo, int tickRate, long intervalMillis) {
+        if (tickNo == 0) {
+            return true;
+        }
+        // Compare multiples of the interval, in thousandths of a tick, at the start and end of the tick
+        long unit = intervalMillis * tickRate;
+        return tickNo * 1000L / unit != (tickNo - 1) * 1000L / unit;
+    }
     /**
      * Checks if the game is over.
      *
@@ -132,26 +315,55 @@ public class Game extends Entity {
     }
 
     /**
-     * Adds a game event listener to the list of listeners.
+     * Adds a game event listener receiving all game events. Prefer {@link #addListener(Class, GameEventListener)} so
+     * that the listener is not called for events it is not interested in.
      *
      * @param listener The listener to add.
      */
     public void addListener(GameEventListener listener) {
-        if (!listeners.contains(listener) && !listenersToAdd.contains(listener)) {
-            listenersToAdd.add(listener);
-        }
+        addListener(GameEvent.class, listener);
+    }
+    /**
+     * Adds a game event listener receiving only events of the given type (or its subtypes). A listener interested in
+     * several types is added once per type, and still receives each event once.
+     *
+     * @param eventType The type of events to receive, e.g. TickEvent.class or GameOverEvent.class.
+     * @param listener The listener to add.
+     */
+    public void addListener(Class<? extends GameEvent> eventType, GameEventListener listener) {
+        eventBus.subscribe(eventType, listener);
     }
     /**
-     * Removes a game event listener from the list of listeners.
+     * Removes a game event listener from every event type it was added for.
      *
      * @param listener The listener to remove.
      */
     public void removeListener(GameEventListener listener) {
-        listenersToRemove.add(listener);
+        eventBus.unsubscribe(listener);
+    }
+
+    /**
+     * Checks if anyone listens to the game's events.
+     *
+     * @return True if there is at least one listener, false otherwise.
+     */
+    public boolean hasListeners() {
+        return eventBus.hasSubscribers();
     }
 
     /**
-     * Notify all listeners about happening of the game event.
+     * Checks if anyone listens to events of the given class. Frequent events need not be created when nobody listens.
+     *
+     * @param eventClass The concrete event class.
+     * @return True if at least one listener would receive such an event, false otherwise.
+     */
+    public boolean hasListeners(Class<? extends GameEvent> eventClass) {
+        // while a TickDelta is collected, every event contributes to it
+        return tickDelta != null || eventBus.hasSubscribers(eventClass);
+    }
+
+    /**
+     * Notify the listeners of the event's type about happening of the game event.
      *
      * @param gameEvent game event to fire
      */
@@ -159,7 +371,10 @@ public class Game extends Entity {
         if (gameEvent instanceof GameOverEvent) {
             gameOver = true;
         }
-        listeners.forEach(l -> l.onGameEvent(gameEvent));
+        if (tickDelta != null) {
+            tickDelta.accept(gameEvent);
+        }
+        eventBus.publish(gameEvent);
     }
     /**
      * Gets the countdown (time left in the game).
@@ -167,7 +382,7 @@ public class Game extends Entity {
      * @return The countdown in seconds.
      */
     public int getCountDown() {
-        return getLevel().getTimeoutInSeconds() - tickNo / FRAME_RATE;
+        return getLevel().getTimeoutInSeconds() - tickNo / tickRate;
     }
     /**
      * Gets the number of chips left on the level.
@@ -175,7 +390,7 @@ public class Game extends Entity {
      * @return The number of chips remaining.
      */
     public int getChipsLeft() {
-        return (int) getLevel().getTiles().stream().filter(t -> t instanceof ChipTile).count();
+        return getLevel().countTiles(ChipTile.class);
     }
 
     /**
@@ -184,12 +399,45 @@ public class Game extends Entity {
      * @return The list of game event listeners.
      */
     public List<GameEventListener> getListeners() {
-        return List.copyOf(listeners);
+        return eventBus.getListeners();
+    }
+
+    /**
+     * Gets a 64-bit hash of the game state: the level's state (see {@link Level#stateHash()}), the tick number and
+     * whether the game is over. Updated incrementally as the game changes, so this is O(1). Two games in the same
+     * state have the same hash, which makes comparing, deduplicating and checkpointing states cheap.
+     *
+     * @return The state hash.
+     */
+    public long stateHash() {
+        return level.stateHash() ^ Zobrist.key(Zobrist.TICK, tickNo, 0, 0)
+                ^ (gameOver ? Zobrist.key(Zobrist.GAME_OVER, 0, 0, 0) : 0);
+    }
+
+    /**
+     * Creates an independent copy of the game's current state, with the same identifiers, that can be advanced
+     * without affecting this game. Listeners are not copied. This is much faster than {@link #deepCopyOf(Game)}.
+     *
+     * @return A copy of the game.
+     */
+    public Game fork() {
+        var copy = new Game(getId(), tickNo, level.copy(), tickRate);
+        copy.gameOver = gameOver;
+        return copy;
+    }
+
+    /**
+     * Takes a snapshot of the game's current state, which can later be restored any number of times.
+     *
+     * @return The snapshot.
+     */
+    public GameSnapshot snapshot() {
+        return new GameSnapshot(fork());
     }
 
     /**
-     * Deprecated. Use {@link Persistence#saveGame(File save, Game game)}, {@link Persistence#loadGame(File save)}
-     * instead.
+     * Deprecated. Use {@link #fork()} or {@link #snapshot()} to copy a game in memory, or
+     * {@link Persistence#saveGame(File save, Game game)}, {@link Persistence#loadGame(File save)} to store it.
      *
      * @param game
      * @return a deep copy of game
@@ -215,9 +463,7 @@ public class Game extends Entity {
     @Serial
     private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
         in.defaultReadObject();
-        // As these lists are transient, we need to create them manually.
-        this.listeners = new ArrayList<>();
-        this.listenersToAdd = new ArrayList<>();
-        this.listenersToRemove = new ArrayList<>();
+        // As the event bus is transient, we need to create it manually.
+        this.eventBus = new EventBus();
     }
 }
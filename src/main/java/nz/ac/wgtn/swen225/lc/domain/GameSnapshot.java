@@ -0,0 +1,40 @@
+package nz.ac.wgtn.swen225.lc.domain;
+
+/**
+ * The state of a game at a point in time, taken with {@link Game#snapshot()}. A snapshot never changes, and each
+ * {@link #restore()} returns a new game starting from it, so the same snapshot can be restored many times, e.g. to
+ * rewind or to explore different moves from the same position.
+ * @author Shiyan Wei
+ * Student ID: 300569298
+ */
+public final class GameSnapshot {
+
+    private final Game frozen;  // never advanced nor exposed
+
+    /**
+     * Creates a snapshot from a game nobody else holds.
+     *
+     * @param frozen A fork of the game to keep.
+     */
+    GameSnapshot(Game frozen) {
+        this.frozen = frozen;
+    }
+
+    /**
+     * Gets the tick number the snapshot was taken at.
+     *
+     * @return The tick number.
+     */
+    public int getTickNo() {
+        return frozen.getTickNo();
+    }
+
+    /**
+     * Creates a new game in the state of the snapshot. The game has no listeners.
+     *
+     * @return The restored game.
+     */
+    public Game restore() {
+        return frozen.fork();
+    }
+}
@@ -0,0 +1,54 @@
+package nz.ac.wgtn.swen225.lc.domain;
+
+import nz.ac.wgtn.swen225.lc.utils.Vector2D;
+
+import java.util.List;
+
+/**
+ * Supplies the player's input to {@link Game#advance(int, InputSource)}, one tick at a time, e.g. from a recording, a
+ * script or a bot.
+ * @author Shiyan Wei
+ * Student ID: 300569298
+ */
+@FunctionalInterface
+public interface InputSource {
+
+    /**
+     * An input source that never moves the player.
+     */
+    InputSource NONE = game -> Vector2D.ZERO;
+
+    /**
+     * Gets the player's movement for the next tick. Called right before the tick is applied.
+     *
+     * @param game The game about to be advanced.
+     * @return One of Vector2D.LEFT, Vector2D.UP, Vector2D.RIGHT, Vector2D.DOWN or Vector2D.ZERO. Null is converted to
+     *         Vector2D.ZERO.
+     */
+    Vector2D nextMove(Game game);
+
+    /**
+     * Creates an input source replaying recorded moves, indexed by tick number: the move for tick {@code i} is
+     * {@code moves[i]}. The player stands still after the last move.
+     *
+     * @param moves The moves, one per tick.
+     * @return The input source.
+     */
+    static InputSource of(Vector2D... moves) {
+        var recorded = moves.clone();
+        return game -> {
+            int tickNo = game.getTickNo();
+            return tickNo < recorded.length ? recorded[tickNo] : Vector2D.ZERO;
+        };
+    }
+
+    /**
+     * Creates an input source replaying recorded moves, indexed by tick number. See {@link #of(Vector2D...)}.
+     *
+     * @param moves The moves, one per tick.
+     * @return The input source.
+     */
+    static InputSource of(List<Vector2D> moves) {
+        return of(moves.toArray(new Vector2D[0]));
+    }
+}
@@ -0,0 +1,134 @@
+package nz.ac.wgtn.swen225.lc.domain;
+
+import nz.ac.wgtn.swen225.lc.domain.events.TickDelta;
+import nz.ac.wgtn.swen225.lc.domain.level.Level;
+import nz.ac.wgtn.swen225.lc.domain.level.items.Key;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hands {@link RenderSnapshot}s from the thread advancing a game to the display thread through three preallocated
+ * buffers, so that neither thread waits for the other and nothing is allocated per tick.
+ * <p>
+ * The simulation writes the back buffer, applying the changes of each {@link TickDelta} to it, and publishes it by
+ * swapping it with the middle buffer. The display takes the middle buffer by swapping it with the front buffer it
+ * has finished with. A buffer is therefore only ever touched by one thread at a time, and the atomic swaps order the
+ * writes of one thread before the reads of the other. With only two buffers the simulation would have to wait for
+ * the display to release the one it shows; the third one lets it carry on, overwriting the middle buffer if the
+ * display falls behind so that only the latest tick is shown.
+ * <p>
+ * A buffer misses the ticks published while it was elsewhere. Characters and counters are rewritten at every
+ * publish, and the cells of removed tiles are remembered for each buffer and cleared the next time it is written.
+ * When too many are remembered, or the level changes, the buffer is refilled from the level instead.
+ * @author Shiyan Wei
+ * Student ID: 300569298
+ */
+public final class RenderBuffers {
+
+    private static final int BUFFER_COUNT = 3;
+    private static final int MAX_PENDING_CELLS = 256;  // removed tiles remembered per buffer before a refill
+
+    // used by the simulation thread only
+    private RenderSnapshot back = new RenderSnapshot(0);
+    private final int[][] pendingCells = new int[BUFFER_COUNT][MAX_PENDING_CELLS];  // removed tiles, by buffer slot
+    private final int[] pendingCounts = new int[BUFFER_COUNT];
+    private final boolean[] stale = {true, true, true};  // whether a buffer must be refilled from the level
+    private final int[] keyCounts = new int[Key.Color.values().length];
+    private Level level;  // the level the buffers were last filled from, compared by reference as loaded games keep ids
+    private long tilesVersion;
+    private long charactersVersion;
+
+    // exchanged between the threads
+    private final AtomicReference<RenderSnapshot> middle = new AtomicReference<>(new RenderSnapshot(1));
+
+    // used by the display thread only
+    private RenderSnapshot front = new RenderSnapshot(2);
+
+    /**
+     * Publishes the state of a game at the end of a tick. Must be called on the thread advancing the game, e.g. from
+     * a {@link TickDelta} listener, after every tick so that no removed tile is missed.
+     *
+     * @param game  The game.
+     * @param delta The changes of the tick, or null if they are unknown, which refills every buffer.
+     * @return True if the display had taken the previous publish, so it must be told to take this one; false if
+     *         the previous publish is still waiting and has just been replaced.
+     */
+    public boolean publish(Game game, TickDelta delta) {
+        var level = game.getLevel();
+        if (delta == null || level != this.level) {
+            this.level = level;
+            for (int i = 0; i < BUFFER_COUNT; i++) {
+                stale[i] = true;
+            }
+            RenderSnapshot.countKeys(level.getPlayer(), keyCounts);
+            tilesVersion++;
+            charactersVersion++;
+        } else {
+            var removedTiles = delta.removedTiles();
+            for (int i = 0; i < removedTiles.size(); i++) {
+                var position = removedTiles.get(i).getPosition();
+                rememberRemoved(position.y() * level.getWidth() + position.x());
+            }
+            if (!removedTiles.isEmpty()) {
+                tilesVersion++;
+            }
+            if (!delta.moves().isEmpty()) {
+                charactersVersion++;
+            }
+            if (delta.inventoryChanged()) {
+                RenderSnapshot.countKeys(level.getPlayer(), keyCounts);
+            }
+        }
+
+        var buffer = back;
+        int slot = buffer.slot;
+        if (stale[slot]) {
+            buffer.fill(level);
+            stale[slot] = false;
+        } else {
+            for (int i = 0; i < pendingCounts[slot]; i++) {
+                buffer.clearCell(pendingCells[slot][i]);
+            }
+        }
+        pendingCounts[slot] = 0;
+        buffer.writeCharacters(level);
+        buffer.writeCounters(game.getTickNo(), game.getCountDown(), game.getChipsLeft(), game.isGameOver(),
+                keyCounts, tilesVersion, charactersVersion);
+
+        buffer.fresh = true;
+        back = middle.getAndSet(buffer);
+        return !back.fresh;
+    }
+
+    // Remembers a removed tile for every buffer, or marks the buffer for a refill when it remembers too many
+    private void rememberRemoved(int cell) {
+        for (int i = 0; i < BUFFER_COUNT; i++) {
+            if (stale[i]) {
+                continue;
+            }
+            if (pendingCounts[i] == MAX_PENDING_CELLS) {
+                stale[i] = true;
+                pendingCounts[i] = 0;
+            } else {
+                pendingCells[i][pendingCounts[i]++] = cell;
+            }
+        }
+    }
+
+    /**
+     * Takes the latest published snapshot. Must be called on the display thread only. The snapshot may be read
+     * until the next call that returns a snapshot, and must not be kept afterwards.
+     *
+     * @return The snapshot, or null if nothing was published since the last one taken.
+     */
+    public RenderSnapshot take() {
+        // The simulation only ever swaps in fresh buffers, so the middle one is still fresh when it is swapped out
+        if (!middle.get().fresh) {
+            return null;
+        }
+        var released = front;
+        released.fresh = false;
+        front = middle.getAndSet(released);
+        return front;
+    }
+}
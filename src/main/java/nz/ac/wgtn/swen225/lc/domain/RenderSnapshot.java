@@ -0,0 +1,408 @@
+package nz.ac.wgtn.swen225.lc.domain;
+
+import nz.ac.wgtn.swen225.lc.domain.level.Level;
+import nz.ac.wgtn.swen225.lc.domain.level.TileType;
+import nz.ac.wgtn.swen225.lc.domain.level.characters.Player;
+import nz.ac.wgtn.swen225.lc.domain.level.items.Key;
+import nz.ac.wgtn.swen225.lc.domain.level.tiles.ChipTile;
+import nz.ac.wgtn.swen225.lc.domain.level.tiles.KeyTile;
+import nz.ac.wgtn.swen225.lc.domain.level.tiles.LockedDoor;
+import nz.ac.wgtn.swen225.lc.domain.level.tiles.Tile;
+import nz.ac.wgtn.swen225.lc.utils.Vector2D;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Presents what the display needs of a game at the end of a tick, detached from the live game so that it can be read
+ * on another thread while the simulation carries on.
+ * <p>
+ * A snapshot holds plain arrays rather than a copy of the level: one byte per cell for the tile type and key colour,
+ * the packed cell index of every character, and the counters shown next to the board. The snapshots published by
+ * {@link RenderBuffers} are reused, and are updated in place with the changes of each tick; see there for when a
+ * snapshot may be read. The snapshots returned by {@link #of(Game)} and {@link #of(Level)} belong to the caller.
+ * @author Shiyan Wei
+ * Student ID: 300569298
+ */
+public final class RenderSnapshot {
+
+    private static final TileType[] TILE_TYPES = TileType.values();
+    private static final Key.Color[] COLORS = Key.Color.values();
+    private static final int TYPE_MASK = 0x0F;  // low bits of a cell: the tile type ordinal
+    private static final int COLOR_SHIFT = 4;   // high bits of a cell: the key colour ordinal + 1, 0 for none
+
+    final int slot;                 // index of the buffer in RenderBuffers, 0 for snapshots of their own
+    volatile boolean fresh;         // published and not taken by the display yet, see RenderBuffers
+
+    // the board
+    private int levelId = -1;
+    private int levelNo;
+    private int width;
+    private int height;
+    private byte[] cells = new byte[0];
+
+    // the characters, as the cell index y * width + x
+    private int playerCell = -1;
+    private int enemyCount;
+    private int[] enemyIds = new int[0];
+    private int[] enemyCells = new int[0];
+
+    // the counters
+    private int tickNo;
+    private int countDown;
+    private int chipsLeft;
+    private final int[] keyCounts = new int[COLORS.length];
+    private boolean gameOver;
+    private long tilesVersion;
+    private long charactersVersion;
+
+    /**
+     * Creates an empty snapshot.
+     *
+     * @param slot The index of the buffer in its RenderBuffers, 0 if it has none.
+     */
+    RenderSnapshot(int slot) {
+        this.slot = slot;
+    }
+
+    /**
+     * Takes a snapshot of a game. Must be called on the thread advancing the game.
+     *
+     * @param game The game.
+     * @return The snapshot.
+     */
+    public static RenderSnapshot of(Game game) {
+        var snapshot = new RenderSnapshot(0);
+        var level = game.getLevel();
+        snapshot.fill(level);
+        snapshot.writeCharacters(level);
+        snapshot.writeCounters(game.getTickNo(), game.getCountDown(), game.getChipsLeft(), game.isGameOver(),
+                countKeys(level.getPlayer(), new int[COLORS.length]), 0, 0);
+        return snapshot;
+    }
+
+    /**
+     * Takes a snapshot of a level that is not being played, e.g. to preview it. The countdown is the level's timeout.
+     *
+     * @param level The level.
+     * @return The snapshot.
+     */
+    public static RenderSnapshot of(Level level) {
+        var snapshot = new RenderSnapshot(0);
+        snapshot.fill(level);
+        snapshot.writeCharacters(level);
+        snapshot.writeCounters(0, level.getTimeoutInSeconds(), level.countTiles(ChipTile.class), false,
+                countKeys(level.getPlayer(), new int[COLORS.length]), 0, 0);
+        return snapshot;
+    }
+
+    /**
+     * Counts the keys the player holds by colour.
+     *
+     * @param player The player, or null.
+     * @param counts The array to fill, indexed by colour ordinal.
+     * @return The counts.
+     */
+    static int[] countKeys(Player player, int[] counts) {
+        Arrays.fill(counts, 0);
+        if (player != null) {
+            for (var key : player.getKeys()) {
+                counts[key.getColor().ordinal()]++;
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Rewrites the board from a level.
+     *
+     * @param level The level.
+     */
+    void fill(Level level) {
+        levelId = level.getId();
+        levelNo = level.getLevelNo();
+        width = level.getWidth();
+        height = level.getHeight();
+        if (cells.length != width * height) {
+            cells = new byte[width * height];
+        } else {
+            Arrays.fill(cells, (byte) 0);
+        }
+        level.forEachTile(this::setTile);
+    }
+
+    // Writes a tile and its key colour into its cell
+    private void setTile(Tile tile) {
+        var position = tile.getPosition();
+        Key.Color color = null;
+        if (tile instanceof KeyTile keyTile) {
+            color = keyTile.getKey().getColor();
+        } else if (tile instanceof LockedDoor door) {
+            color = door.getColor();
+        }
+        cells[position.y() * width + position.x()] =
+                (byte) (TileType.of(tile).ordinal() | (color == null ? 0 : color.ordinal() + 1) << COLOR_SHIFT);
+    }
+
+    /**
+     * Frees a cell whose tile was removed.
+     *
+     * @param cell The cell index.
+     */
+    void clearCell(int cell) {
+        cells[cell] = 0;
+    }
+
+    /**
+     * Rewrites the positions of the characters from a level, reusing the arrays unless there are more enemies.
+     *
+     * @param level The level, whose board this snapshot holds.
+     */
+    void writeCharacters(Level level) {
+        var player = level.getPlayer();
+        playerCell = player == null ? -1 : cellOf(player.getPosition());
+        enemyCount = level.getEnemyCount();
+        if (enemyIds.length < enemyCount) {
+            enemyIds = new int[enemyCount];
+            enemyCells = new int[enemyCount];
+        }
+        for (int i = 0; i < enemyCount; i++) {
+            var enemy = level.getEnemy(i);
+            enemyIds[i] = enemy.getId();
+            enemyCells[i] = cellOf(enemy.getPosition());
+        }
+    }
+
+    /**
+     * Rewrites the counters.
+     *
+     * @param tickNo            The tick number.
+     * @param countDown         The time left in seconds.
+     * @param chipsLeft         The number of chips left on the level.
+     * @param gameOver          Whether the game is over.
+     * @param keyCounts         The number of keys the player holds, by colour ordinal.
+     * @param tilesVersion      The version of the tiles.
+     * @param charactersVersion The version of the character positions.
+     */
+    void writeCounters(int tickNo, int countDown, int chipsLeft, boolean gameOver, int[] keyCounts,
+                       long tilesVersion, long charactersVersion) {
+        this.tickNo = tickNo;
+        this.countDown = countDown;
+        this.chipsLeft = chipsLeft;
+        this.gameOver = gameOver;
+        System.arraycopy(keyCounts, 0, this.keyCounts, 0, this.keyCounts.length);
+        this.tilesVersion = tilesVersion;
+        this.charactersVersion = charactersVersion;
+    }
+
+    private int cellOf(Vector2D position) {
+        return position.y() * width + position.x();
+    }
+
+    /**
+     * Gets the tick number.
+     *
+     * @return The tick number.
+     */
+    public int getTickNo() {
+        return tickNo;
+    }
+
+    /**
+     * Gets the identifier of the level, which tells apart different levels and different games of the same level.
+     *
+     * @return The level identifier.
+     */
+    public int getLevelId() {
+        return levelId;
+    }
+
+    /**
+     * Gets the number of the level.
+     *
+     * @return The level number.
+     */
+    public int getLevelNo() {
+        return levelNo;
+    }
+
+    /**
+     * Gets the width of the board.
+     *
+     * @return The width.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Gets the height of the board.
+     *
+     * @return The height.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Gets the time left.
+     *
+     * @return The time left in seconds.
+     */
+    public int getCountDown() {
+        return countDown;
+    }
+
+    /**
+     * Gets the number of chips left on the level.
+     *
+     * @return The number of chips.
+     */
+    public int getChipsLeft() {
+        return chipsLeft;
+    }
+
+    /**
+     * Gets the number of keys of a colour the player holds.
+     *
+     * @param color The colour.
+     * @return The number of keys.
+     */
+    public int getKeyCount(Key.Color color) {
+        return keyCounts[color.ordinal()];
+    }
+
+    /**
+     * Gets the colours of the keys the player holds, in colour order, one per key.
+     *
+     * @return A new list of the colours.
+     */
+    public List<Key.Color> getKeyColors() {
+        var colors = new ArrayList<Key.Color>();
+        for (var color : COLORS) {
+            for (int i = 0; i < keyCounts[color.ordinal()]; i++) {
+                colors.add(color);
+            }
+        }
+        return colors;
+    }
+
+    /**
+     * Checks if the game is over.
+     *
+     * @return True if the game is over.
+     */
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    /**
+     * Gets the version of the tiles, which changes whenever tiles are removed or the level changes.
+     *
+     * @return The version.
+     */
+    public long getTilesVersion() {
+        return tilesVersion;
+    }
+
+    /**
+     * Gets the version of the character positions, which changes whenever characters move or the level changes.
+     *
+     * @return The version.
+     */
+    public long getCharactersVersion() {
+        return charactersVersion;
+    }
+
+    /**
+     * Gets the type of the tile at the given coordinates.
+     *
+     * @param x The column.
+     * @param y The row.
+     * @return The type of the tile, {@link TileType#FREE} if there is no tile there or (x, y) is outside the board.
+     */
+    public TileType tileTypeAt(int x, int y) {
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            return TileType.FREE;
+        }
+        return TILE_TYPES[cells[y * width + x] & TYPE_MASK];
+    }
+
+    /**
+     * Gets the key colour of the tile at the given coordinates, for keys and locked doors.
+     *
+     * @param x The column.
+     * @param y The row.
+     * @return The colour, or null if the tile has none or (x, y) is outside the board.
+     */
+    public Key.Color tileColorAt(int x, int y) {
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            return null;
+        }
+        int color = (cells[y * width + x] & 0xFF) >>> COLOR_SHIFT;
+        return color == 0 ? null : COLORS[color - 1];
+    }
+
+    /**
+     * Checks if the level has a player.
+     *
+     * @return True if there is a player.
+     */
+    public boolean hasPlayer() {
+        return playerCell >= 0;
+    }
+
+    /**
+     * Gets the position of the player.
+     *
+     * @return The position.
+     * @throws IllegalStateException if the level has no player
+     */
+    public Vector2D getPlayerPosition() {
+        if (playerCell < 0) {
+            throw new IllegalStateException("No player");
+        }
+        return positionOf(playerCell);
+    }
+
+    /**
+     * Gets the number of enemies.
+     *
+     * @return The number of enemies.
+     */
+    public int getEnemyCount() {
+        return enemyCount;
+    }
+
+    /**
+     * Gets the identifier of an enemy.
+     *
+     * @param index The index of the enemy, from 0 to {@link #getEnemyCount()} - 1.
+     * @return The identifier.
+     */
+    public int getEnemyId(int index) {
+        return enemyIds[checkEnemyIndex(index)];
+    }
+
+    /**
+     * Gets the position of an enemy.
+     *
+     * @param index The index of the enemy, from 0 to {@link #getEnemyCount()} - 1.
+     * @return The position.
+     */
+    public Vector2D getEnemyPosition(int index) {
+        return positionOf(enemyCells[checkEnemyIndex(index)]);
+    }
+
+    private int checkEnemyIndex(int index) {
+        if (index < 0 || index >= enemyCount) {
+            throw new IndexOutOfBoundsException("Enemy index " + index + " out of " + enemyCount);
+        }
+        return index;
+    }
+
+    private Vector2D positionOf(int cell) {
+        return Vector2D.of(cell % width, cell / width);
+    }
+}
@@ -0,0 +1,312 @@
+package nz.ac.wgtn.swen225.lc.domain.compact;
+
+import nz.ac.wgtn.swen225.lc.domain.Game;
+import nz.ac.wgtn.swen225.lc.domain.level.TileType;
+import nz.ac.wgtn.swen225.lc.domain.level.items.Key;
+import nz.ac.wgtn.swen225.lc.utils.Vector2D;
+
+/**
+ * Presents a game played on a shared {@link LevelTemplate}, keeping only what changes during play: which removable
+ * tiles are gone (one bit each), character positions packed as cell numbers, the patrol progress of enemies and the
+ * player's inventory as counters. This takes a few hundred bytes per game instead of a graph of entities, so many
+ * thousands of games can be hosted at once.
+ * <p>
+ * The rules are the same as {@link Game#tick(Vector2D)}: the player moves first, picking up chips and keys, opening
+ * doors and the exit lock; then enemies move along their routines; the player dies when sharing a cell with an enemy.
+ * There are no events and no listeners; the outcome is polled with {@link #getOutcome()}.
+ *
+ * @author Shiyan Wei
+ * Student ID: 300569298
+ */
+public final class CompactGame {
+
+    /**
+     * The state of a compact game.
+     */
+    public enum Outcome {
+        PLAYING, WON, DIED, TIMEOUT
+    }
+
+    private static final int COLORS = Key.Color.values().length;
+
+    private final LevelTemplate template;
+    private final long[] removed;  // removed tiles, by removable tile number
+    private final int[] enemyCells;
+    private final int[] routineIndexes;  // index of the next move in each enemy's routine
+    private final int[] keyCounts;  // keys held, per colour
+    private int playerCell;
+    private int chips;  // chips held
+    private int chipsLeft;  // chips still on the level
+    private int tickNo;
+    private Outcome outcome = Outcome.PLAYING;
+
+    /**
+     * Creates a new game at the start of the given level.
+     *
+     * @param template The level.
+     */
+    public CompactGame(LevelTemplate template) {
+        if (template == null) {
+            throw new IllegalArgumentException("Template cannot be null");
+        }
+        this.template = template;
+        this.removed = new long[(template.removableCount() + 63) / 64];
+        this.enemyCells = new int[template.enemyCount()];
+        this.routineIndexes = new int[template.enemyCount()];
+        this.keyCounts = new int[COLORS];
+        for (int i = 0; i < enemyCells.length; i++) {
+            enemyCells[i] = template.enemyStart(i);
+        }
+        for (int color = 0; color < COLORS; color++) {
+            keyCounts[color] = template.playerKeys(color);
+        }
+        this.playerCell = template.playerStart();
+        this.chips = template.playerChips();
+        this.chipsLeft = template.chipCount();
+    }
+
+    // Copy constructor
+    private CompactGame(CompactGame another) {
+        this.template = another.template;
+        this.removed = another.removed.clone();
+        this.enemyCells = another.enemyCells.clone();
+        this.routineIndexes = another.routineIndexes.clone();
+        this.keyCounts = another.keyCounts.clone();
+        this.playerCell = another.playerCell;
+        this.chips = another.chips;
+        this.chipsLeft = another.chipsLeft;
+        this.tickNo = another.tickNo;
+        this.outcome = another.outcome;
+    }
+
+    /**
+     * Creates an independent copy of this game, sharing the template.
+     *
+     * @return A copy of the game.
+     */
+    public CompactGame copy() {
+        return new CompactGame(this);
+    }
+
+    /**
+     * Advances the game by one tick with the given player input, one of Vector2D.LEFT, Vector2D.UP, Vector2D.RIGHT,
+     * Vector2D.DOWN or Vector2D.ZERO. Null is converted to Vector2D.ZERO.
+     *
+     * @param playerMovement player input
+     * @throws IllegalStateException if the game is over.
+     * @throws IllegalArgumentException if a character would leave the board.
+     */
+    public void tick(Vector2D playerMovement) {
+        if (outcome != Outcome.PLAYING) {
+            throw new IllegalStateException("Game is over");
+        }
+
+        if (playerMovement != null && playerMovement != Vector2D.ZERO) {
+            movePlayer(playerMovement);
+        }
+        for (int i = 0; i < enemyCells.length; i++) {
+            var routine = template.enemyRoutine(i);
+            if (routine.length > 0 && Game.isDue(tickNo, template.getTickRate(), template.enemyInterval(i))) {
+                enemyCells[i] = moveCell(enemyCells[i], routine[routineIndexes[i]], "Enemy");
+                routineIndexes[i] = (routineIndexes[i] + 1) % routine.length;
+            }
+        }
+        for (int enemyCell : enemyCells) {
+            if (enemyCell == playerCell) {
+                end(Outcome.DIED);
+                break;
+            }
+        }
+
+        tickNo++;
+        if (getCountDown() <= 0) {
+            end(Outcome.TIMEOUT);
+        }
+    }
+
+    private void movePlayer(Vector2D movement) {
+        int cell = moveCell(playerCell, movement, "Player");
+        int removable = template.removableIndex(cell);
+        var type = removable >= 0 && isRemoved(removable) ? TileType.FREE : template.typeAt(cell);
+        switch (type) {
+            case WALL -> {
+                return;
+            }
+            case CHIP -> {
+                chips++;
+                chipsLeft--;
+                remove(removable);
+            }
+            case KEY -> {
+                keyCounts[template.colorAt(cell).ordinal()]++;
+                remove(removable);
+            }
+            case LOCKED_DOOR -> {
+                int color = template.colorAt(cell).ordinal();
+                if (keyCounts[color] == 0) {
+                    return;
+                }
+                keyCounts[color]--;
+                remove(removable);
+            }
+            case EXIT_LOCK -> {
+                if (chipsLeft > 0) {
+                    return;
+                }
+                remove(removable);
+            }
+            case EXIT -> end(Outcome.WON);
+            default -> {
+            }
+        }
+        playerCell = cell;
+    }
+
+    // The cell reached from a cell with a one-tile movement
+    private int moveCell(int cell, Vector2D movement, String who) {
+        int width = template.getWidth();
+        int x = cell % width + movement.x();
+        int y = cell / width + movement.y();
+        if (x < 0 || x >= width || y < 0 || y >= template.getHeight()) {
+            throw new IllegalArgumentException(who + " went outside the board");
+        }
+        return y * width + x;
+    }
+
+    private boolean isRemoved(int removable) {
+        return (removed[removable >>> 6] & (1L << removable)) != 0;
+    }
+
+    private void remove(int removable) {
+        removed[removable >>> 6] |= 1L << removable;
+    }
+
+    // Only the first ending counts, as with the first GameOverEvent of a Game
+    private void end(Outcome ending) {
+        if (outcome == Outcome.PLAYING) {
+            outcome = ending;
+        }
+    }
+
+    /**
+     * Gets the level this game is played on.
+     *
+     * @return The template.
+     */
+    public LevelTemplate getTemplate() {
+        return template;
+    }
+
+    /**
+     * Gets the type of the tile currently at a position, taking removed tiles into account.
+     *
+     * @param position The position, which must be on the board.
+     * @return The tile type.
+     */
+    public TileType tileTypeAt(Vector2D position) {
+        int cell = template.cellOf(position);
+        int removable = template.removableIndex(cell);
+        return removable >= 0 && isRemoved(removable) ? TileType.FREE : template.typeAt(cell);
+    }
+
+    /**
+     * Gets the message of the info field the player stands on.
+     *
+     * @return The message, or null if the player is not on an info field.
+     */
+    public String getInfoMessage() {
+        return template.messageAt(playerCell);
+    }
+
+    /**
+     * Gets the player's position.
+     *
+     * @return The position.
+     */
+    public Vector2D getPlayerPosition() {
+        return template.positionOf(playerCell);
+    }
+
+    /**
+     * Gets the number of enemies.
+     *
+     * @return The number of enemies.
+     */
+    public int getEnemyCount() {
+        return enemyCells.length;
+    }
+
+    /**
+     * Gets the position of an enemy. Enemies are numbered in the same order as the slots of the template's level.
+     *
+     * @param enemy The enemy number.
+     * @return The position.
+     */
+    public Vector2D getEnemyPosition(int enemy) {
+        return template.positionOf(enemyCells[enemy]);
+    }
+
+    /**
+     * Gets the number of keys of a colour the player holds.
+     *
+     * @param color The colour.
+     * @return The number of keys.
+     */
+    public int getKeyCount(Key.Color color) {
+        return keyCounts[color.ordinal()];
+    }
+
+    /**
+     * Gets the number of chips the player holds.
+     *
+     * @return The number of chips.
+     */
+    public int getChips() {
+        return chips;
+    }
+
+    /**
+     * Gets the number of chips left on the level.
+     *
+     * @return The number of chips remaining.
+     */
+    public int getChipsLeft() {
+        return chipsLeft;
+    }
+
+    /**
+     * Gets the current tick number.
+     *
+     * @return The tick number.
+     */
+    public int getTickNo() {
+        return tickNo;
+    }
+
+    /**
+     * Gets the countdown (time left in the game).
+     *
+     * @return The countdown in seconds.
+     */
+    public int getCountDown() {
+        return template.getTimeoutInSeconds() - tickNo / template.getTickRate();
+    }
+
+    /**
+     * Gets how the game ended.
+     *
+     * @return The outcome, {@link Outcome#PLAYING} while the game is not over.
+     */
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    /**
+     * Checks if the game is over.
+     *
+     * @return True if the game is over, false otherwise.
+     */
+    public boolean isGameOver() {
+        return outcome != Outcome.PLAYING;
+    }
+}
@@ -0,0 +1,261 @@
+package nz.ac.wgtn.swen225.lc.domain.compact;
+
+import nz.ac.wgtn.swen225.lc.domain.Game;
+import nz.ac.wgtn.swen225.lc.domain.level.Level;
+import nz.ac.wgtn.swen225.lc.domain.level.TileType;
+import nz.ac.wgtn.swen225.lc.domain.level.items.Key;
+import nz.ac.wgtn.swen225.lc.domain.level.tiles.InfoField;
+import nz.ac.wgtn.swen225.lc.domain.level.tiles.KeyTile;
+import nz.ac.wgtn.swen225.lc.domain.level.tiles.LockedDoor;
+import nz.ac.wgtn.swen225.lc.levels.level2.Patroller;
+import nz.ac.wgtn.swen225.lc.utils.Vector2D;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Presents the immutable part of a level in primitive arrays, shared by every {@link CompactGame} played on it.
+ * <p>
+ * Cells are numbered row by row ({@code y * width + x}). Each cell has a tile type and, for keys and locked doors, a
+ * colour. Tiles that can disappear (chips, keys, doors and exit locks) are numbered so that a game only needs one bit
+ * per such tile to know which of them are gone.
+ *
+ * @author Shiyan Wei
+ * Student ID: 300569298
+ */
+public final class LevelTemplate {
+
+    private static final Key.Color[] COLORS = Key.Color.values();
+    private static final TileType[] TYPES = TileType.values();
+
+    private final int levelNo;
+    private final int width;
+    private final int height;
+    private final int timeoutInSeconds;
+    private final int tickRate;
+    private final byte[] types;  // TileType ordinal per cell
+    private final byte[] colors;  // Key.Color ordinal per cell, for keys and locked doors
+    private final int[] removableIndex;  // number of the removable tile per cell, -1 for other cells
+    private final int removableCount;
+    private final int chipCount;
+    private final Map<Integer, String> messages;  // info field messages by cell
+    private final int playerStart;
+    private final int[] playerKeys;  // keys held at the start, per colour
+    private final int playerChips;  // chips held at the start
+    private final int[] enemyStarts;
+    private final long[] enemyIntervals;  // in milliseconds
+    private final Vector2D[][] enemyRoutines;  // moves per enemy
+
+    private LevelTemplate(Level level) {
+        this.levelNo = level.getLevelNo();
+        this.width = level.getWidth();
+        this.height = level.getHeight();
+        this.timeoutInSeconds = level.getTimeoutInSeconds();
+        this.tickRate = level.getGame() != null ? level.getGame().getTickRate() : Game.FRAME_RATE;
+        this.types = new byte[width * height];
+        this.colors = new byte[width * height];
+        this.removableIndex = new int[width * height];
+        this.messages = new HashMap<>();
+
+        int removable = 0;
+        int chips = 0;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int cell = y * width + x;
+                var type = level.tileTypeAt(x, y);
+                var tile = level.tileAt(x, y);
+                if (type == TileType.OTHER) {
+                    throw new IllegalArgumentException("Unsupported tile: " + tile.getClass().getName());
+                }
+                types[cell] = (byte) type.ordinal();
+                removableIndex[cell] = -1;
+                switch (type) {
+                    case KEY -> colors[cell] = (byte) ((KeyTile) tile).getKey().getColor().ordinal();
+                    case LOCKED_DOOR -> colors[cell] = (byte) ((LockedDoor) tile).getColor().ordinal();
+                    case INFO_FIELD -> messages.put(cell, ((InfoField) tile).getMessage());
+                    default -> {
+                    }
+                }
+                if (type == TileType.CHIP || type == TileType.KEY || type == TileType.LOCKED_DOOR
+                        || type == TileType.EXIT_LOCK) {
+                    removableIndex[cell] = removable++;
+                }
+                if (type == TileType.CHIP) {
+                    chips++;
+                }
+            }
+        }
+        this.removableCount = removable;
+        this.chipCount = chips;
+
+        var player = level.getPlayer();
+        if (player == null) {
+            throw new IllegalArgumentException("Level has no player");
+        }
+        this.playerStart = cellOf(player.getPosition());
+        this.playerKeys = new int[COLORS.length];
+        player.getKeys().forEach(key -> playerKeys[key.getColor().ordinal()]++);
+        this.playerChips = player.getChips().size();
+
+        int enemies = level.getEnemyCount();
+        this.enemyStarts = new int[enemies];
+        this.enemyIntervals = new long[enemies];
+        this.enemyRoutines = new Vector2D[enemies][];
+        for (int i = 0; i < enemies; i++) {
+            if (!(level.getEnemy(i) instanceof Patroller patroller)) {
+                throw new IllegalArgumentException("Unsupported enemy: " + level.getEnemy(i).getClass().getName());
+            }
+            enemyStarts[i] = cellOf(patroller.getPosition());
+            enemyIntervals[i] = patroller.getInterval().toMillis();
+            enemyRoutines[i] = patroller.getRoutine().toArray(new Vector2D[0]);
+        }
+    }
+
+    /**
+     * Creates a template from the current state of a level. Only patrollers are supported as enemies, and a
+     * patroller's routine starts from its next move. Games on the template run at the tick rate of the level's game,
+     * or at the default tick rate if the level belongs to no game.
+     *
+     * @param level The level.
+     * @return The template.
+     * @throws IllegalArgumentException if the level has no player, or contains tiles or enemies that are not supported.
+     */
+    public static LevelTemplate of(Level level) {
+        return new LevelTemplate(level);
+    }
+
+    /**
+     * Gets the number of the level.
+     *
+     * @return The level number.
+     */
+    public int getLevelNo() {
+        return levelNo;
+    }
+
+    /**
+     * Gets the width of the level in tiles.
+     *
+     * @return The width.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Gets the height of the level in tiles.
+     *
+     * @return The height.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Gets the time limit for the level in seconds.
+     *
+     * @return The time limit.
+     */
+    public int getTimeoutInSeconds() {
+        return timeoutInSeconds;
+    }
+
+    /**
+     * Gets the number of ticks per second of simulated time.
+     *
+     * @return The tick rate.
+     */
+    public int getTickRate() {
+        return tickRate;
+    }
+
+    /**
+     * Gets the type of the tile originally in a cell.
+     *
+     * @param cell The cell.
+     * @return The tile type.
+     */
+    public TileType typeAt(int cell) {
+        return TYPES[types[cell]];
+    }
+
+    /**
+     * Gets the colour of the key or locked door originally in a cell.
+     *
+     * @param cell The cell.
+     * @return The colour, meaningless for other tiles.
+     */
+    public Key.Color colorAt(int cell) {
+        return COLORS[colors[cell]];
+    }
+
+    /**
+     * Gets the message of the info field in a cell.
+     *
+     * @param cell The cell.
+     * @return The message, or null if there is no info field in the cell.
+     */
+    public String messageAt(int cell) {
+        return messages.get(cell);
+    }
+
+    /**
+     * Converts a position to a cell number.
+     *
+     * @param position The position, which must be on the board.
+     * @return The cell.
+     */
+    public int cellOf(Vector2D position) {
+        return position.y() * width + position.x();
+    }
+
+    /**
+     * Converts a cell number to a position.
+     *
+     * @param cell The cell.
+     * @return The position.
+     */
+    public Vector2D positionOf(int cell) {
+        return Vector2D.of(cell % width, cell / width);
+    }
+
+    int removableIndex(int cell) {
+        return removableIndex[cell];
+    }
+
+    int removableCount() {
+        return removableCount;
+    }
+
+    int chipCount() {
+        return chipCount;
+    }
+
+    int playerStart() {
+        return playerStart;
+    }
+
+    int playerKeys(int color) {
+        return playerKeys[color];
+    }
+
+    int playerChips() {
+        return playerChips;
+    }
+
+    int enemyCount() {
+        return enemyStarts.length;
+    }
+
+    int enemyStart(int enemy) {
+        return enemyStarts[enemy];
+    }
+
+    long enemyInterval(int enemy) {
+        return enemyIntervals[enemy];
+    }
+
+    Vector2D[] enemyRoutine(int enemy) {
+        return enemyRoutines[enemy];
+    }
+}
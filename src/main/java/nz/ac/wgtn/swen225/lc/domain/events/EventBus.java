@@ -0,0 +1,145 @@
+package nz.ac.wgtn.swen225.lc.domain.events;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Delivers game events to the listeners subscribed to them. A listener subscribes to an event type (a class or an
+ * interface such as {@link GameOverEvent}) and receives every event of that type or of its subtypes, so each event only
+ * costs its real subscribers.
+ * <p>
+ * Subscriptions are copy-on-write: subscribing or unsubscribing, even from within a listener, never disturbs an event
+ * being dispatched. The listeners of each concrete event class are worked out once and cached until the subscriptions
+ * change.
+ * @author Shiyan Wei
+ * Student ID: 300569298
+ */
+public final class EventBus {
+
+    private static final GameEventListener[] NO_LISTENERS = new GameEventListener[0];
+
+    /**
+     * A listener subscribed to an event type.
+     *
+     * @param eventType The type of events the listener receives.
+     * @param listener The listener.
+     */
+    private record Subscription(Class<? extends GameEvent> eventType, GameEventListener listener) {
+    }
+
+    private volatile Subscription[] subscriptions = new Subscription[0];  // in subscription order
+    private final Map<Class<?>, GameEventListener[]> dispatchCache = new ConcurrentHashMap<>();
+
+    /**
+     * Subscribes a listener to an event type. Subscribing the same listener to the same type twice has no effect.
+     *
+     * @param eventType The type of events to receive, including its subtypes.
+     * @param listener The listener to subscribe.
+     */
+    public synchronized void subscribe(Class<? extends GameEvent> eventType, GameEventListener listener) {
+        if (eventType == null || listener == null) {
+            throw new IllegalArgumentException("Event type and listener cannot be null");
+        }
+        var current = subscriptions;
+        var subscription = new Subscription(eventType, listener);
+        if (Arrays.asList(current).contains(subscription)) {
+            return;
+        }
+        var updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = subscription;
+        setSubscriptions(updated);
+    }
+
+    /**
+     * Unsubscribes a listener from every event type it is subscribed to.
+     *
+     * @param listener The listener to unsubscribe.
+     */
+    public synchronized void unsubscribe(GameEventListener listener) {
+        var current = subscriptions;
+        var updated = Arrays.stream(current).filter(s -> !s.listener().equals(listener)).toArray(Subscription[]::new);
+        if (updated.length != current.length) {
+            setSubscriptions(updated);
+        }
+    }
+
+    // Publish new subscriptions and forget the dispatch arrays computed from the old ones
+    private void setSubscriptions(Subscription[] updated) {
+        subscriptions = updated;
+        dispatchCache.clear();
+    }
+
+    /**
+     * Delivers an event to every listener subscribed to its type, in subscription order. A listener subscribed to
+     * several matching types receives the event once.
+     *
+     * @param gameEvent The event to deliver.
+     */
+    public void publish(GameEvent gameEvent) {
+        for (var listener : listenersOf(gameEvent.getClass())) {
+            listener.onGameEvent(gameEvent);
+        }
+    }
+
+    /**
+     * Checks if any listener would receive events of the given class. Events nobody receives need not be created.
+     *
+     * @param eventClass The concrete event class.
+     * @return True if at least one listener is subscribed to the class or one of its supertypes.
+     */
+    public boolean hasSubscribers(Class<? extends GameEvent> eventClass) {
+        return listenersOf(eventClass).length > 0;
+    }
+
+    /**
+     * Checks if there are any subscriptions at all.
+     *
+     * @return True if at least one listener is subscribed.
+     */
+    public boolean hasSubscribers() {
+        return subscriptions.length > 0;
+    }
+
+    /**
+     * Gets the distinct subscribed listeners, in subscription order.
+     *
+     * @return A read-only list of listeners.
+     */
+    public List<GameEventListener> getListeners() {
+        var listeners = new LinkedHashSet<GameEventListener>();
+        for (var subscription : subscriptions) {
+            listeners.add(subscription.listener());
+        }
+        return List.copyOf(listeners);
+    }
+
+    // Gets (or works out and caches) the listeners receiving events of the given concrete class
+    private GameEventListener[] listenersOf(Class<?> eventClass) {
+        var listeners = dispatchCache.get(eventClass);
+        if (listeners == null) {
+            var current = subscriptions;
+            listeners = computeListeners(current, eventClass);
+            // Only cache if the subscriptions did not change meanwhile, otherwise a stale array could stay cached
+            synchronized (this) {
+                if (current == subscriptions) {
+                    dispatchCache.put(eventClass, listeners);
+                }
+            }
+        }
+        return listeners;
+    }
+
+    private static GameEventListener[] computeListeners(Subscription[] subscriptions, Class<?> eventClass) {
+        var listeners = new ArrayList<GameEventListener>();
+        for (var subscription : subscriptions) {
+            if (subscription.eventType().isAssignableFrom(eventClass) && !listeners.contains(subscription.listener())) {
+                listeners.add(subscription.listener());
+            }
+        }
+        return listeners.isEmpty() ? NO_LISTENERS : listeners.toArray(NO_LISTENERS);
+    }
+}
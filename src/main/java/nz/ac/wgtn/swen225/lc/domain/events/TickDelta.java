@@ -0,0 +1,133 @@
+package nz.ac.wgtn.swen225.lc.domain.events;
+
+import nz.ac.wgtn.swen225.lc.domain.level.characters.Character;
+import nz.ac.wgtn.swen225.lc.domain.level.items.Chip;
+import nz.ac.wgtn.swen225.lc.domain.level.items.Key;
+import nz.ac.wgtn.swen225.lc.domain.level.tiles.Tile;
+import nz.ac.wgtn.swen225.lc.utils.Vector2D;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fires once at the end of every tick (after {@link TickEvent}) with everything that changed during the tick, so that
+ * listeners can do work proportional to what changed rather than to what exists. It is only built when someone
+ * listens to it.
+ *
+ * @param tickNo The tick number at the end of the tick.
+ * @param moves The characters that moved, each once, from where they were at the start of the tick to where they are
+ *              at the end of it.
+ * @param removedTiles The tiles removed from the level, e.g. picked up chips and keys, opened doors.
+ * @param keysGained The keys added to the player's inventory.
+ * @param keysUsed The keys removed from the player's inventory.
+ * @param chipsCollected The chips collected by the player.
+ * @param countDown The countdown at the end of the tick.
+ * @param countDownChanged Whether the countdown changed during the tick.
+ * @param chipsLeft The number of chips left at the end of the tick.
+ * @author Shiyan Wei
+ * Student ID: 300569298
+ */
+public record TickDelta(int tickNo, List<Move> moves, List<Tile> removedTiles, List<Key> keysGained,
+                        List<Key> keysUsed, List<Chip> chipsCollected, int countDown, boolean countDownChanged,
+                        int chipsLeft) implements GameEvent {
+
+    /**
+     * A character's move during a tick.
+     *
+     * @param character The character that moved.
+     * @param from The position at the start of the tick.
+     * @param to The position at the end of the tick.
+     */
+    public record Move(Character character, Vector2D from, Vector2D to) {
+    }
+
+    /**
+     * Checks if the player's inventory changed during the tick.
+     *
+     * @return True if keys were gained or used or chips were collected.
+     */
+    public boolean inventoryChanged() {
+        return !keysGained.isEmpty() || !keysUsed.isEmpty() || !chipsCollected.isEmpty();
+    }
+
+    /**
+     * Checks if nothing but the tick number changed.
+     *
+     * @return True if the tick changed nothing.
+     */
+    public boolean isEmpty() {
+        return moves.isEmpty() && removedTiles.isEmpty() && !inventoryChanged() && !countDownChanged;
+    }
+
+    /**
+     * Collects the changes of a tick from the events fired during it.
+     */
+    public static final class Builder {
+
+        private final List<Move> moves = new ArrayList<>();
+        private final List<Tile> removedTiles = new ArrayList<>();
+        private final List<Key> keysGained = new ArrayList<>();
+        private final List<Key> keysUsed = new ArrayList<>();
+        private final List<Chip> chipsCollected = new ArrayList<>();
+        private boolean countDownChanged;
+
+        /**
+         * Records what an event changed. Events that change nothing of interest are ignored.
+         *
+         * @param gameEvent The event fired during the tick.
+         */
+        public void accept(GameEvent gameEvent) {
+            if (gameEvent instanceof PlayerMovedEvent e) {
+                addMove(e.player(), e.from(), e.to());
+            } else if (gameEvent instanceof EnemyMovedEvent e) {
+                addMove(e.enemy(), e.from(), e.to());
+            } else if (gameEvent instanceof ChipPickedUpEvent e) {
+                removedTiles.add(e.chipTile());
+                chipsCollected.add(e.chipTile().getChip());
+            } else if (gameEvent instanceof KeyPickedUpEvent e) {
+                removedTiles.add(e.keyTile());
+                keysGained.add(e.keyTile().getKey());
+            } else if (gameEvent instanceof KeyConsumedEvent e) {
+                keysUsed.add(e.key());
+            } else if (gameEvent instanceof DockUnlockedEvent e) {
+                removedTiles.add(e.lockedDoor());
+            } else if (gameEvent instanceof ExitLockUnlockedEvent e) {
+                removedTiles.add(e.exitLock());
+            } else if (gameEvent instanceof CountDownEvent) {
+                countDownChanged = true;
+            }
+        }
+
+        // Coalesce several moves of the same character into one
+        private void addMove(Character character, Vector2D from, Vector2D to) {
+            for (int i = 0; i < moves.size(); i++) {
+                var move = moves.get(i);
+                if (move.character() == character) {
+                    moves.set(i, new Move(character, move.from(), to));
+                    return;
+                }
+            }
+            moves.add(new Move(character, from, to));
+        }
+
+        /**
+         * Builds the delta and clears the builder for the next tick.
+         *
+         * @param tickNo The tick number at the end of the tick.
+         * @param countDown The countdown at the end of the tick.
+         * @param chipsLeft The number of chips left at the end of the tick.
+         * @return The delta.
+         */
+        public TickDelta build(int tickNo, int countDown, int chipsLeft) {
+            var delta = new TickDelta(tickNo, List.copyOf(moves), List.copyOf(removedTiles), List.copyOf(keysGained),
+                    List.copyOf(keysUsed), List.copyOf(chipsCollected), countDown, countDownChanged, chipsLeft);
+            moves.clear();
+            removedTiles.clear();
+            keysGained.clear();
+            keysUsed.clear();
+            chipsCollected.clear();
+            countDownChanged = false;
+            return delta;
+        }
+    }
+}
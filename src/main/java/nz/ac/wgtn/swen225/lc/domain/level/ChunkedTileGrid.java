@@ -0,0 +1,144 @@
+package nz.ac.wgtn.swen225.lc.domain.level;
+
+import nz.ac.wgtn.swen225.lc.domain.level.tiles.Tile;
+
+import java.io.Serializable;
+
+/**
+ * Presents a sparse index of tiles by position, for boards of any size.
+ * <p>
+ * The board is split into {@value #CHUNK_SIZE} x {@value #CHUNK_SIZE} chunks. A chunk is only allocated once a tile is
+ * put in it, and is released again when its last tile is removed, so memory grows with the occupied area rather than
+ * with the size of the board. Each chunk keeps the tiles and, one byte per cell, their {@link TileType}. Lookups are
+ * constant time.
+ * @author Shiyan Wei
+ * Student ID: 300569298
+ */
+public final class ChunkedTileGrid implements Serializable {
+
+    public static final int CHUNK_SIZE = 64;
+    private static final int CHUNK_BITS = 6;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final int width;
+    private final int height;
+    private final int chunksPerRow;
+    private final Chunk[] chunks;  // row by row, null where there are no tiles
+    private int allocatedChunks;
+
+    // The tiles of one chunk, row by row
+    private static final class Chunk implements Serializable {
+        private final Tile[] tiles = new Tile[CHUNK_SIZE * CHUNK_SIZE];
+        private final byte[] types = new byte[CHUNK_SIZE * CHUNK_SIZE];
+        private int count;
+    }
+
+    /**
+     * Creates an empty grid.
+     *
+     * @param width The width of the board in tiles.
+     * @param height The height of the board in tiles.
+     */
+    public ChunkedTileGrid(int width, int height) {
+        if (width < 0 || height < 0) {
+            throw new IllegalArgumentException("Size cannot be negative");
+        }
+        this.width = width;
+        this.height = height;
+        this.chunksPerRow = (width + CHUNK_MASK) >> CHUNK_BITS;
+        this.chunks = new Chunk[chunksPerRow * ((height + CHUNK_MASK) >> CHUNK_BITS)];
+    }
+
+    /**
+     * Gets the tile at the given coordinates.
+     *
+     * @param x The column.
+     * @param y The row.
+     * @return The tile, or null if there is none or (x, y) is outside the board.
+     */
+    public Tile get(int x, int y) {
+        var chunk = chunkAt(x, y);
+        return chunk != null ? chunk.tiles[cell(x, y)] : null;
+    }
+
+    /**
+     * Gets the type of the tile at the given coordinates without touching the tile itself.
+     *
+     * @param x The column.
+     * @param y The row.
+     * @return The type of the tile, {@link TileType#FREE} if there is none or (x, y) is outside the board.
+     */
+    public TileType typeAt(int x, int y) {
+        var chunk = chunkAt(x, y);
+        return chunk != null ? TileType.ofOrdinal(chunk.types[cell(x, y)]) : TileType.FREE;
+    }
+
+    /**
+     * Puts a tile at the given coordinates, replacing any tile there.
+     *
+     * @param x The column.
+     * @param y The row.
+     * @param tile The tile.
+     * @throws IllegalArgumentException if (x, y) is outside the board.
+     */
+    public void put(int x, int y, Tile tile) {
+        if (!isInBounds(x, y)) {
+            throw new IllegalArgumentException("Tile outside the board");
+        }
+        int index = (y >> CHUNK_BITS) * chunksPerRow + (x >> CHUNK_BITS);
+        var chunk = chunks[index];
+        if (chunk == null) {
+            chunk = new Chunk();
+            chunks[index] = chunk;
+            allocatedChunks++;
+        }
+        int cell = cell(x, y);
+        if (chunk.tiles[cell] == null) {
+            chunk.count++;
+        }
+        chunk.tiles[cell] = tile;
+        chunk.types[cell] = (byte) TileType.of(tile).ordinal();
+    }
+
+    /**
+     * Removes the given tile from the given coordinates, if it is the tile there.
+     *
+     * @param x The column.
+     * @param y The row.
+     * @param tile The tile to remove.
+     */
+    public void remove(int x, int y, Tile tile) {
+        var chunk = chunkAt(x, y);
+        int cell = cell(x, y);
+        if (chunk == null || chunk.tiles[cell] != tile) {
+            return;
+        }
+        chunk.tiles[cell] = null;
+        chunk.types[cell] = 0;
+        if (--chunk.count == 0) {
+            chunks[(y >> CHUNK_BITS) * chunksPerRow + (x >> CHUNK_BITS)] = null;
+            allocatedChunks--;
+        }
+    }
+
+    /**
+     * Gets the number of chunks currently allocated, i.e. the chunks containing at least one tile.
+     *
+     * @return The number of allocated chunks.
+     */
+    public int getAllocatedChunks() {
+        return allocatedChunks;
+    }
+
+    private boolean isInBounds(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height;
+    }
+
+    private Chunk chunkAt(int x, int y) {
+        return isInBounds(x, y) ? chunks[(y >> CHUNK_BITS) * chunksPerRow + (x >> CHUNK_BITS)] : null;
+    }
+
+    private static int cell(int x, int y) {
+        return ((y & CHUNK_MASK) << CHUNK_BITS) | (x & CHUNK_MASK);
+    }
+}
@@ -0,0 +1,191 @@
+package nz.ac.wgtn.swen225.lc.domain.level;
+
+import nz.ac.wgtn.swen225.lc.utils.Vector2D;
+
+import java.util.Arrays;
+
+/**
+ * Presents a level-wide distance field towards the player, shared by all enemies chasing the player.
+ * <p>
+ * The field is computed with a single breadth-first search from the player's position over the tiles enemies can walk
+ * on, and is only recomputed when the player has moved or the tiles of the level have changed. Looking up the best
+ * move of an enemy is then constant time, so any number of chasers cost at most one pass over the board per tick.
+ * Walls, locked doors, exit locks and the exit block enemies.
+ * <p>
+ * Like {@link ChunkedTileGrid}, the distances are kept in {@value #CHUNK_SIZE} x {@value #CHUNK_SIZE} chunks that are
+ * only allocated once the search reaches them, and the search queue only holds its frontier and grows as needed, so
+ * memory grows with the area reachable from the player rather than with the size of the board.
+ *
+ * @author Shiyan Wei
+ * Student ID: 300569298
+ */
+public final class FlowField {
+
+    public static final int CHUNK_SIZE = 32;
+    private static final int CHUNK_BITS = 5;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int INITIAL_QUEUE_CAPACITY = 64;  // positions, a power of two
+    private static final int UNREACHABLE = -1;
+    private static final Vector2D[] DIRECTIONS = {Vector2D.LEFT, Vector2D.UP, Vector2D.RIGHT, Vector2D.DOWN};
+
+    private final Level level;
+    private final int chunksPerRow;
+    private final int[][] chunks;  // steps to the player per position, by chunk row by row, null where never reached
+    private int allocatedChunks;
+    private int[] queue = new int[2 * INITIAL_QUEUE_CAPACITY];  // reusable BFS ring buffer of (x, y) pairs
+    private Vector2D target;  // the player position the distances were computed for, null if outdated
+
+    /**
+     * Creates a flow field for the given level. Nothing is computed until the field is first used.
+     *
+     * @param level The level.
+     */
+    FlowField(Level level) {
+        this.level = level;
+        this.chunksPerRow = (level.getWidth() + CHUNK_MASK) >> CHUNK_BITS;
+        this.chunks = new int[chunksPerRow * ((level.getHeight() + CHUNK_MASK) >> CHUNK_BITS)][];
+    }
+
+    /**
+     * Gets the number of steps from the given position to the player, walking around obstacles.
+     *
+     * @param position The position.
+     * @return The number of steps, or -1 if the player cannot be reached from the position.
+     */
+    public int distanceAt(Vector2D position) {
+        update();
+        if (!level.isInBounds(position.x(), position.y())) {
+            return UNREACHABLE;
+        }
+        return distance(position.x(), position.y());
+    }
+
+    /**
+     * Gets the one-tile move that brings an enemy at the given position closest to the player.
+     *
+     * @param position The position of the enemy.
+     * @return One of Vector2D.LEFT, Vector2D.UP, Vector2D.RIGHT, Vector2D.DOWN, or Vector2D.ZERO if the enemy is on the
+     *         player or cannot reach the player.
+     */
+    public Vector2D directionAt(Vector2D position) {
+        int best = distanceAt(position);
+        if (best <= 0) {
+            return Vector2D.ZERO;
+        }
+        var direction = Vector2D.ZERO;
+        for (var candidate : DIRECTIONS) {
+            int distance = distanceAt(position.add(candidate));
+            if (distance != UNREACHABLE && distance < best) {
+                best = distance;
+                direction = candidate;
+            }
+        }
+        return direction;
+    }
+
+    /**
+     * Gets the number of chunks of distances allocated so far, i.e. the chunks the search has reached.
+     *
+     * @return The number of allocated chunks.
+     */
+    public int getAllocatedChunks() {
+        return allocatedChunks;
+    }
+
+    /**
+     * Marks the field as outdated, e.g. because a tile was added or removed.
+     */
+    void invalidate() {
+        target = null;
+    }
+
+    // Recompute the distances if the player moved or the field was invalidated
+    private void update() {
+        var player = level.getPlayer();
+        var position = player != null ? player.getPosition() : null;
+        if (position != null && position.equals(target)) {
+            return;
+        }
+        target = position;
+        // Chunks once reached are kept for the next searches, which usually reach the same area
+        for (var chunk : chunks) {
+            if (chunk != null) {
+                Arrays.fill(chunk, UNREACHABLE);
+            }
+        }
+        if (position == null) {
+            return;
+        }
+
+        setDistance(position.x(), position.y(), 0);
+        int head = 0;  // positions taken from the queue so far
+        int tail = enqueue(head, 0, position.x(), position.y());  // positions put in the queue so far
+        while (head < tail) {
+            int mask = queue.length - 1;
+            int x = queue[(2 * head) & mask];
+            int y = queue[(2 * head + 1) & mask];
+            head++;
+            int distance = distance(x, y) + 1;
+            for (var direction : DIRECTIONS) {
+                int nx = x + direction.x();
+                int ny = y + direction.y();
+                if (level.isInBounds(nx, ny) && distance(nx, ny) == UNREACHABLE
+                        && isWalkable(level.tileTypeAt(nx, ny))) {
+                    setDistance(nx, ny, distance);
+                    tail = enqueue(head, tail, nx, ny);
+                }
+            }
+        }
+    }
+
+    // Put a position at the end of the queue, doubling the queue if it is full; returns the new tail
+    private int enqueue(int head, int tail, int x, int y) {
+        if (2 * (tail - head) == queue.length) {
+            // Positions stay at their number modulo the capacity, so the numbers need not change
+            var grown = new int[2 * queue.length];
+            int mask = queue.length - 1;
+            int grownMask = grown.length - 1;
+            for (int i = head; i < tail; i++) {
+                grown[(2 * i) & grownMask] = queue[(2 * i) & mask];
+                grown[(2 * i + 1) & grownMask] = queue[(2 * i + 1) & mask];
+            }
+            queue = grown;
+        }
+        int mask = queue.length - 1;
+        queue[(2 * tail) & mask] = x;
+        queue[(2 * tail + 1) & mask] = y;
+        return tail + 1;
+    }
+
+    private int distance(int x, int y) {
+        var chunk = chunks[chunkIndex(x, y)];
+        return chunk != null ? chunk[cell(x, y)] : UNREACHABLE;
+    }
+
+    private void setDistance(int x, int y, int distance) {
+        int index = chunkIndex(x, y);
+        var chunk = chunks[index];
+        if (chunk == null) {
+            chunk = new int[CHUNK_SIZE * CHUNK_SIZE];
+            Arrays.fill(chunk, UNREACHABLE);
+            chunks[index] = chunk;
+            allocatedChunks++;
+        }
+        chunk[cell(x, y)] = distance;
+    }
+
+    private int chunkIndex(int x, int y) {
+        return (y >> CHUNK_BITS) * chunksPerRow + (x >> CHUNK_BITS);
+    }
+
+    private static int cell(int x, int y) {
+        return ((y & CHUNK_MASK) << CHUNK_BITS) | (x & CHUNK_MASK);
+    }
+
+    private static boolean isWalkable(TileType type) {
+        return switch (type) {
+            case WALL, LOCKED_DOOR, EXIT_LOCK, EXIT -> false;
+            default -> true;
+        };
+    }
+}
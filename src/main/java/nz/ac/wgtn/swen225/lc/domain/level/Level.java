@@ -2,16 +2,22 @@ package nz.ac.wgtn.swen225.lc.domain.level;
 
 import nz.ac.wgtn.swen225.lc.domain.Entity;
 import nz.ac.wgtn.swen225.lc.domain.Game;
+import nz.ac.wgtn.swen225.lc.domain.level.characters.Character;
 import nz.ac.wgtn.swen225.lc.domain.level.characters.Enemy;
 import nz.ac.wgtn.swen225.lc.domain.level.characters.Player;
 import nz.ac.wgtn.swen225.lc.domain.level.tiles.Tile;
 import nz.ac.wgtn.swen225.lc.utils.Vector2D;
+import nz.ac.wgtn.swen225.lc.utils.Zobrist;
 
-import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -27,8 +33,17 @@ public class Level extends Entity {
     private final int timeoutInSeconds;
 
     private final Set<Tile> tiles = new HashSet<>();
+    private final ChunkedTileGrid grid;  // sparse index of tiles by position
+    private final Map<Class<? extends Tile>, Integer> tileCounts = new HashMap<>();  // number of tiles per type
     private final Set<Enemy> enemies = new HashSet<>();
+    private final List<Enemy> enemySlots = new ArrayList<>();  // enemies in insertion order, indexed by slot
+    private final Map<Enemy, Integer> slotOfEnemy = new IdentityHashMap<>();
+    private final OccupancyIndex occupancy;  // enemies by cell
+    private final Set<Tile> tilesView = Collections.unmodifiableSet(tiles);
+    private final Set<Enemy> enemiesView = Collections.unmodifiableSet(enemies);
     private Player player;
+    private long stateHash;  // Zobrist hash of the tiles and characters on the level, see stateHash()
+    private transient FlowField flowField;  // created when first needed
 
     private Game game;
 
@@ -46,6 +61,8 @@ public class Level extends Entity {
         this.width = width;
         this.height = height;
         this.timeoutInSeconds = timeoutInSeconds;
+        this.grid = new ChunkedTileGrid(width, height);
+        this.occupancy = new OccupancyIndex(width);
     }
     /**
      * Creates a new game level with the specified properties, ID, and initial entities.
@@ -66,10 +83,32 @@ public class Level extends Entity {
         this.width = width;
         this.height = height;
         this.timeoutInSeconds = timeoutInSeconds;
+        this.grid = new ChunkedTileGrid(width, height);
+        this.occupancy = new OccupancyIndex(width);
         tiles.forEach(this::addTile);
         enemies.forEach(this::addEnemy);
         setPlayer(player);
     }
+    /**
+     * Creates a copy of the level with the same identifiers and state, not belonging to any game, e.g. to fork a game.
+     * Tiles, enemies and the player are copied as they are mutable and refer back to their level; enemies keep their
+     * slots.
+     *
+     * @return A copy of the level.
+     */
+    public Level copy() {
+        if (player == null) {
+            throw new IllegalStateException("Level has no player");
+        }
+        var copy = new Level(getId(), levelNo, width, height, timeoutInSeconds, Set.of(), Set.of(), player.copy());
+        for (var tile : tiles) {
+            copy.addTile(tile.copy());
+        }
+        for (var enemy : enemySlots) {
+            copy.addEnemy(enemy.copy());
+        }
+        return copy;
+    }
     /**
      * Get the number of the level.
      *
@@ -103,25 +142,102 @@ public class Level extends Entity {
         return timeoutInSeconds;
     }
     /**
-     * Get a read-only set of tiles present on the level.
+     * Get a read-only, live view of the tiles present on the level. No copy is made, so the view reflects tiles
+     * added or removed later on. Use {@link #snapshotTiles()} if an isolated copy is needed.
      *
-     * @return A read-only set of tiles present on the level.
+     * @return A read-only view of the tiles present on the level.
      */
     public Set<Tile> getTiles() {
+        return tilesView;
+    }
+    /**
+     * Get an immutable copy of the tiles present on the level, unaffected by later changes to the level.
+     *
+     * @return A copy of the tiles present on the level.
+     */
+    public Set<Tile> snapshotTiles() {
         return Set.copyOf(tiles);
     }
+    /**
+     * Visit every tile present on the level without copying or allocating an iterator. The action must not add or
+     * remove tiles.
+     *
+     * @param action The action to perform on each tile.
+     */
+    public void forEachTile(Consumer<? super Tile> action) {
+        tiles.forEach(action);
+    }
 
-    private Tile getTile(Vector2D position) {
-        return tiles.stream().filter(t -> Objects.equals(t.getPosition(), position)).findAny().orElse(null);
+    /**
+     * Check whether the given coordinates are on the board.
+     *
+     * @param x The column.
+     * @param y The row.
+     * @return True if (x, y) is inside the board.
+     */
+    public boolean isInBounds(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height;
+    }
+    /**
+     * Get the tile at the given coordinates in constant time.
+     *
+     * @param x The column.
+     * @param y The row.
+     * @return The tile at (x, y), or null if there is no tile there or (x, y) is outside the board.
+     */
+    public Tile tileAt(int x, int y) {
+        return grid.get(x, y);
+    }
+    /**
+     * Get the type of the tile at the given coordinates in constant time, without touching the tile itself.
+     *
+     * @param x The column.
+     * @param y The row.
+     * @return The type of the tile at (x, y), {@link TileType#FREE} if there is no tile there or (x, y) is outside
+     *         the board.
+     */
+    public TileType tileTypeAt(int x, int y) {
+        return grid.typeAt(x, y);
+    }
+    /**
+     * Get the tile at the given position in constant time.
+     *
+     * @param position The position.
+     * @return The tile at the position, or null if there is no tile there or the position is outside the board.
+     */
+    public Tile tileAt(Vector2D position) {
+        return tileAt(position.x(), position.y());
+    }
+    /**
+     * Get the tile next to a position, e.g. {@code adjacentTile(position, Vector2D.UP)} is the tile above it.
+     *
+     * @param position The position to look from.
+     * @param direction The offset to the neighbouring cell.
+     * @return The neighbouring tile, or null if there is no tile there or it is outside the board.
+     */
+    public Tile adjacentTile(Vector2D position, Vector2D direction) {
+        return tileAt(position.x() + direction.x(), position.y() + direction.y());
     }
     /**
      * Add a tile to the level.
      *
      * @param tile The tile to be added to the level.
+     * @throws IllegalArgumentException if the tile is outside the board.
      */
     public void addTile(Tile tile) {
-        tiles.add(tile);
+        var position = tile.getPosition();
+        if (!isInBounds(position.x(), position.y())) {
+            throw new IllegalArgumentException("Tile outside the board");
+        }
+        if (tiles.add(tile)) {
+            tileCounts.merge(tile.getClass(), 1, Integer::sum);
+            stateHash ^= Zobrist.key(Zobrist.TILE, tile.getId(), position);
+        }
+        grid.put(position.x(), position.y(), tile);
         tile.setLevel(this);
+        if (flowField != null) {
+            flowField.invalidate();
+        }
     }
     /**
      * Remove a tile from the level.
@@ -129,16 +245,64 @@ public class Level extends Entity {
      * @param tile The tile to be removed from the level.
      */
     public void removeTile(Tile tile) {
-        tiles.remove(tile);
+        if (tiles.remove(tile)) {
+            tileCounts.merge(tile.getClass(), -1, Integer::sum);
+            var position = tile.getPosition();
+            stateHash ^= Zobrist.key(Zobrist.TILE, tile.getId(), position);
+            grid.remove(position.x(), position.y(), tile);
+            if (flowField != null) {
+                flowField.invalidate();
+            }
+        }
+    }
+    /**
+     * Check whether a tile is still on the level, in constant time. Used to detect stale tiles.
+     *
+     * @param tile The tile to check.
+     * @return True if the tile is on the level.
+     */
+    public boolean containsTile(Tile tile) {
+        var position = tile.getPosition();
+        return position != null && tileAt(position) == tile;
+    }
+    /**
+     * Count the tiles of the given type on the level, in constant time. The count is kept up to date by
+     * {@link #addTile(Tile)} and {@link #removeTile(Tile)}.
+     *
+     * @param type The exact class of the tiles to count, e.g. ChipTile.class.
+     * @return How many tiles of that type are on the level.
+     */
+    public int countTiles(Class<? extends Tile> type) {
+        return tileCounts.getOrDefault(type, 0);
     }
     /**
-     * Get a read-only set of enemies present on the level.
+     * Get a read-only, live view of the enemies present on the level. No copy is made. Use
+     * {@link #snapshotEnemies()} if an isolated copy is needed.
      *
-     * @return A read-only set of enemies present on the level.
+     * @return A read-only view of the enemies present on the level.
      */
     public Set<Enemy> getEnemies() {
+        return enemiesView;
+    }
+    /**
+     * Get an immutable copy of the enemies present on the level, unaffected by later changes to the level.
+     *
+     * @return A copy of the enemies present on the level.
+     */
+    public Set<Enemy> snapshotEnemies() {
         return Set.copyOf(enemies);
     }
+    /**
+     * Visit every enemy present on the level without copying or allocating an iterator. The action must not add
+     * enemies.
+     *
+     * @param action The action to perform on each enemy.
+     */
+    public void forEachEnemy(Consumer<? super Enemy> action) {
+        for (int i = 0; i < enemySlots.size(); i++) {
+            action.accept(enemySlots.get(i));
+        }
+    }
     /**
      * Get the enemies as a map, using their IDs as keys.
      *
@@ -153,9 +317,95 @@ public class Level extends Entity {
      * @param enemy The enemy to be added to the level.
      */
     public void addEnemy(Enemy enemy) {
-        enemies.add(enemy);
+        if (enemies.add(enemy)) {
+            var position = enemy.getPosition();
+            slotOfEnemy.put(enemy, enemySlots.size());
+            occupancy.add(enemySlots.size(), position.x(), position.y());
+            enemySlots.add(enemy);
+            stateHash ^= Zobrist.key(Zobrist.CHARACTER, enemy.getId(), enemy.getPosition());
+        }
         enemy.setLevel(this);
     }
+    /**
+     * Get the number of enemies on the level. Together with {@link #getEnemy(int)} this allows visiting the enemies
+     * by slot without allocating an iterator.
+     *
+     * @return The number of enemies on the level.
+     */
+    public int getEnemyCount() {
+        return enemySlots.size();
+    }
+    /**
+     * Get the enemy in the given slot. Slots are numbered from 0 in the order the enemies were added.
+     *
+     * @param slot The slot of the enemy, from 0 (inclusive) to {@link #getEnemyCount()} (exclusive).
+     * @return The enemy in the slot.
+     */
+    public Enemy getEnemy(int slot) {
+        return enemySlots.get(slot);
+    }
+
+    /**
+     * Check whether there is an enemy at the given position, in constant time.
+     *
+     * @param position The position.
+     * @return True if at least one enemy stands at the position.
+     */
+    public boolean isEnemyAt(Vector2D position) {
+        return occupancy.first(position.x(), position.y()) != OccupancyIndex.NONE;
+    }
+    /**
+     * Get an enemy at the given position, in constant time.
+     *
+     * @param position The position.
+     * @return One of the enemies standing at the position, or null if there is none.
+     */
+    public Enemy enemyAt(Vector2D position) {
+        int slot = occupancy.first(position.x(), position.y());
+        return slot != OccupancyIndex.NONE ? enemySlots.get(slot) : null;
+    }
+    /**
+     * Visit every enemy standing at the given position without allocating.
+     *
+     * @param position The position.
+     * @param action The action to perform on each enemy. It must not move enemies.
+     */
+    public void forEachEnemyAt(Vector2D position, Consumer<? super Enemy> action) {
+        forEachEnemyAt(position.x(), position.y(), action);
+    }
+    /**
+     * Visit every enemy within the given distance of a position, i.e. in the square of side {@code 2 * radius + 1}
+     * centred on it. The cost depends on the radius, not on the number of enemies on the level.
+     *
+     * @param center The centre of the square.
+     * @param radius The largest horizontal or vertical distance from the centre.
+     * @param action The action to perform on each enemy. It must not move enemies.
+     */
+    public void forEachEnemyNear(Vector2D center, int radius, Consumer<? super Enemy> action) {
+        for (int y = Math.max(0, center.y() - radius); y <= Math.min(height - 1, center.y() + radius); y++) {
+            for (int x = Math.max(0, center.x() - radius); x <= Math.min(width - 1, center.x() + radius); x++) {
+                forEachEnemyAt(x, y, action);
+            }
+        }
+    }
+
+    private void forEachEnemyAt(int x, int y, Consumer<? super Enemy> action) {
+        for (int slot = occupancy.first(x, y); slot != OccupancyIndex.NONE; slot = occupancy.next(slot)) {
+            action.accept(enemySlots.get(slot));
+        }
+    }
+
+    /**
+     * Get the level's distance field towards the player, shared by all enemies chasing the player.
+     *
+     * @return The flow field of the level.
+     */
+    public FlowField getFlowField() {
+        if (flowField == null) {
+            flowField = new FlowField(this);
+        }
+        return flowField;
+    }
 
     /**
      * Get the player character in the level.
@@ -171,8 +421,44 @@ public class Level extends Entity {
      * @param player The player character to be set in the level.
      */
     public void setPlayer(Player player) {
+        if (this.player != null) {
+            stateHash ^= Zobrist.key(Zobrist.CHARACTER, this.player.getId(), this.player.getPosition());
+        }
         this.player = player;
         player.setLevel(this);
+        stateHash ^= Zobrist.key(Zobrist.CHARACTER, player.getId(), player.getPosition());
+    }
+
+    /**
+     * Called by a character of the level when it moves, to keep the state hash and the enemy index up to date.
+     *
+     * @param character The character that moved.
+     * @param from The old position.
+     * @param to The new position.
+     */
+    public void onCharacterMoved(Character character, Vector2D from, Vector2D to) {
+        stateHash ^= Zobrist.key(Zobrist.CHARACTER, character.getId(), from)
+                ^ Zobrist.key(Zobrist.CHARACTER, character.getId(), to);
+        var slot = character != player ? slotOfEnemy.get(character) : null;
+        if (slot != null) {
+            occupancy.remove(slot, from.x(), from.y());
+            occupancy.add(slot, to.x(), to.y());
+        }
+    }
+
+    /**
+     * Gets a 64-bit hash of the state of the level: the tiles left, where the characters are, and the player's
+     * inventory (the number of keys of each color and of chips). It is kept up to date incrementally, so this is O(1).
+     * Equal states have equal hashes; different states almost certainly have different ones.
+     * <p>
+     * Enemies' internal state, such as where a patroller is in its routine, and whether info fields are active are
+     * not part of the hash. For the enemies in this game that state follows from the tick number, which
+     * {@link Game#stateHash()} adds.
+     *
+     * @return The state hash.
+     */
+    public long stateHash() {
+        return player != null ? stateHash ^ player.inventoryHash() : stateHash;
     }
     /**
      * Get the game to which the level belongs.
@@ -204,13 +490,12 @@ public class Level extends Entity {
             var oldPosition = player.getPosition();
             var newPosition = oldPosition.add(movement);
 
-            if (newPosition.x() < 0 || newPosition.x() >= width ||
-                    newPosition.y() < 0 || newPosition.y() >= width) {
+            if (!isInBounds(newPosition.x(), newPosition.y())) {
                 throw new IllegalArgumentException("Player went outside the board");
             }
 
-            var oldTile = getTile(oldPosition);
-            var newTile = getTile(newPosition);
+            var oldTile = tileAt(oldPosition);
+            var newTile = tileAt(newPosition);
             if (newTile == null || newTile.isEnterable(player)) {
                 if (oldTile != null) {
                     oldTile.onExit(player);
@@ -234,8 +519,7 @@ public class Level extends Entity {
     public void move(Enemy enemy, Vector2D movement) {
         if (movement != null && movement != Vector2D.ZERO) {
             var newPosition = enemy.getPosition().add(movement);
-            if (newPosition.x() < 0 || newPosition.x() >= width ||
-                    newPosition.y() < 0 || newPosition.y() >= width) {
+            if (!isInBounds(newPosition.x(), newPosition.y())) {
                 throw new IllegalArgumentException("Enemy went outside the board");
             }
             enemy.setPosition(newPosition);
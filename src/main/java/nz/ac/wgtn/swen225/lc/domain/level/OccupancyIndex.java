@@ -0,0 +1,162 @@
+package nz.ac.wgtn.swen225.lc.domain.level;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Presents an index from board cells to the enemies standing on them, identified by their slots in the level.
+ * <p>
+ * Occupied cells are kept in an open-addressing hash table, and the enemies sharing a cell are chained through an
+ * array indexed by slot, so adding, moving and looking up enemies is constant time and, once the arrays have grown to
+ * fit the enemies, does not allocate.
+ * @author Shiyan Wei
+ * Student ID: 300569298
+ */
+final class OccupancyIndex implements Serializable {
+
+    static final int NONE = -1;
+
+    private final int width;
+    private int[] cells = new int[16];  // cell number per table entry, NONE if the entry is unused
+    private int[] heads = new int[16];  // first slot on the cell per table entry
+    private int[] next = new int[8];  // next slot on the same cell per slot, NONE at the end of the chain
+    private int used;  // number of used table entries
+
+    /**
+     * Creates an empty index.
+     *
+     * @param width The width of the board, used to number cells.
+     */
+    OccupancyIndex(int width) {
+        this.width = width;
+        Arrays.fill(cells, NONE);
+    }
+
+    /**
+     * Adds an enemy to the cell at (x, y).
+     *
+     * @param slot The slot of the enemy.
+     * @param x The column.
+     * @param y The row.
+     */
+    void add(int slot, int x, int y) {
+        if (slot >= next.length) {
+            next = Arrays.copyOf(next, Math.max(slot + 1, next.length * 2));
+        }
+        int cell = y * width + x;
+        int entry = find(cell);
+        if (entry == NONE) {
+            if ((used + 1) * 2 > cells.length) {
+                grow();
+            }
+            entry = insert(cell);
+            next[slot] = NONE;
+        } else {
+            next[slot] = heads[entry];
+        }
+        heads[entry] = slot;
+    }
+
+    /**
+     * Removes an enemy from the cell at (x, y). Does nothing if the enemy is not there.
+     *
+     * @param slot The slot of the enemy.
+     * @param x The column.
+     * @param y The row.
+     */
+    void remove(int slot, int x, int y) {
+        int entry = find(y * width + x);
+        if (entry == NONE) {
+            return;
+        }
+        if (heads[entry] == slot) {
+            heads[entry] = next[slot];
+            if (heads[entry] == NONE) {
+                delete(entry);
+            }
+            return;
+        }
+        for (int s = heads[entry]; next[s] != NONE; s = next[s]) {
+            if (next[s] == slot) {
+                next[s] = next[slot];
+                return;
+            }
+        }
+    }
+
+    /**
+     * Gets the first enemy on the cell at (x, y). Use {@link #next(int)} for the others.
+     *
+     * @param x The column.
+     * @param y The row.
+     * @return The slot of the enemy, or {@link #NONE} if there is no enemy on the cell.
+     */
+    int first(int x, int y) {
+        int entry = find(y * width + x);
+        return entry == NONE ? NONE : heads[entry];
+    }
+
+    /**
+     * Gets the next enemy on the same cell as the given one.
+     *
+     * @param slot The slot of an enemy.
+     * @return The slot of the next enemy, or {@link #NONE} if there are no more.
+     */
+    int next(int slot) {
+        return next[slot];
+    }
+
+    private int hash(int cell) {
+        // Fibonacci hashing: the high bits of the product are well mixed
+        return (cell * 0x9E3779B9) >>> Integer.numberOfLeadingZeros(cells.length - 1);
+    }
+
+    private int find(int cell) {
+        for (int i = hash(cell); cells[i] != NONE; i = (i + 1) & (cells.length - 1)) {
+            if (cells[i] == cell) {
+                return i;
+            }
+        }
+        return NONE;
+    }
+
+    private int insert(int cell) {
+        int i = hash(cell);
+        while (cells[i] != NONE) {
+            i = (i + 1) & (cells.length - 1);
+        }
+        cells[i] = cell;
+        used++;
+        return i;
+    }
+
+    // Linear probing deletion: shift back later entries of the probe sequence so that lookups still find them
+    private void delete(int entry) {
+        int mask = cells.length - 1;
+        int hole = entry;
+        for (int i = (hole + 1) & mask; cells[i] != NONE; i = (i + 1) & mask) {
+            int home = hash(cells[i]);
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                cells[hole] = cells[i];
+                heads[hole] = heads[i];
+                hole = i;
+            }
+        }
+        cells[hole] = NONE;
+        used--;
+    }
+
+    private void grow() {
+        var oldCells = cells;
+        var oldHeads = heads;
+        cells = new int[oldCells.length * 2];
+        heads = new int[oldCells.length * 2];
+        Arrays.fill(cells, NONE);
+        used = 0;
+        for (int i = 0; i < oldCells.length; i++) {
+            if (oldCells[i] != NONE) {
+                heads[insert(oldCells[i])] = oldHeads[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package nz.ac.wgtn.swen225.lc.domain.level;
+
+import nz.ac.wgtn.swen225.lc.domain.level.tiles.*;
+
+/**
+ * Presents the kind of a tile, stored compactly (one byte per cell) by {@link ChunkedTileGrid} so that the board can be
+ * scanned without dereferencing tiles.
+ * @author Shiyan Wei
+ * Student ID: 300569298
+ */
+public enum TileType {
+    FREE, WALL, CHIP, KEY, LOCKED_DOOR, EXIT_LOCK, EXIT, INFO_FIELD, OTHER;
+
+    private static final TileType[] VALUES = values();
+
+    /**
+     * Gets the type of the given tile.
+     *
+     * @param tile The tile, or null for a free cell.
+     * @return The type of the tile.
+     */
+    public static TileType of(Tile tile) {
+        if (tile == null) {
+            return FREE;
+        } else if (tile instanceof Wall) {
+            return WALL;
+        } else if (tile instanceof ChipTile) {
+            return CHIP;
+        } else if (tile instanceof KeyTile) {
+            return KEY;
+        } else if (tile instanceof LockedDoor) {
+            return LOCKED_DOOR;
+        } else if (tile instanceof ExitLock) {
+            return EXIT_LOCK;
+        } else if (tile instanceof Exit) {
+            return EXIT;
+        } else if (tile instanceof InfoField) {
+            return INFO_FIELD;
+        }
+        return OTHER;
+    }
+
+    /**
+     * Gets the type with the given ordinal, as stored in a compact array.
+     *
+     * @param ordinal The ordinal of the type.
+     * @return The type.
+     */
+    static TileType ofOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+}
@@ -62,13 +62,17 @@ public abstract class Character extends Entity {
         return position;
     }
     /**
-     * Set the character's position in the game world.
+     * Set the character's position in the game world, and let the level know about it.
      *
      * @param position The new position for the character.
      */
 
     public void setPosition(Vector2D position) {
+        var oldPosition = this.position;
         this.position = position;
+        if (level != null) {
+            level.onCharacterMoved(this, oldPosition, position);
+        }
     }
     /**
      * Set the level in which the character exists.
@@ -39,7 +39,15 @@ public abstract class Enemy extends Character {
     public abstract Vector2D nextMove();
 
     /**
-     * Moves the enemy to a new position and fires {@link EnemyMovedEvent}
+     * Creates a copy of the enemy with the same identifier, position and movement state, not belonging to any level,
+     * e.g. to fork a game.
+     *
+     * @return A copy of the enemy.
+     */
+    public abstract Enemy copy();
+
+    /**
+     * Moves the enemy to a new position and fires {@link EnemyMovedEvent} if anyone listens to it
      * <p>
      * @param position
      */
@@ -47,6 +55,8 @@ public abstract class Enemy extends Character {
     public void setPosition(Vector2D position) {
         var oldPosition = getPosition();
         super.setPosition(position);
-        getGame().fire(new EnemyMovedEvent(this, oldPosition, getPosition()));
+        if (getGame().hasListeners(EnemyMovedEvent.class)) {
+            getGame().fire(new EnemyMovedEvent(this, oldPosition, getPosition()));
+        }
     }
 }
@@ -5,6 +5,7 @@ import nz.ac.wgtn.swen225.lc.domain.level.Level;
 import nz.ac.wgtn.swen225.lc.domain.level.items.Chip;
 import nz.ac.wgtn.swen225.lc.domain.level.items.Key;
 import nz.ac.wgtn.swen225.lc.utils.Vector2D;
+import nz.ac.wgtn.swen225.lc.utils.Zobrist;
 
 import java.util.Collections;
 import java.util.HashSet;
@@ -19,6 +20,10 @@ public final class Player extends Character {
 
     private final Set<Key> keys = new HashSet<>();
     private final Set<Chip> chips = new HashSet<>();
+    private final Set<Key> keysView = Collections.unmodifiableSet(keys);
+    private final Set<Chip> chipsView = Collections.unmodifiableSet(chips);
+    private final int[] keyCounts = new int[Key.Color.values().length];  // number of keys held per color
+    private long inventoryHash;  // see inventoryHash()
 
     /**
      * Constructs a player with the given position.
@@ -36,12 +41,12 @@ public final class Player extends Character {
      */
     public Player(int id, Vector2D position, Set<Key> keys, Set<Chip> chips) {
         super(id, position);
-        this.keys.addAll(keys);
-        this.chips.addAll(chips);
+        keys.forEach(this::addKey);
+        chips.forEach(this::addChip);
     }
 
     /**
-     * Moves the enemy to a new position and fires {@link PlayerMovedEvent}
+     * Moves the player to a new position and fires {@link PlayerMovedEvent} if anyone listens to it
      * <p>
      * @param position
      */
@@ -49,15 +54,27 @@ public final class Player extends Character {
     public void setPosition(Vector2D position) {
         var oldPosition = getPosition();
         super.setPosition(position);
-        getGame().fire(new PlayerMovedEvent(this, oldPosition, getPosition()));
+        if (getGame().hasListeners(PlayerMovedEvent.class)) {
+            getGame().fire(new PlayerMovedEvent(this, oldPosition, getPosition()));
+        }
     }
 
     /**
-     * Get an unmodifiable view of the keys held by the player.
+     * Get an unmodifiable, live view of the keys held by the player. No copy is made. Use {@link #snapshotKeys()} if
+     * an isolated copy is needed.
      *
      * @return An unmodifiable set of keys.
      */
     public Set<Key> getKeys() {
+        return keysView;
+    }
+
+    /**
+     * Get an immutable copy of the keys held by the player, unaffected by later changes to the inventory.
+     *
+     * @return A copy of the keys.
+     */
+    public Set<Key> snapshotKeys() {
         return Set.copyOf(keys);
     }
 
@@ -67,7 +84,9 @@ public final class Player extends Character {
      * @param key The key to add.
      */
     public void addKey(Key key) {
-        keys.add(key);
+        if (keys.add(key)) {
+            updateKeyCount(key.getColor(), 1);
+        }
     }
 
     /**
@@ -76,15 +95,35 @@ public final class Player extends Character {
      * @param key The key to remove.
      */
     public void removeKey(Key key) {
-        keys.remove(key);
+        if (keys.remove(key)) {
+            updateKeyCount(key.getColor(), -1);
+        }
+    }
+
+    // Change the number of keys of a color and its part of the inventory hash
+    private void updateKeyCount(Key.Color color, int change) {
+        var index = color.ordinal();
+        inventoryHash ^= countKey(Zobrist.KEYS, index, keyCounts[index]);
+        keyCounts[index] += change;
+        inventoryHash ^= countKey(Zobrist.KEYS, index, keyCounts[index]);
     }
 
     /**
-     * Get an unmodifiable view of the chips collected by the player.
+     * Get an unmodifiable, live view of the chips collected by the player. No copy is made. Use
+     * {@link #snapshotChips()} if an isolated copy is needed.
      *
      * @return An unmodifiable set of chips.
      */
     public Set<Chip> getChips() {
+        return chipsView;
+    }
+
+    /**
+     * Get an immutable copy of the chips collected by the player, unaffected by later changes to the inventory.
+     *
+     * @return A copy of the chips.
+     */
+    public Set<Chip> snapshotChips() {
         return Set.copyOf(chips);
     }
 
@@ -94,7 +133,10 @@ public final class Player extends Character {
      * @param chip The chip to add.
      */
     public void addChip(Chip chip) {
-        chips.add(chip);
+        var count = chips.size();
+        if (chips.add(chip)) {
+            inventoryHash ^= countKey(Zobrist.CHIPS, 0, count) ^ countKey(Zobrist.CHIPS, 0, count + 1);
+        }
     }
 
     /**
@@ -103,7 +145,34 @@ public final class Player extends Character {
      * @param chip The chip to remove.
      */
     public void removeChip(Chip chip) {
-        chips.remove(chip);
+        var count = chips.size();
+        if (chips.remove(chip)) {
+            inventoryHash ^= countKey(Zobrist.CHIPS, 0, count) ^ countKey(Zobrist.CHIPS, 0, count - 1);
+        }
     }
 
+    // Zobrist key of holding count items of a kind, nothing when there are none
+    private static long countKey(int kind, int index, int count) {
+        return count == 0 ? 0 : Zobrist.key(kind, index, count, 0);
+    }
+
+    /**
+     * Get a hash of the inventory: how many keys of each color and how many chips the player holds. Which particular
+     * key or chip objects are held does not matter. Kept up to date incrementally, so this is O(1).
+     *
+     * @return The inventory hash.
+     */
+    public long inventoryHash() {
+        return inventoryHash;
+    }
+
+    /**
+     * Creates a copy of the player with the same identifier, position and inventory, not belonging to any level, e.g.
+     * to fork a game. The keys and chips themselves are immutable and shared.
+     *
+     * @return A copy of the player.
+     */
+    public Player copy() {
+        return new Player(getId(), getPosition(), keys, chips);
+    }
 }
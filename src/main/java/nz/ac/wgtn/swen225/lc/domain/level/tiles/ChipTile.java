@@ -43,7 +43,7 @@ public final class ChipTile extends Tile {
      */
     @Override
     public boolean isEnterable(Player player) {
-        if (getLevel() == null || !getLevel().getTiles().contains(this)) {
+        if (getLevel() == null || !getLevel().containsTile(this)) {
             throw new IllegalStateException("Stale tile being used!");
         }
         return true;
@@ -59,7 +59,7 @@ public final class ChipTile extends Tile {
      */
     @Override
     public void onEnter(Player player) {
-        if (getLevel() == null || !getLevel().getTiles().contains(this)) {
+        if (getLevel() == null || !getLevel().containsTile(this)) {
             throw new IllegalStateException("Stale tile being used!");
         }
 
@@ -89,4 +89,14 @@ public final class ChipTile extends Tile {
     public Chip getChip() {
         return chip;
     }
+
+    /**
+     * Creates a copy of this tile with the same identifier, not belonging to any level.
+     *
+     * @return A copy of this tile.
+     */
+    @Override
+    public ChipTile copy() {
+        return new ChipTile(getId(), getPosition(), chip);
+    }
 }
@@ -62,4 +62,14 @@ public final class Exit extends Tile {
     public void onExit(Player player) {
         throw new IllegalStateException("Illegal movement!");
     }
+
+    /**
+     * Creates a copy of this tile with the same identifier, not belonging to any level.
+     *
+     * @return A copy of this tile.
+     */
+    @Override
+    public Exit copy() {
+        return new Exit(getId(), getPosition());
+    }
 }
@@ -39,7 +39,7 @@ public final class ExitLock extends Tile {
      */
     @Override
     public boolean isEnterable(Player player) {
-        return getLevel().getTiles().stream().noneMatch(t -> t instanceof ChipTile);
+        return getLevel().countTiles(ChipTile.class) == 0;
     }
     /**
      * Actions to be taken when the player enters this tile.
@@ -73,4 +73,13 @@ public final class ExitLock extends Tile {
         // do nothing
     }
 
+    /**
+     * Creates a copy of this tile with the same identifier, not belonging to any level.
+     *
+     * @return A copy of this tile.
+     */
+    @Override
+    public ExitLock copy() {
+        return new ExitLock(getId(), getPosition());
+    }
 }
@@ -102,4 +102,13 @@ public final class InfoField extends Tile {
         return active;
     }
 
+    /**
+     * Creates a copy of this tile with the same identifier, not belonging to any level.
+     *
+     * @return A copy of this tile.
+     */
+    @Override
+    public InfoField copy() {
+        return new InfoField(getId(), getPosition(), message, active);
+    }
 }
@@ -52,7 +52,7 @@ public final class KeyTile extends Tile {
      */
     @Override
     public boolean isEnterable(Player player) {
-        if (getLevel() == null || !getLevel().getTiles().contains(this)) {
+        if (getLevel() == null || !getLevel().containsTile(this)) {
             throw new IllegalStateException("Stale tile being used!");
         }
         return true;
@@ -69,7 +69,7 @@ public final class KeyTile extends Tile {
      */
     @Override
     public void onEnter(Player player) {
-        if (getLevel() == null || !getLevel().getTiles().contains(this)) {
+        if (getLevel() == null || !getLevel().containsTile(this)) {
             throw new IllegalStateException("Stale tile being used!");
         }
 
@@ -90,4 +90,13 @@ public final class KeyTile extends Tile {
         // do nothing
     }
 
+    /**
+     * Creates a copy of this tile with the same identifier, not belonging to any level.
+     *
+     * @return A copy of this tile.
+     */
+    @Override
+    public KeyTile copy() {
+        return new KeyTile(getId(), getPosition(), key);
+    }
 }
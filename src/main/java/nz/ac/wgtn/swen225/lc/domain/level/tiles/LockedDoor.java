@@ -90,4 +90,14 @@ public final class LockedDoor extends Tile {
     public void onExit(Player player) {
         // do nothing
     }
+
+    /**
+     * Creates a copy of this tile with the same identifier, not belonging to any level.
+     *
+     * @return A copy of this tile.
+     */
+    @Override
+    public LockedDoor copy() {
+        return new LockedDoor(getId(), getPosition(), color);
+    }
 }
@@ -54,6 +54,14 @@ public abstract class Tile extends Entity {
      * @param player player
      */
     public abstract void onExit(Player player);
+    /**
+     * Creates a copy of the tile with the same identifier and state but not belonging to any level, e.g. to fork a
+     * game. Immutable parts such as the position and items are shared.
+     *
+     * @return A copy of the tile.
+     */
+    public abstract Tile copy();
+
     /**
      * Get the level to which the tile belongs.
      *
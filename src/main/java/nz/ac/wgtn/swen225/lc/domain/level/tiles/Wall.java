@@ -64,4 +64,13 @@ public final class Wall extends Tile {
         throw new IllegalStateException("Illegal movement!");
     }
 
+    /**
+     * Creates a copy of this tile with the same identifier, not belonging to any level.
+     *
+     * @return A copy of this tile.
+     */
+    @Override
+    public Wall copy() {
+        return new Wall(getId(), getPosition());
+    }
 }
@@ -0,0 +1,86 @@
+package nz.ac.wgtn.swen225.lc.levels.level2;
+
+import nz.ac.wgtn.swen225.lc.domain.Game;
+import nz.ac.wgtn.swen225.lc.domain.level.FlowField;
+import nz.ac.wgtn.swen225.lc.domain.level.characters.Enemy;
+import nz.ac.wgtn.swen225.lc.utils.Vector2D;
+
+import java.time.Duration;
+
+/**
+ * Present an enemy that chases the player around obstacles. Chasers look up their moves in the level's shared
+ * {@link FlowField}, so many of them are as cheap as one.
+ * @author Shiyan Wei
+ * Student ID: 300569298
+ */
+public final class Chaser extends Enemy {
+
+    private final long intervalMillis;  // interval in simulated time
+
+    /**
+     * Constructs a Chaser with the given position and interval.
+     *
+     * @param position The initial position of the Chaser.
+     * @param intervalInTicks The interval (in game ticks at the default {@link Game#FRAME_RATE}) at which the Chaser
+     *                        moves one tile towards the player.
+     */
+    public Chaser(Vector2D position, int intervalInTicks) {
+        this(position, Patroller.ticksToDuration(intervalInTicks));
+    }
+
+    /**
+     * Constructs a Chaser with the given position and interval.
+     *
+     * @param position The initial position of the Chaser.
+     * @param interval The interval (in simulated time) at which the Chaser moves one tile towards the player.
+     */
+    public Chaser(Vector2D position, Duration interval) {
+        super(position);
+        this.intervalMillis = Patroller.checkInterval(interval);
+    }
+
+    /**
+     * Constructs a Chaser with the given ID, position and interval.
+     *
+     * @param id The unique identifier for the Chaser.
+     * @param position The initial position of the Chaser.
+     * @param interval The interval (in simulated time) at which the Chaser moves one tile towards the player.
+     */
+    public Chaser(int id, Vector2D position, Duration interval) {
+        super(id, position);
+        this.intervalMillis = Patroller.checkInterval(interval);
+    }
+
+    /**
+     * Creates a copy of this Chaser with the same identifier and position.
+     *
+     * @return A copy of this Chaser.
+     */
+    @Override
+    public Chaser copy() {
+        return new Chaser(getId(), getPosition(), getInterval());
+    }
+
+    /**
+     * Determines the next move for the Chaser: one tile along the shortest path to the player, every interval.
+     *
+     * @return The vector representing the next move of the Chaser.
+     */
+    @Override
+    public Vector2D nextMove() {
+        if (Game.isDue(getGame().getTickNo(), getGame().getTickRate(), intervalMillis)) {
+            return getLevel().getFlowField().directionAt(getPosition());
+        } else {
+            return Vector2D.ZERO;
+        }
+    }
+
+    /**
+     * Gets the interval (in simulated time) at which the Chaser moves.
+     *
+     * @return The interval.
+     */
+    public Duration getInterval() {
+        return Duration.ofMillis(intervalMillis);
+    }
+}
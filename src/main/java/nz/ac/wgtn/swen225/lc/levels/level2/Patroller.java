@@ -1,11 +1,12 @@
 package nz.ac.wgtn.swen225.lc.levels.level2;
 
+import nz.ac.wgtn.swen225.lc.domain.Game;
 import nz.ac.wgtn.swen225.lc.domain.level.characters.Enemy;
 import nz.ac.wgtn.swen225.lc.utils.Vector2D;
 
-import java.util.LinkedList;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Queue;
 
 /**
  * Present an enemy that patrols around a route
@@ -14,19 +15,31 @@ import java.util.Queue;
  */
 public final class Patroller extends Enemy {
 
-    private final Queue<Vector2D> routine = new LinkedList<>();
-    private final int intervalInTicks;
+    private final Vector2D[] routine;
+    private int routineIndex = 0;  // index of the next move in the routine
+    private final long intervalMillis;  // interval in simulated time
     /**
      * Constructs a Patroller with the given position, patrol routine, and interval.
      *
      * @param position The initial position of the Patroller.
      * @param routine A list of waypoints that define the patrol route.
-     * @param intervalInTicks The interval (in game ticks) at which the Patroller moves to the next waypoint.
+     * @param intervalInTicks The interval (in game ticks at the default {@link Game#FRAME_RATE}) at which the
+     *                        Patroller moves to the next waypoint.
      */
     public Patroller(Vector2D position, List<Vector2D> routine, int intervalInTicks) {
+        this(position, routine, ticksToDuration(intervalInTicks));
+    }
+    /**
+     * Constructs a Patroller with the given position, patrol routine, and interval.
+     *
+     * @param position The initial position of the Patroller.
+     * @param routine A list of waypoints that define the patrol route.
+     * @param interval The interval (in simulated time) at which the Patroller moves to the next waypoint.
+     */
+    public Patroller(Vector2D position, List<Vector2D> routine, Duration interval) {
         super(position);
-        this.routine.addAll(routine);
-        this.intervalInTicks = intervalInTicks;
+        this.routine = routine.toArray(new Vector2D[0]);
+        this.intervalMillis = checkInterval(interval);
     }
     /**
      * Constructs a Patroller with the given ID, position, patrol routine, and interval.
@@ -34,12 +47,54 @@ public final class Patroller extends Enemy {
      * @param id The unique identifier for the Patroller.
      * @param position The initial position of the Patroller.
      * @param routine A list of waypoints that define the patrol route.
-     * @param intervalInTicks The interval (in game ticks) at which the Patroller moves to the next waypoint.
+     * @param intervalInTicks The interval (in game ticks at the default {@link Game#FRAME_RATE}) at which the
+     *                        Patroller moves to the next waypoint.
      */
     public Patroller(int id, Vector2D position, List<Vector2D> routine, int intervalInTicks) {
+        this(id, position, routine, ticksToDuration(intervalInTicks));
+    }
+    /**
+     * Constructs a Patroller with the given ID, position, patrol routine, and interval.
+     *
+     * @param id The unique identifier for the Patroller.
+     * @param position The initial position of the Patroller.
+     * @param routine A list of waypoints that define the patrol route.
+     * @param interval The interval (in simulated time) at which the Patroller moves to the next waypoint.
+     */
+    public Patroller(int id, Vector2D position, List<Vector2D> routine, Duration interval) {
         super(id, position);
-        this.routine.addAll(routine);
-        this.intervalInTicks = intervalInTicks;
+        this.routine = routine.toArray(new Vector2D[0]);
+        this.intervalMillis = checkInterval(interval);
+    }
+
+    // Converts ticks at the default tick rate, the unit intervals were given in before tick rates could change
+    static Duration ticksToDuration(int intervalInTicks) {
+        return Duration.ofMillis(intervalInTicks * 1000L / Game.FRAME_RATE);
+    }
+
+    static long checkInterval(Duration interval) {
+        if (interval == null || interval.toMillis() <= 0) {
+            throw new IllegalArgumentException("Interval must be at least a millisecond");
+        }
+        return interval.toMillis();
+    }
+
+    // Copy constructor. The routine array is never modified, so it is shared
+    private Patroller(Patroller another) {
+        super(another.getId(), another.getPosition());
+        this.routine = another.routine;
+        this.routineIndex = another.routineIndex;
+        this.intervalMillis = another.intervalMillis;
+    }
+
+    /**
+     * Creates a copy of this Patroller with the same identifier, position and place in its routine.
+     *
+     * @return A copy of this Patroller.
+     */
+    @Override
+    public Patroller copy() {
+        return new Patroller(this);
     }
 
     /**
@@ -50,9 +105,9 @@ public final class Patroller extends Enemy {
      */
     @Override
     public Vector2D nextMove() {
-        if (getGame().getTickNo() % intervalInTicks == 0) {
-            var nextMove = routine.remove();
-            routine.add(nextMove);
+        if (routine.length > 0 && Game.isDue(getGame().getTickNo(), getGame().getTickRate(), intervalMillis)) {
+            var nextMove = routine[routineIndex];
+            routineIndex = (routineIndex + 1) % routine.length;
             return nextMove;
         } else {
             return Vector2D.ZERO;
@@ -60,20 +115,37 @@ public final class Patroller extends Enemy {
     }
 
     /**
-     * Gets the predefined patrol routine of the Patroller.
+     * Gets the predefined patrol routine of the Patroller, starting from its next move.
      *
      * @return A list of waypoints defining the patrol route.
      */
     public List<Vector2D> getRoutine() {
-        return List.copyOf(routine);
+        var rotated = new ArrayList<Vector2D>(routine.length);
+        for (int i = 0; i < routine.length; i++) {
+            rotated.add(routine[(routineIndex + i) % routine.length]);
+        }
+        return List.copyOf(rotated);
+    }
+
+    /**
+     * Gets the interval (in simulated time) at which the Patroller moves to the next waypoint.
+     *
+     * @return The interval.
+     */
+    public Duration getInterval() {
+        return Duration.ofMillis(intervalMillis);
     }
 
     /**
-     * Gets the interval (in game ticks) at which the Patroller moves to the next waypoint.
+     * Gets the interval (in game ticks at the default {@link Game#FRAME_RATE}) at which the Patroller moves to the
+     * next waypoint, rounded to the nearest tick.
      *
      * @return The interval in game ticks.
+     * @deprecated The tick rate is a per-game setting, so a number of ticks no longer fixes the interval. Use
+     *             {@link #getInterval()} instead.
      */
+    @Deprecated
     public int getIntervalInTicks() {
-        return intervalInTicks;
+        return Math.toIntExact(Math.round(intervalMillis * Game.FRAME_RATE / 1000.0));
     }
-}
\ No newline at end of file
+}
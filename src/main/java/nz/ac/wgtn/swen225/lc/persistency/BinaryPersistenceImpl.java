@@ -0,0 +1,825 @@
+package nz.ac.wgtn.swen225.lc.persistency;
+
+import nz.ac.wgtn.swen225.lc.domain.Game;
+import nz.ac.wgtn.swen225.lc.domain.level.Level;
+import nz.ac.wgtn.swen225.lc.domain.level.characters.Enemy;
+import nz.ac.wgtn.swen225.lc.domain.level.characters.Player;
+import nz.ac.wgtn.swen225.lc.domain.level.items.Chip;
+import nz.ac.wgtn.swen225.lc.domain.level.items.Key;
+import nz.ac.wgtn.swen225.lc.domain.level.tiles.*;
+import nz.ac.wgtn.swen225.lc.levels.level2.Chaser;
+import nz.ac.wgtn.swen225.lc.levels.level2.Patroller;
+import nz.ac.wgtn.swen225.lc.recorder.Moment;
+import nz.ac.wgtn.swen225.lc.recorder.Playback;
+import nz.ac.wgtn.swen225.lc.recorder.PlaybackSource;
+import nz.ac.wgtn.swen225.lc.utils.Vector2D;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * BinaryPersistenceImpl for the "Chips Challenge game"
+ * <p>
+ * Saves games and playbacks in a compact, versioned binary format, and loads both that format and the Json written by
+ * {@link FileBasedPersistenceImpl}: the format of a file is told by its first bytes, so older Json saves stay
+ * readable. Levels are still loaded from the Json level resources.
+ * <p>
+ * A file starts with the magic bytes "LCB", the format version and whether it holds a game or a playback. Ids and
+ * counts are unsigned varints, positions are packed into the index of their cell on the board, tiles and enemies are
+ * tagged with a type byte, the moves of moments and patrol routines are a direction byte, and the tick of each moment
+ * is stored as the difference from the tick of the moment before.
+ * <p>
+ * Since version 2 a playback ends with an index of its moments, so that {@link MappedPlayback} can open it without
+ * reading the moments: an entry of two 4-byte ints, tick number and file offset, per moment in tick order, followed
+ * by the offset of the index and the number of entries as two more 4-byte ints. Version 1 files, without the index,
+ * can still be loaded.
+ * <p>
+ * Since version 3 strings are a varint byte length followed by their UTF-8 bytes, so info field messages are not
+ * limited to the 64KB of {@link DataOutputStream#writeUTF(String)}, which older versions used.
+ * @author - Brett Penwarden
+ * Student id - 300635306
+ */
+public class BinaryPersistenceImpl implements Persistence {
+
+    /**
+     * The first bytes of every binary file.
+     */
+    public static final byte[] MAGIC = {'L', 'C', 'B'};
+
+    /**
+     * The version of the binary format written by this class.
+     */
+    public static final int VERSION = 3;
+
+    /**
+     * The first version whose playbacks end with an index of their moments.
+     */
+    static final int INDEXED_VERSION = 2;
+
+    /**
+     * The size of the fixed-width trailer at the end of an indexed playback: the index offset and entry count.
+     */
+    static final int TRAILER_SIZE = 8;
+
+    /**
+     * The size of an index entry: the tick number and the file offset of a moment.
+     */
+    static final int INDEX_ENTRY_SIZE = 8;
+
+    static final int KIND_GAME = 0;
+    static final int KIND_PLAYBACK = 1;
+
+    // Type bytes of the tiles and enemies, by class name; the index is the type byte
+    private static final List<String> TILE_TYPES =
+            List.of("Wall", "ChipTile", "Exit", "ExitLock", "InfoField", "KeyTile", "LockedDoor");
+    private static final List<String> ENEMY_TYPES = List.of("Patroller", "Chaser");
+
+    // Direction bytes of moves; any other move is written as DIRECTION_OTHER followed by its coordinates
+    private static final List<Vector2D> DIRECTIONS =
+            List.of(Vector2D.ZERO, Vector2D.LEFT, Vector2D.UP, Vector2D.RIGHT, Vector2D.DOWN);
+    private static final int DIRECTION_OTHER = 0xFE;
+    private static final int DIRECTION_NULL = 0xFF;
+
+    private final FileBasedPersistenceImpl json;
+
+    /**
+     * Creates a persistence finding the levels on the classpath.
+     */
+    public BinaryPersistenceImpl() {
+        this(new FileBasedPersistenceImpl());
+    }
+
+    /**
+     * Creates a persistence loading levels and Json files through a Json persistence.
+     *
+     * @param json - the Json persistence
+     */
+    public BinaryPersistenceImpl(FileBasedPersistenceImpl json) {
+        if (json == null) {
+            throw new IllegalArgumentException("Json persistence cannot be null");
+        }
+        this.json = json;
+    }
+
+    /**
+     * Retrieves a list of all available level numbers in the game.
+     *
+     * @return A list of all level numbers
+     */
+    @Override
+    public List<Integer> getAllLevelNos() {
+        return json.getAllLevelNos();
+    }
+
+    /**
+     * Gets the number of the level after a level.
+     *
+     * @param levelNo - the number of the level
+     * @return the number of the next level, or empty if it is the last level
+     */
+    @Override
+    public Optional<Integer> getNextLevelNo(int levelNo) {
+        return json.getNextLevelNo(levelNo);
+    }
+
+    /**
+     * Loads a game for the specified level number from the Json level resources
+     *
+     * @param levelNo The level number for which to load the game
+     * @return Game object representing the loaded game
+     */
+    @Override
+    public Game loadGame(int levelNo) {
+        return json.loadGame(levelNo);
+    }
+
+    /**
+     * Loads game from a saved file, in either the binary or the Json format
+     *
+     * @param save - the saved file
+     * @return - Game object from a saved file
+     */
+    @Override
+    public Game loadGame(File save) {
+        if (!isBinary(save)) {
+            return json.loadGame(save);
+        }
+        return read(save, KIND_GAME, this::readGame);
+    }
+
+    /**
+     * Loads a playback from a saved file, in either the binary or the Json format
+     *
+     * @param save the file from which to load the playback
+     * @return A playback object representing the loaded playback
+     */
+    @Override
+    public Playback loadPlayback(File save) {
+        if (!isBinary(save)) {
+            return json.loadPlayback(save);
+        }
+        return read(save, KIND_PLAYBACK, this::readPlayback);
+    }
+
+    /**
+     * Opens a playback for replaying. A playback in the indexed binary format is memory-mapped, so it opens without
+     * reading its moments; other playbacks are loaded as a whole.
+     *
+     * @param save the file from which to open the playback
+     * @return A source of the moments of the playback, to be closed when no longer needed
+     */
+    @Override
+    public PlaybackSource openPlayback(File save) {
+        if (isBinary(save) && MappedPlayback.isIndexed(save)) {
+            return MappedPlayback.open(save, this);
+        }
+        return loadPlayback(save);
+    }
+
+    /**
+     * Saves a game object to a file in the binary format
+     *
+     * @param save - the File where the game should be saved
+     * @param game The object to be saved
+     */
+    @Override
+    public void saveGame(File save, Game game) {
+        write(save, KIND_GAME, out -> writeGame(out, game));
+    }
+
+    /**
+     * Saves a Playback object to a file in the binary format
+     *
+     * @param save - The file where the playback should be saved
+     * @param playback - the Playback object to be saved
+     */
+    @Override
+    public void savePlayback(File save, Playback playback) {
+        write(save, KIND_PLAYBACK, out -> writePlayback(out, playback));
+    }
+
+    /**
+     * Gets the extension of the files saved by this class
+     *
+     * @return the extension, without the dot
+     */
+    @Override
+    public String getFileExtension() {
+        return "lcb";
+    }
+
+    /**
+     * Checks whether a file starts with the magic bytes of the binary format
+     *
+     * @param file - the file
+     * @return true if the file is in the binary format, false otherwise
+     * @throws RuntimeException if the file cannot be read
+     */
+    public static boolean isBinary(File file) {
+        try (var in = new FileInputStream(file)) {
+            return Arrays.equals(in.readNBytes(MAGIC.length), MAGIC);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Reads a value from a binary stream
+     *
+     * @param <T> - the type of the value
+     */
+    @FunctionalInterface
+    private interface BinaryReader<T> {
+        T read(DataInputStream in, int version) throws IOException;
+    }
+
+    /**
+     * Writes a value to a binary stream
+     */
+    @FunctionalInterface
+    private interface BinaryWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * Reads a binary file after checking its header
+     *
+     * @param save - the file
+     * @param kind - what the file must hold
+     * @param reader - reads the content after the header
+     * @return The content
+     * @throws IllegalArgumentException if the file is of another version or kind, or truncated
+     */
+    private <T> T read(File save, int kind, BinaryReader<T> reader) {
+        try (var in = new DataInputStream(new BufferedInputStream(new FileInputStream(save)))) {
+            in.skipNBytes(MAGIC.length);
+            int version = in.readUnsignedByte();
+            if (version < 1 || version > VERSION) {
+                throw new IllegalArgumentException("Unsupported binary format version: " + version);
+            }
+            if (in.readUnsignedByte() != kind) {
+                throw new IllegalArgumentException(
+                        "File does not contain a " + (kind == KIND_GAME ? "game" : "playback"));
+            }
+            return reader.read(in, version);
+        } catch (EOFException e) {
+            throw new IllegalArgumentException("Truncated file: " + save, e);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Writes a binary file with its header
+     *
+     * @param save - the file
+     * @param kind - what the file holds
+     * @param writer - writes the content after the header
+     * @throws RuntimeException if there is problem in file writing
+     */
+    private void write(File save, int kind, BinaryWriter writer) {
+        try (var out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(save)))) {
+            out.write(MAGIC);
+            out.writeByte(VERSION);
+            out.writeByte(kind);
+            writer.write(out);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Reads a Playback object
+     *
+     * @param in - the binary stream
+     * @param version - the format version of the file
+     * @return A Playback object
+     */
+    private Playback readPlayback(DataInputStream in, int version) throws IOException {
+        var playback = new Playback();
+        var game = readGame(in, version);
+        var level = game.getLevel();
+        var enemyMap = level.getEnemiesAsMap();
+        playback.setSince(game);
+        playback.setEndTickNo(readVarInt(in));
+        int count = readVarInt(in);
+        int tickNo = game.getTickNo();
+        for (int i = 0; i < count; i++) {
+            tickNo += readSignedVarInt(in);
+            var playerMovement = readMove(in);
+            int enemyCount = readVarInt(in);
+            var enemyMovementMap = new HashMap<Enemy, Vector2D>(enemyCount * 2);
+            for (int j = 0; j < enemyCount; j++) {
+                int id = readVarInt(in);
+                var enemy = enemyMap.get(id);
+                if (enemy == null) {
+                    throw new IllegalArgumentException("Unknown enemy " + id + " at tick " + tickNo);
+                }
+                enemyMovementMap.put(enemy, readMove(in));
+            }
+            playback.addMovement(new Moment(tickNo, playerMovement, enemyMovementMap));
+        }
+        return playback;
+    }
+
+    /**
+     * Writes a Playback object
+     *
+     * @param out - the binary stream
+     * @param playback - the Playback object to write
+     */
+    private void writePlayback(DataOutputStream out, Playback playback) throws IOException {
+        writeGame(out, playback.getSince());
+        writeVarInt(out, playback.getEndTickNo());
+        var moments = playback.getMoments();
+        writeVarInt(out, moments.size());
+        int[] offsets = new int[moments.size()];
+        int tickNo = playback.getSince().getTickNo();
+        for (int i = 0; i < moments.size(); i++) {
+            var moment = moments.get(i);
+            if (i > 0 && moment.tickNo() <= tickNo) {
+                throw new IllegalArgumentException("Moments must be in increasing tick order: " + moment.tickNo());
+            }
+            offsets[i] = out.size();
+            writeSignedVarInt(out, moment.tickNo() - tickNo);
+            tickNo = moment.tickNo();
+            writeMove(out, moment.playerMovement());
+            writeVarInt(out, moment.enemyMovementMap().size());
+            for (var entry : moment.enemyMovementMap().entrySet()) {
+                writeVarInt(out, entry.getKey().getId());
+                writeMove(out, entry.getValue());
+            }
+        }
+        // The index, sorted by tick, and the trailer locating it
+        int indexOffset = out.size();
+        for (int i = 0; i < moments.size(); i++) {
+            out.writeInt(moments.get(i).tickNo());
+            out.writeInt(offsets[i]);
+        }
+        out.writeInt(indexOffset);
+        out.writeInt(moments.size());
+        if (out.size() == Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Playback too large to index");
+        }
+    }
+
+    /**
+     * Reads a Game object
+     *
+     * @param in - the binary stream
+     * @param version - the format version of the file
+     * @return A Game object
+     */
+    Game readGame(DataInputStream in, int version) throws IOException {
+        int id = readVarInt(in);
+        int tickNo = readVarInt(in);
+        int tickRate = readVarInt(in);
+        return new Game(id, tickNo, readLevel(in, version), tickRate);
+    }
+
+    /**
+     * Writes a Game object
+     *
+     * @param out - the binary stream
+     * @param game - the game object to write
+     */
+    private void writeGame(DataOutputStream out, Game game) throws IOException {
+        writeVarInt(out, game.getId());
+        writeVarInt(out, game.getTickNo());
+        writeVarInt(out, game.getTickRate());
+        writeLevel(out, game.getLevel());
+    }
+
+    /**
+     * Reads a Level object
+     *
+     * @param in - the binary stream
+     * @param version - the format version of the file
+     * @return Level object
+     */
+    private Level readLevel(DataInputStream in, int version) throws IOException {
+        int id = readVarInt(in);
+        int levelNo = readVarInt(in);
+        int width = readVarInt(in);
+        int height = readVarInt(in);
+        int timeoutInSeconds = readVarInt(in);
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Invalid level size: " + width + "x" + height);
+        }
+        int tileCount = readVarInt(in);
+        Set<Tile> tiles = new HashSet<>(tileCount * 2);
+        for (int i = 0; i < tileCount; i++) {
+            tiles.add(readTile(in, width, height, version));
+        }
+        int enemyCount = readVarInt(in);
+        Set<Enemy> enemies = new HashSet<>(enemyCount * 2);
+        for (int i = 0; i < enemyCount; i++) {
+            enemies.add(readEnemy(in, width, height));
+        }
+        Player player = readPlayer(in, width, height);
+        return new Level(id, levelNo, width, height, timeoutInSeconds, tiles, enemies, player);
+    }
+
+    /**
+     * Writes a Level object
+     *
+     * @param out - the binary stream
+     * @param level - the level to write
+     */
+    private void writeLevel(DataOutputStream out, Level level) throws IOException {
+        writeVarInt(out, level.getId());
+        writeVarInt(out, level.getLevelNo());
+        writeVarInt(out, level.getWidth());
+        writeVarInt(out, level.getHeight());
+        writeVarInt(out, level.getTimeoutInSeconds());
+        var tiles = level.getTiles();
+        writeVarInt(out, tiles.size());
+        for (var tile : tiles) {
+            writeTile(out, tile, level);
+        }
+        var enemies = level.getEnemies();
+        writeVarInt(out, enemies.size());
+        for (var enemy : enemies) {
+            writeEnemy(out, enemy, level);
+        }
+        writePlayer(out, level.getPlayer(), level);
+    }
+
+    /**
+     * Reads a Tile object, there are many different types of tiles
+     *
+     * @param in - the binary stream
+     * @param width - the width of the level
+     * @param height - the height of the level
+     * @param version - the format version of the file
+     * @return Tile object
+     */
+    private Tile readTile(DataInputStream in, int width, int height, int version) throws IOException {
+        int type = in.readUnsignedByte();
+        int id = readVarInt(in);
+        Vector2D position = readPosition(in, width, height);
+        switch (type < TILE_TYPES.size() ? TILE_TYPES.get(type) : "") {
+            case "Wall" -> {
+                return new Wall(id, position);
+            }
+            case "ChipTile" -> {
+                return new ChipTile(id, position, new Chip());
+            }
+            case "Exit" -> {
+                return new Exit(id, position);
+            }
+            case "ExitLock" -> {
+                return new ExitLock(id, position);
+            }
+            case "InfoField" -> {
+                var message = version < 3 ? in.readUTF() : readString(in);
+                return new InfoField(id, position, message, in.readBoolean());
+            }
+            case "KeyTile" -> {
+                return new KeyTile(id, position, new Key(readColor(in)));
+            }
+            case "LockedDoor" -> {
+                return new LockedDoor(id, position, readColor(in));
+            }
+            default -> throw new IllegalArgumentException("Unsupported tile type: " + type);
+        }
+    }
+
+    /**
+     * Writes a Tile object
+     *
+     * @param out - the binary stream
+     * @param tile - the tile to write
+     * @param level - the level of the tile
+     */
+    private void writeTile(DataOutputStream out, Tile tile, Level level) throws IOException {
+        String type = tile.getClass().getSimpleName();
+        int typeByte = TILE_TYPES.indexOf(type);
+        if (typeByte < 0) {
+            throw new IllegalArgumentException("Unsupported tile type: " + tile.getClass());
+        }
+        out.writeByte(typeByte);
+        writeVarInt(out, tile.getId());
+        writePosition(out, tile.getPosition(), level);
+        switch (type) {
+            case "InfoField" -> {
+                writeString(out, ((InfoField) tile).getMessage());
+                out.writeBoolean(((InfoField) tile).isActive());
+            }
+            case "KeyTile" -> out.writeByte(((KeyTile) tile).getKey().getColor().ordinal());
+            case "LockedDoor" -> out.writeByte(((LockedDoor) tile).getColor().ordinal());
+            default -> {
+                // do nothing
+            }
+        }
+    }
+
+    /**
+     * Reads an Enemy object
+     *
+     * @param in - the binary stream
+     * @param width - the width of the level
+     * @param height - the height of the level
+     * @return Enemy object
+     */
+    private Enemy readEnemy(DataInputStream in, int width, int height) throws IOException {
+        int type = in.readUnsignedByte();
+        int id = readVarInt(in);
+        Vector2D position = readPosition(in, width, height);
+        Duration interval = Duration.ofMillis(readVarLong(in));
+        switch (type < ENEMY_TYPES.size() ? ENEMY_TYPES.get(type) : "") {
+            case "Patroller" -> {
+                int count = readVarInt(in);
+                List<Vector2D> routine = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    routine.add(readMove(in));
+                }
+                return new Patroller(id, position, routine, interval);
+            }
+            case "Chaser" -> {
+                return new Chaser(id, position, interval);
+            }
+            default -> throw new IllegalArgumentException("Unsupported enemy type: " + type);
+        }
+    }
+
+    /**
+     * Writes an Enemy object
+     *
+     * @param out - the binary stream
+     * @param enemy - Enemy object to write
+     * @param level - the level of the enemy
+     */
+    private void writeEnemy(DataOutputStream out, Enemy enemy, Level level) throws IOException {
+        String type = enemy.getClass().getSimpleName();
+        int typeByte = ENEMY_TYPES.indexOf(type);
+        if (typeByte < 0) {
+            throw new IllegalArgumentException("Unsupported enemy type: " + enemy.getClass());
+        }
+        out.writeByte(typeByte);
+        writeVarInt(out, enemy.getId());
+        writePosition(out, enemy.getPosition(), level);
+        switch (type) {
+            case "Patroller" -> {
+                Patroller patroller = (Patroller) enemy;
+                writeVarLong(out, patroller.getInterval().toMillis());
+                writeVarInt(out, patroller.getRoutine().size());
+                for (var move : patroller.getRoutine()) {
+                    writeMove(out, move);
+                }
+            }
+            case "Chaser" -> writeVarLong(out, ((Chaser) enemy).getInterval().toMillis());
+            default -> throw new IllegalArgumentException("Unsupported enemy type: " + enemy.getClass());
+        }
+    }
+
+    /**
+     * Reads a Player object
+     *
+     * @param in - the binary stream
+     * @param width - the width of the level
+     * @param height - the height of the level
+     * @return Player object
+     */
+    private Player readPlayer(DataInputStream in, int width, int height) throws IOException {
+        int id = readVarInt(in);
+        Vector2D position = readPosition(in, width, height);
+        int keyCount = readVarInt(in);
+        Set<Key> keys = new HashSet<>();
+        for (int i = 0; i < keyCount; i++) {
+            int keyId = readVarInt(in);
+            keys.add(new Key(keyId, readColor(in)));
+        }
+        int chipCount = readVarInt(in);
+        Set<Chip> chips = new HashSet<>();
+        for (int i = 0; i < chipCount; i++) {
+            chips.add(new Chip(readVarInt(in)));
+        }
+        return new Player(id, position, keys, chips);
+    }
+
+    /**
+     * Writes a Player object
+     *
+     * @param out - the binary stream
+     * @param player - the player to write
+     * @param level - the level of the player
+     */
+    private void writePlayer(DataOutputStream out, Player player, Level level) throws IOException {
+        writeVarInt(out, player.getId());
+        writePosition(out, player.getPosition(), level);
+        var keys = player.getKeys();
+        writeVarInt(out, keys.size());
+        for (var key : keys) {
+            writeVarInt(out, key.getId());
+            out.writeByte(key.getColor().ordinal());
+        }
+        var chips = player.getChips();
+        writeVarInt(out, chips.size());
+        for (var chip : chips) {
+            writeVarInt(out, chip.getId());
+        }
+    }
+
+    /**
+     * Reads a key colour
+     *
+     * @param in - the binary stream
+     * @return Key.Color
+     */
+    private Key.Color readColor(DataInputStream in) throws IOException {
+        int ordinal = in.readUnsignedByte();
+        var colors = Key.Color.values();
+        if (ordinal >= colors.length) {
+            throw new IllegalArgumentException("Unsupported key color: " + ordinal);
+        }
+        return colors[ordinal];
+    }
+
+    /**
+     * Reads a string: its length in bytes as a varint, then its UTF-8 bytes
+     *
+     * @param in - the binary stream
+     * @return the string
+     */
+    private String readString(DataInputStream in) throws IOException {
+        int length = readVarInt(in);
+        var bytes = in.readNBytes(length);
+        if (bytes.length < length) {
+            throw new EOFException();
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes a string: its length in bytes as a varint, then its UTF-8 bytes
+     *
+     * @param out - the binary stream
+     * @param value - the string
+     */
+    private void writeString(DataOutputStream out, String value) throws IOException {
+        var bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Reads a position packed into the index of its cell
+     *
+     * @param in - the binary stream
+     * @param width - the width of the level
+     * @param height - the height of the level
+     * @return Vector2D object
+     */
+    private Vector2D readPosition(DataInputStream in, int width, int height) throws IOException {
+        int cell = readVarInt(in);
+        if (cell >= width * height) {
+            throw new IllegalArgumentException("Position out of the level: " + cell);
+        }
+        return Vector2D.of(cell % width, cell / width);
+    }
+
+    /**
+     * Writes a position packed into the index of its cell
+     *
+     * @param out - the binary stream
+     * @param position - the position
+     * @param level - the level the position is on
+     * @throws IllegalArgumentException if the position is outside the level
+     */
+    private void writePosition(DataOutputStream out, Vector2D position, Level level) throws IOException {
+        if (position.x() < 0 || position.x() >= level.getWidth()
+                || position.y() < 0 || position.y() >= level.getHeight()) {
+            throw new IllegalArgumentException("Position out of the level: " + position);
+        }
+        writeVarInt(out, position.y() * level.getWidth() + position.x());
+    }
+
+    /**
+     * Reads a move, or null
+     *
+     * @param in - the binary stream
+     * @return Vector2D object
+     */
+    Vector2D readMove(DataInputStream in) throws IOException {
+        int direction = in.readUnsignedByte();
+        if (direction < DIRECTIONS.size()) {
+            return DIRECTIONS.get(direction);
+        }
+        return switch (direction) {
+            case DIRECTION_NULL -> null;
+            case DIRECTION_OTHER -> Vector2D.of(readSignedVarInt(in), readSignedVarInt(in));
+            default -> throw new IllegalArgumentException("Unsupported direction: " + direction);
+        };
+    }
+
+    /**
+     * Writes a move, or null
+     *
+     * @param out - the binary stream
+     * @param move - the move
+     */
+    private void writeMove(DataOutputStream out, Vector2D move) throws IOException {
+        if (move == null) {
+            out.writeByte(DIRECTION_NULL);
+            return;
+        }
+        int direction = DIRECTIONS.indexOf(move);
+        if (direction >= 0) {
+            out.writeByte(direction);
+            return;
+        }
+        out.writeByte(DIRECTION_OTHER);
+        writeSignedVarInt(out, move.x());
+        writeSignedVarInt(out, move.y());
+    }
+
+    /**
+     * Reads an unsigned varint: 7 bits per byte, low bits first, the high bit set on all but the last byte
+     *
+     * @param in - the binary stream
+     * @return the value
+     */
+    static int readVarInt(DataInputStream in) throws IOException {
+        long value = readVarLong(in);
+        if (value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Varint out of range: " + value);
+        }
+        return (int) value;
+    }
+
+    /**
+     * Writes an unsigned varint
+     *
+     * @param out - the binary stream
+     * @param value - the value, not negative
+     */
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        if (value < 0) {
+            throw new IllegalArgumentException("Value cannot be negative: " + value);
+        }
+        writeVarLong(out, value);
+    }
+
+    /**
+     * Reads a signed varint, zigzag encoded so that small negative values are short too
+     *
+     * @param in - the binary stream
+     * @return the value
+     */
+    static int readSignedVarInt(DataInputStream in) throws IOException {
+        long zigzag = readVarLong(in);
+        if (zigzag > 0xFFFFFFFFL) {
+            throw new IllegalArgumentException("Varint out of range: " + zigzag);
+        }
+        int value = (int) zigzag;
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Writes a signed varint, zigzag encoded
+     *
+     * @param out - the binary stream
+     * @param value - the value
+     */
+    private static void writeSignedVarInt(DataOutputStream out, int value) throws IOException {
+        writeVarLong(out, ((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Reads an unsigned varint of up to 63 bits
+     *
+     * @param in - the binary stream
+     * @return the value
+     */
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 63; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Varint too long");
+    }
+
+    /**
+     * Writes an unsigned varint of up to 63 bits
+     *
+     * @param out - the binary stream
+     * @param value - the value, not negative
+     */
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        if (value < 0) {
+            throw new IllegalArgumentException("Value cannot be negative: " + value);
+        }
+        while (value >= 0x80) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+}
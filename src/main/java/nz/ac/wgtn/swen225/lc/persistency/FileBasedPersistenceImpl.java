@@ -1,8 +1,9 @@
 package nz.ac.wgtn.swen225.lc.persistency;
 
-import com.google.gson.Gson;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.google.gson.stream.MalformedJsonException;
 import nz.ac.wgtn.swen225.lc.domain.Game;
 import nz.ac.wgtn.swen225.lc.domain.level.Level;
 import nz.ac.wgtn.swen225.lc.domain.level.characters.Enemy;
@@ -10,24 +11,93 @@ import nz.ac.wgtn.swen225.lc.domain.level.characters.Player;
 import nz.ac.wgtn.swen225.lc.domain.level.items.Chip;
 import nz.ac.wgtn.swen225.lc.domain.level.items.Key;
 import nz.ac.wgtn.swen225.lc.domain.level.tiles.*;
+import nz.ac.wgtn.swen225.lc.levels.level2.Chaser;
 import nz.ac.wgtn.swen225.lc.levels.level2.Patroller;
 import nz.ac.wgtn.swen225.lc.recorder.Moment;
 import nz.ac.wgtn.swen225.lc.recorder.Playback;
 import nz.ac.wgtn.swen225.lc.utils.Vector2D;
 
 import java.io.*;
-import java.net.URI;
 import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
 
 /** 
  * FileBasedPersistenceImpl for the "Chips Challenge game"
+ * <p>
+ * Files are read and written as a stream of Json tokens: each level, tile, enemy and moment is bound to its domain
+ * object as soon as its tokens have been read, and written straight to the file, so no Json tree of the whole file is
+ * ever held in memory. Fields may appear in any order and unknown fields are skipped.
  * @author - Brett Penwarden
  * Student id - 300635306
  */
 public class FileBasedPersistenceImpl implements Persistence {
 
+    /**
+     * Reads a value from a Json stream
+     *
+     * @param <T> - the type of the value
+     */
+    @FunctionalInterface
+    private interface JsonBinder<T> {
+        T read(JsonReader in) throws IOException;
+    }
+
+    /**
+     * Writes a value to a Json stream
+     */
+    @FunctionalInterface
+    private interface JsonEmitter {
+        void write(JsonWriter out) throws IOException;
+    }
+
+    /**
+     * A parsed level, kept to be copied for each new game, and when its file was last modified.
+     *
+     * @param template - the level, never modified nor given out
+     * @param location - where the level file is
+     * @param lastModified - when the file was last modified, or null if it cannot change, e.g. in a jar
+     */
+    private record CachedLevel(Level template, URL location, FileTime lastModified) {
+    }
+
+    private final LevelCatalog catalog;
+    private final Map<Integer, CachedLevel> levelCache = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a persistence finding the levels on the classpath.
+     */
+    public FileBasedPersistenceImpl() {
+        this(new LevelCatalog());
+    }
+
+    /**
+     * Creates a persistence finding the levels in a catalog.
+     *
+     * @param catalog - the catalog of the levels
+     */
+    public FileBasedPersistenceImpl(LevelCatalog catalog) {
+        if (catalog == null) {
+            throw new IllegalArgumentException("Catalog cannot be null");
+        }
+        this.catalog = catalog;
+    }
+
+    /**
+     * Gets the catalog of the levels.
+     *
+     * @return the catalog
+     */
+    public LevelCatalog getLevelCatalog() {
+        return catalog;
+    }
+
     /**
      * Retrieves a list of all available level numbers in the game.
      * 
@@ -35,11 +105,23 @@ public class FileBasedPersistenceImpl implements Persistence {
      */
      @Override
     public List<Integer> getAllLevelNos() {
-        return List.of(1, 2);
+        return catalog.getLevelNos();
+    }
+
+    /**
+     * Gets the number of the level after a level, from the catalog.
+     *
+     * @param levelNo - the number of the level
+     * @return the number of the next level, or empty if it is the last level
+     */
+    @Override
+    public Optional<Integer> getNextLevelNo(int levelNo) {
+        return catalog.next(levelNo);
     }
 
     /** 
-     * Loads a game for the specified level number
+     * Loads a game for the specified level number. Each level file is parsed once and the level kept, so new games,
+     * restarts and level changes only copy it; the file is parsed again if it has been modified since.
      * 
      * @param levelNo The level number for which to load the game
      * @return Game object representing the loaded game
@@ -47,23 +129,66 @@ public class FileBasedPersistenceImpl implements Persistence {
     @Override
     public Game loadGame(int levelNo) {
         Game game = new Game();
-        game.setLevel(toLevel(read(getLevelJsonFile(levelNo))));
+        game.setLevel(cachedLevel(levelNo).template().copy());
         return game;
     }
 
-    /** 
-     * Returns Json file from the specified level
-     * 
+    /**
+     * Gets the parsed level of a level number, parsing the file if it has not been parsed yet or has been modified
+     *
      * @param levelNo - the level
-     * @return File object
+     * @return the cached level
+     * @throws - IllegalArgumentException if there is no such level
+     */
+    private CachedLevel cachedLevel(int levelNo) {
+        var entry = catalog.get(levelNo)
+                .orElseThrow(() -> new IllegalArgumentException("Level " + levelNo + " not found"));
+        var cached = levelCache.get(levelNo);
+        if (cached != null && cached.location().equals(entry.location())
+                && Objects.equals(cached.lastModified(), lastModified(entry.location()))) {
+            return cached;
+        }
+        if (cached != null) {
+            // The file has changed, so has its metadata
+            catalog.refresh();
+        }
+        var lastModified = lastModified(entry.location());
+        cached = new CachedLevel(readLevelResource(levelNo), entry.location(), lastModified);
+        levelCache.put(levelNo, cached);
+        return cached;
+    }
+
+    /**
+     * Gets when a level file was last modified
+     *
+     * @param location - the level file
+     * @return the time, or null if the file is not on the file system, e.g. in a jar, and so cannot change
      */
-    private File getLevelJsonFile(int levelNo) {
+    private FileTime lastModified(URL location) {
+        if (!location.getProtocol().equals("file")) {
+            return null;
+        }
         try {
-            String classpathUri = Objects.requireNonNull(FileBasedPersistenceImpl.class.getResource("/")).getFile();
-            String classPath = new URI(classpathUri).getPath();
-            String levelJsonFile = classPath + "/levels/level" + levelNo + ".json";
-            return new File(levelJsonFile);
-        } catch (URISyntaxException e) {
+            return Files.getLastModifiedTime(Path.of(location.toURI()));
+        } catch (IOException | URISyntaxException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Reads the Json of the specified level from where the catalog found it, so levels can be loaded regardless of
+     * whether they are in a directory, a jar or the test classpath.
+     *
+     * @param levelNo - the level
+     * @return The level
+     * @throws - IllegalArgumentException if there is no such level
+     */
+    private Level readLevelResource(int levelNo) {
+        var entry = catalog.get(levelNo)
+                .orElseThrow(() -> new IllegalArgumentException("Level " + levelNo + " not found"));
+        try {
+            return read(entry.open(), this::readLevel);
+        } catch (IOException e) {
             throw new RuntimeException(e);
         }
     }
@@ -76,7 +201,7 @@ public class FileBasedPersistenceImpl implements Persistence {
      */
     @Override
     public Game loadGame(File save) {
-        return toGame(read(save));
+        return read(save, this::readGame);
     }
 
     /**
@@ -87,209 +212,310 @@ public class FileBasedPersistenceImpl implements Persistence {
      */
     @Override
     public Playback loadPlayback(File save) {
-        return toPlayback(read(save));
+        return read(save, this::readPlayback);
     }
 
     /**
-     * Reads the contents of a JSON file and returns a JsonObject representation
+     * Reads a JSON file and binds it to a domain object
      * 
      * @param save - The JSON file to be read
-     * @return A JsonObject containing the data from the file.
+     * @param binder - reads the domain object from the Json stream
+     * @return The domain object
      * @throws - RuntimeException if an IOException occurs during file reading
      */
-    private JsonObject read(File save) {
-        try (var reader = new BufferedReader(new FileReader(save))) {
-            return new Gson().fromJson(reader, JsonObject.class);
-        } catch (IOException e) {
+    private <T> T read(File save, JsonBinder<T> binder) {
+        try {
+            return read(new FileInputStream(save), binder);
+        } catch (FileNotFoundException e) {
             throw new RuntimeException(e);
         }
     }
 
     /**
-     * Converts JsonObject into a Playback Object
-     * 
-     * @param fromJson The JsonObject to be converted.
-     * @return A Playback object created from the JsonObject.
-     */
-    private Playback toPlayback(JsonObject fromJson) {
-        var playback = new Playback();
-        playback.setSince(toGame(fromJson.getAsJsonObject("since")));
-        toMoments(fromJson.getAsJsonArray("moments"), playback.getSince()).forEach(playback::addMovement);
-        playback.setEndTickNo(fromJson.get("endTickNo").getAsInt());
-        return playback;
-    }
-
-    /**
-     * Converts Json object to a Game object.
-     * 
-     * @param - fromJson the JsonObject to be converted
-     * @return - A game object created from the JsonObject
-     */
-    private Game toGame(JsonObject fromJson) {
-        int id = fromJson.get("id").getAsInt();
-        int tickNo = fromJson.get("tickNo").getAsInt();
-        Level level = toLevel(fromJson.getAsJsonObject("level"));
-        return new Game(id, tickNo, level);
-    }
-
-    /**
-     * Converts a Json object into a Level object
-     * 
-     * @param fromJson - The JsonObjected to be converted
-     * @return Level object created from Json Object
-     */
-    private Level toLevel(JsonObject fromJson) {
-        int id = fromJson.get("id").getAsInt();
-        int levelNo = fromJson.get("levelNo").getAsInt();
-        int width = fromJson.get("width").getAsInt();
-        int height = fromJson.get("height").getAsInt();
-        int timeoutInSeconds = fromJson.get("timeoutInSeconds").getAsInt();
-        Set<Tile> tiles = toTiles(fromJson.getAsJsonArray("tiles"));
-        Set<Enemy> enemies = toEnemies(fromJson.getAsJsonArray("enemies"));
-        Player player = toPlayer(fromJson.getAsJsonObject("player"));
-        return new Level(id, levelNo, width, height, timeoutInSeconds, tiles, enemies, player);
-    }
-
-    /**
-     * Converts JsonObject into a Player object
-     * 
-     * @param fromJson - Json object to convert to Player
-     * @return Player based on the JsonObject
+     * Reads a JSON stream and binds it to a domain object, closing the stream afterwards
+     *
+     * @param stream - The UTF-8 encoded JSON stream
+     * @param binder - reads the domain object from the Json stream
+     * @return The domain object
+     * @throws - RuntimeException if an IOException occurs during reading, IllegalArgumentException if the Json is
+     *           malformed or truncated
      */
-    private Player toPlayer(JsonObject fromJson) {
-        int id = fromJson.get("id").getAsInt();
-        Vector2D position = toVector2D(fromJson.getAsJsonObject("position"));
-        Set<Key> keys = toKeys(fromJson.getAsJsonArray("keys"));
-        Set<Chip> chips = toChips(fromJson.getAsJsonArray("chips"));
-        return new Player(id, position, keys, chips);
-    }
-
-    /**
-     * Converts JsonArray to a Set of Keys
-     * 
-     * @param fromJson - JsonArray to convert
-     * @return Set of Keys
-     */
-    private Set<Key> toKeys(JsonArray fromJson) {
-        HashSet<Key> keys = new HashSet<Key>();
-        fromJson.forEach(e -> keys.add(toKey((JsonObject) e)));
-        return keys;
-    }
-
-    /**
-     * Converts JsonObject into Key object
-     * 
-     * @param fromJson - JsonObject to convert
-     * @return Key object based on fromJson
-     */
-    private Key toKey(JsonObject fromJson) {
-        int id = fromJson.get("id").getAsInt();
-        Key.Color color = Key.Color.valueOf(fromJson.get("color").getAsString());
-        return new Key(id, color);
+    private <T> T read(InputStream stream, JsonBinder<T> binder) {
+        try (var in = new JsonReader(new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8)))) {
+            return binder.read(in);
+        } catch (MalformedJsonException | EOFException | IllegalStateException | NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed Json: " + e.getMessage(), e);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
     }
 
     /**
-     * Converts JsonArray into Set of Chips
+     * Reads a Playback object. The moments are bound as they are read if the game they start from has already been
+     * read, which is always the case for files written by this class.
      * 
-     * @param fromJson - Json Array to convert
-     * @return Set<Chip>
+     * @param in - the Json stream
+     * @return A Playback object
      */
-    private Set<Chip> toChips(JsonArray fromJson) {
-        HashSet chips = new HashSet<Chip>();
-        fromJson.forEach(e -> chips.add(toChip((JsonObject) e)));
-        return chips;
+    private Playback readPlayback(JsonReader in) throws IOException {
+        var playback = new Playback();
+        Map<Integer, Enemy> enemyMap = null;
+        List<PendingMoment> pendingMoments = new ArrayList<>();
+        Integer endTickNo = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "since" -> {
+                    playback.setSince(readGame(in));
+                    enemyMap = playback.getSince().getLevel().getEnemiesAsMap();
+                    for (var pending : pendingMoments) {
+                        playback.addMovement(pending.bind(enemyMap));
+                    }
+                    pendingMoments = List.of();
+                }
+                case "moments" -> {
+                    in.beginArray();
+                    while (in.hasNext()) {
+                        var moment = readMoment(in);
+                        if (enemyMap != null) {
+                            playback.addMovement(moment.bind(enemyMap));
+                        } else {
+                            pendingMoments.add(moment);
+                        }
+                    }
+                    in.endArray();
+                }
+                case "endTickNo" -> endTickNo = in.nextInt();
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        require(playback.getSince(), "since");
+        playback.setEndTickNo(require(endTickNo, "endTickNo"));
+        return playback;
     }
 
     /**
-     * Converts Json Object into Chip object
+     * Reads a Game object
      * 
-     * @param fromJson - JsonObject to convert 
-     * @return Chip object based on JsonObject
+     * @param - in the Json stream
+     * @return - A game object
      */
-    private Chip toChip(JsonObject fromJson) {
-        int id = fromJson.get("id").getAsInt();
-        return new Chip(id);
+    private Game readGame(JsonReader in) throws IOException {
+        Integer id = null;
+        Integer tickNo = null;
+        // Saves made before tick rates could change ran at the default rate
+        int tickRate = Game.FRAME_RATE;
+        Level level = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id" -> id = in.nextInt();
+                case "tickNo" -> tickNo = in.nextInt();
+                case "tickRate" -> tickRate = in.nextInt();
+                case "level" -> level = readLevel(in);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return new Game(require(id, "id"), require(tickNo, "tickNo"), require(level, "level"), tickRate);
+    }
+
+    /**
+     * Reads a Level object
+     * 
+     * @param in - the Json stream
+     * @return Level object
+     */
+    private Level readLevel(JsonReader in) throws IOException {
+        Integer id = null;
+        Integer levelNo = null;
+        Integer width = null;
+        Integer height = null;
+        Integer timeoutInSeconds = null;
+        Set<Tile> tiles = null;
+        Set<Enemy> enemies = null;
+        Player player = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id" -> id = in.nextInt();
+                case "levelNo" -> levelNo = in.nextInt();
+                case "width" -> width = in.nextInt();
+                case "height" -> height = in.nextInt();
+                case "timeoutInSeconds" -> timeoutInSeconds = in.nextInt();
+                case "tiles" -> tiles = readSet(in, this::readTile);
+                case "enemies" -> enemies = readSet(in, this::readEnemy);
+                case "player" -> player = readPlayer(in);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return new Level(require(id, "id"), require(levelNo, "levelNo"), require(width, "width"),
+                require(height, "height"), require(timeoutInSeconds, "timeoutInSeconds"), require(tiles, "tiles"),
+                require(enemies, "enemies"), require(player, "player"));
+    }
+
+    /**
+     * Reads a Player object
+     * 
+     * @param in - the Json stream
+     * @return Player object
+     */
+    private Player readPlayer(JsonReader in) throws IOException {
+        Integer id = null;
+        Vector2D position = null;
+        Set<Key> keys = null;
+        Set<Chip> chips = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id" -> id = in.nextInt();
+                case "position" -> position = readVector2D(in);
+                case "keys" -> keys = readSet(in, this::readKey);
+                case "chips" -> chips = readSet(in, this::readChip);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return new Player(require(id, "id"), require(position, "position"), require(keys, "keys"),
+                require(chips, "chips"));
     }
 
     /**
-     * Converts JsonArray into Set of Enemys
+     * Reads a Key object
      * 
-     * @param fromJson - JsonArray to convert
-     * @return Set of Enemy objects
+     * @param in - the Json stream
+     * @return Key object
      */
-    private Set<Enemy> toEnemies(JsonArray fromJson) {
-        HashSet enemies = new HashSet<Enemy>();
-        fromJson.forEach(e -> enemies.add(toEnemy((JsonObject) e)));
-        return enemies;
+    private Key readKey(JsonReader in) throws IOException {
+        Integer id = null;
+        Key.Color color = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id" -> id = in.nextInt();
+                case "color" -> color = readColor(in);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return new Key(require(id, "id"), require(color, "color"));
     }
 
     /**
-     * Convert single JsonObject into Enemy object
+     * Reads a Chip object
      * 
-     * @param fromJson - JsonObject to convert
-     * @return Enemy object based on JsonObject
+     * @param in - the Json stream
+     * @return Chip object
      */
-    private Enemy toEnemy(JsonObject jsonObject) {
-        int id = jsonObject.get("id").getAsInt();
-        Vector2D position = toVector2D(jsonObject.getAsJsonObject("position"));
-        String type = jsonObject.get("type").getAsString();
-        switch (type) {
+    private Chip readChip(JsonReader in) throws IOException {
+        Integer id = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            if (in.nextName().equals("id")) {
+                id = in.nextInt();
+            } else {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+        return new Chip(require(id, "id"));
+    }
+
+    /**
+     * Reads an Enemy object
+     * 
+     * @param in - the Json stream
+     * @return Enemy object
+     */
+    private Enemy readEnemy(JsonReader in) throws IOException {
+        Integer id = null;
+        Vector2D position = null;
+        String type = null;
+        List<Vector2D> routine = null;
+        Duration interval = null;
+        Duration legacyInterval = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id" -> id = in.nextInt();
+                case "position" -> position = readVector2D(in);
+                case "type" -> type = in.nextString();
+                case "routine" -> routine = readRoutine(in);
+                case "intervalMillis" -> interval = Duration.ofMillis(in.nextLong());
+                // Files written before tick rates could change count the interval in ticks at the default rate
+                case "intervalInTicks" -> legacyInterval = Duration.ofMillis(in.nextInt() * 1000L / Game.FRAME_RATE);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        interval = require(interval != null ? interval : legacyInterval, "intervalMillis");
+        switch (require(type, "type")) {
             case "Patroller" -> {
-                List<Vector2D> routine = toRoutine(jsonObject.getAsJsonArray("routine"));
-                int intervalInTicks = jsonObject.get("intervalInTicks").getAsInt();
-                return new Patroller(id, position, routine, intervalInTicks);
+                return new Patroller(require(id, "id"), require(position, "position"), require(routine, "routine"),
+                        interval);
+            }
+            case "Chaser" -> {
+                return new Chaser(require(id, "id"), require(position, "position"), interval);
             }
             default -> throw new IllegalArgumentException("Unsupported enemy type: " + type);
         }
     }
 
     /**
-     * Converts JsonArray into a List of Vector 2D objects
+     * Reads a list of Vector 2D objects
      * 
-     * @param e - JsonArray
+     * @param in - the Json stream
      * @return ArrayList<Vector2D>
      */
-    private ArrayList<Vector2D> toRoutine(JsonArray e) {
+    private ArrayList<Vector2D> readRoutine(JsonReader in) throws IOException {
         ArrayList<Vector2D> routine = new ArrayList<Vector2D>();
-        e.forEach(e2 -> routine.add(toVector2D(e2.getAsJsonObject())));
+        in.beginArray();
+        while (in.hasNext()) {
+            routine.add(readVector2D(in));
+        }
+        in.endArray();
         return routine;
     }
 
     /**
-     * Converts JsonArray into tiles for the game
-     * 
-     * @param fromJson - JsonArray to convert
-     * @return Set<Tile>
-     */
-    private Set<Tile> toTiles(JsonArray fromJson) {
-        HashSet<Tile> tiles = new HashSet<Tile>();
-        fromJson.forEach(e -> tiles.add(toTile((JsonObject) e)));
-        return tiles;
-    }
-
-    /**
-     * Converts a JsonObject into a Tile object, there are many different types of tiles
-     * 
-     * @param jsonObject
-     * @return Tile object based on the jsonObject
-     */
-    private Tile toTile(JsonObject jsonObject) {
-        int id = jsonObject.get("id").getAsInt();
-        Vector2D position = toVector2D(jsonObject.getAsJsonObject("position"));
-        String type = jsonObject.get("type").getAsString();
-        switch (type) {
+     * Reads a Tile object, there are many different types of tiles
+     * 
+     * @param in - the Json stream
+     * @return Tile object
+     */
+    private Tile readTile(JsonReader in) throws IOException {
+        Integer id = null;
+        Vector2D position = null;
+        String type = null;
+        String message = null;
+        Boolean active = null;
+        Key.Color color = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id" -> id = in.nextInt();
+                case "position" -> position = readVector2D(in);
+                case "type" -> type = in.nextString();
+                case "message" -> message = in.nextString();
+                case "active" -> active = in.nextBoolean();
+                case "color" -> color = readColor(in);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        require(id, "id");
+        require(position, "position");
+        switch (require(type, "type")) {
             case "InfoField" -> {
-                var message = jsonObject.get("message").getAsString();
-                var active = jsonObject.get("active").getAsBoolean();
-                return new InfoField(id, position, message, active);
+                return new InfoField(id, position, require(message, "message"), require(active, "active"));
             }
             case "KeyTile" -> {
-                var color = jsonObject.get("color").getAsString();
-                return new KeyTile(id, position, new Key(Key.Color.valueOf(color)));
+                return new KeyTile(id, position, new Key(require(color, "color")));
             }
             case "LockedDoor" -> {
-                var color = jsonObject.get("color").getAsString();
-                return new LockedDoor(id, position, Key.Color.valueOf(color));
+                return new LockedDoor(id, position, require(color, "color"));
             }
             case "ChipTile" -> {
                 return new ChipTile(id, position, new Chip());
@@ -303,60 +529,147 @@ public class FileBasedPersistenceImpl implements Persistence {
             case "Wall" -> {
                 return new Wall(id, position);
             }
-            default -> throw new IllegalArgumentException("Unsupported enemy type: " + type);
+            default -> throw new IllegalArgumentException("Unsupported tile type: " + type);
         }
     }
 
     /**
-     * Converts JsonArray from a specific game into a List of Moments
-     * 
-     * @param fromJson - JsonArray to be converted
-     * @param game - the game object being used
-     * @return List<Moment>
-     */
-    private List<Moment> toMoments(JsonArray fromJson, Game game) {
-        return fromJson.asList().stream().map(m -> toMoment((JsonObject) m, game)).toList();
+     * A moment that has been read but whose enemies have not been looked up yet
+     *
+     * @param tickNo - the tick number
+     * @param playerMovement - the player's movement
+     * @param enemyMovementMap - the enemies' movements by enemy id
+     */
+    private record PendingMoment(int tickNo, Vector2D playerMovement, Map<Integer, Vector2D> enemyMovementMap) {
+
+        /**
+         * Looks up the enemies of the moment
+         *
+         * @param enemyMap - the enemies of the game by id
+         * @return Moment object
+         */
+        Moment bind(Map<Integer, Enemy> enemyMap) {
+            var movements = new HashMap<Enemy, Vector2D>(enemyMovementMap.size() * 2);
+            enemyMovementMap.forEach((id, movement) -> {
+                var enemy = enemyMap.get(id);
+                if (enemy == null) {
+                    throw new IllegalArgumentException("Unknown enemy " + id + " at tick " + tickNo);
+                }
+                movements.put(enemy, movement);
+            });
+            return new Moment(tickNo, playerMovement, movements);
+        }
     }
 
     /**
-     * Converts a single JsonObject into a Moment Object in the game
+     * Reads a single moment of a playback
      * 
-     * @param fromJson - JsonObject to convert
-     * @param game - the current game
-     * @return Moment object based on the above
+     * @param in - the Json stream
+     * @return PendingMoment object, to be bound to the enemies of the game
      */
-    private Moment toMoment(JsonObject fromJson, Game game) {
-        int tickNo = fromJson.get("tickNo").getAsInt();
-        Vector2D playerMovement = toVector2D(fromJson.getAsJsonObject("playerMovement"));
-        Map<Enemy, Vector2D> enemyMovementMap = toEnemyMovementMap(fromJson.getAsJsonObject("enemyMovementMap"), game);
-        return new Moment(tickNo, playerMovement, enemyMovementMap);
+    private PendingMoment readMoment(JsonReader in) throws IOException {
+        Integer tickNo = null;
+        Vector2D playerMovement = null;
+        Map<Integer, Vector2D> enemyMovementMap = Map.of();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "tickNo" -> tickNo = in.nextInt();
+                case "playerMovement" -> playerMovement = readVector2D(in);
+                case "enemyMovementMap" -> enemyMovementMap = readEnemyMovementMap(in);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return new PendingMoment(require(tickNo, "tickNo"), playerMovement, enemyMovementMap);
     }
 
     /**
-     * Converts a JsonObject to a map of Enemy objects to Vector2D representing Enemy movements
+     * Reads the enemy movements of a moment, keyed by enemy id
      * 
-     * @param fromJson - the JsonObject
-     * @param game - the game object being used
-     * @return Map<Enemy, Vector2D>
+     * @param in - the Json stream
+     * @return Map<Integer, Vector2D>
      */
-    private Map<Enemy, Vector2D> toEnemyMovementMap(JsonObject fromJson, Game game) {
-        var enemyMap = game.getLevel().getEnemiesAsMap();
-        return fromJson.asMap().entrySet().stream().collect(Collectors.toMap(
-                e -> enemyMap.get(Integer.parseInt(e.getKey())),
-                e -> toVector2D((JsonObject) e.getValue())
-        ));
+    private Map<Integer, Vector2D> readEnemyMovementMap(JsonReader in) throws IOException {
+        var enemyMovementMap = new HashMap<Integer, Vector2D>();
+        in.beginObject();
+        while (in.hasNext()) {
+            enemyMovementMap.put(Integer.parseInt(in.nextName()), readVector2D(in));
+        }
+        in.endObject();
+        return enemyMovementMap;
     }
 
     /**
-     * Converts JsonObject into Vector2D object
+     * Reads a Vector2D object, or null
      * 
-     * @param fromJson - JsonObject to convert
+     * @param in - the Json stream
      * @return Vector2D object
      */
-    private Vector2D toVector2D(JsonObject fromJson) {
-        var x = fromJson.get("x").getAsInt();
-        var y = fromJson.get("y").getAsInt();
-        return new Vector2D(x, y);
+    private Vector2D readVector2D(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        Integer x = null;
+        Integer y = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "x" -> x = in.nextInt();
+                case "y" -> y = in.nextInt();
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return Vector2D.of(require(x, "x"), require(y, "y"));
+    }
+
+    /**
+     * Reads a key colour
+     *
+     * @param in - the Json stream
+     * @return Key.Color
+     */
+    private Key.Color readColor(JsonReader in) throws IOException {
+        var color = in.nextString();
+        try {
+            return Key.Color.valueOf(color);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported key color: " + color, e);
+        }
+    }
+
+    /**
+     * Reads a Json array into a set
+     *
+     * @param in - the Json stream
+     * @param binder - reads each element
+     * @return Set of elements
+     */
+    private <T> Set<T> readSet(JsonReader in, JsonBinder<T> binder) throws IOException {
+        var set = new HashSet<T>();
+        in.beginArray();
+        while (in.hasNext()) {
+            set.add(binder.read(in));
+        }
+        in.endArray();
+        return set;
+    }
+
+    /**
+     * Checks that a required field has been read
+     *
+     * @param value - the value of the field
+     * @param name - the name of the field
+     * @return the value
+     * @throws IllegalArgumentException if the field is missing
+     */
+    private static <T> T require(T value, String name) {
+        if (value == null) {
+            throw new IllegalArgumentException("Missing field: " + name);
+        }
+        return value;
     }
 
     /**
@@ -367,7 +680,7 @@ public class FileBasedPersistenceImpl implements Persistence {
      */
     @Override
     public void saveGame(File save, Game game) {
-        write(save, toJsonObject(game).toString());
+        write(save, out -> writeGame(out, game));
     }
 
     /**
@@ -378,269 +691,211 @@ public class FileBasedPersistenceImpl implements Persistence {
      */
     @Override
     public void savePlayback(File save, Playback playback) {
-        write(save, toJsonObject(playback).toString());
+        write(save, out -> writePlayback(out, playback));
     }
 
     /**
-     * Writes the given text to a file
+     * Streams Json to a file
      * 
-     * @param save - The file to save the text to 
-     * @param text - the Text that you want to save
+     * @param save - The file to save the Json to
+     * @param emitter - writes the Json
      * @throws RuntimeException if there is problem in file writing
      */
-    private void write(File save, String text) {
-        try (var writer = new BufferedWriter(new FileWriter(save))) {
-            writer.write(text);
+    private void write(File save, JsonEmitter emitter) {
+        try (var out = new JsonWriter(new BufferedWriter(
+                new OutputStreamWriter(new FileOutputStream(save), StandardCharsets.UTF_8)))) {
+            emitter.write(out);
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
     }
 
     /**
-     * cibverts Playback object to JsonObject
+     * Writes a Playback object
      * 
-     * @param playback - the Playback object to be converted
-     * @return JsonObject which was made with the playback
+     * @param out - the Json stream
+     * @param playback - the Playback object to write
      */
-    private JsonObject toJsonObject(Playback playback) {
-        var playbackObject = new JsonObject();
-        playbackObject.add("since", toJsonObject(playback.getSince()));
-        playbackObject.add("moments", toJsonObjectFromMoments(playback.getMoments()));
-        playbackObject.addProperty("endTickNo", playback.getEndTickNo());
-        return playbackObject;
-    }
-
-    /**
-     * Converts game object to JsonObject
-     * 
-     * @param game - the game object to convert
-     * @return JsonObject
-     */
-    private JsonObject toJsonObject(Game game) {
-        JsonObject gameObject = new JsonObject();
-        gameObject.addProperty("id", game.getId());
-        gameObject.addProperty("tickNo", game.getTickNo());
-        gameObject.add("level", toJsonObject(game.getLevel()));
-        return gameObject;
+    private void writePlayback(JsonWriter out, Playback playback) throws IOException {
+        out.beginObject();
+        out.name("since");
+        writeGame(out, playback.getSince());
+        out.name("moments").beginArray();
+        for (var moment : playback.getMoments()) {
+            writeMoment(out, moment);
+        }
+        out.endArray();
+        out.name("endTickNo").value(playback.getEndTickNo());
+        out.endObject();
     }
 
     /**
-     * Convert level into JsonObject
+     * Writes a Game object
      * 
-     * @param level - the level to convert
-     * @return JsonObject
+     * @param out - the Json stream
+     * @param game - the game object to write
      */
-    private JsonObject toJsonObject(Level level) {
-        JsonObject gameObject = new JsonObject();
-        gameObject.addProperty("id", level.getId());
-        gameObject.addProperty("levelNo", level.getLevelNo());
-        gameObject.addProperty("width", level.getWidth());
-        gameObject.addProperty("height", level.getHeight());
-        gameObject.addProperty("timeoutInSeconds", level.getTimeoutInSeconds());
-        gameObject.add("tiles", toJsonArrayFromTiles(level.getTiles()));
-        gameObject.add("enemies", toJsonArrayFromEnemies(level.getEnemies()));
-        gameObject.add("player", toJsonObject(level.getPlayer()));
-        return gameObject;
+    private void writeGame(JsonWriter out, Game game) throws IOException {
+        out.beginObject();
+        out.name("id").value(game.getId());
+        out.name("tickNo").value(game.getTickNo());
+        out.name("tickRate").value(game.getTickRate());
+        out.name("level");
+        writeLevel(out, game.getLevel());
+        out.endObject();
     }
 
     /**
-     * Converts a set of tiles into a JsonArray
+     * Writes a Level object
      * 
-     * @param tiles
-     * @return JsonArray
+     * @param out - the Json stream
+     * @param level - the level to write
      */
-    private JsonArray toJsonArrayFromTiles(Set<Tile> tiles) {
-        JsonArray jsonArray = new JsonArray();
-        tiles.forEach(t -> jsonArray.add(toJsonObject(t)));
-        return jsonArray;
+    private void writeLevel(JsonWriter out, Level level) throws IOException {
+        out.beginObject();
+        out.name("id").value(level.getId());
+        out.name("levelNo").value(level.getLevelNo());
+        out.name("width").value(level.getWidth());
+        out.name("height").value(level.getHeight());
+        out.name("timeoutInSeconds").value(level.getTimeoutInSeconds());
+        out.name("tiles").beginArray();
+        for (var tile : level.getTiles()) {
+            writeTile(out, tile);
+        }
+        out.endArray();
+        out.name("enemies").beginArray();
+        for (var enemy : level.getEnemies()) {
+            writeEnemy(out, enemy);
+        }
+        out.endArray();
+        out.name("player");
+        writePlayer(out, level.getPlayer());
+        out.endObject();
     }
 
     /**
-     * Converts Tile into JsonObject
+     * Writes a Tile object
      * 
-     * @param tile - the tile to convert
-     * @return JsonObject
+     * @param out - the Json stream
+     * @param tile - the tile to write
      */
-    private JsonObject toJsonObject(Tile tile) {
-        JsonObject tileObject = new JsonObject();
-        tileObject.addProperty("id", tile.getId());
-        tileObject.add("position", toJsonObject(tile.getPosition()));
+    private void writeTile(JsonWriter out, Tile tile) throws IOException {
+        out.beginObject();
+        out.name("id").value(tile.getId());
+        out.name("position");
+        writeVector2D(out, tile.getPosition());
         String type = tile.getClass().getSimpleName();
-        tileObject.addProperty("type", type);
+        out.name("type").value(type);
         switch (type) {
             case "InfoField" -> {
-                tileObject.addProperty("message", ((InfoField) tile).getMessage());
-                tileObject.addProperty("active", ((InfoField) tile).isActive());
+                out.name("message").value(((InfoField) tile).getMessage());
+                out.name("active").value(((InfoField) tile).isActive());
             }
-            case "KeyTile" -> tileObject.addProperty("color", ((KeyTile) tile).getKey().getColor().toString());
+            case "KeyTile" -> out.name("color").value(((KeyTile) tile).getKey().getColor().toString());
 
-            case "LockedDoor" -> tileObject.addProperty("color", ((LockedDoor) tile).getColor().toString());
+            case "LockedDoor" -> out.name("color").value(((LockedDoor) tile).getColor().toString());
             case "ChipTile", "Exit", "ExitLock", "Wall" -> {
                 // do nothing
             }
-            default -> throw new IllegalArgumentException("Unsupported enemy type: " + tile.getClass());
+            default -> throw new IllegalArgumentException("Unsupported tile type: " + tile.getClass());
         }
-        return tileObject;
-    }
-
-    /**
-     * Converts a set of enemies into a JsonArray
-     * 
-     * @param enemies - set of enemy objects to convert
-     * @return JsonArray
-     */
-    private JsonArray toJsonArrayFromEnemies(Set<Enemy> enemies) {
-        JsonArray jsonArray = new JsonArray();
-        enemies.forEach(e -> jsonArray.add(toJsonObject(e)));
-        return jsonArray;
+        out.endObject();
     }
 
     /**
-     * Converts single Enemy object into JsonObject
+     * Writes a single Enemy object
      * 
-     * @param enemy - Enemy object to convert
-     * @return JsonObject
+     * @param out - the Json stream
+     * @param enemy - Enemy object to write
      */
-    private JsonObject toJsonObject(Enemy enemy) {
-        JsonObject enemyObject = new JsonObject();
-        enemyObject.addProperty("id", enemy.getId());
-        enemyObject.add("position", toJsonObject(enemy.getPosition()));
+    private void writeEnemy(JsonWriter out, Enemy enemy) throws IOException {
+        out.beginObject();
+        out.name("id").value(enemy.getId());
+        out.name("position");
+        writeVector2D(out, enemy.getPosition());
         String type = enemy.getClass().getSimpleName();
-        enemyObject.addProperty("type", type);
+        out.name("type").value(type);
         switch (type) {
             case "Patroller" -> {
                 Patroller patroller = (Patroller) enemy;
-                enemyObject.add("routine", toJsonArrayFromRoutine(patroller.getRoutine()));
-                enemyObject.addProperty("intervalInTicks", patroller.getIntervalInTicks());
+                out.name("routine").beginArray();
+                for (var position : patroller.getRoutine()) {
+                    writeVector2D(out, position);
+                }
+                out.endArray();
+                out.name("intervalMillis").value(patroller.getInterval().toMillis());
+            }
+            case "Chaser" -> {
+                Chaser chaser = (Chaser) enemy;
+                out.name("intervalMillis").value(chaser.getInterval().toMillis());
             }
             default -> throw new IllegalArgumentException("Unsupported enemy type: " + enemy.getClass());
         }
-        return enemyObject;
-    }
-
-    /**
-     * Converts a List of Vector2D objects into a JsonArray
-     * 
-     * @param routing - the list of Vector2D objects
-     * @return JsonArray
-     */
-    private JsonArray toJsonArrayFromRoutine(List<Vector2D> routine) {
-        JsonArray jsonArray = new JsonArray();
-        routine.forEach(e -> jsonArray.add(toJsonObject(e)));
-        return jsonArray;
-    }
-
-    /**
-     * Converts Player object into JsonObject
-     * 
-     * @param player - the player to convert
-     * @return JsonObject
-     */
-    private JsonObject toJsonObject(Player player) {
-        JsonObject playerObject = new JsonObject();
-        playerObject.addProperty("id", player.getId());
-        playerObject.add("position", toJsonObject(player.getPosition()));
-        playerObject.add("chips", toJsonArrayFromChips(player.getChips()));
-        playerObject.add("keys", toJsonArrayFromKeys(player.getKeys()));
-        return playerObject;
+        out.endObject();
     }
 
     /**
-     * Converts a set of keys into a jsonArray
+     * Writes a Player object
      * 
-     * @param keys - the set of keys
-     * @return JsonArray
+     * @param out - the Json stream
+     * @param player - the player to write
      */
-    private JsonArray toJsonArrayFromKeys(Set<Key> keys) {
-        JsonArray jsonArray = new JsonArray();
-        keys.forEach(e -> jsonArray.add(toJsonObject(e)));
-        return jsonArray;
-    }
-
-    /**
-     * Converts a single key into a JsonObject
-     * 
-     * @param key - the key object to convert
-     * @return jsonObject
-     */
-    private JsonObject toJsonObject(Key key) {
-        JsonObject jsonObject = new JsonObject();
-        jsonObject.addProperty("id", key.getId());
-        jsonObject.addProperty("color", key.getColor().toString());
-        return jsonObject;
-    }
-
-    /**
-     * Converts a set of chip objects into a JsonArray
-     * 
-     * @param chips - set of Chip objects
-     * @return JsonArray
-     */
-    private JsonArray toJsonArrayFromChips(Set<Chip> chips) {
-        JsonArray jsonArray = new JsonArray();
-        chips.forEach(e -> jsonArray.add(toJsonObject(e)));
-        return jsonArray;
-    }
-
-    /**
-     * Converts a single Chip object into a JsonObject
-     * 
-     * @param chip - the chip to convert
-     * @return JsonObject
-     */
-    private JsonObject toJsonObject(Chip chip) {
-        JsonObject jsonObject = new JsonObject();
-        jsonObject.addProperty("id", chip.getId());
-        return jsonObject;
-    }
-
-    /**
-     * Convert a List of Moment object sinto a JsonArray
-     * 
-     * @param moments
-     * @return JsonArray
-     */
-    private JsonArray toJsonObjectFromMoments(List<Moment> moments) {
-        var momentArray = new JsonArray();
-        moments.forEach(m -> momentArray.add(toJsonObject(m)));
-        return momentArray;
+    private void writePlayer(JsonWriter out, Player player) throws IOException {
+        out.beginObject();
+        out.name("id").value(player.getId());
+        out.name("position");
+        writeVector2D(out, player.getPosition());
+        out.name("chips").beginArray();
+        for (var chip : player.getChips()) {
+            out.beginObject().name("id").value(chip.getId()).endObject();
+        }
+        out.endArray();
+        out.name("keys").beginArray();
+        for (var key : player.getKeys()) {
+            out.beginObject();
+            out.name("id").value(key.getId());
+            out.name("color").value(key.getColor().toString());
+            out.endObject();
+        }
+        out.endArray();
+        out.endObject();
     }
 
     /**
-     * Converts a single moment object into a JsonObject
+     * Writes a single moment, with the enemy movements keyed by enemy id
      * 
-     * @param moment - the Moment object to convert
-     * @return JsonObject
+     * @param out - the Json stream
+     * @param moment - the Moment object to write
      */
-    private JsonObject toJsonObject(Moment moment) {
-        var momentObject = new JsonObject();
-        momentObject.addProperty("tickNo", moment.tickNo());
-        momentObject.add("playerMovement", toJsonObject(moment.playerMovement()));
-        momentObject.add("enemyMovementMap", toJsonObjectFromEnemyMovementMap(moment.enemyMovementMap()));
-        return momentObject;
-    }
-
-    /**
-     * Converts a map of Enemy to Vector2D objects with enemy movements into a JsonObject
-     */
-    private JsonObject toJsonObjectFromEnemyMovementMap(Map<Enemy, Vector2D> enemyMovementMap) {
-        var enemyMovementMapObject = new JsonObject();
-        enemyMovementMap.forEach((k, v) -> enemyMovementMapObject.add(Integer.toString(k.getId()), toJsonObject(v)));
-        return enemyMovementMapObject;
+    private void writeMoment(JsonWriter out, Moment moment) throws IOException {
+        out.beginObject();
+        out.name("tickNo").value(moment.tickNo());
+        out.name("playerMovement");
+        writeVector2D(out, moment.playerMovement());
+        out.name("enemyMovementMap").beginObject();
+        for (var entry : moment.enemyMovementMap().entrySet()) {
+            out.name(Integer.toString(entry.getKey().getId()));
+            writeVector2D(out, entry.getValue());
+        }
+        out.endObject();
+        out.endObject();
     }
 
     /**
-     * Converts a Vector2D object into a JsonObject
+     * Writes a Vector2D object, or null
      * 
-     * @param movement - the Vector2D object
-     * @return JsonObject
+     * @param out - the Json stream
+     * @param vector - the Vector2D object
      */
-    private JsonObject toJsonObject(Vector2D movement) {
-        var movementObject = new JsonObject();
-        movementObject.addProperty("x", movement.x());
-        movementObject.addProperty("y", movement.y());
-        return movementObject;
+    private void writeVector2D(JsonWriter out, Vector2D vector) throws IOException {
+        if (vector == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("x").value(vector.x());
+        out.name("y").value(vector.y());
+        out.endObject();
     }
 
 }
-
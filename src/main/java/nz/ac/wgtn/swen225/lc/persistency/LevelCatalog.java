@@ -0,0 +1,323 @@
+package nz.ac.wgtn.swen225.lc.persistency;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.MalformedJsonException;
+
+import java.io.*;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.jar.JarEntry;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * LevelCatalog finds the level files of the game and keeps an index of their metadata.
+ * <p>
+ * Levels are the Json files in the "levels" folder of the classpath, whether the classes are run from a directory or
+ * a jar, and in any extra directories given to the catalog. A level in a directory replaces a level of the same
+ * number on the classpath, and a later directory replaces an earlier one. The files are scanned once, the first time
+ * the catalog is used, and every lookup afterwards is served from the index. Two files with the same level number in
+ * one classpath root or directory are an error, as it would be unclear which of them is the level.
+ * @author - Brett Penwarden
+ * Student id - 300635306
+ */
+public class LevelCatalog {
+
+    /**
+     * The folder of the classpath holding the level files.
+     */
+    public static final String LEVELS_FOLDER = "levels";
+
+    /**
+     * The metadata of a level file.
+     *
+     * @param levelNo - the number of the level
+     * @param width - the width of the level
+     * @param height - the height of the level
+     * @param timeoutInSeconds - the time allowed to finish the level
+     * @param chipCount - the number of chips to collect
+     * @param checksum - the CRC32 checksum of the file
+     * @param location - where the file is
+     */
+    public record Entry(int levelNo, int width, int height, int timeoutInSeconds, int chipCount, long checksum,
+                        URL location) {
+
+        /**
+         * Opens the level file.
+         *
+         * @return the stream of the file, to be closed by the caller
+         * @throws IOException if the file cannot be opened
+         */
+        public InputStream open() throws IOException {
+            return location.openStream();
+        }
+    }
+
+    /**
+     * The index of the levels, built once.
+     *
+     * @param entries - the entries by level number
+     * @param levelNos - the level numbers in increasing order
+     * @param nextLevelNos - the number of the level after each level, absent for the last one
+     */
+    private record Index(Map<Integer, Entry> entries, List<Integer> levelNos, Map<Integer, Integer> nextLevelNos) {
+    }
+
+    private final ClassLoader classLoader;
+    private final List<Path> directories;
+    private volatile Index index; // Null until first used
+
+    /**
+     * Creates a catalog of the levels on the classpath and in the given directories.
+     *
+     * @param directories - extra directories holding level files
+     */
+    public LevelCatalog(Path... directories) {
+        this(LevelCatalog.class.getClassLoader(), List.of(directories));
+    }
+
+    /**
+     * Creates a catalog of the levels on a classpath and in the given directories.
+     *
+     * @param classLoader - the class loader whose classpath is searched
+     * @param directories - extra directories holding level files
+     */
+    public LevelCatalog(ClassLoader classLoader, List<Path> directories) {
+        if (classLoader == null || directories == null) {
+            throw new IllegalArgumentException("Class loader and directories cannot be null");
+        }
+        this.classLoader = classLoader;
+        this.directories = List.copyOf(directories);
+    }
+
+    /**
+     * Gets the numbers of all levels.
+     *
+     * @return the level numbers in increasing order
+     */
+    public List<Integer> getLevelNos() {
+        return index().levelNos();
+    }
+
+    /**
+     * Gets the metadata of a level.
+     *
+     * @param levelNo - the number of the level
+     * @return the entry of the level, or empty if there is no such level
+     */
+    public Optional<Entry> get(int levelNo) {
+        return Optional.ofNullable(index().entries().get(levelNo));
+    }
+
+    /**
+     * Gets the number of the level after a level.
+     *
+     * @param levelNo - the number of the level
+     * @return the number of the next level, or empty if the level is the last one or there is no such level
+     */
+    public Optional<Integer> next(int levelNo) {
+        return Optional.ofNullable(index().nextLevelNos().get(levelNo));
+    }
+
+    /**
+     * Forgets the index, so that the level files are scanned again the next time the catalog is used.
+     */
+    public void refresh() {
+        index = null;
+    }
+
+    /**
+     * Gets the index, building it the first time
+     *
+     * @return the index
+     */
+    private Index index() {
+        var current = index;
+        if (current == null) {
+            synchronized (this) {
+                current = index;
+                if (current == null) {
+                    current = buildIndex();
+                    index = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Scans the classpath and the directories for level files
+     *
+     * @return the index
+     * @throws RuntimeException if a level file cannot be read
+     * @throws IllegalArgumentException if a level file is malformed, or two files of one root have the same level number
+     */
+    private Index buildIndex() {
+        var entries = new HashMap<Integer, Entry>();
+        try {
+            for (var root : classpathLevels()) {
+                entries.putAll(scanRoot(root));
+            }
+            for (var directory : directories) {
+                entries.putAll(scanRoot(directoryLevels(directory)));
+            }
+        } catch (IOException | URISyntaxException e) {
+            throw new RuntimeException(e);
+        }
+        var levelNos = entries.keySet().stream().sorted().toList();
+        var nextLevelNos = new HashMap<Integer, Integer>();
+        for (int i = 0; i + 1 < levelNos.size(); i++) {
+            nextLevelNos.put(levelNos.get(i), levelNos.get(i + 1));
+        }
+        return new Index(Map.copyOf(entries), levelNos, Map.copyOf(nextLevelNos));
+    }
+
+    /**
+     * Reads the metadata of the level files of one root
+     *
+     * @param locations - the files of the root
+     * @return the entries by level number
+     * @throws IllegalArgumentException if two of the files have the same level number
+     */
+    private Map<Integer, Entry> scanRoot(List<URL> locations) throws IOException {
+        var entries = new HashMap<Integer, Entry>();
+        for (var location : locations) {
+            var entry = scan(location);
+            var previous = entries.put(entry.levelNo(), entry);
+            if (previous != null) {
+                throw new IllegalArgumentException("Duplicate level " + entry.levelNo() + " in " + previous.location()
+                        + " and " + location);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Finds the level files in the levels folder of every classpath root, directory or jar
+     *
+     * @return the locations of the files of each root, in name order
+     */
+    private List<List<URL>> classpathLevels() throws IOException, URISyntaxException {
+        var locations = new ArrayList<List<URL>>();
+        var roots = classLoader.getResources(LEVELS_FOLDER);
+        while (roots.hasMoreElements()) {
+            var root = roots.nextElement();
+            switch (root.getProtocol()) {
+                case "file" -> locations.add(directoryLevels(Path.of(root.toURI())));
+                case "jar" -> {
+                    var connection = (JarURLConnection) root.openConnection();
+                    connection.setUseCaches(false);
+                    try (var jar = connection.getJarFile()) {
+                        var names = jar.stream()
+                                .map(JarEntry::getName)
+                                .filter(n -> n.startsWith(LEVELS_FOLDER + "/") && n.endsWith(".json")
+                                        && n.indexOf('/', LEVELS_FOLDER.length() + 1) < 0)
+                                .sorted()
+                                .toList();
+                        var jarUrl = connection.getJarFileURL();
+                        var jarLocations = new ArrayList<URL>();
+                        for (var name : names) {
+                            jarLocations.add(new URL("jar:" + jarUrl + "!/" + name));
+                        }
+                        locations.add(jarLocations);
+                    }
+                }
+                default -> throw new IllegalStateException("Unsupported level location: " + root);
+            }
+        }
+        return locations;
+    }
+
+    /**
+     * Finds the level files in a directory
+     *
+     * @param directory - the directory
+     * @return the locations of the files, in name order
+     */
+    private List<URL> directoryLevels(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            var paths = files.filter(p -> p.getFileName().toString().endsWith(".json") && Files.isRegularFile(p))
+                    .sorted()
+                    .toList();
+            var locations = new ArrayList<URL>();
+            for (var path : paths) {
+                locations.add(path.toUri().toURL());
+            }
+            return locations;
+        }
+    }
+
+    /**
+     * Reads the metadata of a level file
+     *
+     * @param location - the file
+     * @return the entry of the level
+     * @throws IllegalArgumentException if the file is not a well-formed level
+     */
+    private Entry scan(URL location) throws IOException {
+        byte[] bytes;
+        try (var in = location.openStream()) {
+            bytes = in.readAllBytes();
+        }
+        var crc = new CRC32();
+        crc.update(bytes);
+
+        Integer levelNo = null;
+        int width = 0;
+        int height = 0;
+        int timeoutInSeconds = 0;
+        int chipCount = 0;
+        try (var in = new JsonReader(new InputStreamReader(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8))) {
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "levelNo" -> levelNo = in.nextInt();
+                    case "width" -> width = in.nextInt();
+                    case "height" -> height = in.nextInt();
+                    case "timeoutInSeconds" -> timeoutInSeconds = in.nextInt();
+                    case "tiles" -> chipCount = countChipTiles(in);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+        } catch (MalformedJsonException | EOFException | IllegalStateException | NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed level " + location + ": " + e.getMessage(), e);
+        }
+        if (levelNo == null) {
+            throw new IllegalArgumentException("Missing field: levelNo in " + location);
+        }
+        return new Entry(levelNo, width, height, timeoutInSeconds, chipCount, crc.getValue(), location);
+    }
+
+    /**
+     * Counts the chip tiles of a level, skipping everything else
+     *
+     * @param in - the Json stream, at the array of tiles
+     * @return the number of chip tiles
+     */
+    private int countChipTiles(JsonReader in) throws IOException {
+        int count = 0;
+        in.beginArray();
+        while (in.hasNext()) {
+            in.beginObject();
+            while (in.hasNext()) {
+                if (!in.nextName().equals("type")) {
+                    in.skipValue();
+                } else if (in.nextString().equals("ChipTile")) {
+                    count++;
+                }
+            }
+            in.endObject();
+        }
+        in.endArray();
+        return count;
+    }
+}
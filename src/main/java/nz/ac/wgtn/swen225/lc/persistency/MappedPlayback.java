@@ -0,0 +1,254 @@
+package nz.ac.wgtn.swen225.lc.persistency;
+
+import nz.ac.wgtn.swen225.lc.domain.Game;
+import nz.ac.wgtn.swen225.lc.domain.level.characters.Enemy;
+import nz.ac.wgtn.swen225.lc.recorder.Moment;
+import nz.ac.wgtn.swen225.lc.recorder.PlaybackSource;
+import nz.ac.wgtn.swen225.lc.utils.Vector2D;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * MappedPlayback gives random access to a playback saved by {@link BinaryPersistenceImpl} in the indexed format.
+ * <p>
+ * The file is memory-mapped and only its header, the starting game, is read when it is opened. Each moment is decoded
+ * when asked for, after a binary search of the index at the end of the file, so opening takes the same time however
+ * long the recording, and only the pages of the file around the ticks being replayed are brought into memory.
+ * @author - Brett Penwarden
+ * Student id - 300635306
+ */
+public class MappedPlayback implements PlaybackSource {
+
+    private volatile MappedByteBuffer buffer; // Null once closed
+    private final Game since;
+    private final int endTickNo;
+    private final Map<Integer, Enemy> enemyMap; // The enemies of the starting game, by id
+    private final int indexOffset;
+    private final int momentCount;
+    private final BinaryPersistenceImpl format; // Decodes the values in the file
+
+    private MappedPlayback(MappedByteBuffer buffer, Game since, int endTickNo, int indexOffset, int momentCount,
+                           BinaryPersistenceImpl format) {
+        this.buffer = buffer;
+        this.since = since;
+        this.endTickNo = endTickNo;
+        this.enemyMap = since.getLevel().getEnemiesAsMap();
+        this.indexOffset = indexOffset;
+        this.momentCount = momentCount;
+        this.format = format;
+    }
+
+    /**
+     * Checks whether a binary file is of a version that ends with an index of its moments
+     *
+     * @param file - a file in the binary format
+     * @return true if the file has an index, false otherwise
+     * @throws RuntimeException if the file cannot be read
+     */
+    public static boolean isIndexed(File file) {
+        try (var in = new FileInputStream(file)) {
+            var header = in.readNBytes(BinaryPersistenceImpl.MAGIC.length + 1);
+            return header.length == BinaryPersistenceImpl.MAGIC.length + 1
+                    && (header[BinaryPersistenceImpl.MAGIC.length] & 0xFF) >= BinaryPersistenceImpl.INDEXED_VERSION;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Opens an indexed binary playback
+     *
+     * @param file - the file
+     * @return the playback, to be closed when no longer needed
+     * @throws IllegalArgumentException if the file is not an indexed binary playback, or is corrupt
+     */
+    public static MappedPlayback open(File file) {
+        return open(file, new BinaryPersistenceImpl());
+    }
+
+    /**
+     * Opens an indexed binary playback
+     *
+     * @param file - the file
+     * @param format - decodes the values in the file
+     * @return the playback, to be closed when no longer needed
+     * @throws IllegalArgumentException if the file is not an indexed binary playback, or is corrupt
+     */
+    static MappedPlayback open(File file, BinaryPersistenceImpl format) {
+        MappedByteBuffer buffer;
+        // The mapping stays valid after the channel is closed
+        try (var channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Playback too large to map: " + file);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        try {
+            var magic = new byte[BinaryPersistenceImpl.MAGIC.length];
+            buffer.get(0, magic);
+            int version = buffer.get(magic.length) & 0xFF;
+            int kind = buffer.get(magic.length + 1) & 0xFF;
+            if (!Arrays.equals(magic, BinaryPersistenceImpl.MAGIC) || kind != BinaryPersistenceImpl.KIND_PLAYBACK) {
+                throw new IllegalArgumentException("Not a binary playback: " + file);
+            }
+            if (version < BinaryPersistenceImpl.INDEXED_VERSION || version > BinaryPersistenceImpl.VERSION) {
+                throw new IllegalArgumentException("Unsupported indexed playback version: " + version);
+            }
+
+            var in = inputAt(buffer, magic.length + 2);
+            Game since = format.readGame(in, version);
+            int endTickNo = BinaryPersistenceImpl.readVarInt(in);
+            int momentCount = BinaryPersistenceImpl.readVarInt(in);
+
+            int trailer = buffer.limit() - BinaryPersistenceImpl.TRAILER_SIZE;
+            int indexOffset = buffer.getInt(trailer);
+            if (buffer.getInt(trailer + 4) != momentCount || indexOffset < 0
+                    || (long) indexOffset + (long) momentCount * BinaryPersistenceImpl.INDEX_ENTRY_SIZE != trailer) {
+                throw new IllegalArgumentException("Corrupt playback index: " + file);
+            }
+            return new MappedPlayback(buffer, since, endTickNo, indexOffset, momentCount, format);
+        } catch (IndexOutOfBoundsException | EOFException e) {
+            throw new IllegalArgumentException("Truncated file: " + file, e);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Get the snapshot of the game state at the beginning of the playback.
+     *
+     * @return The game state snapshot.
+     */
+    @Override
+    public Game getSince() {
+        return since;
+    }
+
+    /**
+     * Get the end tick number of the playback.
+     *
+     * @return The end tick number.
+     */
+    @Override
+    public int getEndTickNo() {
+        return endTickNo;
+    }
+
+    /**
+     * Gets the number of moments in the playback.
+     *
+     * @return the number of moments
+     */
+    public int getMomentCount() {
+        return momentCount;
+    }
+
+    /**
+     * Get the moment recorded at a tick, decoding it from the file.
+     *
+     * @param tickNo The tick number.
+     * @return The moment, or null if nothing moved at that tick.
+     * @throws IllegalStateException if the playback has been closed
+     */
+    @Override
+    public Moment getMoment(int tickNo) {
+        var mapped = buffer;
+        if (mapped == null) {
+            throw new IllegalStateException("Playback has been closed");
+        }
+        int entry = findEntry(mapped, tickNo);
+        if (entry < 0) {
+            return null;
+        }
+        int offset = mapped.getInt(indexOffset + entry * BinaryPersistenceImpl.INDEX_ENTRY_SIZE + 4);
+        try {
+            var in = inputAt(mapped, offset);
+            BinaryPersistenceImpl.readSignedVarInt(in); // The tick delta, already known from the index
+            Vector2D playerMovement = format.readMove(in);
+            int enemyCount = BinaryPersistenceImpl.readVarInt(in);
+            var enemyMovementMap = new HashMap<Enemy, Vector2D>(enemyCount * 2);
+            for (int i = 0; i < enemyCount; i++) {
+                int id = BinaryPersistenceImpl.readVarInt(in);
+                var enemy = enemyMap.get(id);
+                if (enemy == null) {
+                    throw new IllegalArgumentException("Unknown enemy " + id + " at tick " + tickNo);
+                }
+                enemyMovementMap.put(enemy, format.readMove(in));
+            }
+            return new Moment(tickNo, playerMovement, enemyMovementMap);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Corrupt moment at tick " + tickNo, e);
+        }
+    }
+
+    /**
+     * Releases the mapping. The memory is unmapped once the buffer has been garbage collected.
+     */
+    @Override
+    public void close() {
+        buffer = null;
+    }
+
+    /**
+     * Binary searches the index for a tick
+     *
+     * @param mapped - the mapped file
+     * @param tickNo - the tick number
+     * @return the number of the index entry, or -1 if there is no moment at the tick
+     */
+    private int findEntry(ByteBuffer mapped, int tickNo) {
+        int low = 0;
+        int high = momentCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midTickNo = mapped.getInt(indexOffset + mid * BinaryPersistenceImpl.INDEX_ENTRY_SIZE);
+            if (midTickNo < tickNo) {
+                low = mid + 1;
+            } else if (midTickNo > tickNo) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Creates a stream reading the mapped file from an offset, without moving the position of the shared buffer
+     *
+     * @param mapped - the mapped file
+     * @param offset - the offset
+     * @return the stream
+     */
+    private static DataInputStream inputAt(ByteBuffer mapped, int offset) {
+        var view = mapped.duplicate().position(offset);
+        return new DataInputStream(new InputStream() {
+            @Override
+            public int read() {
+                return view.hasRemaining() ? view.get() & 0xFF : -1;
+            }
+
+            @Override
+            public int read(byte[] bytes, int off, int len) {
+                if (len == 0) {
+                    return 0;
+                }
+                if (!view.hasRemaining()) {
+                    return -1;
+                }
+                int n = Math.min(len, view.remaining());
+                view.get(bytes, off, n);
+                return n;
+            }
+        });
+    }
+}
@@ -2,24 +2,41 @@ package nz.ac.wgtn.swen225.lc.persistency;
 
 import nz.ac.wgtn.swen225.lc.domain.Game;
 import nz.ac.wgtn.swen225.lc.recorder.Playback;
+import nz.ac.wgtn.swen225.lc.recorder.PlaybackSource;
 
 import java.io.File;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Persistence interface 
  * 
- * Persistence is responsible for serializing java objects into json texts and saving them in disk, vice versa.
+ * Persistence is responsible for serializing java objects and saving them in disk, vice versa. The format of the
+ * saved files is up to the implementation: {@link FileBasedPersistenceImpl} writes json texts, and
+ * {@link BinaryPersistenceImpl} writes a compact binary format while still loading json saves. Levels are read from
+ * json level files either way.
  *  
  * @Author - Brett Penwarden
  * Student ID - 300635306
  */
 public interface Persistence {
     List<Integer> getAllLevelNos(); // returns all level numbers in a list
+    default Optional<Integer> getNextLevelNo(int levelNo) { // returns the level after the given one, empty after the last
+        var levelNos = getAllLevelNos();
+        int i = levelNos.indexOf(levelNo);
+        return i >= 0 && i + 1 < levelNos.size() ? Optional.of(levelNos.get(i + 1)) : Optional.empty();
+    }
     Game loadGame(int levelNo); // Creates a new Game object at a provided level and returns it
-    Game loadGame(File save);  // Loads a previous game object (in json format), deserializes it back toa game object, and returns the latter
-    void saveGame(File save, Game game);  // Serialize the game object into a json text and save the text to disk
+    Game loadGame(File save);  // Loads a previously saved game, deserializes it back to a game object, and returns the latter
+    void saveGame(File save, Game game);  // Serialize the game object in the format of the implementation and save it to disk
 
-    Playback loadPlayback(File save);  // Load a previously saved Playback object (in json format)
-    void savePlayback(File save, Playback playback); // Serialize the Playback object into a json text and save the text to disk
+    Playback loadPlayback(File save);  // Load a previously saved Playback object
+    default PlaybackSource openPlayback(File save) { // Open a saved playback for replaying, reading moments on demand where the format allows
+        return loadPlayback(save);
+    }
+    void savePlayback(File save, Playback playback); // Serialize the Playback object in the format of the implementation and save it to disk
+
+    default String getFileExtension() { // The extension, without the dot, of the files saved; json unless overridden
+        return "json";
+    }
 }
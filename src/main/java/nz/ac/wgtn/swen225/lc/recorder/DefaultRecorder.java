@@ -34,7 +34,7 @@ public class DefaultRecorder implements Recorder {
         this.persistence = persistence;
         this.game = game;
         this.playback = new Playback();
-        var gameSnapShot = Game.deepCopyOf(this.game);
+        var gameSnapShot = this.game.fork();
         this.playback.setSince(gameSnapShot);
         this.enemyMap = gameSnapShot.getLevel().getEnemiesAsMap();
     }
@@ -67,6 +67,28 @@ public class DefaultRecorder implements Recorder {
                         ))));
     }
 
+    /**
+     * Record the game state at a specific moment. Nothing is allocated unless something moved.
+     *
+     * @param playerMovement The movement of the player character.
+     * @param enemyMoves     The movements of the enemy characters, indexed by enemy slot.
+     */
+    @Override
+    public void updateBySlot(Vector2D playerMovement, Vector2D[] enemyMoves) {
+        if (playerNotMoved(playerMovement) && enemyNotMoved(enemyMoves)) {
+            return;
+        }
+
+        var level = game.getLevel();
+        var enemyMovementMap = new HashMap<Enemy, Vector2D>(enemyMoves.length * 2);
+        for (int i = 0; i < enemyMoves.length; i++) {
+            if (enemyMoves[i] != null) {
+                enemyMovementMap.put(enemyMap.get(level.getEnemy(i).getId()), enemyMoves[i]);
+            }
+        }
+        this.playback.addMovement(new Moment(game.getTickNo(), playerMovement, enemyMovementMap));
+    }
+
     /**
      * Stop the recording process and save the recorded gameplay.
      */
@@ -78,7 +100,7 @@ public class DefaultRecorder implements Recorder {
             var timeStamp = dateFormat.format(new Date());
             var classpathUri = Objects.requireNonNull(DefaultRecorder.class.getResource("/")).getFile();
             var classPath = new URI(classpathUri).getPath();
-            var pathname = classPath + "/playback_" + timeStamp + ".json";
+            var pathname = classPath + "/playback_" + timeStamp + "." + persistence.getFileExtension();
             this.persistence.savePlayback(new File(pathname), playback);
         } catch (URISyntaxException e) {
             throw new IllegalStateException(e);
@@ -102,6 +124,26 @@ public class DefaultRecorder implements Recorder {
      * @return `true` if all enemy characters have not moved; otherwise, `false`.
      */
     private boolean enemyNotMoved(Map<Enemy, Vector2D> enemyMovementMap) {
-        return enemyMovementMap.isEmpty() || enemyMovementMap.values().stream().allMatch(Vector2D.ZERO::equals);
+        for (var movement : enemyMovementMap.values()) {
+            if (!Vector2D.ZERO.equals(movement)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Check if all enemy characters have not moved.
+     *
+     * @param enemyMoves The movements of the enemy characters, indexed by enemy slot.
+     * @return `true` if all enemy characters have not moved; otherwise, `false`.
+     */
+    private boolean enemyNotMoved(Vector2D[] enemyMoves) {
+        for (var movement : enemyMoves) {
+            if (movement != null && !Vector2D.ZERO.equals(movement)) {
+                return false;
+            }
+        }
+        return true;
     }
 }
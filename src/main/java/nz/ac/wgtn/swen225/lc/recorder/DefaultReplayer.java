@@ -1,16 +1,13 @@
 package nz.ac.wgtn.swen225.lc.recorder;
 
 import nz.ac.wgtn.swen225.lc.app.GameEngine;
+import nz.ac.wgtn.swen225.lc.app.SimulationClock;
 import nz.ac.wgtn.swen225.lc.domain.Game;
-import nz.ac.wgtn.swen225.lc.utils.Vector2D;
-import nz.ac.wgtn.swen225.lc.domain.level.characters.Enemy;
 
 import javax.swing.*;
-import javax.swing.Timer;
 import java.awt.*;
 import java.awt.event.KeyEvent;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * The `DefaultReplayer` class implements the `Replayer` interface to control the replay
@@ -33,68 +30,66 @@ public class DefaultReplayer implements Replayer {
     private static final float MAX_SPEED = 8f;
 
     private final GameEngine gameEngine;
-    private final Map<Integer, Vector2D> playerMovements = new HashMap<>();
-    private final Map<Integer, Map<Enemy, Vector2D>> enemyMovements = new HashMap<>();
+    private final PlaybackSource playback; // Looked up tick by tick, so the moments are not copied
     private final int endTick;
-    private final Timer timer;
+    private final int tickRate; // The tick rate the playback was recorded at
+    private final SimulationClock clock;
     private JLabel endMessage;
 
     private float currentPlaybackSpeed = 1f; // Playback speed (allowed values: 0.25f, 0.5f, 1f, 2f, 4f)
 
     /**
-     * Constructs a `DefaultReplayer` object with the provided `GameEngine` and `Playback`.
+     * Constructs a `DefaultReplayer` object with the provided `GameEngine` and `PlaybackSource`.
      *
      * @param gameEngine The game engine responsible for rendering and controlling the game.
-     * @param playback   The playback data containing recorded moments.
+     * @param playback   The playback data containing recorded moments. Closed when the replayer is destroyed.
      */
-    public DefaultReplayer(GameEngine gameEngine, Playback playback) {
+    public DefaultReplayer(GameEngine gameEngine, PlaybackSource playback) {
         this.gameEngine = gameEngine;
         this.endMessage = new JLabel("Replay ended.");
         this.endMessage.setForeground(Color.WHITE);
         this.endMessage.setFont(new Font("Serif", Font.PLAIN, 50));
 
-        // Initialize player and enemy movement from playback data
-        this.playerMovements.putAll(
-                playback.getMoments()
-                        .stream()
-                        .collect(Collectors.toMap(Moment::tickNo, Moment::playerMovement)));
-        this.enemyMovements.putAll(
-                playback.getMoments()
-                        .stream()
-                        .collect(Collectors.toMap(Moment::tickNo, Moment::enemyMovementMap)));
+        this.playback = playback;
         this.endTick = playback.getEndTickNo();
+        this.tickRate = playback.getSince() != null ? playback.getSince().getTickRate() : Game.FRAME_RATE;
 
-        this.timer = new Timer(1000 / Game.FRAME_RATE, e -> this.update());
+        this.clock = new SimulationClock(tickRate, SimulationClock.DEFAULT_MAX_LAG_TICKS, this::update,
+                SwingUtilities::invokeLater);
     }
 
     @Override
     public void onStart() {
         this.bindKeyStrokes(); // Bind keys to control replay action
-        this.timer.start(); // Start the timer to advance the replay
+        this.clock.start(); // Start the clock to advance the replay
     }
 
     @Override
     public void onDestroy() {
-        this.timer.stop(); // Stop the timer
+        this.clock.stop(); // Stop the clock
         this.unbindKeyStrokes(); // Unbind keys used for the replay control
         this.gameEngine.getGlassPane().remove(endMessage);
         this.gameEngine.getGlassPane().setVisible(false);
+        this.playback.close(); // Release the playback file, if any
     }
 
     public void update(){
         var currentTick = gameEngine.getTickNo();
         // Check if the replay has reached the end
         if(currentTick == endTick) {
-            this.timer.stop();
+            this.clock.stop();
             this.gameEngine.getGlassPane().add(endMessage);
             this.gameEngine.getGlassPane().setVisible(true);
             return;
         }
 
         // Get player and enemy movement for the current tick and update the game engine
-        var playerMoment = playerMovements.getOrDefault(currentTick, null);
-        var enemyMomentMap = enemyMovements.getOrDefault(currentTick, Map.of());
-        gameEngine.update(playerMoment, enemyMomentMap);
+        var moment = playback.getMoment(currentTick);
+        if (moment == null) {
+            gameEngine.update(null, Map.of());
+        } else {
+            gameEngine.update(moment.playerMovement(), moment.enemyMovementMap());
+        }
     }
 
     /**
@@ -102,8 +97,8 @@ public class DefaultReplayer implements Replayer {
      */
     private void bindPlayAction() {
         gameEngine.bindInputWithAction(PLAY_KEY, e -> {
-            if (!timer.isRunning()) {
-                timer.start(); // Start or resume the replay
+            if (!clock.isRunning()) {
+                clock.start(); // Start or resume the replay
             }
         });
     }
@@ -115,8 +110,8 @@ public class DefaultReplayer implements Replayer {
      */
     private void bindPauseORStopAction(KeyStroke keyStroke) {
         gameEngine.bindInputWithAction(keyStroke, e -> {
-            if (timer.isRunning()) {
-                timer.stop(); // Pause or Stop the replay depending on the button pressed
+            if (clock.isRunning()) {
+                clock.stop(); // Pause or Stop the replay depending on the button pressed
             }
         });
     }
@@ -139,7 +134,7 @@ public class DefaultReplayer implements Replayer {
             if (currentPlaybackSpeed < MIN_SPEED) {
                 currentPlaybackSpeed = MIN_SPEED; // Ensure playback speed doesn't go below the minimum
             }
-            timer.setDelay((int) (1000 / (Game.FRAME_RATE * currentPlaybackSpeed)));
+            clock.setTicksPerSecond(tickRate * currentPlaybackSpeed);
         });
     }
 
@@ -152,7 +147,7 @@ public class DefaultReplayer implements Replayer {
             if (currentPlaybackSpeed > MAX_SPEED) {
                 currentPlaybackSpeed = MAX_SPEED; // Ensure playback speed doesn't exceed the maximum
             }
-            timer.setDelay((int) (1000 / (Game.FRAME_RATE * currentPlaybackSpeed)));
+            clock.setTicksPerSecond(tickRate * currentPlaybackSpeed);
         });
     }
 
@@ -4,7 +4,9 @@ import nz.ac.wgtn.swen225.lc.domain.Game;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * The Playback class represents a recorded playback of moments within a game.
@@ -13,10 +15,11 @@ import java.util.List;
  *
  * @author Sajja Syed 300551462
  */
-public class Playback implements Serializable {
+public class Playback implements PlaybackSource, Serializable {
 
     private Game since;  // A snapshot of a game
     private final List<Moment> moments = new ArrayList<>();
+    private final Map<Integer, Moment> momentsByTick = new HashMap<>();
     private int endTickNo;
 
     /**
@@ -24,6 +27,7 @@ public class Playback implements Serializable {
      *
      * @return The game state snapshot.
      */
+    @Override
     public Game getSince() {
         return since;
     }
@@ -53,6 +57,18 @@ public class Playback implements Serializable {
      */
     public void addMovement(Moment moment) {
         moments.add(moment);
+        momentsByTick.put(moment.tickNo(), moment);
+    }
+
+    /**
+     * Get the moment recorded at a tick.
+     *
+     * @param tickNo The tick number.
+     * @return The moment, or null if nothing moved at that tick.
+     */
+    @Override
+    public Moment getMoment(int tickNo) {
+        return momentsByTick.get(tickNo);
     }
 
     /**
@@ -60,6 +76,7 @@ public class Playback implements Serializable {
      *
      * @return The end tick number.
      */
+    @Override
     public int getEndTickNo() {
         return endTickNo;
     }
@@ -0,0 +1,43 @@
+package nz.ac.wgtn.swen225.lc.recorder;
+
+import nz.ac.wgtn.swen225.lc.domain.Game;
+
+/**
+ * The PlaybackSource interface gives a replayer random access to the moments of a recording by tick number, so the
+ * recording does not have to be held in memory as a whole. A {@link Playback} is a source held in memory; other
+ * sources may read the moments from a file as they are asked for.
+ *
+ * @author Sajja Syed 300551462
+ */
+public interface PlaybackSource extends AutoCloseable {
+
+    /**
+     * Get the snapshot of the game state at the beginning of the playback.
+     *
+     * @return The game state snapshot.
+     */
+    Game getSince();
+
+    /**
+     * Get the end tick number of the playback.
+     *
+     * @return The end tick number.
+     */
+    int getEndTickNo();
+
+    /**
+     * Get the moment recorded at a tick.
+     *
+     * @param tickNo The tick number.
+     * @return The moment, or null if nothing moved at that tick.
+     */
+    Moment getMoment(int tickNo);
+
+    /**
+     * Release the resources held by the source. The source must not be used afterwards.
+     */
+    @Override
+    default void close() {
+        // Nothing to release by default
+    }
+}
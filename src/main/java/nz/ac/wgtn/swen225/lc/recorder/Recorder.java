@@ -28,6 +28,16 @@ public interface Recorder {
      */
     void update(Vector2D playerMovement, Map<Enemy, Vector2D> enemyMovementMap);
 
+    /**
+     * Updates the recorder with player and enemy movements during gameplay, with the enemy movements given by enemy
+     * slot: the movement of {@code level.getEnemy(i)} is {@code enemyMoves[i]}. Called before the movements are
+     * applied to the game.
+     *
+     * @param playerMovement The movement vector representing the player's movement.
+     * @param enemyMoves     The enemies' movement vectors, indexed by enemy slot.
+     */
+    void updateBySlot(Vector2D playerMovement, Vector2D[] enemyMoves);
+
     /**
      * Called when the recording is being stopped or destroyed.
      * Implementations should perform any cleanup or resource release here.
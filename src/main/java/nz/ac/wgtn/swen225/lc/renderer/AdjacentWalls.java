@@ -1,8 +1,9 @@
 package nz.ac.wgtn.swen225.lc.renderer;
 
+import nz.ac.wgtn.swen225.lc.domain.RenderSnapshot;
+import nz.ac.wgtn.swen225.lc.domain.level.TileType;
 import nz.ac.wgtn.swen225.lc.utils.Vector2D;
 
-import java.util.Set;
 import java.util.function.Function;
 
 /**
@@ -20,14 +21,17 @@ public record AdjacentWalls(boolean wallAbove, boolean wallBelow, boolean wallLe
     /**
      * Calculates the adjacency of walls to a position.
      *
-     * @param wallPositions Set detailing where walls are.
-     * @param position      Where to judge adjacency from.
+     * <p>Reads the tile types of the snapshot, so each query is constant time.
+     *
+     * @param snapshot The snapshot of the level to look for walls in.
+     * @param position Where to judge adjacency from.
      * @return <code>AdjacentWalls</code> instance detailing adjacency.
      */
-    public static AdjacentWalls calculateAdjacentWalls(final Set<Vector2D> wallPositions,
+    public static AdjacentWalls calculateAdjacentWalls(final RenderSnapshot snapshot,
                                                        final Vector2D position) {
         final Function<Vector2D, Boolean> isWallPresentFromOffset =
-                offset -> wallPositions.contains(position.add(offset));
+                offset -> snapshot.tileTypeAt(position.x() + offset.x(),
+                        position.y() + offset.y()) == TileType.WALL;
 
         boolean wallAbove = isWallPresentFromOffset.apply(Vector2D.UP);
         boolean wallBelow = isWallPresentFromOffset.apply(Vector2D.DOWN);
@@ -1,9 +1,7 @@
 package nz.ac.wgtn.swen225.lc.renderer;
 
 import nz.ac.wgtn.swen225.lc.domain.Game;
-import nz.ac.wgtn.swen225.lc.domain.events.GameEvent;
-import nz.ac.wgtn.swen225.lc.domain.events.GameEventListener;
-import nz.ac.wgtn.swen225.lc.domain.events.TickEvent;
+import nz.ac.wgtn.swen225.lc.domain.RenderSnapshot;
 import nz.ac.wgtn.swen225.lc.renderer.maze.ResizeableMaze;
 
 import javax.swing.*;
@@ -14,11 +12,13 @@ import java.awt.*;
  * Exports the view of the maze to other modules.
  *
  * <p>To use the Renderer module, construct this object, introduce it into your Swing or AWT
- * hierarchy, and then enable it with <code>setEnabled</code>.
+ * hierarchy, and then enable it with <code>setEnabled</code>. While the game runs, pass it the
+ * snapshot of each tick with <code>render</code>, on the event dispatch thread; the live game is
+ * only read when the window is enabled.
  *
  * @author Jeremy Kanal-Scott 300624019
  */
-public final class GameWindow extends JPanel implements GameEventListener {
+public final class GameWindow extends JPanel {
     /**
      * Main domain object to query.
      */
@@ -37,7 +37,7 @@ public final class GameWindow extends JPanel implements GameEventListener {
      * @param newGame The game world to be rendered.
      */
     public GameWindow(final Game newGame) {
-        maze = new ResizeableMaze(newGame);
+        maze = new ResizeableMaze();
 
         setLayout(new BorderLayout());
         this.game = newGame; //FIXME: Vulnerable to EI_EXPOSE_REP2, but solution is non-obvious.
@@ -65,8 +65,8 @@ public final class GameWindow extends JPanel implements GameEventListener {
      * may alter their visual representation when they are disabled in order to provide feedback to
      * the user that they cannot take input.
      *
-     * <p>Enabling this component allows it to update to game events. This component is disabled by
-     * default.
+     * <p>Enabling this component shows the current state of the game, which must not be advancing
+     * meanwhile. This component is disabled by default.
      *
      * <p>Note: Disabling a component does not disable its children.
      *
@@ -81,24 +81,23 @@ public final class GameWindow extends JPanel implements GameEventListener {
     public void setEnabled(final boolean enabled) {
         super.setEnabled(enabled);
         if (enabled) {
-            game.addListener(this);
             maze.setVisible(true);
-            maze.setLevel(game.getLevel());
+            render(RenderSnapshot.of(game));
         } else {
-            game.removeListener(this);
             maze.setVisible(false);
-            maze.setLevel(null);
+            maze.setSnapshot(null);
         }
     }
 
-    /*
-     * Updates the renderer when necessary.
+    /**
+     * Shows a snapshot of the game.
+     *
+     * <p>Repaints only when something visible changed since the last snapshot shown.
+     *
+     * @param snapshot The snapshot to show.
      */
-    @Override //GameEventListener
-    public void onGameEvent(final GameEvent gameEvent) {
-        //Frequently repaints when needed.
-        if (gameEvent instanceof TickEvent) {
-            maze.render();
+    public void render(final RenderSnapshot snapshot) {
+        if (maze.render(snapshot)) {
             repaint();
         }
     }
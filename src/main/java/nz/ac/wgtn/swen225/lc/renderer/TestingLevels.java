@@ -27,6 +27,25 @@ public class TestingLevels {
             public Vector2D nextMove() {
                 return null;
             }
+
+            @Override
+            public Enemy copy() {
+                return e(getId(), getPosition());
+            }
+        };
+    }
+
+    private static Enemy e(int id, Vector2D position) {
+        return new Enemy(id, position) {
+            @Override
+            public Vector2D nextMove() {
+                return null;
+            }
+
+            @Override
+            public Enemy copy() {
+                return e(getId(), getPosition());
+            }
         };
     }
 
@@ -1,42 +1,38 @@
 package nz.ac.wgtn.swen225.lc.renderer.assets;
 
-import nz.ac.wgtn.swen225.lc.domain.Game;
-import nz.ac.wgtn.swen225.lc.domain.events.EnemyMovedEvent;
-import nz.ac.wgtn.swen225.lc.domain.events.GameEvent;
-import nz.ac.wgtn.swen225.lc.domain.events.GameEventListener;
-import nz.ac.wgtn.swen225.lc.domain.events.PlayerMovedEvent;
-import nz.ac.wgtn.swen225.lc.domain.level.characters.Enemy;
+import nz.ac.wgtn.swen225.lc.domain.RenderSnapshot;
 import nz.ac.wgtn.swen225.lc.utils.Vector2D;
 
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
-import java.util.WeakHashMap;
 
 /**
- * Tracks movements of entities, via <code>GameEventListener</code>.
+ * Tracks movements of entities, from their positions in each rendered snapshot.
+ *
+ * <p>Enemies are tracked by identifier, as snapshots only hold their identifiers and positions.
+ * An entity that moved further than one tile since the last rendered snapshot, e.g. because
+ * snapshots were skipped, keeps its orientation.
  *
  * @author Jeremy Kanal-Scott 300624019
  */
-public final class MovementTracker implements GameEventListener {
+public final class MovementTracker {
+    /**
+     * Orientations of the enemies we know, by identifier.
+     */
+    private final Map<Integer, Orientation> enemies = new HashMap<>();
     /**
-     * Enemies we know the orientation of.
+     * Positions of the enemies in the last tracked snapshot, by identifier.
      */
-    private final Map<Enemy, Orientation> enemies = new WeakHashMap<>();
+    private final Map<Integer, Vector2D> enemyPositions = new HashMap<>();
     /**
      * Orientation of the player, possibly null.
      */
     private Orientation playerOrientation;
-
     /**
-     * Constructor.
-     *
-     * @param game The game to track movements on.
+     * Position of the player in the last tracked snapshot, possibly null.
      */
-    public MovementTracker(final Game game) {
-        if (game != null) {
-            game.addListener(this);
-        }
-    }
+    private Vector2D playerPosition;
 
     /**
      * Gets the current player orientation, or default.
@@ -50,29 +46,49 @@ public final class MovementTracker implements GameEventListener {
     /**
      * Returns the orientation of the given enemy.
      *
-     * @param enemy The enemy queried.
+     * @param enemyId The identifier of the enemy queried.
      * @return The enemy's orientation.
      */
-    public Orientation getEnemyOrientation(final Enemy enemy) {
-        return enemies.getOrDefault(enemy, Orientation.DEFAULT_ORIENTATION);
+    public Orientation getEnemyOrientation(final int enemyId) {
+        return enemies.getOrDefault(enemyId, Orientation.DEFAULT_ORIENTATION);
     }
 
-    @Override
-    public void onGameEvent(final GameEvent gameEvent) {
-        if (gameEvent instanceof PlayerMovedEvent) {
-            onPlayerMoved((PlayerMovedEvent) gameEvent);
-        } else if (gameEvent instanceof EnemyMovedEvent) {
-            onEnemyMoved((EnemyMovedEvent) gameEvent);
+    /**
+     * Updates orientations with the positions in a snapshot.
+     *
+     * @param snapshot The snapshot about to be rendered.
+     */
+    public void track(final RenderSnapshot snapshot) {
+        if (snapshot.hasPlayer()) {
+            final Vector2D position = snapshot.getPlayerPosition();
+            if (playerPosition != null) {
+                playerOrientation = Orientation.getOrientation(playerPosition, position,
+                        playerOrientation);
+            }
+            playerPosition = position;
+        }
+        for (int i = 0; i < snapshot.getEnemyCount(); i++) {
+            final int id = snapshot.getEnemyId(i);
+            final Vector2D position = snapshot.getEnemyPosition(i);
+            final Vector2D previous = enemyPositions.put(id, position);
+            if (previous != null) {
+                final Orientation orientation = Orientation.getOrientation(previous, position,
+                        enemies.get(id));
+                if (orientation != null) {
+                    enemies.put(id, orientation);
+                }
+            }
         }
     }
 
-    private void onPlayerMoved(final PlayerMovedEvent playerMoved) {
-        playerOrientation = Orientation.getOrientation(playerMoved.from(), playerMoved.to());
-    }
-
-    private void onEnemyMoved(final EnemyMovedEvent enemyMoved) {
-        enemies.put(enemyMoved.enemy(),
-                Orientation.getOrientation(enemyMoved.from(), enemyMoved.to()));
+    /**
+     * Forgets all orientations, e.g. when a different level is shown.
+     */
+    public void reset() {
+        enemies.clear();
+        enemyPositions.clear();
+        playerOrientation = null;
+        playerPosition = null;
     }
 
     /**
@@ -95,9 +111,10 @@ public final class MovementTracker implements GameEventListener {
         private static final Map<Vector2D, Orientation> DIRECTION_MAP = Map.of(Vector2D.UP, UP,
                 Vector2D.DOWN, DOWN, Vector2D.LEFT, LEFT, Vector2D.RIGHT, RIGHT);
 
-        private static Orientation getOrientation(final Vector2D from, final Vector2D to) {
+        private static Orientation getOrientation(final Vector2D from, final Vector2D to,
+                                                  final Orientation current) {
             final Vector2D direction = to.subtract(from);
-            return DIRECTION_MAP.getOrDefault(direction, DEFAULT_ORIENTATION);
+            return DIRECTION_MAP.getOrDefault(direction, current);
         }
     }
 }
@@ -4,10 +4,9 @@ import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
-import nz.ac.wgtn.swen225.lc.domain.level.Level;
-import nz.ac.wgtn.swen225.lc.domain.level.characters.Enemy;
+import nz.ac.wgtn.swen225.lc.domain.RenderSnapshot;
+import nz.ac.wgtn.swen225.lc.domain.level.TileType;
 import nz.ac.wgtn.swen225.lc.domain.level.items.Key;
-import nz.ac.wgtn.swen225.lc.domain.level.tiles.*;
 import nz.ac.wgtn.swen225.lc.renderer.AdjacentWalls;
 import nz.ac.wgtn.swen225.lc.utils.Vector2D;
 
@@ -22,7 +21,6 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
 
 /**
  * Helper interface for making tiles for the maze.
@@ -34,16 +32,16 @@ public final class TileMaker {
     /**
      * Objects are non-opaque tiles. They are rendered on a separate layer.
      */
-    public static final Set<Class<? extends Tile>> OBJECTS = Set.of(ChipTile.class, ExitLock.class,
-            InfoField.class, KeyTile.class, LockedDoor.class);
+    public static final Set<TileType> OBJECTS = Set.of(TileType.CHIP, TileType.EXIT_LOCK,
+            TileType.INFO_FIELD, TileType.KEY, TileType.LOCKED_DOOR);
     /**
-     * Maps tiles to suppliers of images representing those tiles.
+     * Maps tile types to suppliers of images representing those tiles.
      */
-    private static final Map<Class<? extends Tile>, Supplier<Image>> TILE_MAPPING = Map.of(
-            ChipTile.class, ImageLoader::getChip, Exit.class, ImageLoader::getExit, ExitLock.class,
-            ImageLoader::getDoor, InfoField.class, ImageLoader::getInfoIcon, KeyTile.class,
-            ImageLoader::getKey, LockedDoor.class, ImageLoader::getDoor, Wall.class,
-            ImageLoader::getWall);
+    private static final Map<TileType, Supplier<Image>> TILE_MAPPING = Map.of(
+            TileType.CHIP, ImageLoader::getChip, TileType.EXIT, ImageLoader::getExit,
+            TileType.EXIT_LOCK, ImageLoader::getDoor, TileType.INFO_FIELD, ImageLoader::getInfoIcon,
+            TileType.KEY, ImageLoader::getKey, TileType.LOCKED_DOOR, ImageLoader::getDoor,
+            TileType.WALL, ImageLoader::getWall);
 
     /**
      * How many components we cache.
@@ -70,65 +68,46 @@ public final class TileMaker {
     /**
      * Creates a board representing the opaque tiles in the level.
      *
-     * @param level The level to represent.
-     * @return 2D array of JComponents. The first dimension is <code>level.getWidth()</code> and the
-     * second dimension is <code>level.getHeight()</code>.
+     * @param snapshot The snapshot of the level to represent.
+     * @return 2D array of JComponents. The first dimension is <code>snapshot.getWidth()</code> and
+     * the second dimension is <code>snapshot.getHeight()</code>.
      */
-    public static JComponent[][] makeBoard(final Level level) {
-        Set<Vector2D> wallPositions = getWallPositions(level);
-
-        Set<Tile> tiles = level.getTiles();
-
-        int width = level.getWidth();
-        int height = level.getHeight();
+    public static JComponent[][] makeBoard(final RenderSnapshot snapshot) {
+        int width = snapshot.getWidth();
+        int height = snapshot.getHeight();
 
         var board = new JComponent[width][height];
         for (int x = 0; x < width; ++x) {
             for (int y = 0; y < height; ++y) {
-                board[x][y] = getBoardTile(x, y, tiles, wallPositions);
+                TileType type = snapshot.tileTypeAt(x, y);
+                Vector2D position = Vector2D.of(x, y);
+                //If tile present, calls `makeBoardTile`, else, calls `emptyTile`.
+                board[x][y] = type != TileType.FREE ? makeBoardTile(type, position, snapshot)
+                        : emptyTile(position);
             }
         }
 
         return board;
     }
 
-    private static Set<Vector2D> getWallPositions(final Level level) {
-        return level.getTiles().stream().filter(tile -> Wall.class.equals(tile.getClass())).map(
-                Tile::getPosition).collect(Collectors.toSet());
-    }
-
-    private static JComponent getBoardTile(final int x, final int y, final Set<Tile> tiles,
-                                           final Set<Vector2D> wallPositions) {
-        return tiles.stream()
-                //Gets first tile that matches coordinates
-                .filter(t -> {
-                    Vector2D position = t.getPosition();
-                    return position.x() == x && position.y() == y;
-                })
-                //If tile present, calls `makeTile`, else, calls `emptyTile`.
-                .findFirst().map(tile -> makeBoardTile(tile, wallPositions)).orElseGet(
-                        () -> TileMaker.emptyTile(new Vector2D(x, y)));
-    }
-
     /**
-     * From the given <code>Tile</code>, constructs a new <code>JComponent</code> representing it.
-     *
-     * <p>The specific subclass of <code>tile</code> provides information on what the tile will
-     * appear as.
+     * From the given tile type, constructs a new <code>JComponent</code> representing it.
      *
-     * @param tile The tile to make a component of.
+     * @param type     The type of the tile to make a component of.
+     * @param position Board position of the tile, for identity.
      * @return A representation of the tile.
-     * @throws IllegalArgumentException If <code>tile</code> doesn't match any known subclass of
-     *                                  <code>Tile</code>.
-     * @throws NullPointerException     If <code>tile</code> is null.
+     * @throws IllegalArgumentException If <code>type</code> has no image, e.g. it is
+     *                                  <code>TileType.FREE</code> or <code>TileType.OTHER</code>.
+     * @throws NullPointerException     If <code>type</code> or <code>position</code> is null.
      */
-    public static JComponent makeTile(final Tile tile) throws IllegalArgumentException {
-        Objects.requireNonNull(tile);
-        Supplier<Image> imageSupplier = TILE_MAPPING.get(tile.getClass());
+    public static JComponent makeTile(final TileType type, final Vector2D position)
+            throws IllegalArgumentException {
+        Objects.requireNonNull(type);
+        Supplier<Image> imageSupplier = TILE_MAPPING.get(type);
         if (imageSupplier == null) {
             throw new IllegalArgumentException("The provided tile isn't recognised.");
         }
-        return makeSprite(imageSupplier.get(), tile.getPosition());
+        return makeSprite(imageSupplier.get(), position);
     }
 
     /**
@@ -136,26 +115,28 @@ public final class TileMaker {
      *
      * <p>If the tile refers to an opaque object, then returns a space tile.
      *
-     * @param tile          The tile to build the component from.
-     * @param wallPositions Where the walls are on the board.
+     * @param type     The type of the tile to build the component from.
+     * @param position Board position of the tile.
+     * @param snapshot The snapshot of the level the tile is on, used to find adjacent walls.
      * @return A component representing the given tile, or a space tile.
      */
-    public static JComponent makeBoardTile(final Tile tile, final Set<Vector2D> wallPositions) {
-        Objects.requireNonNull(tile);
+    public static JComponent makeBoardTile(final TileType type, final Vector2D position,
+                                           final RenderSnapshot snapshot) {
+        Objects.requireNonNull(type);
         Supplier<Image> imageSupplier;
-        if (OBJECTS.contains(tile.getClass())) {
+        if (OBJECTS.contains(type)) {
             imageSupplier = ImageLoader::getSpace;
-        } else if (tile.getClass().equals(Wall.class)) {
+        } else if (type == TileType.WALL) {
             imageSupplier = () -> ImageLoader.getWall(
-                    AdjacentWalls.calculateAdjacentWalls(wallPositions, tile.getPosition()));
+                    AdjacentWalls.calculateAdjacentWalls(snapshot, position));
         } else {
-            imageSupplier = TILE_MAPPING.get(tile.getClass());
+            imageSupplier = TILE_MAPPING.get(type);
         }
 
         if (imageSupplier == null) {
             throw new IllegalArgumentException("The provided tile isn't recognised.");
         }
-        return makeSprite(imageSupplier.get(), tile.getPosition());
+        return makeSprite(imageSupplier.get(), position);
     }
 
     /**
@@ -237,15 +218,15 @@ public final class TileMaker {
     }
 
     /**
-     * Makes a key component from the given KeyTile.
+     * Makes a key component.
      *
-     * @param key The KeyTile to base the component on.
-     * @return A component representing the KeyTile.
+     * @param position Board position of the key, for identity.
+     * @param color    The colour of the key.
+     * @return A component representing the key.
      */
-    public static JComponent makeKey(final KeyTile key) {
-        Objects.requireNonNull(key);
-        Vector2D position = key.getPosition();
-        Image image = NearWhiteFilter.filterImage(ImageLoader.getKey(), key.getKey().getColor());
+    public static JComponent makeKey(final Vector2D position, final Key.Color color) {
+        Objects.requireNonNull(color);
+        Image image = NearWhiteFilter.filterImage(ImageLoader.getKey(), color);
         return makeSprite(image, position);
     }
 
@@ -402,14 +383,15 @@ public final class TileMaker {
      */
     public record EnemyInfo(Object identity, MovementTracker.Orientation orientation) {
         /**
-         * Constructs an info from a given enemy.
+         * Constructs an info from a given enemy identifier.
          *
-         * @param enemy          The enemy to construct from.
+         * @param enemyId        The identifier of the enemy to construct from.
          * @param newOrientation The orientation of the enemy.
          */
-        public EnemyInfo(final Enemy enemy, final MovementTracker.Orientation newOrientation) {
-            //In order to keep different enemies separate, we keep reference as identity
-            this((Object) enemy, newOrientation);
+        public EnemyInfo(final int enemyId, final MovementTracker.Orientation newOrientation) {
+            //In order to keep different enemies separate, we keep their identifier as identity,
+            //which stays the same across snapshots
+            this((Object) enemyId, newOrientation);
         }
 
     }
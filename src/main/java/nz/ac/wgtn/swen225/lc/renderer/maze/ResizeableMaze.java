@@ -1,11 +1,8 @@
 package nz.ac.wgtn.swen225.lc.renderer.maze;
 
-import nz.ac.wgtn.swen225.lc.domain.Game;
-import nz.ac.wgtn.swen225.lc.domain.level.Level;
-import nz.ac.wgtn.swen225.lc.domain.level.characters.Enemy;
-import nz.ac.wgtn.swen225.lc.domain.level.characters.Player;
+import nz.ac.wgtn.swen225.lc.domain.RenderSnapshot;
+import nz.ac.wgtn.swen225.lc.domain.level.TileType;
 import nz.ac.wgtn.swen225.lc.domain.level.items.Key;
-import nz.ac.wgtn.swen225.lc.domain.level.tiles.*;
 import nz.ac.wgtn.swen225.lc.renderer.AdjacentWalls;
 import nz.ac.wgtn.swen225.lc.renderer.assets.DoorComponent;
 import nz.ac.wgtn.swen225.lc.renderer.assets.MovementTracker;
@@ -15,8 +12,6 @@ import nz.ac.wgtn.swen225.lc.utils.Vector2D;
 import javax.swing.*;
 import java.awt.*;
 import java.util.Objects;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * Renders the tiles and characters on a level.
@@ -42,21 +37,33 @@ public class ResizeableMaze extends JLayeredPane {
     /**
      * Helps determine where entities are.
      */
-    private final MovementTracker movementTracker;
+    private final MovementTracker movementTracker = new MovementTracker();
     /**
-     * The level this maze is rendering.
+     * The snapshot of the level this maze is rendering. Only read, and only until the next one is
+     * set.
      */
-    private Level level;
+    private RenderSnapshot snapshot;
+    /**
+     * Level identifier of the last rendered snapshot, or -1 if it needs a full render.
+     */
+    private int renderedLevelId = -1;
+    /**
+     * Tiles version of the last rendered snapshot.
+     */
+    private long renderedTilesVersion;
+    /**
+     * Characters version of the last rendered snapshot.
+     */
+    private long renderedCharactersVersion;
+    /**
+     * Size of this maze when it was last fully rendered, or null if it needs a full render.
+     */
+    private Dimension renderedSize;
 
     /**
      * Constructor.
-     *
-     * @param game The game to represent. Can be null.
      */
-    public ResizeableMaze(final Game game) {
-        movementTracker = new MovementTracker(game);
-
-
+    public ResizeableMaze() {
         int layerIndex = 1;
 
         setLayer(board, layerIndex);
@@ -70,33 +77,82 @@ public class ResizeableMaze extends JLayeredPane {
     }
 
     /**
-     * Sets the level to render.
+     * Sets the snapshot of the level to render.
      *
-     * @param newLevel The new level, or <code>null</code>.
+     * @param newSnapshot The new snapshot, or <code>null</code>.
      */
-    public void setLevel(final Level newLevel) {
-        this.level = newLevel; //FIXME: externally mutable
+    public void setSnapshot(final RenderSnapshot newSnapshot) {
+        this.snapshot = newSnapshot;
+        this.renderedLevelId = -1;
+        this.renderedSize = null;
+        movementTracker.reset();
+        if (newSnapshot != null) {
+            movementTracker.track(newSnapshot);
+        }
     }
 
     /**
      * Indicates whether a level is set.
      *
-     * @return True if a level has been set to non-null.
+     * @return True if a snapshot of a level has been set to non-null.
      */
     public boolean isLevelSet() {
-        return level != null;
+        return snapshot != null;
     }
 
     /**
      * Updates to account to changes in level.
      *
-     * <p>If <code>level</code> isn't set, or was set to <code>null</code>, doesn't render any
-     * tiles.
+     * <p>If the snapshot isn't set, or was set to <code>null</code>, doesn't render any tiles.
      */
     public void render() {
         board.render();
         objects.render();
         entities.render();
+        renderedSize = getSize();
+        if (snapshot != null) {
+            renderedLevelId = snapshot.getLevelId();
+            renderedTilesVersion = snapshot.getTilesVersion();
+            renderedCharactersVersion = snapshot.getCharactersVersion();
+        }
+    }
+
+    /**
+     * Shows a snapshot of the game, updating only the layers that changed since the last snapshot
+     * shown: tiles when some were removed, and entities when characters moved. Renders everything
+     * if the maze was resized or the level changed.
+     *
+     * <p>The snapshot is only read, and only until the next one is rendered or set, so the game
+     * may carry on meanwhile.
+     *
+     * @param newSnapshot The snapshot to show.
+     * @return True if anything was rendered.
+     */
+    public boolean render(final RenderSnapshot newSnapshot) {
+        Objects.requireNonNull(newSnapshot);
+        if (newSnapshot.getLevelId() != renderedLevelId) {
+            setSnapshot(newSnapshot);
+        } else {
+            snapshot = newSnapshot;
+            movementTracker.track(newSnapshot);
+        }
+
+        if (renderedLevelId == -1 || !getSize().equals(renderedSize)) {
+            render();
+            return true;
+        }
+        boolean tilesChanged = newSnapshot.getTilesVersion() != renderedTilesVersion;
+        boolean entitiesChanged = newSnapshot.getCharactersVersion() != renderedCharactersVersion;
+        if (tilesChanged) {
+            board.render();
+            objects.render();
+            renderedTilesVersion = newSnapshot.getTilesVersion();
+        }
+        if (entitiesChanged) {
+            entities.render();
+            renderedCharactersVersion = newSnapshot.getCharactersVersion();
+        }
+        return tilesChanged || entitiesChanged;
     }
 
     /**
@@ -107,9 +163,9 @@ public class ResizeableMaze extends JLayeredPane {
      * @return The tile length.
      */
     protected int getTileLength() {
-        Objects.requireNonNull(level);
-        int ratioX = getWidth() / level.getWidth();
-        int ratioY = getHeight() / level.getHeight();
+        Objects.requireNonNull(snapshot);
+        int ratioX = getWidth() / snapshot.getWidth();
+        int ratioY = getHeight() / snapshot.getHeight();
         //To fit inside size, choose lower of fitting ratios.
         return Math.min(ratioX, ratioY);
     }
@@ -117,14 +173,14 @@ public class ResizeableMaze extends JLayeredPane {
     /**
      * Returns restricted size of maze to keep each tile square.
      *
-     * <p>Requires this maze to currently have a non-null level set.
+     * <p>Requires this maze to currently have a non-null snapshot set.
      *
      * @return The calculated size.
      */
     protected Dimension getCroppedSize() {
-        Objects.requireNonNull(level);
-        return new Dimension(level.getWidth() * getTileLength(),
-                level.getHeight() * getTileLength());
+        Objects.requireNonNull(snapshot);
+        return new Dimension(snapshot.getWidth() * getTileLength(),
+                snapshot.getHeight() * getTileLength());
     }
 
     /**
@@ -160,11 +216,11 @@ public class ResizeableMaze extends JLayeredPane {
         /**
          * Updates to account to changes in level.
          *
-         * <p>If <code>level</code> isn't set, or was set to <code>null</code>, doesn't render any
+         * <p>If the snapshot isn't set, or was set to <code>null</code>, doesn't render any
          * tiles.
          */
         public void render() {
-            if (level != null) {
+            if (snapshot != null) {
                 setSize(getCroppedSize());
             }
             updateTiles();
@@ -176,14 +232,14 @@ public class ResizeableMaze extends JLayeredPane {
         private void updateTiles() {
             removeAll();
 
-            if (level != null) {
-                int rows = level.getHeight();
-                int columns = level.getWidth();
+            if (snapshot != null) {
+                int rows = snapshot.getHeight();
+                int columns = snapshot.getWidth();
 
                 layout.setRows(rows);
                 layout.setColumns(columns);
 
-                JComponent[][] tiles = TileMaker.makeBoard(level);
+                JComponent[][] tiles = TileMaker.makeBoard(snapshot);
                 assert tiles.length == columns;
                 assert tiles[0].length == rows;
 
@@ -220,7 +276,7 @@ public class ResizeableMaze extends JLayeredPane {
             try {
                 removeAll();
 
-                if (level == null) {
+                if (snapshot == null) {
                     return;
                 }
 
@@ -234,43 +290,39 @@ public class ResizeableMaze extends JLayeredPane {
         }
 
         private void addObjects() {
-            final Set<Vector2D> wallPositions = getWallPositions();
-
-            level.getTiles().stream().filter(tile -> TileMaker.OBJECTS.contains(tile.getClass()))
-                    .forEach(tile -> {
-                        //Doors rendered specially
-                        if (tile.getClass().equals(LockedDoor.class) || tile.getClass().equals(
-                                ExitLock.class)) {
-                            addDoor(wallPositions, tile);
-                            return;
-                        }
-                        JComponent objectComponent;
-                        if (tile.getClass().equals(KeyTile.class)) {
-                            objectComponent = TileMaker.makeKey((KeyTile) tile);
-                        } else {
-                            objectComponent = TileMaker.makeTile(tile);
-                        }
-
-                        objectComponent.setBounds(makeBounds(tile.getPosition()));
-                        add(objectComponent);
-                    });
-        }
-
-        private Set<Vector2D> getWallPositions() {
-            return level.getTiles().stream().filter(tile -> Wall.class.equals(tile.getClass())).map(
-                    Tile::getPosition).collect(Collectors.toSet());
-        }
+            for (int y = 0; y < snapshot.getHeight(); ++y) {
+                for (int x = 0; x < snapshot.getWidth(); ++x) {
+                    final TileType type = snapshot.tileTypeAt(x, y);
+                    if (!TileMaker.OBJECTS.contains(type)) {
+                        continue;
+                    }
+                    final Vector2D position = Vector2D.of(x, y);
+                    //Doors rendered specially
+                    if (type == TileType.LOCKED_DOOR || type == TileType.EXIT_LOCK) {
+                        addDoor(position, snapshot.tileColorAt(x, y));
+                        continue;
+                    }
+                    JComponent objectComponent;
+                    if (type == TileType.KEY) {
+                        objectComponent = TileMaker.makeKey(position, snapshot.tileColorAt(x, y));
+                    } else {
+                        objectComponent = TileMaker.makeTile(type, position);
+                    }
 
-        private void addDoor(final Set<Vector2D> wallPositions, final Tile door) {
-            final Key.Color colour;
-            if (door instanceof LockedDoor) {
-                colour = ((LockedDoor) door).getColor();
-            } else {
-                colour = null;
+                    objectComponent.setBounds(makeBounds(position));
+                    add(objectComponent);
+                }
             }
+        }
 
-            final Vector2D position = door.getPosition();
-            final AdjacentWalls adjacentWalls = AdjacentWalls.calculateAdjacentWalls(wallPositions,
+        /**
+         * Adds a door to the board.
+         *
+         * @param position Board position of the door.
+         * @param colour   Key colour of a locked door, or null for the exit lock.
+         */
+        private void addDoor(final Vector2D position, final Key.Color colour) {
+            final AdjacentWalls adjacentWalls = AdjacentWalls.calculateAdjacentWalls(snapshot,
                     position);
 
             //Depending on presence of walls around door, we choose different orientation
@@ -313,32 +365,28 @@ public class ResizeableMaze extends JLayeredPane {
             try {
                 removeAll();
 
-                if (level == null) {
+                if (snapshot == null) {
                     return;
                 }
 
                 setSize(getCroppedSize());
 
-                final Player newPlayer = level.getPlayer();
-                final Set<Enemy> newEnemies = Set.copyOf(level.getEnemies());
-
-                addPlayer(newPlayer);
-                addEnemies(newEnemies);
+                addPlayer();
+                addEnemies();
             } finally {
                 revalidate(); //Inserted/removed elements.
             }
         }
 
         /**
-         * Adds enemies to the board.
-         *
-         * @param enemies The set of enemies that should exist.
+         * Adds the enemies of the snapshot to the board.
          */
-        private void addEnemies(final Set<Enemy> enemies) {
-            for (Enemy enemy : enemies) {
-                JComponent enemyComponent = TileMaker.makeEnemy(
-                        new TileMaker.EnemyInfo(enemy, movementTracker.getEnemyOrientation(enemy)));
-                enemyComponent.setBounds(makeBounds(enemy.getPosition()));
+        private void addEnemies() {
+            for (int i = 0; i < snapshot.getEnemyCount(); ++i) {
+                final int enemyId = snapshot.getEnemyId(i);
+                JComponent enemyComponent = TileMaker.makeEnemy(new TileMaker.EnemyInfo(enemyId,
+                        movementTracker.getEnemyOrientation(enemyId)));
+                enemyComponent.setBounds(makeBounds(snapshot.getEnemyPosition(i)));
                 add(enemyComponent);
             }
         }
@@ -346,19 +394,17 @@ public class ResizeableMaze extends JLayeredPane {
         /**
          * Adds the player to the board.
          *
-         * <p>If the player is null, does nothing.
-         *
-         * @param player The (possibly null) player to check if different.
+         * <p>If the snapshot has no player, does nothing.
          */
-        private void addPlayer(final Player player) {
-            if (player == null) {
+        private void addPlayer() {
+            if (!snapshot.hasPlayer()) {
                 return;
             }
 
             JComponent playerComponent = TileMaker.makePlayer(
                     new TileMaker.PlayerInfo(movementTracker.getPlayerOrientation()));
 
-            playerComponent.setBounds(makeBounds(player.getPosition()));
+            playerComponent.setBounds(makeBounds(snapshot.getPlayerPosition()));
             add(playerComponent);
         }
 
@@ -1,5 +1,6 @@
 package nz.ac.wgtn.swen225.lc.renderer.maze;
 
+import nz.ac.wgtn.swen225.lc.domain.RenderSnapshot;
 import nz.ac.wgtn.swen225.lc.domain.level.Level;
 import nz.ac.wgtn.swen225.lc.renderer.TestingLevels;
 
@@ -30,8 +31,8 @@ public final class ResizeableMazeTester {
             mazeFrame.setLocationByPlatform(true);
             mazeFrame.setDefaultCloseOperation(WindowConstants.EXIT_ON_CLOSE);
 
-            var maze = new ResizeableMaze(null);
-            maze.setLevel(level);
+            var maze = new ResizeableMaze();
+            maze.setSnapshot(RenderSnapshot.of(level));
             mazeFrame.add(maze, BorderLayout.CENTER);
 
 
@@ -0,0 +1,290 @@
+package nz.ac.wgtn.swen225.lc.solver;
+
+import nz.ac.wgtn.swen225.lc.domain.Entity;
+import nz.ac.wgtn.swen225.lc.domain.Game;
+import nz.ac.wgtn.swen225.lc.domain.level.Level;
+import nz.ac.wgtn.swen225.lc.domain.level.characters.Enemy;
+import nz.ac.wgtn.swen225.lc.domain.level.tiles.*;
+import nz.ac.wgtn.swen225.lc.levels.level2.Patroller;
+import nz.ac.wgtn.swen225.lc.persistency.Persistence;
+import nz.ac.wgtn.swen225.lc.recorder.Moment;
+import nz.ac.wgtn.swen225.lc.recorder.Playback;
+import nz.ac.wgtn.swen225.lc.utils.Vector2D;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+/**
+ * Finds the shortest sequence of player moves that wins a level, to certify that a level is solvable without playing
+ * it by hand.
+ * <p>
+ * The search is a breadth-first search over ticks, so the first winning sequence found is one of the shortest. Every
+ * layer of the frontier is expanded in parallel on a {@link ForkJoinPool}, and states already reached are skipped
+ * using a concurrent visited set. States are compared by a compact key: the player position, which removable tiles
+ * (chips, keys, doors and exit locks) are still on the level, the number of keys of each colour held, and the phase of
+ * the enemies. Patrollers with closed routines repeat every {@code intervalInTicks * routine length} ticks, so their
+ * phase is the tick number modulo the least common multiple of those periods. Other enemies, such as chasers, may
+ * react to the player, so then the tick number and the positions of all enemies are used instead.
+ *
+ * @author Shiyan Wei
+ * Student ID: 300569298
+ */
+public class LevelSolver implements AutoCloseable {
+
+    /**
+     * The default maximum number of states to search before giving up.
+     */
+    public static final int DEFAULT_MAX_STATES = 200_000;
+
+    private static final List<Vector2D> MOVES =
+            List.of(Vector2D.ZERO, Vector2D.LEFT, Vector2D.UP, Vector2D.RIGHT, Vector2D.DOWN);
+
+    private final Persistence persistence;
+    private final ForkJoinPool pool;
+    private final int maxStates;
+
+    /**
+     * Creates a solver using as many worker threads as there are available processors.
+     *
+     * @param persistence The persistence used to load levels.
+     */
+    public LevelSolver(Persistence persistence) {
+        this(persistence, Runtime.getRuntime().availableProcessors(), DEFAULT_MAX_STATES);
+    }
+
+    /**
+     * Creates a solver using the given number of worker threads.
+     *
+     * @param persistence The persistence used to load levels.
+     * @param parallelism The number of worker threads.
+     * @param maxStates   The maximum number of states to search. The frontier keeps a copy of the game per state, so
+     *                    this bounds the memory used.
+     */
+    public LevelSolver(Persistence persistence, int parallelism, int maxStates) {
+        if (persistence == null) {
+            throw new IllegalArgumentException("Persistence cannot be null");
+        }
+        if (maxStates <= 0) {
+            throw new IllegalArgumentException("Maximum number of states must be positive");
+        }
+        this.persistence = persistence;
+        this.pool = new ForkJoinPool(parallelism);
+        this.maxStates = maxStates;
+    }
+
+    /**
+     * Loads the given level and finds the shortest way to win it.
+     *
+     * @param levelNo The level to solve.
+     * @return A playback of a shortest winning game, or empty if the level cannot be won before it times out.
+     * @throws IllegalStateException if more than the maximum number of states would need to be searched.
+     */
+    public Optional<Playback> solve(int levelNo) {
+        return solve(Entity.withOwnIdSpace(() -> persistence.loadGame(levelNo)));
+    }
+
+    /**
+     * Finds the shortest way to win the given game from its current state. The game itself is not changed.
+     *
+     * @param game The game to solve.
+     * @return A playback of a shortest winning game, or empty if the game cannot be won before it times out.
+     * @throws IllegalStateException if more than the maximum number of states would need to be searched.
+     */
+    public Optional<Playback> solve(Game game) {
+        if (game == null) {
+            throw new IllegalArgumentException("Game cannot be null");
+        }
+        if (game.isGameOver()) {
+            throw new IllegalStateException("Game is over");
+        }
+        var search = new Search(game.fork());
+        return search.run().map(path -> toPlayback(game.fork(), path));
+    }
+
+    // Replay the winning moves on a copy of the start, recording them the same way as DefaultRecorder
+    private static Playback toPlayback(Game since, List<Vector2D> path) {
+        var playback = new Playback();
+        playback.setSince(since);
+        var game = since.fork();
+        var level = game.getLevel();
+        for (var playerMovement : path) {
+            var recorded = new HashMap<Enemy, Vector2D>();
+            var enemyMovementMap = new HashMap<Enemy, Vector2D>();
+            boolean moved = playerMovement != Vector2D.ZERO;
+            for (int i = 0; i < level.getEnemyCount(); i++) {
+                var move = level.getEnemy(i).nextMove();
+                recorded.put(since.getLevel().getEnemy(i), move);
+                enemyMovementMap.put(level.getEnemy(i), move);
+                moved |= move != Vector2D.ZERO;
+            }
+            if (moved) {
+                playback.addMovement(new Moment(game.getTickNo(), playerMovement, recorded));
+            }
+            game.update(playerMovement, enemyMovementMap);
+        }
+        playback.setEndTickNo(game.getTickNo());
+        return playback;
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    // The moves leading to a state, shared between the states reached from it
+    private record Step(Step previous, Vector2D move) {
+    }
+
+    // A reached game with the moves leading to it
+    private record Node(Game game, Step step) {
+    }
+
+    // Compact identity of a search state, see the class comment
+    private record State(Vector2D player, int phase, long keyCounts, long[] remainingTiles, Vector2D[] enemies) {
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof State other && player.equals(other.player) && phase == other.phase
+                    && keyCounts == other.keyCounts && Arrays.equals(remainingTiles, other.remainingTiles)
+                    && Arrays.equals(enemies, other.enemies);
+        }
+
+        @Override
+        public int hashCode() {
+            return (Objects.hash(player, phase, keyCounts) * 31 + Arrays.hashCode(remainingTiles)) * 31
+                    + Arrays.hashCode(enemies);
+        }
+    }
+
+    // A single search from a start game
+    private final class Search {
+        private final Game start;
+        private final List<Vector2D> removable = new ArrayList<>();  // positions of tiles that can be removed
+        private final int period;  // number of ticks after which enemies repeat, or 0 if they may not
+        private final Set<State> visited = ConcurrentHashMap.newKeySet();
+
+        Search(Game start) {
+            this.start = start;
+            start.getLevel().forEachTile(tile -> {
+                if (tile instanceof ChipTile || tile instanceof KeyTile || tile instanceof LockedDoor
+                        || tile instanceof ExitLock) {
+                    removable.add(tile.getPosition());
+                }
+            });
+            this.period = enemyPeriod(start.getLevel(), start.getTickRate());
+        }
+
+        // Expand the frontier layer by layer until a winning game is reached or no state is left
+        Optional<List<Vector2D>> run() {
+            visited.add(stateOf(start));
+            List<Node> frontier = List.of(new Node(start, null));
+            while (!frontier.isEmpty()) {
+                var layer = frontier;
+                var next = pool.submit(() -> layer.parallelStream().flatMap(this::expand).toList()).join();
+                var won = next.stream().filter(node -> isWon(node.game())).findFirst();
+                if (won.isPresent()) {
+                    return Optional.of(pathTo(won.get().step()));
+                }
+                frontier = next.stream().filter(node -> !node.game().isGameOver()).toList();
+                if (visited.size() > maxStates) {
+                    throw new IllegalStateException("Gave up after searching " + visited.size() + " states");
+                }
+            }
+            return Optional.empty();
+        }
+
+        // Advance a game by one tick with every possible player move, keeping the states not reached before
+        private Stream<Node> expand(Node node) {
+            var level = node.game().getLevel();
+            var position = level.getPlayer().getPosition();
+            var children = new ArrayList<Node>(MOVES.size());
+            for (var move : MOVES) {
+                var target = position.add(move);
+                if (!level.isInBounds(target.x(), target.y())) {
+                    continue;
+                }
+                var child = node.game().fork();
+                child.tick(move);
+                if (visited.add(stateOf(child))) {
+                    children.add(new Node(child, new Step(node.step(), move)));
+                }
+            }
+            return children.stream();
+        }
+
+        private State stateOf(Game game) {
+            var level = game.getLevel();
+            var player = level.getPlayer();
+            var remaining = new long[(removable.size() + 63) / 64];
+            for (int i = 0; i < removable.size(); i++) {
+                if (level.tileAt(removable.get(i)) != null) {
+                    remaining[i / 64] |= 1L << (i % 64);
+                }
+            }
+            long keyCounts = 0;
+            for (var key : player.getKeys()) {
+                keyCounts += 1L << (key.getColor().ordinal() * 8);
+            }
+            if (period > 0) {
+                return new State(player.getPosition(), game.getTickNo() % period, keyCounts, remaining, null);
+            }
+            var enemies = new Vector2D[level.getEnemyCount()];
+            for (int i = 0; i < enemies.length; i++) {
+                enemies[i] = level.getEnemy(i).getPosition();
+            }
+            return new State(player.getPosition(), game.getTickNo(), keyCounts, remaining, enemies);
+        }
+    }
+
+    // Won when the player stands on the exit and is not caught, before running out of time
+    private static boolean isWon(Game game) {
+        var level = game.getLevel();
+        var position = level.getPlayer().getPosition();
+        return game.isGameOver() && level.tileAt(position) instanceof Exit && game.getCountDown() > 0
+                && !level.isEnemyAt(position);
+    }
+
+    // Least common multiple of the patrol periods in ticks, or 0 if some enemy does not move periodically
+    private static int enemyPeriod(Level level, int tickRate) {
+        long period = 1;
+        for (int i = 0; i < level.getEnemyCount(); i++) {
+            if (!(level.getEnemy(i) instanceof Patroller patroller)) {
+                return 0;
+            }
+            var routine = patroller.getRoutine();
+            var sum = Vector2D.ZERO;
+            for (var move : routine) {
+                sum = sum.add(move);
+            }
+            if (!sum.equals(Vector2D.ZERO)) {
+                return 0;
+            }
+            // Game.isDue is true when a multiple of the interval falls within the tick. In thousandths of a tick, the
+            // interval is unit long, so the due ticks repeat every unit / gcd(unit, 1000) ticks
+            long unit = patroller.getInterval().toMillis() * tickRate;
+            long ticks = unit / gcd(unit, 1000);
+            long moves = unit >= 1000 ? 1000 / gcd(unit, 1000) : ticks;  // shorter intervals are due every tick
+            int size = routine.size();
+            long patrol = size == 0 ? 1 : ticks * (size / gcd(size, moves));
+            period = period / gcd(period, patrol) * patrol;
+            if (period > Integer.MAX_VALUE) {
+                return 0;
+            }
+        }
+        return (int) period;
+    }
+
+    private static long gcd(long a, long b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+
+    private static List<Vector2D> pathTo(Step step) {
+        var path = new ArrayList<Vector2D>();
+        for (var s = step; s != null; s = s.previous()) {
+            path.add(s.move());
+        }
+        Collections.reverse(path);
+        return path;
+    }
+}
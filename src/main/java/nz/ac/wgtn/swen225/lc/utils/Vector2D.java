@@ -4,6 +4,12 @@ import java.io.Serializable;
 
 /**
  * Presents a 2D vector
+ * <p>
+ * Vectors with small coordinates (every position on a board of up to {@value #CACHE_MAX} x {@value #CACHE_MAX}
+ * tiles, and every direction) are interned: {@link #of(int, int)}, {@link #add(Vector2D)} and
+ * {@link #subtract(Vector2D)} return shared instances for them instead of allocating, so a game tick does not
+ * produce garbage.
+ *
  * @param x
  * @param y
  * @author Shiyan Wei
@@ -11,11 +17,37 @@ import java.io.Serializable;
  */
 public record Vector2D(int x, int y) implements Serializable {
 
-    public static final Vector2D ZERO = new Vector2D(0, 0); // To reduce null checks in the game
-    public static final Vector2D LEFT = new Vector2D(-1, 0);
-    public static final Vector2D UP = new Vector2D(0, -1);
-    public static final Vector2D RIGHT = new Vector2D(1, 0);
-    public static final Vector2D DOWN = new Vector2D(0, 1);
+    private static final int CACHE_MIN = -8;
+    private static final int CACHE_MAX = 256;
+    private static final int CACHE_SIZE = CACHE_MAX - CACHE_MIN;
+    // Lazily filled. Racy initialization is harmless as records are immutable and their fields final.
+    private static final Vector2D[] CACHE = new Vector2D[CACHE_SIZE * CACHE_SIZE];
+
+    public static final Vector2D ZERO = of(0, 0); // To reduce null checks in the game
+    public static final Vector2D LEFT = of(-1, 0);
+    public static final Vector2D UP = of(0, -1);
+    public static final Vector2D RIGHT = of(1, 0);
+    public static final Vector2D DOWN = of(0, 1);
+
+    /**
+     * Gets the vector with the given coordinates, reusing a shared instance when the coordinates are small.
+     *
+     * @param x The x coordinate.
+     * @param y The y coordinate.
+     * @return The vector.
+     */
+    public static Vector2D of(int x, int y) {
+        if (x < CACHE_MIN || x >= CACHE_MAX || y < CACHE_MIN || y >= CACHE_MAX) {
+            return new Vector2D(x, y);
+        }
+        int index = (y - CACHE_MIN) * CACHE_SIZE + (x - CACHE_MIN);
+        var vector = CACHE[index];
+        if (vector == null) {
+            vector = new Vector2D(x, y);
+            CACHE[index] = vector;
+        }
+        return vector;
+    }
 
     /**
      * Adds another vector to this vector, resulting in a new vector.
@@ -24,7 +56,7 @@ public record Vector2D(int x, int y) implements Serializable {
      * @return A new vector that is the result of the addition.
      */
     public Vector2D add(Vector2D another) {
-        return new Vector2D(x + another.x, y + another.y);
+        return of(x + another.x, y + another.y);
     }
 
     /**
@@ -34,6 +66,11 @@ public record Vector2D(int x, int y) implements Serializable {
      * @return A new vector that is the result of the subtraction.
      */
     public Vector2D subtract(Vector2D another) {
-        return new Vector2D(x - another.x, y - another.y);
+        return of(x - another.x, y - another.y);
+    }
+
+    // Keep deserialized vectors interned so that identity checks such as == Vector2D.ZERO still hold
+    private Object readResolve() {
+        return of(x, y);
     }
 }
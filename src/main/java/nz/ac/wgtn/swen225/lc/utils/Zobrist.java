@@ -0,0 +1,58 @@
+package nz.ac.wgtn.swen225.lc.utils;
+
+/**
+ * Pseudo-random 64-bit keys for Zobrist hashing of game states. A state hash is the XOR of the keys of every feature
+ * present in the state (e.g. "tile 12 at (3, 4)"), so adding or removing a feature updates the hash in O(1) by XORing
+ * its key in or out.
+ * <p>
+ * Keys are derived from the feature itself with the SplitMix64 finalizer instead of being looked up in random
+ * tables, so they are the same in every run and need no memory.
+ * @author Shiyan Wei
+ * Student ID: 300569298
+ */
+public final class Zobrist {
+
+    public static final int TILE = 1;
+    public static final int CHARACTER = 2;
+    public static final int KEYS = 3;
+    public static final int CHIPS = 4;
+    public static final int TICK = 5;
+    public static final int GAME_OVER = 6;
+
+    private Zobrist() {
+    }
+
+    /**
+     * Gets the key of a feature.
+     *
+     * @param kind The kind of feature, e.g. {@link #TILE}.
+     * @param a The first attribute, usually the id of an entity.
+     * @param b The second attribute, e.g. an x coordinate.
+     * @param c The third attribute, e.g. a y coordinate.
+     * @return The key.
+     */
+    public static long key(int kind, int a, int b, int c) {
+        long h = mix(((long) kind << 32) ^ (a & 0xFFFFFFFFL));
+        return mix(h ^ (((long) b << 32) ^ (c & 0xFFFFFFFFL)));
+    }
+
+    /**
+     * Gets the key of an entity at a position.
+     *
+     * @param kind The kind of feature, e.g. {@link #CHARACTER}.
+     * @param id The id of the entity.
+     * @param position The position of the entity, may be null.
+     * @return The key, or 0 if the position is null.
+     */
+    public static long key(int kind, int id, Vector2D position) {
+        return position == null ? 0 : key(kind, id, position.x(), position.y());
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z += 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
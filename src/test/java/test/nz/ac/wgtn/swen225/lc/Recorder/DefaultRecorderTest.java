@@ -57,4 +57,35 @@ public class DefaultRecorderTest {
         Assertions.assertEquals(Vector2D.RIGHT, ems.values().stream().findFirst().get());
     }
 
+    @Test
+    public void testUpdateBySlot() {
+        Persistence persistence = Mockito.mock(Persistence.class);
+        Player player = new Player(1, new Vector2D(6, 6), Collections.emptySet(), Collections.emptySet());
+        Patroller patroller = new Patroller(2, new Vector2D(3, 3), Collections.emptyList(), 10);
+        Level level = new Level(3, 1, 10, 10, 60, Collections.emptySet(), Set.of(patroller), player);
+        Game game = new Game(4, 10, level);
+        DefaultRecorder recorder = new DefaultRecorder(persistence, game);
+
+        var moves = new Vector2D[]{Vector2D.RIGHT};
+        recorder.updateBySlot(Vector2D.LEFT, moves);
+        game.updateBySlot(Vector2D.LEFT, moves);
+        moves[0] = Vector2D.ZERO;
+        for (int i = 0; i < 9; i++) {
+            recorder.updateBySlot(Vector2D.ZERO, moves);
+            game.updateBySlot(Vector2D.ZERO, moves);
+        }
+        recorder.onDestroy();
+
+        ArgumentCaptor<Playback> captor = ArgumentCaptor.forClass(Playback.class);
+        Mockito.verify(persistence).savePlayback(Mockito.any(), captor.capture());
+        Playback playback = captor.getValue();
+        // Same as recording the moves in maps
+        Assertions.assertEquals(1, playback.getMoments().size());
+        Assertions.assertEquals(10, playback.getMoments().get(0).tickNo());
+        Assertions.assertEquals(Vector2D.LEFT, playback.getMoments().get(0).playerMovement());
+        Map<Enemy, Vector2D> ems = playback.getMoments().get(0).enemyMovementMap();
+        Assertions.assertEquals(2, ems.keySet().stream().findFirst().get().getId());
+        Assertions.assertEquals(Vector2D.RIGHT, ems.values().stream().findFirst().get());
+        Assertions.assertEquals(new Vector2D(4, 3), game.getLevel().getEnemy(0).getPosition());
+    }
 }
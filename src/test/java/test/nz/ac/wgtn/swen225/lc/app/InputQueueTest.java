@@ -0,0 +1,139 @@
+package test.nz.ac.wgtn.swen225.lc.app;
+
+import nz.ac.wgtn.swen225.lc.app.InputQueue;
+import nz.ac.wgtn.swen225.lc.utils.Vector2D;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InputQueueTest {
+
+    @Test
+    public void capacityShouldBeRoundedUpToPowerOfTwo() {
+        assertEquals(1, fill(new InputQueue(1, InputQueue.ConsumptionPolicy.QUEUED)));
+        assertEquals(2, fill(new InputQueue(2, InputQueue.ConsumptionPolicy.QUEUED)));
+        assertEquals(4, fill(new InputQueue(3, InputQueue.ConsumptionPolicy.QUEUED)));
+        assertEquals(4, fill(new InputQueue(4, InputQueue.ConsumptionPolicy.QUEUED)));
+        assertEquals(8, fill(new InputQueue(5, InputQueue.ConsumptionPolicy.QUEUED)));
+        assertThrows(IllegalArgumentException.class, () -> new InputQueue(0, InputQueue.ConsumptionPolicy.QUEUED));
+        assertThrows(IllegalArgumentException.class, () -> new InputQueue((1 << 30) + 1, InputQueue.ConsumptionPolicy.QUEUED));
+        assertThrows(IllegalArgumentException.class, () -> new InputQueue(4, null));
+    }
+
+    @Test
+    public void fullQueueShouldRejectMoves() {
+        var queue = new InputQueue(2, InputQueue.ConsumptionPolicy.QUEUED);
+        assertTrue(queue.offer(Vector2D.LEFT));
+        assertTrue(queue.offer(Vector2D.UP));
+        assertFalse(queue.offer(Vector2D.RIGHT));
+        assertEquals(2, queue.size());
+        assertThrows(IllegalArgumentException.class, () -> queue.offer(null));
+
+        assertEquals(Vector2D.LEFT, queue.take());
+        assertTrue(queue.offer(Vector2D.DOWN));
+        assertEquals(Vector2D.UP, queue.take());
+        assertEquals(Vector2D.DOWN, queue.take());
+        assertEquals(Vector2D.ZERO, queue.take());
+    }
+
+    @Test
+    public void queuedPolicyShouldApplyMovesInOrderAcrossWrapAround() {
+        var queue = new InputQueue(4, InputQueue.ConsumptionPolicy.QUEUED);
+        var moves = new Vector2D[]{Vector2D.LEFT, Vector2D.UP, Vector2D.RIGHT, Vector2D.DOWN};
+        // Ten rounds of three moves go round the four slots several times
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 3; i++) {
+                assertTrue(queue.offer(moves[(round + i) % 4]));
+            }
+            for (int i = 0; i < 3; i++) {
+                assertEquals(moves[(round + i) % 4], queue.take());
+            }
+            assertEquals(0, queue.size());
+        }
+        assertEquals(30, queue.getAppliedMoves());
+        assertEquals(0, queue.getDroppedMoves());
+    }
+
+    @Test
+    public void latestPolicyShouldDropOlderMoves() {
+        var queue = new InputQueue(4, InputQueue.ConsumptionPolicy.LATEST);
+        queue.offer(Vector2D.LEFT);
+        queue.offer(Vector2D.UP);
+        queue.offer(Vector2D.RIGHT);
+
+        assertEquals(Vector2D.RIGHT, queue.take());
+        assertEquals(Vector2D.ZERO, queue.take());
+        assertEquals(2, queue.getDroppedMoves());
+        assertEquals(1, queue.getAppliedMoves());
+
+        queue.offer(Vector2D.DOWN);
+        assertEquals(Vector2D.DOWN, queue.take());
+        assertEquals(2, queue.getDroppedMoves());
+        assertEquals(2, queue.getAppliedMoves());
+    }
+
+    @Test
+    public void clearShouldDiscardQueuedMoves() {
+        var queue = new InputQueue(4, InputQueue.ConsumptionPolicy.QUEUED);
+        queue.offer(Vector2D.LEFT);
+        queue.offer(Vector2D.UP);
+        queue.clear();
+
+        assertEquals(0, queue.size());
+        assertEquals(Vector2D.ZERO, queue.take());
+        assertEquals(0, queue.getAppliedMoves());
+        // The freed slots can be used again
+        assertEquals(4, fill(queue));
+    }
+
+    @Test
+    public void discardOfferedShouldKeepLaterMoves() throws InterruptedException {
+        var queue = new InputQueue(4, InputQueue.ConsumptionPolicy.QUEUED);
+        // Like keys pressed while paused, then a key pressed after resuming but before the next tick
+        var producer = new Thread(() -> {
+            queue.offer(Vector2D.LEFT);
+            queue.offer(Vector2D.UP);
+            queue.discardOffered();
+            queue.offer(Vector2D.RIGHT);
+        });
+        producer.start();
+        producer.join();
+
+        assertEquals(Vector2D.RIGHT, queue.take());
+        assertEquals(Vector2D.ZERO, queue.take());
+        assertEquals(1, queue.getAppliedMoves());
+        assertEquals(4, fill(queue));
+    }
+
+    @Test
+    public void shouldMeasureLatency() throws InterruptedException {
+        var queue = new InputQueue(4, InputQueue.ConsumptionPolicy.QUEUED);
+        assertEquals(0, queue.getLastLatencyNanos());
+        assertEquals(0, queue.getMaxLatencyNanos());
+        assertEquals(0, queue.getAverageLatencyNanos());
+
+        queue.offer(Vector2D.LEFT);
+        Thread.sleep(20);
+        queue.take();
+        long first = queue.getLastLatencyNanos();
+        assertTrue(first >= TimeUnit.MILLISECONDS.toNanos(20), first + "ns");
+
+        queue.offer(Vector2D.UP);
+        queue.take();
+        long second = queue.getLastLatencyNanos();
+        assertTrue(second < first, second + "ns");
+        assertEquals(first, queue.getMaxLatencyNanos());
+        assertEquals((first + second) / 2, queue.getAverageLatencyNanos());
+    }
+
+    // Offer moves until the queue is full, returning how many were queued
+    private static int fill(InputQueue queue) {
+        int count = 0;
+        while (queue.offer(Vector2D.LEFT)) {
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,127 @@
+package test.nz.ac.wgtn.swen225.lc.app;
+
+import nz.ac.wgtn.swen225.lc.app.SimulationClock;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SimulationClockTest {
+
+    private static final double TICKS_PER_SECOND = 50;  // a 20ms period
+    private static final int MAX_LAG_TICKS = 3;
+
+    private final AtomicInteger steps = new AtomicInteger();
+    private final List<Runnable> batches = new CopyOnWriteArrayList<>();
+    private final Executor capturing = batches::add;  // batches are only run when the test says so
+
+    @Test
+    public void batchesShouldCoalesceWhilePending() throws InterruptedException {
+        var clock = new SimulationClock(TICKS_PER_SECOND, MAX_LAG_TICKS, steps::incrementAndGet, capturing);
+        clock.start();
+        try {
+            Thread.sleep(200);  // about 10 ticks, none stepped
+            assertEquals(1, batches.size());
+            assertEquals(0, steps.get());
+
+            batches.get(0).run();
+            assertTrue(steps.get() >= 1);
+            waitFor(() -> batches.size() == 2);  // the next tick starts a new batch
+        } finally {
+            clock.stop();
+        }
+    }
+
+    @Test
+    public void surplusTicksShouldBeDropped() throws InterruptedException {
+        var clock = new SimulationClock(TICKS_PER_SECOND, MAX_LAG_TICKS, steps::incrementAndGet, capturing);
+        clock.start();
+        try {
+            Thread.sleep(300);  // about 15 ticks due
+            batches.get(0).run();
+            // Only the lag budget is caught up, give or take a tick becoming due while stepping
+            assertTrue(steps.get() >= MAX_LAG_TICKS && steps.get() <= MAX_LAG_TICKS + 1, steps.get() + " steps");
+        } finally {
+            clock.stop();
+        }
+    }
+
+    @Test
+    public void stopShouldDiscardPendingTicks() throws InterruptedException {
+        var clock = new SimulationClock(TICKS_PER_SECOND, MAX_LAG_TICKS, steps::incrementAndGet, capturing);
+        clock.start();
+        waitFor(() -> batches.size() == 1);
+        Thread.sleep(100);
+        clock.stop();
+
+        assertFalse(clock.isRunning());
+        batches.get(0).run();
+        assertEquals(0, steps.get());
+        Thread.sleep(100);
+        assertEquals(1, batches.size());
+    }
+
+    @Test
+    public void noStepShouldRunAfterStopReturns() throws InterruptedException {
+        var inStep = new AtomicBoolean();
+        var clock = new SimulationClock(1000, MAX_LAG_TICKS, () -> {
+            inStep.set(true);
+            steps.incrementAndGet();
+            sleep(5);
+            inStep.set(false);
+        }, SimulationClock.ON_CLOCK_THREAD);
+        clock.start();
+        waitFor(() -> steps.get() >= 3);
+        clock.stop();
+
+        assertFalse(inStep.get());
+        int stepped = steps.get();
+        Thread.sleep(100);
+        assertEquals(stepped, steps.get());
+    }
+
+    @Test
+    public void stopShouldWaitForStepThatStoppedTheClock() throws InterruptedException {
+        var stopped = new CountDownLatch(1);
+        var finished = new AtomicBoolean();
+        var clock = new SimulationClock[1];
+        clock[0] = new SimulationClock(TICKS_PER_SECOND, MAX_LAG_TICKS, () -> {
+            // Like a game over event: the step stops the clock and carries on
+            clock[0].stop();
+            stopped.countDown();
+            sleep(100);
+            finished.set(true);
+        }, SimulationClock.ON_CLOCK_THREAD);
+        clock[0].start();
+        assertTrue(stopped.await(5, TimeUnit.SECONDS));
+        assertFalse(clock[0].isRunning());
+
+        clock[0].stop();
+        assertTrue(finished.get());
+    }
+
+    // Wait up to five seconds for a condition
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Timed out");
+            Thread.sleep(1);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package test.nz.ac.wgtn.swen225.lc.app;
+
+import nz.ac.wgtn.swen225.lc.app.HeadlessGameEngine;
+import nz.ac.wgtn.swen225.lc.app.SimulationRunner;
+import nz.ac.wgtn.swen225.lc.domain.Entity;
+import nz.ac.wgtn.swen225.lc.domain.Game;
+import nz.ac.wgtn.swen225.lc.persistency.FileBasedPersistenceImpl;
+import nz.ac.wgtn.swen225.lc.persistency.Persistence;
+import nz.ac.wgtn.swen225.lc.utils.Vector2D;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SimulationRunnerTest {
+
+    private static final int PARALLELISM = 4;
+
+    private final Persistence persistence = new FileBasedPersistenceImpl();
+
+    @Test
+    public void parallelResultsShouldMatchSerialRuns() {
+        var serial = scenarios();
+        List<SimulationRunner.Result> parallel;
+        try (var runner = new SimulationRunner(persistence, PARALLELISM)) {
+            parallel = runner.run(serial).toList();
+        }
+
+        assertEquals(serial.size(), parallel.size());
+        for (int i = 0; i < serial.size(); i++) {
+            var scenario = serial.get(i);
+            var game = persistence.loadGame(scenario.levelNo());
+            var engine = new HeadlessGameEngine(game);
+            engine.onStart();
+            int ticks = engine.run(scenario.playerInput(), scenario.maxTicks());
+            engine.onDestroy();
+
+            var result = parallel.get(i);
+            assertEquals(scenario.levelNo(), result.scenario().levelNo());
+            assertEquals(ticks, result.ticks(), "scenario " + i);
+            assertEquals(game.getChipsLeft(), result.chipsLeft(), "scenario " + i);
+            assertEquals(engine.getPlayerPos(), result.playerPos(), "scenario " + i);
+            assertEquals(engine.isGameOver(), result.outcome() != SimulationRunner.Outcome.UNFINISHED,
+                    "scenario " + i);
+        }
+    }
+
+    @Test
+    public void sameScenariosShouldGiveSameResultsWhenRunTwice() {
+        var scenarios = scenarios();
+        try (var runner = new SimulationRunner(persistence, PARALLELISM)) {
+            var first = runner.run(scenarios).toList();
+            var second = runner.run(scenarios).toList();
+            assertEquals(first, second);
+        }
+    }
+
+    @Test
+    public void idsShouldBeEqualAcrossThreadsForSameLevel() throws InterruptedException, ExecutionException {
+        var pool = Executors.newFixedThreadPool(PARALLELISM);
+        try {
+            for (int levelNo : persistence.getAllLevelNos()) {
+                var start = new CountDownLatch(1);
+                var futures = new ArrayList<Future<List<Integer>>>();
+                for (int i = 0; i < PARALLELISM; i++) {
+                    futures.add(pool.submit(() -> {
+                        start.await(); // load on all threads at once
+                        return Entity.withOwnIdSpace(() -> ids(persistence.loadGame(levelNo)));
+                    }));
+                }
+                start.countDown();
+                var expected = futures.get(0).get();
+                for (var future : futures) {
+                    assertEquals(expected, future.get(), "level " + levelNo);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Scenarios on every level, mixing scripted and reactive players
+    private List<SimulationRunner.Scenario> scenarios() {
+        var scenarios = new ArrayList<SimulationRunner.Scenario>();
+        var directions = List.of(Vector2D.LEFT, Vector2D.UP, Vector2D.RIGHT, Vector2D.DOWN);
+        for (int levelNo : persistence.getAllLevelNos()) {
+            for (var direction : directions) {
+                scenarios.add(new SimulationRunner.Scenario(levelNo, g -> direction, 100));
+            }
+            var script = new ArrayList<Vector2D>();
+            for (int i = 0; i < 60; i++) {
+                script.add(directions.get((i * 7 + i / 5) % 4));
+            }
+            scenarios.add(SimulationRunner.Scenario.scripted(levelNo, script, 200));
+            // Alternates with the tick number, so it depends on how far the game has got
+            scenarios.add(new SimulationRunner.Scenario(levelNo,
+                    g -> g.getTickNo() % 2 == 0 ? Vector2D.RIGHT : Vector2D.DOWN, 150));
+            scenarios.add(new SimulationRunner.Scenario(levelNo, g -> null, 50));
+        }
+        return scenarios;
+    }
+
+    // The identifiers of the game and of every entity in its level, sorted
+    private static List<Integer> ids(Game game) {
+        var level = game.getLevel();
+        var player = level.getPlayer();
+        var ids = new ArrayList<>(List.of(game.getId(), level.getId(), player.getId()));
+        level.getTiles().forEach(t -> ids.add(t.getId()));
+        level.getEnemies().forEach(e -> ids.add(e.getId()));
+        player.getKeys().forEach(k -> ids.add(k.getId()));
+        player.getChips().forEach(c -> ids.add(c.getId()));
+        Collections.sort(ids);
+        return ids;
+    }
+}
@@ -0,0 +1,65 @@
+package test.nz.ac.wgtn.swen225.lc.domain;
+
+import nz.ac.wgtn.swen225.lc.domain.Game;
+import nz.ac.wgtn.swen225.lc.domain.InputSource;
+import nz.ac.wgtn.swen225.lc.domain.level.Level;
+import nz.ac.wgtn.swen225.lc.domain.level.characters.Player;
+import nz.ac.wgtn.swen225.lc.domain.level.items.Chip;
+import nz.ac.wgtn.swen225.lc.domain.level.tiles.ChipTile;
+import nz.ac.wgtn.swen225.lc.levels.level2.Patroller;
+import nz.ac.wgtn.swen225.lc.utils.Vector2D;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdvanceTest {
+
+    @Test
+    public void advanceShouldMatchTickingOneByOne() {
+        var moves = List.of(Vector2D.RIGHT, Vector2D.DOWN, Vector2D.DOWN, Vector2D.ZERO, Vector2D.LEFT);
+        var batched = createInstance();
+        var stepped = createInstance();
+
+        assertEquals(8, batched.advance(8, InputSource.of(moves)));
+        for (int i = 0; i < 8; i++) {
+            stepped.tick(i < moves.size() ? moves.get(i) : Vector2D.ZERO);
+        }
+
+        assertEquals(stepped.getTickNo(), batched.getTickNo());
+        assertEquals(stepped.getLevel().getPlayer().getPosition(), batched.getLevel().getPlayer().getPosition());
+        assertEquals(stepped.getLevel().getEnemy(0).getPosition(), batched.getLevel().getEnemy(0).getPosition());
+        assertEquals(new Vector2D(1, 3), batched.getLevel().getPlayer().getPosition());
+        assertEquals(0, batched.getChipsLeft());
+    }
+
+    @Test
+    public void advanceShouldStopWhenGameIsOver() {
+        var game = createInstance();
+        int timeoutTicks = 60 * Game.FRAME_RATE;
+
+        assertEquals(timeoutTicks, game.advance(Integer.MAX_VALUE, InputSource.NONE));
+        assertTrue(game.isGameOver());
+        assertEquals(0, game.advance(10, InputSource.NONE));
+    }
+
+    @Test
+    public void advanceShouldRejectBadArguments() {
+        var game = createInstance();
+        assertThrows(IllegalArgumentException.class, () -> game.advance(-1, InputSource.NONE));
+        assertThrows(IllegalArgumentException.class, () -> game.advance(1, null));
+        assertEquals(0, game.advance(0, InputSource.NONE));
+    }
+
+    private Game createInstance() {
+        var level = new Level(1, 6, 6, 60);
+        level.addTile(new ChipTile(new Vector2D(2, 1), new Chip()));
+        level.addEnemy(new Patroller(new Vector2D(4, 4),
+                List.of(Vector2D.RIGHT, Vector2D.DOWN, Vector2D.LEFT, Vector2D.UP), 1));
+        level.setPlayer(new Player(new Vector2D(1, 1)));
+        var game = new Game();
+        game.setLevel(level);
+        return game;
+    }
+}
@@ -0,0 +1,119 @@
+package test.nz.ac.wgtn.swen225.lc.domain;
+
+import nz.ac.wgtn.swen225.lc.domain.Game;
+import nz.ac.wgtn.swen225.lc.domain.level.Level;
+import nz.ac.wgtn.swen225.lc.domain.level.characters.Player;
+import nz.ac.wgtn.swen225.lc.domain.level.tiles.Wall;
+import nz.ac.wgtn.swen225.lc.levels.level2.Patroller;
+import nz.ac.wgtn.swen225.lc.utils.Vector2D;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Verifies that a steady-state game tick allocates nothing.
+ * <p>
+ * Mockito instruments every class it mocks (Level, Player, Enemy...) for the rest of the JVM's life, which adds
+ * allocations to real instances too. The measurement therefore runs in a fresh JVM, see {@link #main(String[])}.
+ */
+public class AllocationTest {
+
+    private static final int WARM_UP_TICKS = 20_000;
+    private static final int MEASURED_TICKS = 10_000;
+    // The measured loops, in the order their results are printed
+    private static final List<String> LOOPS =
+            List.of("tick(Vector2D)", "update(Vector2D, Map)", "updateBySlot(Vector2D, Vector2D[])");
+
+    @Test
+    public void steadyStateTickShouldNotAllocate() throws IOException, InterruptedException {
+        var java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        var process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                AllocationTest.class.getName())
+                .redirectErrorStream(true)
+                .start();
+        var output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+        assertEquals(0, process.waitFor(), output);
+
+        var measured = output.substring(output.lastIndexOf('\n') + 1).trim().split(" ");
+        assumeTrue(!measured[0].equals("-1"), "The JVM cannot measure allocations");
+        assertEquals(LOOPS.size(), measured.length, output);
+        for (int i = 0; i < LOOPS.size(); i++) {
+            long allocated = Long.parseLong(measured[i]);
+            // a single small object per tick would already be well over 100 KB
+            assertTrue(allocated < 1024, LOOPS.get(i) + " allocated " + allocated + " bytes");
+        }
+    }
+
+    /**
+     * Runs the measurement and prints the number of bytes allocated by each measured loop of ticks, in the order of
+     * {@link #LOOPS}, or -1 if the JVM cannot measure allocations.
+     *
+     * @param args unused
+     */
+    public static void main(String[] args) {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threadBean)
+                || !threadBean.isThreadAllocatedMemorySupported()) {
+            System.out.println(-1);
+            return;
+        }
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+
+        var game = createGame();
+        var moves = new Vector2D[]{Vector2D.RIGHT, Vector2D.LEFT};
+        // The patroller steps back and forth too, with its inputs in maps or arrays built once
+        var patroller = game.getLevel().getEnemy(0);
+        var enemyMaps = List.of(Map.of(patroller, Vector2D.LEFT), Map.of(patroller, Vector2D.RIGHT));
+        var enemySlots = new Vector2D[][]{{Vector2D.LEFT}, {Vector2D.RIGHT}};
+        for (int i = 0; i < WARM_UP_TICKS; i++) {
+            game.tick(moves[i % 2]);
+            game.update(moves[(i + 1) % 2], enemyMaps.get(i % 2));
+            game.updateBySlot(moves[i % 2], enemySlots[(i + 1) % 2]);
+            game.update(moves[(i + 1) % 2], Map.of());
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_TICKS; i++) {
+            game.tick(moves[i % 2]);
+        }
+        long ticked = threadBean.getThreadAllocatedBytes(threadId) - before;
+
+        before = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_TICKS; i++) {
+            game.update(moves[i % 2], enemyMaps.get(i % 2));
+        }
+        long updated = threadBean.getThreadAllocatedBytes(threadId) - before;
+
+        before = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_TICKS; i++) {
+            game.updateBySlot(moves[i % 2], enemySlots[i % 2]);
+        }
+        long updatedBySlot = threadBean.getThreadAllocatedBytes(threadId) - before;
+
+        if (game.isGameOver()) {
+            throw new IllegalStateException("Game ended during the measurement");
+        }
+        System.out.println(ticked + " " + updated + " " + updatedBySlot);
+    }
+
+    // A level where the player walks back and forth while a patroller circles around a wall
+    private static Game createGame() {
+        var level = new Level(1, 10, 10, 1_000_000);
+        level.addTile(new Wall(new Vector2D(6, 6)));
+        level.addEnemy(new Patroller(new Vector2D(5, 5),
+                List.of(Vector2D.RIGHT, Vector2D.RIGHT, Vector2D.DOWN, Vector2D.DOWN,
+                        Vector2D.LEFT, Vector2D.LEFT, Vector2D.UP, Vector2D.UP), 1));
+        level.setPlayer(new Player(new Vector2D(1, 1)));
+        var game = new Game();
+        game.setLevel(level);
+        return game;
+    }
+}
@@ -13,8 +13,6 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.lang.reflect.Field;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.IntStream;
@@ -41,6 +39,9 @@ public class GameTest {
         when(mockEnemy1.getPosition()).thenReturn(new Vector2D(1, 1));
         when(mockEnemy2.getPosition()).thenReturn(new Vector2D(5, 5));
         when(mockLevel.getEnemies()).thenReturn(Set.of(mockEnemy1, mockEnemy2));
+        when(mockLevel.getEnemyCount()).thenReturn(2);
+        when(mockLevel.getEnemy(0)).thenReturn(mockEnemy1);
+        when(mockLevel.getEnemy(1)).thenReturn(mockEnemy2);
         var mockPlayer = mock(Player.class);
         when(mockPlayer.getPosition()).thenReturn(new Vector2D(10, 10));
         when(mockLevel.getPlayer()).thenReturn(mockPlayer);
@@ -52,14 +53,9 @@ public class GameTest {
     }
 
     @Test
-    @SuppressWarnings("unchecked")
-    public void testTimerEvents() throws NoSuchFieldException, IllegalAccessException {
+    public void testTimerEvents() {
         var listener = mock(GameEventListener.class);
-        Field field = toTest.getClass().getDeclaredField("listeners");
-        field.setAccessible(true);
-
-        List<GameEventListener> value = (List<GameEventListener>) field.get(toTest);
-        value.add(listener);
+        toTest.addListener(listener);
 
         when(mockLevel.getTimeoutInSeconds()).thenReturn(1);
         IntStream.range(0, Game.FRAME_RATE).forEach(i -> toTest.update(Vector2D.ZERO, Map.of()));
@@ -72,8 +68,7 @@ public class GameTest {
     }
 
     @Test
-    @SuppressWarnings("unchecked")
-    public void whenPlayCaughtByEnemies_shouldFirePlayDiedEvent() throws NoSuchFieldException, IllegalAccessException {
+    public void whenPlayCaughtByEnemies_shouldFirePlayDiedEvent() {
         var mockPlayer = mock(Player.class);
         when(mockPlayer.getPosition()).thenReturn(new Vector2D(10, 10));
         var mockEnemy = mock(Enemy.class);
@@ -81,15 +76,30 @@ public class GameTest {
 
         when(mockLevel.getPlayer()).thenReturn(mockPlayer);
         when(mockLevel.getEnemies()).thenReturn(Set.of(mockEnemy));
+        when(mockLevel.getEnemyCount()).thenReturn(1);
+        when(mockLevel.getEnemy(0)).thenReturn(mockEnemy);
+        when(mockLevel.isEnemyAt(new Vector2D(10, 10))).thenReturn(true);
 
         var listener = mock(GameEventListener.class);
-        Field field = toTest.getClass().getDeclaredField("listeners");
-        field.setAccessible(true);
-        List<GameEventListener> value = (List<GameEventListener>) field.get(toTest);
-        value.add(listener);
+        toTest.addListener(GameOverEvent.class, listener);
 
         toTest.update(Vector2D.ZERO, Map.of());
         verify(listener).onGameEvent(any(PlayerDiedEvent.class));
     }
 
+    @Test
+    public void listenerShouldOnlyReceiveSubscribedEvents() {
+        var listener = mock(GameEventListener.class);
+        toTest.addListener(CountDownEvent.class, listener);
+        when(mockLevel.getTimeoutInSeconds()).thenReturn(100);
+
+        IntStream.range(0, Game.FRAME_RATE).forEach(i -> toTest.update(Vector2D.ZERO, Map.of()));
+        verify(listener, times(1)).onGameEvent(any(CountDownEvent.class));
+        verify(listener, never()).onGameEvent(any(TickEvent.class));
+
+        toTest.removeListener(listener);
+        IntStream.range(0, Game.FRAME_RATE).forEach(i -> toTest.update(Vector2D.ZERO, Map.of()));
+        verify(listener, times(1)).onGameEvent(any(CountDownEvent.class));
+    }
+
 }
@@ -0,0 +1,143 @@
+package test.nz.ac.wgtn.swen225.lc.domain;
+
+import nz.ac.wgtn.swen225.lc.domain.Game;
+import nz.ac.wgtn.swen225.lc.domain.RenderBuffers;
+import nz.ac.wgtn.swen225.lc.domain.RenderSnapshot;
+import nz.ac.wgtn.swen225.lc.domain.events.TickDelta;
+import nz.ac.wgtn.swen225.lc.domain.level.Level;
+import nz.ac.wgtn.swen225.lc.domain.level.characters.Player;
+import nz.ac.wgtn.swen225.lc.domain.level.items.Chip;
+import nz.ac.wgtn.swen225.lc.domain.level.items.Key;
+import nz.ac.wgtn.swen225.lc.domain.level.tiles.ChipTile;
+import nz.ac.wgtn.swen225.lc.domain.level.tiles.KeyTile;
+import nz.ac.wgtn.swen225.lc.domain.level.tiles.Wall;
+import nz.ac.wgtn.swen225.lc.levels.level2.Patroller;
+import nz.ac.wgtn.swen225.lc.utils.Vector2D;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RenderBuffersTest {
+
+    @Test
+    public void publishShouldAskForDisplayOnlyUntilTaken() {
+        var game = createInstance(10);
+        var buffers = new RenderBuffers();
+
+        assertNull(buffers.take());
+        assertTrue(buffers.publish(game, null));
+        game.tick(Vector2D.ZERO);
+        assertFalse(buffers.publish(game, null));   // replaces the one still waiting
+
+        var snapshot = buffers.take();
+        assertEquals(1, snapshot.getTickNo());
+        assertNull(buffers.take());
+
+        game.tick(Vector2D.ZERO);
+        assertTrue(buffers.publish(game, null));
+        assertNotSame(snapshot, buffers.take());
+    }
+
+    @Test
+    public void buffersShouldMatchGameWhenTakenAtAnyTick() {
+        var game = createInstance(10);
+        var buffers = new RenderBuffers();
+        game.addListener(TickDelta.class, e -> buffers.publish(game, (TickDelta) e));
+        buffers.publish(game, null);
+
+        // Taking at different intervals lets each buffer miss a different number of ticks
+        for (int i = 1; i <= 10; i++) {
+            game.tick(Vector2D.RIGHT);
+            if (i % 3 != 0) {
+                assertSameView(RenderSnapshot.of(game), buffers.take());
+            }
+        }
+        game.tick(Vector2D.DOWN);   // picks up the key
+        var snapshot = buffers.take();
+        assertSameView(RenderSnapshot.of(game), snapshot);
+        assertEquals(List.of(Key.Color.BLUE), snapshot.getKeyColors());
+    }
+
+    @Test
+    public void bufferShouldBeRefilledWhenTooManyTilesWereRemoved() {
+        var game = createInstance(300);
+        var buffers = new RenderBuffers();
+        game.addListener(TickDelta.class, e -> buffers.publish(game, (TickDelta) e));
+        buffers.publish(game, null);
+        buffers.take();
+
+        // The other buffers miss more removed chips than they remember
+        for (int i = 0; i < 300; i++) {
+            game.tick(Vector2D.RIGHT);
+        }
+        assertSameView(RenderSnapshot.of(game), buffers.take());
+        game.tick(Vector2D.DOWN);
+        assertSameView(RenderSnapshot.of(game), buffers.take());
+    }
+
+    @Test
+    public void versionsShouldOnlyChangeWithTheirLayer() {
+        var level = new Level(1, 6, 6, 60);
+        level.addTile(new ChipTile(new Vector2D(2, 1), new Chip()));
+        level.setPlayer(new Player(new Vector2D(1, 1)));
+        var game = new Game();
+        game.setLevel(level);
+        var buffers = new RenderBuffers();
+        game.addListener(TickDelta.class, e -> buffers.publish(game, (TickDelta) e));
+        buffers.publish(game, null);
+        var first = buffers.take();
+        long tilesVersion = first.getTilesVersion();
+        long charactersVersion = first.getCharactersVersion();
+
+        game.tick(Vector2D.ZERO);   // nothing changes
+        var second = buffers.take();
+        assertEquals(tilesVersion, second.getTilesVersion());
+        assertEquals(charactersVersion, second.getCharactersVersion());
+
+        game.tick(Vector2D.RIGHT);  // picks up the chip
+        var third = buffers.take();
+        assertNotEquals(tilesVersion, third.getTilesVersion());
+        assertNotEquals(charactersVersion, third.getCharactersVersion());
+    }
+
+    // A row of chips to the right of the player, a key below the end of it, and a patroller
+    private Game createInstance(int chips) {
+        int width = chips + 3;
+        var level = new Level(1, width, 6, 1000);
+        for (int x = 2; x < chips + 2; x++) {
+            level.addTile(new ChipTile(new Vector2D(x, 1), new Chip()));
+        }
+        level.addTile(new KeyTile(new Vector2D(chips + 1, 2), new Key(Key.Color.BLUE)));
+        level.addTile(new Wall(new Vector2D(0, 0)));
+        level.addEnemy(new Patroller(new Vector2D(1, 4),
+                List.of(Vector2D.RIGHT, Vector2D.DOWN, Vector2D.LEFT, Vector2D.UP), 1));
+        level.setPlayer(new Player(new Vector2D(1, 1)));
+        var game = new Game();
+        game.setLevel(level);
+        return game;
+    }
+
+    private static void assertSameView(RenderSnapshot expected, RenderSnapshot actual) {
+        assertNotNull(actual);
+        assertEquals(expected.getLevelId(), actual.getLevelId());
+        assertEquals(expected.getTickNo(), actual.getTickNo());
+        assertEquals(expected.getCountDown(), actual.getCountDown());
+        assertEquals(expected.getChipsLeft(), actual.getChipsLeft());
+        assertEquals(expected.getKeyColors(), actual.getKeyColors());
+        assertEquals(expected.isGameOver(), actual.isGameOver());
+        assertEquals(expected.getPlayerPosition(), actual.getPlayerPosition());
+        assertEquals(expected.getEnemyCount(), actual.getEnemyCount());
+        for (int i = 0; i < expected.getEnemyCount(); i++) {
+            assertEquals(expected.getEnemyId(i), actual.getEnemyId(i));
+            assertEquals(expected.getEnemyPosition(i), actual.getEnemyPosition(i));
+        }
+        for (int x = 0; x < expected.getWidth(); x++) {
+            for (int y = 0; y < expected.getHeight(); y++) {
+                assertEquals(expected.tileTypeAt(x, y), actual.tileTypeAt(x, y), "(" + x + ", " + y + ")");
+                assertEquals(expected.tileColorAt(x, y), actual.tileColorAt(x, y), "(" + x + ", " + y + ")");
+            }
+        }
+    }
+}
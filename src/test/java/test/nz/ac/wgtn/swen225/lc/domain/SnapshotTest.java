@@ -0,0 +1,140 @@
+package test.nz.ac.wgtn.swen225.lc.domain;
+
+import nz.ac.wgtn.swen225.lc.domain.Game;
+import nz.ac.wgtn.swen225.lc.domain.RenderSnapshot;
+import nz.ac.wgtn.swen225.lc.domain.level.Level;
+import nz.ac.wgtn.swen225.lc.domain.level.TileType;
+import nz.ac.wgtn.swen225.lc.domain.level.characters.Player;
+import nz.ac.wgtn.swen225.lc.domain.level.items.Chip;
+import nz.ac.wgtn.swen225.lc.domain.level.items.Key;
+import nz.ac.wgtn.swen225.lc.domain.level.tiles.ChipTile;
+import nz.ac.wgtn.swen225.lc.domain.level.tiles.ExitLock;
+import nz.ac.wgtn.swen225.lc.domain.level.tiles.KeyTile;
+import nz.ac.wgtn.swen225.lc.domain.level.tiles.LockedDoor;
+import nz.ac.wgtn.swen225.lc.domain.level.tiles.Wall;
+import nz.ac.wgtn.swen225.lc.levels.level2.Patroller;
+import nz.ac.wgtn.swen225.lc.utils.Vector2D;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SnapshotTest {
+
+    @Test
+    public void forkShouldBeIndependentOfOriginal() {
+        var game = createInstance();
+        game.tick(Vector2D.RIGHT);   // picks up the chip, patroller takes its first step
+        var fork = game.fork();
+
+        assertNotSame(game.getLevel(), fork.getLevel());
+        assertSame(fork, fork.getLevel().getGame());
+        assertEquals(game.getId(), fork.getId());
+        assertEquals(game.getTickNo(), fork.getTickNo());
+        assertEquals(game.getChipsLeft(), fork.getChipsLeft());
+        assertEquals(game.getLevel().getTiles().size(), fork.getLevel().getTiles().size());
+        fork.getLevel().getTiles().forEach(t -> {
+            assertSame(fork.getLevel(), t.getLevel());
+            assertFalse(game.getLevel().getTiles().contains(t));
+            assertEquals(t, fork.getLevel().tileAt(t.getPosition()));
+        });
+        assertEquals(game.getLevel().getPlayer().getChips(), fork.getLevel().getPlayer().getChips());
+
+        // advancing the fork must not affect the original
+        fork.tick(Vector2D.DOWN);
+        assertEquals(1, game.getTickNo());
+        assertEquals(new Vector2D(2, 1), game.getLevel().getPlayer().getPosition());
+        assertEquals(new Vector2D(2, 2), fork.getLevel().getPlayer().getPosition());
+        assertTrue(game.getLevel().getPlayer().getKeys().isEmpty());
+        assertEquals(1, fork.getLevel().getPlayer().getKeys().size());
+        assertEquals(1, game.getLevel().countTiles(KeyTile.class));
+        assertEquals(0, fork.getLevel().countTiles(KeyTile.class));
+    }
+
+    @Test
+    public void snapshotShouldRestoreSameStateRepeatedly() {
+        var game = createInstance();
+        game.tick(Vector2D.ZERO);
+        var snapshot = game.snapshot();
+        var patroller = (Patroller) game.getLevel().getEnemy(0);
+        var routine = patroller.getRoutine();
+
+        game.tick(Vector2D.RIGHT);
+        game.tick(Vector2D.DOWN);
+
+        for (int i = 0; i < 2; i++) {
+            var restored = snapshot.restore();
+            assertEquals(1, restored.getTickNo());
+            assertEquals(new Vector2D(1, 1), restored.getLevel().getPlayer().getPosition());
+            var restoredPatroller = (Patroller) restored.getLevel().getEnemy(0);
+            assertEquals(patroller.getId(), restoredPatroller.getId());
+            assertEquals(routine, restoredPatroller.getRoutine());   // patrol phase is kept
+            assertEquals(1, restored.getChipsLeft());
+            restored.tick(Vector2D.RIGHT);
+            assertEquals(0, restored.getChipsLeft());
+        }
+        assertEquals(1, snapshot.getTickNo());
+    }
+
+    @Test
+    public void renderSnapshotShouldNotChangeWhenGameAdvances() {
+        var game = createInstance();
+        game.tick(Vector2D.RIGHT);   // picks up the chip
+        game.tick(Vector2D.DOWN);    // picks up the key
+        var snapshot = RenderSnapshot.of(game);
+        var enemyPosition = game.getLevel().getEnemy(0).getPosition();
+
+        game.tick(Vector2D.DOWN);
+
+        assertEquals(2, snapshot.getTickNo());
+        assertEquals(0, snapshot.getChipsLeft());
+        assertEquals(1, snapshot.getKeyCount(Key.Color.BLUE));
+        assertEquals(List.of(Key.Color.BLUE), snapshot.getKeyColors());
+        assertEquals(game.getLevel().getId(), snapshot.getLevelId());
+        assertEquals(6, snapshot.getWidth());
+        assertEquals(6, snapshot.getHeight());
+        assertEquals(new Vector2D(2, 2), snapshot.getPlayerPosition());
+        assertEquals(new Vector2D(2, 3), game.getLevel().getPlayer().getPosition());
+        assertEquals(1, snapshot.getEnemyCount());
+        assertEquals(game.getLevel().getEnemy(0).getId(), snapshot.getEnemyId(0));
+        assertEquals(enemyPosition, snapshot.getEnemyPosition(0));
+        // only the wall is left
+        assertEquals(TileType.WALL, snapshot.tileTypeAt(0, 0));
+        assertEquals(TileType.FREE, snapshot.tileTypeAt(2, 1));
+        assertEquals(TileType.FREE, snapshot.tileTypeAt(2, 2));
+        assertEquals(TileType.FREE, snapshot.tileTypeAt(-1, 0));
+    }
+
+    @Test
+    public void renderSnapshotShouldHoldKeyAndDoorColors() {
+        var level = new Level(1, 4, 4, 60);
+        level.addTile(new KeyTile(new Vector2D(1, 1), new Key(Key.Color.RED)));
+        level.addTile(new LockedDoor(new Vector2D(2, 1), Key.Color.GREEN));
+        level.addTile(new ExitLock(new Vector2D(3, 1)));
+        var snapshot = RenderSnapshot.of(level);
+
+        assertFalse(snapshot.hasPlayer());
+        assertThrows(IllegalStateException.class, snapshot::getPlayerPosition);
+        assertEquals(TileType.KEY, snapshot.tileTypeAt(1, 1));
+        assertEquals(Key.Color.RED, snapshot.tileColorAt(1, 1));
+        assertEquals(TileType.LOCKED_DOOR, snapshot.tileTypeAt(2, 1));
+        assertEquals(Key.Color.GREEN, snapshot.tileColorAt(2, 1));
+        assertEquals(TileType.EXIT_LOCK, snapshot.tileTypeAt(3, 1));
+        assertNull(snapshot.tileColorAt(3, 1));
+        assertEquals(60, snapshot.getCountDown());
+    }
+
+    private Game createInstance() {
+        var level = new Level(1, 6, 6, 60);
+        level.addTile(new ChipTile(new Vector2D(2, 1), new Chip()));
+        level.addTile(new KeyTile(new Vector2D(2, 2), new Key(Key.Color.BLUE)));
+        level.addTile(new Wall(new Vector2D(0, 0)));
+        level.addEnemy(new Patroller(new Vector2D(4, 4),
+                List.of(Vector2D.RIGHT, Vector2D.DOWN, Vector2D.LEFT, Vector2D.UP), 1));
+        level.setPlayer(new Player(new Vector2D(1, 1)));
+        var game = new Game();
+        game.setLevel(level);
+        return game;
+    }
+}
@@ -0,0 +1,89 @@
+package test.nz.ac.wgtn.swen225.lc.domain;
+
+import nz.ac.wgtn.swen225.lc.domain.Game;
+import nz.ac.wgtn.swen225.lc.domain.level.Level;
+import nz.ac.wgtn.swen225.lc.domain.level.characters.Player;
+import nz.ac.wgtn.swen225.lc.domain.level.items.Chip;
+import nz.ac.wgtn.swen225.lc.domain.level.items.Key;
+import nz.ac.wgtn.swen225.lc.domain.level.tiles.ChipTile;
+import nz.ac.wgtn.swen225.lc.domain.level.tiles.KeyTile;
+import nz.ac.wgtn.swen225.lc.levels.level2.Patroller;
+import nz.ac.wgtn.swen225.lc.utils.Vector2D;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StateHashTest {
+
+    @Test
+    public void sameStateShouldHaveSameHash() {
+        var game = createInstance();
+        var other = game.fork();
+        assertEquals(game.stateHash(), other.stateHash());
+
+        // going there and back ends in the same state as standing still
+        game.tick(Vector2D.UP);
+        game.tick(Vector2D.DOWN);
+        other.tick(Vector2D.ZERO);
+        other.tick(Vector2D.ZERO);
+        assertEquals(game.stateHash(), other.stateHash());
+    }
+
+    @Test
+    public void hashShouldFollowChanges() {
+        var game = createInstance();
+        var fork = game.fork();
+        var hashes = new HashSet<Long>();
+        hashes.add(game.stateHash());
+
+        game.tick(Vector2D.RIGHT);   // picks up a chip
+        assertTrue(hashes.add(game.stateHash()));
+        game.tick(Vector2D.DOWN);    // picks up a key
+        assertTrue(hashes.add(game.stateHash()));
+        assertEquals(game.stateHash(), game.fork().stateHash());
+
+        // same positions and tick, but only the key picked up
+        fork.tick(Vector2D.DOWN);
+        fork.tick(Vector2D.RIGHT);
+        assertEquals(new Vector2D(2, 2), game.getLevel().getPlayer().getPosition());
+        assertEquals(new Vector2D(2, 2), fork.getLevel().getPlayer().getPosition());
+        assertNotEquals(game.stateHash(), fork.stateHash());
+    }
+
+    @Test
+    public void inventoryHashShouldDependOnCountsOnly() {
+        var player = new Player(new Vector2D(0, 0));
+        var other = new Player(new Vector2D(0, 0));
+        assertEquals(player.inventoryHash(), other.inventoryHash());
+
+        var key = new Key(Key.Color.RED);
+        player.addKey(key);
+        other.addKey(new Key(Key.Color.RED));
+        assertEquals(player.inventoryHash(), other.inventoryHash());
+
+        player.addKey(new Key(Key.Color.BLUE));
+        assertNotEquals(player.inventoryHash(), other.inventoryHash());
+        player.removeKey(key);
+        other.addKey(new Key(Key.Color.BLUE));
+        other.removeKey(other.getKeys().stream().filter(k -> k.getColor() == Key.Color.RED).findFirst().orElseThrow());
+        assertEquals(player.inventoryHash(), other.inventoryHash());
+
+        player.addChip(new Chip());
+        assertNotEquals(player.inventoryHash(), other.inventoryHash());
+    }
+
+    private Game createInstance() {
+        var level = new Level(1, 6, 6, 60);
+        level.addTile(new ChipTile(new Vector2D(2, 1), new Chip()));
+        level.addTile(new KeyTile(new Vector2D(2, 2), new Key(Key.Color.BLUE)));
+        level.addEnemy(new Patroller(new Vector2D(4, 4),
+                List.of(Vector2D.RIGHT, Vector2D.DOWN, Vector2D.LEFT, Vector2D.UP), 1));
+        level.setPlayer(new Player(new Vector2D(1, 1)));
+        var game = new Game();
+        game.setLevel(level);
+        return game;
+    }
+}
@@ -0,0 +1,84 @@
+package test.nz.ac.wgtn.swen225.lc.domain;
+
+import nz.ac.wgtn.swen225.lc.domain.Game;
+import nz.ac.wgtn.swen225.lc.domain.InputSource;
+import nz.ac.wgtn.swen225.lc.domain.level.Level;
+import nz.ac.wgtn.swen225.lc.domain.level.characters.Player;
+import nz.ac.wgtn.swen225.lc.levels.level2.Patroller;
+import nz.ac.wgtn.swen225.lc.utils.Vector2D;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TickRateTest {
+
+    @Test
+    public void countDownShouldFollowSimulatedTime() {
+        var game = createInstance(30);
+        game.advance(29, InputSource.NONE);
+        assertEquals(60, game.getCountDown());
+        game.advance(1, InputSource.NONE);
+        assertEquals(59, game.getCountDown());
+        assertEquals(Duration.ofSeconds(1), game.getElapsedTime());
+    }
+
+    @Test
+    public void enemiesShouldMoveAtTheSameSimulatedTimeAtAnyTickRate() {
+        var slow = createInstance(Game.FRAME_RATE);
+        var fast = createInstance(60);
+        var batch = createInstance(1);
+        for (int second = 1; second <= 5; second++) {
+            slow.advance(Game.FRAME_RATE, InputSource.NONE);
+            fast.advance(60, InputSource.NONE);
+            batch.advance(1, InputSource.NONE);
+            var expected = slow.getLevel().getEnemy(0).getPosition();
+            assertEquals(expected, fast.getLevel().getEnemy(0).getPosition());
+            assertEquals(expected, batch.getLevel().getEnemy(0).getPosition());
+        }
+    }
+
+    @Test
+    public void isDueShouldMatchWholeTickIntervals() {
+        // an interval of 3 ticks at the default rate is due every third tick, as before tick rates could change
+        var interval = Duration.ofMillis(300);
+        for (int tickNo = 0; tickNo < 30; tickNo++) {
+            assertEquals(tickNo % 3 == 0, Game.isDue(tickNo, Game.FRAME_RATE, interval.toMillis()));
+        }
+        // intervals shorter than a tick are due every tick
+        for (int tickNo = 0; tickNo < 30; tickNo++) {
+            assertTrue(Game.isDue(tickNo, 1, 300));
+        }
+    }
+
+    @Test
+    public void tickRateShouldBeFixedOnceStarted() {
+        var game = createInstance(Game.FRAME_RATE);
+        assertThrows(IllegalArgumentException.class, () -> game.setTickRate(0));
+        game.tick(Vector2D.ZERO);
+        assertThrows(IllegalStateException.class, () -> game.setTickRate(30));
+        assertEquals(Game.FRAME_RATE, game.fork().getTickRate());
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void intervalInTicksShouldConvertAtDefaultTickRate() {
+        var routine = List.of(Vector2D.RIGHT);
+        assertEquals(Duration.ofMillis(300), new Patroller(new Vector2D(0, 0), routine, 3).getInterval());
+        assertEquals(3, new Patroller(new Vector2D(0, 0), routine, 3).getIntervalInTicks());
+        assertEquals(10, new Patroller(new Vector2D(0, 0), routine, Duration.ofSeconds(1)).getIntervalInTicks());
+    }
+
+    private Game createInstance(int tickRate) {
+        var level = new Level(1, 6, 6, 60);
+        level.addEnemy(new Patroller(new Vector2D(2, 2),
+                List.of(Vector2D.RIGHT, Vector2D.DOWN, Vector2D.LEFT, Vector2D.UP), Duration.ofSeconds(1)));
+        level.setPlayer(new Player(new Vector2D(0, 0)));
+        var game = new Game();
+        game.setTickRate(tickRate);
+        game.setLevel(level);
+        return game;
+    }
+}
@@ -0,0 +1,100 @@
+package test.nz.ac.wgtn.swen225.lc.domain.compact;
+
+import nz.ac.wgtn.swen225.lc.domain.Game;
+import nz.ac.wgtn.swen225.lc.domain.compact.CompactGame;
+import nz.ac.wgtn.swen225.lc.domain.compact.LevelTemplate;
+import nz.ac.wgtn.swen225.lc.domain.events.*;
+import nz.ac.wgtn.swen225.lc.domain.level.TileType;
+import nz.ac.wgtn.swen225.lc.domain.level.items.Key;
+import nz.ac.wgtn.swen225.lc.persistency.FileBasedPersistenceImpl;
+import nz.ac.wgtn.swen225.lc.utils.Vector2D;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompactGameTest {
+
+    private static final List<Vector2D> MOVES =
+            List.of(Vector2D.ZERO, Vector2D.LEFT, Vector2D.UP, Vector2D.RIGHT, Vector2D.DOWN);
+
+    @Test
+    public void shouldPlayLikeGame() {
+        var persistence = new FileBasedPersistenceImpl();
+        var random = new Random(42);
+        for (var levelNo : persistence.getAllLevelNos()) {
+            for (int run = 0; run < 20; run++) {
+                var game = persistence.loadGame(levelNo);
+                var compact = new CompactGame(LevelTemplate.of(game.getLevel()));
+                var ended = new ArrayList<GameOverEvent>();
+                game.addListener(GameOverEvent.class, event -> ended.add((GameOverEvent) event));
+
+                while (!game.isGameOver()) {
+                    var move = randomMove(game, random);
+                    game.tick(move);
+                    compact.tick(move);
+                    assertSameState(game, compact);
+                }
+                assertEquals(toOutcome(ended.get(0)), compact.getOutcome());
+            }
+        }
+    }
+
+    @Test
+    public void copyShouldBeIndependent() {
+        var game = new FileBasedPersistenceImpl().loadGame(2);
+        var compact = new CompactGame(LevelTemplate.of(game.getLevel()));
+        var copy = compact.copy();
+        var start = compact.getPlayerPosition();
+
+        compact.tick(Vector2D.RIGHT);
+        assertNotEquals(start, compact.getPlayerPosition());
+        assertEquals(start, copy.getPlayerPosition());
+        assertEquals(0, copy.getTickNo());
+        assertSame(compact.getTemplate(), copy.getTemplate());
+    }
+
+    private void assertSameState(Game game, CompactGame compact) {
+        var level = game.getLevel();
+        assertEquals(game.getTickNo(), compact.getTickNo());
+        assertEquals(game.isGameOver(), compact.isGameOver());
+        assertEquals(level.getPlayer().getPosition(), compact.getPlayerPosition());
+        assertEquals(game.getChipsLeft(), compact.getChipsLeft());
+        assertEquals(level.getPlayer().getChips().size(), compact.getChips());
+        for (var color : Key.Color.values()) {
+            var held = level.getPlayer().getKeys().stream().filter(k -> k.getColor() == color).count();
+            assertEquals(held, compact.getKeyCount(color));
+        }
+        for (int i = 0; i < level.getEnemyCount(); i++) {
+            assertEquals(level.getEnemy(i).getPosition(), compact.getEnemyPosition(i));
+        }
+        for (var tile : level.getTiles()) {
+            assertEquals(TileType.of(tile), compact.tileTypeAt(tile.getPosition()));
+        }
+    }
+
+    // A random move that keeps the player on the board
+    private Vector2D randomMove(Game game, Random random) {
+        var level = game.getLevel();
+        while (true) {
+            var move = MOVES.get(random.nextInt(MOVES.size()));
+            var target = level.getPlayer().getPosition().add(move);
+            if (level.isInBounds(target.x(), target.y())) {
+                return move;
+            }
+        }
+    }
+
+    private CompactGame.Outcome toOutcome(GameOverEvent event) {
+        if (event instanceof PlayerWonEvent) {
+            return CompactGame.Outcome.WON;
+        } else if (event instanceof PlayerDiedEvent) {
+            return CompactGame.Outcome.DIED;
+        }
+        assertInstanceOf(TimeoutEvent.class, event);
+        return CompactGame.Outcome.TIMEOUT;
+    }
+}
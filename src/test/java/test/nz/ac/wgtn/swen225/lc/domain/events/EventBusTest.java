@@ -0,0 +1,64 @@
+package test.nz.ac.wgtn.swen225.lc.domain.events;
+
+import nz.ac.wgtn.swen225.lc.domain.events.*;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class EventBusTest {
+
+    @Test
+    public void shouldDeliverBySubscribedType() {
+        var bus = new EventBus();
+        var tickListener = mock(GameEventListener.class);
+        var gameOverListener = mock(GameEventListener.class);
+        bus.subscribe(TickEvent.class, tickListener);
+        bus.subscribe(GameOverEvent.class, gameOverListener);
+
+        bus.publish(new TickEvent(1));
+        bus.publish(new TimeoutEvent());
+
+        verify(tickListener).onGameEvent(any(TickEvent.class));
+        verify(tickListener, never()).onGameEvent(any(TimeoutEvent.class));
+        verify(gameOverListener).onGameEvent(any(TimeoutEvent.class));
+        verify(gameOverListener, never()).onGameEvent(any(TickEvent.class));
+        assertTrue(bus.hasSubscribers(PlayerWonEvent.class));
+        assertFalse(bus.hasSubscribers(PlayerMovedEvent.class));
+    }
+
+    @Test
+    public void shouldDeliverOnceToListenerWithOverlappingSubscriptions() {
+        var bus = new EventBus();
+        var listener = mock(GameEventListener.class);
+        bus.subscribe(GameEvent.class, listener);
+        bus.subscribe(TickEvent.class, listener);
+        bus.subscribe(TickEvent.class, listener);
+
+        bus.publish(new TickEvent(1));
+
+        verify(listener, times(1)).onGameEvent(any(TickEvent.class));
+        assertEquals(1, bus.getListeners().size());
+    }
+
+    @Test
+    public void shouldAllowUnsubscribingDuringDispatch() {
+        var bus = new EventBus();
+        var second = mock(GameEventListener.class);
+        GameEventListener first = new GameEventListener() {
+            @Override
+            public void onGameEvent(GameEvent gameEvent) {
+                bus.unsubscribe(this);
+                bus.unsubscribe(second);
+            }
+        };
+        bus.subscribe(TickEvent.class, first);
+        bus.subscribe(TickEvent.class, second);
+
+        bus.publish(new TickEvent(1));   // the event being dispatched still reaches second
+        bus.publish(new TickEvent(2));
+
+        verify(second, times(1)).onGameEvent(any(TickEvent.class));
+        assertFalse(bus.hasSubscribers());
+    }
+}
@@ -0,0 +1,53 @@
+package test.nz.ac.wgtn.swen225.lc.domain.events;
+
+import nz.ac.wgtn.swen225.lc.domain.Game;
+import nz.ac.wgtn.swen225.lc.domain.events.GameEvent;
+import nz.ac.wgtn.swen225.lc.domain.events.TickDelta;
+import nz.ac.wgtn.swen225.lc.domain.level.Level;
+import nz.ac.wgtn.swen225.lc.domain.level.characters.Player;
+import nz.ac.wgtn.swen225.lc.domain.level.items.Chip;
+import nz.ac.wgtn.swen225.lc.domain.level.tiles.ChipTile;
+import nz.ac.wgtn.swen225.lc.levels.level2.Patroller;
+import nz.ac.wgtn.swen225.lc.utils.Vector2D;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TickDeltaTest {
+
+    @Test
+    public void shouldPublishOneDeltaPerTickWithWhatChanged() {
+        var level = new Level(1, 10, 10, 100);
+        var chipTile = new ChipTile(new Vector2D(2, 1), new Chip());
+        var enemy = new Patroller(new Vector2D(5, 5), List.of(Vector2D.DOWN, Vector2D.UP), 1);
+        var player = new Player(new Vector2D(1, 1));
+        level.addTile(chipTile);
+        level.addEnemy(enemy);
+        level.setPlayer(player);
+        var game = new Game();
+        game.setLevel(level);
+
+        var deltas = new ArrayList<GameEvent>();
+        game.addListener(TickDelta.class, deltas::add);
+
+        game.update(Vector2D.RIGHT, Map.of(enemy, Vector2D.DOWN));
+        assertEquals(1, deltas.size());
+        var delta = (TickDelta) deltas.get(0);
+        assertEquals(1, delta.tickNo());
+        assertEquals(List.of(new TickDelta.Move(player, new Vector2D(1, 1), new Vector2D(2, 1)),
+                new TickDelta.Move(enemy, new Vector2D(5, 5), new Vector2D(5, 6))), delta.moves());
+        assertEquals(List.of(chipTile), delta.removedTiles());
+        assertEquals(List.of(chipTile.getChip()), delta.chipsCollected());
+        assertTrue(delta.keysGained().isEmpty());
+        assertEquals(0, delta.chipsLeft());
+        assertFalse(delta.countDownChanged());
+
+        game.update(Vector2D.ZERO, Map.of());
+        assertEquals(2, deltas.size());
+        assertTrue(((TickDelta) deltas.get(1)).isEmpty());
+    }
+}
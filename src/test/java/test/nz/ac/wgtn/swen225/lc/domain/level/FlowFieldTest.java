@@ -0,0 +1,118 @@
+package test.nz.ac.wgtn.swen225.lc.domain.level;
+
+import nz.ac.wgtn.swen225.lc.domain.Game;
+import nz.ac.wgtn.swen225.lc.domain.level.Level;
+import nz.ac.wgtn.swen225.lc.domain.level.characters.Player;
+import nz.ac.wgtn.swen225.lc.domain.level.items.Key;
+import nz.ac.wgtn.swen225.lc.domain.level.tiles.LockedDoor;
+import nz.ac.wgtn.swen225.lc.domain.level.tiles.Wall;
+import nz.ac.wgtn.swen225.lc.levels.level2.Chaser;
+import nz.ac.wgtn.swen225.lc.utils.Vector2D;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FlowFieldTest {
+
+    @Test
+    public void shouldFollowPathAroundWalls() {
+        var game = createInstance();
+        var field = game.getLevel().getFlowField();
+
+        // player at (0, 0), wall along x = 2 except for a gap at y = 4
+        assertEquals(0, field.distanceAt(new Vector2D(0, 0)));
+        assertEquals(4, field.distanceAt(new Vector2D(0, 4)));
+        assertEquals(6, field.distanceAt(new Vector2D(2, 4)));
+        assertEquals(11, field.distanceAt(new Vector2D(3, 0)));
+        assertEquals(-1, field.distanceAt(new Vector2D(2, 0)));
+        assertEquals(Vector2D.DOWN, field.directionAt(new Vector2D(3, 0)));
+        assertEquals(Vector2D.ZERO, field.directionAt(new Vector2D(0, 0)));
+    }
+
+    @Test
+    public void shouldUpdateWhenPlayerMovesOrTilesChange() {
+        var game = createInstance();
+        var level = game.getLevel();
+        var field = level.getFlowField();
+        assertEquals(-1, field.distanceAt(new Vector2D(5, 0)));   // behind a door
+
+        game.tick(Vector2D.RIGHT);
+        assertEquals(10, field.distanceAt(new Vector2D(3, 0)));
+
+        level.removeTile(level.tileAt(new Vector2D(2, 2)));
+        assertEquals(6, field.distanceAt(new Vector2D(3, 0)));
+        level.removeTile(level.tileAt(new Vector2D(5, 1)));
+        assertEquals(8, field.distanceAt(new Vector2D(5, 0)));
+    }
+
+    @Test
+    public void chasersShouldCatchPlayer() {
+        var game = createInstance();
+        var level = game.getLevel();
+        var chaser = new Chaser(new Vector2D(3, 0), 1);
+        var slowChaser = new Chaser(new Vector2D(3, 1), 2);
+        level.addEnemy(chaser);
+        level.addEnemy(slowChaser);
+
+        for (int i = 0; i < 20 && !game.isGameOver(); i++) {
+            game.tick(Vector2D.ZERO);
+        }
+        assertTrue(game.isGameOver());
+        assertEquals(new Vector2D(0, 0), chaser.getPosition());
+        assertEquals(11, game.getTickNo());
+        // the slow chaser only moved every other tick, along the same path
+        assertEquals(4, level.getFlowField().distanceAt(slowChaser.getPosition()));
+
+        var copy = chaser.copy();
+        assertEquals(chaser.getId(), copy.getId());
+        assertEquals(chaser.getInterval(), copy.getInterval());
+    }
+
+    @Test
+    public void shouldOnlyAllocateReachableArea() {
+        // A large board, the player walled in a 4x4 room inside a 200x200 room in a corner
+        var level = new Level(1, 4096, 4096, 60);
+        for (int i = 0; i <= 4; i++) {
+            level.addTile(new Wall(new Vector2D(i, 4)));
+            level.addTile(new Wall(new Vector2D(4, i)));
+        }
+        for (int i = 0; i <= 200; i++) {
+            level.addTile(new Wall(new Vector2D(i, 200)));
+            level.addTile(new Wall(new Vector2D(200, i)));
+        }
+        level.setPlayer(new Player(new Vector2D(1, 1)));
+        var game = new Game();
+        game.setLevel(level);
+        var field = level.getFlowField();
+
+        assertEquals(4, field.distanceAt(new Vector2D(3, 3)));
+        assertEquals(-1, field.distanceAt(new Vector2D(5, 5)));
+        assertEquals(-1, field.distanceAt(new Vector2D(4000, 4000)));
+        assertEquals(1, field.getAllocatedChunks());
+
+        // Through a gap into the large room, whose frontier outgrows the initial queue
+        level.removeTile(level.tileAt(new Vector2D(4, 1)));
+        assertEquals(5, field.distanceAt(new Vector2D(5, 0)));
+        assertEquals(396, field.distanceAt(new Vector2D(199, 199)));
+        assertEquals(-1, field.distanceAt(new Vector2D(201, 0)));
+        assertEquals(7 * 7, field.getAllocatedChunks());
+    }
+
+    // 6x6 board with a wall at x = 2 (gap at y = 4, door at y = 2), and (5, 0) closed off by a wall and a door
+    private Game createInstance() {
+        var level = new Level(1, 6, 6, 60);
+        for (int y = 0; y < 6; y++) {
+            if (y == 2) {
+                level.addTile(new LockedDoor(new Vector2D(2, y), Key.Color.RED));
+            } else if (y != 4) {
+                level.addTile(new Wall(new Vector2D(2, y)));
+            }
+        }
+        level.addTile(new Wall(new Vector2D(4, 0)));
+        level.addTile(new LockedDoor(new Vector2D(5, 1), Key.Color.BLUE));
+        level.setPlayer(new Player(new Vector2D(0, 0)));
+        var game = new Game();
+        game.setLevel(level);
+        return game;
+    }
+}
@@ -1,15 +1,25 @@
 package test.nz.ac.wgtn.swen225.lc.domain.level;
 
 import nz.ac.wgtn.swen225.lc.domain.Game;
+import nz.ac.wgtn.swen225.lc.domain.level.ChunkedTileGrid;
 import nz.ac.wgtn.swen225.lc.domain.level.Level;
+import nz.ac.wgtn.swen225.lc.domain.level.TileType;
 import nz.ac.wgtn.swen225.lc.domain.level.characters.Enemy;
 import nz.ac.wgtn.swen225.lc.domain.level.characters.Player;
+import nz.ac.wgtn.swen225.lc.domain.level.items.Chip;
+import nz.ac.wgtn.swen225.lc.domain.level.tiles.ChipTile;
+import nz.ac.wgtn.swen225.lc.domain.level.tiles.Exit;
 import nz.ac.wgtn.swen225.lc.domain.level.tiles.Tile;
+import nz.ac.wgtn.swen225.lc.domain.level.tiles.Wall;
+import nz.ac.wgtn.swen225.lc.levels.level2.Patroller;
 import nz.ac.wgtn.swen225.lc.utils.Vector2D;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
-import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 public class LevelTest {
@@ -28,6 +38,10 @@ public class LevelTest {
         mockEnemy = mock(Enemy.class);
         mockOldTile = mock(Tile.class);
         mockNewTile = mock(Tile.class);
+        // tiles and enemies are indexed by position when added, so positions have to be known up front
+        when(mockEnemy.getPosition()).thenReturn(new Vector2D(20, 20));
+        when(mockOldTile.getPosition()).thenReturn(new Vector2D(10, 10));
+        when(mockNewTile.getPosition()).thenReturn(new Vector2D(9, 10));
         toTest = new Level(1, 100, 100, 100);
         toTest.setGame(mockGame);
         toTest.setPlayer(mockPlayer);
@@ -76,8 +90,6 @@ public class LevelTest {
     @Test
     public void testMovePlayer() {
         when(mockPlayer.getPosition()).thenReturn(new Vector2D(10, 10));
-        when(mockOldTile.getPosition()).thenReturn(new Vector2D(10, 10));
-        when(mockNewTile.getPosition()).thenReturn(new Vector2D(9, 10));
         when(mockNewTile.isEnterable(any())).thenReturn(true);
         toTest.movePlayer(Vector2D.LEFT);
         verify(mockOldTile).onExit(eq(mockPlayer));
@@ -87,14 +99,153 @@ public class LevelTest {
 
     @Test
     public void testMovePlayerWithZeroVector() {
-        when(mockPlayer.getPosition()).thenReturn(Vector2D.ZERO);
-        when(mockOldTile.getPosition()).thenReturn(Vector2D.ZERO);
+        when(mockPlayer.getPosition()).thenReturn(new Vector2D(10, 10));
         toTest.movePlayer(Vector2D.ZERO);
         verify(mockOldTile, never()).onExit(any());
         verify(mockPlayer, never()).setPosition(any());
         verify(mockOldTile, never()).onEnter(any());
     }
 
+    @Test
+    public void testTileAt() {
+        assertSame(mockOldTile, toTest.tileAt(10, 10));
+        assertSame(mockNewTile, toTest.tileAt(new Vector2D(9, 10)));
+        assertSame(mockNewTile, toTest.adjacentTile(new Vector2D(10, 10), Vector2D.LEFT));
+        assertNull(toTest.tileAt(11, 10));
+        assertNull(toTest.tileAt(-1, 10));
+        assertNull(toTest.tileAt(100, 10));
+
+        toTest.removeTile(mockOldTile);
+        assertNull(toTest.tileAt(10, 10));
+        assertSame(mockNewTile, toTest.tileAt(9, 10));
+    }
+
+    @Test
+    public void testTileCountsAndMembership() {
+        var level = new Level(1, 10, 10, 100);
+        var chip1 = new ChipTile(new Vector2D(1, 1), new Chip());
+        var chip2 = new ChipTile(new Vector2D(2, 1), new Chip());
+        var wall = new Wall(new Vector2D(3, 1));
+        level.addTile(chip1);
+        level.addTile(chip2);
+        level.addTile(wall);
+        level.addTile(chip1);   // adding twice should not count twice
+        assertEquals(2, level.countTiles(ChipTile.class));
+        assertEquals(1, level.countTiles(Wall.class));
+        assertEquals(0, level.countTiles(Exit.class));
+        assertTrue(level.containsTile(chip1));
+
+        level.removeTile(chip1);
+        level.removeTile(chip1);   // removing twice should not count twice
+        assertEquals(1, level.countTiles(ChipTile.class));
+        assertFalse(level.containsTile(chip1));
+        assertTrue(level.containsTile(chip2));
+    }
+
+    @Test
+    public void testTileViewIsLiveAndReadOnly() {
+        var level = new Level(1, 10, 10, 100);
+        var chip = new ChipTile(new Vector2D(1, 1), new Chip());
+        var tiles = level.getTiles();
+        var snapshot = level.snapshotTiles();
+        level.addTile(chip);
+        assertTrue(tiles.contains(chip));
+        assertFalse(snapshot.contains(chip));
+        assertThrows(UnsupportedOperationException.class, () -> tiles.remove(chip));
+    }
+
+    @Test
+    public void shouldNotAddTileOutOfBoundary() {
+        var outside = mock(Tile.class);
+        when(outside.getPosition()).thenReturn(new Vector2D(100, 0));
+        assertThrows(IllegalArgumentException.class, () -> toTest.addTile(outside));
+    }
+
+    @Test
+    public void shouldCheckHeightWhenMoving() {
+        var wide = new Level(1, 20, 5, 100);
+        var player = new Player(new Vector2D(0, 4));
+        wide.setPlayer(player);
+        wide.setGame(mockGame);
+        assertThrows(IllegalArgumentException.class, () -> wide.movePlayer(Vector2D.DOWN));
+        assertEquals(new Vector2D(0, 4), player.getPosition());
+    }
+
+    @Test
+    public void testLargeSparseLevel() {
+        var level = new Level(1, 10_000, 10_000, 100);
+        var wall = new Wall(new Vector2D(9_999, 9_999));
+        var chip = new ChipTile(new Vector2D(5_000, 0), new Chip());
+        level.addTile(wall);
+        level.addTile(chip);
+        assertSame(wall, level.tileAt(9_999, 9_999));
+        assertSame(chip, level.tileAt(5_000, 0));
+        assertNull(level.tileAt(5_001, 0));
+        assertEquals(TileType.WALL, level.tileTypeAt(9_999, 9_999));
+        assertEquals(TileType.CHIP, level.tileTypeAt(5_000, 0));
+        assertEquals(TileType.FREE, level.tileTypeAt(0, 0));
+        assertEquals(TileType.FREE, level.tileTypeAt(-1, 0));
+        level.removeTile(chip);
+        assertEquals(TileType.FREE, level.tileTypeAt(5_000, 0));
+    }
+
+    @Test
+    public void testChunksAreAllocatedOnlyWhereTilesExist() {
+        var grid = new ChunkedTileGrid(10_000, 10_000);
+        var first = new Wall(new Vector2D(0, 0));
+        var second = new Wall(new Vector2D(63, 63));
+        grid.put(0, 0, first);
+        grid.put(63, 63, second);
+        assertEquals(1, grid.getAllocatedChunks());
+        grid.put(64, 0, new Wall(new Vector2D(64, 0)));
+        assertEquals(2, grid.getAllocatedChunks());
+        grid.remove(0, 0, second);   // not the tile there, ignored
+        assertSame(first, grid.get(0, 0));
+        grid.remove(0, 0, first);
+        grid.remove(63, 63, second);
+        assertEquals(1, grid.getAllocatedChunks());
+        assertNull(grid.get(63, 63));
+        assertThrows(IllegalArgumentException.class, () -> grid.put(10_000, 0, first));
+    }
+
+    @Test
+    public void testEnemyOccupancyIndex() {
+        var level = new Level(1, 100, 100, 100);
+        level.setGame(mockGame);
+        level.setPlayer(new Player(new Vector2D(0, 0)));
+        var enemies = new ArrayList<Patroller>();
+        for (int i = 0; i < 50; i++) {
+            var enemy = new Patroller(new Vector2D(i % 10, i / 10), List.of(), 1);
+            enemies.add(enemy);
+            level.addEnemy(enemy);
+        }
+        assertSame(enemies.get(0), level.enemyAt(new Vector2D(0, 0)));
+        assertSame(enemies.get(23), level.enemyAt(new Vector2D(3, 2)));
+        assertFalse(level.isEnemyAt(new Vector2D(0, 5)));
+
+        // two enemies end up on the same cell, then one leaves it
+        level.move(enemies.get(0), Vector2D.RIGHT);
+        assertFalse(level.isEnemyAt(new Vector2D(0, 0)));
+        var found = new ArrayList<Enemy>();
+        level.forEachEnemyAt(new Vector2D(1, 0), found::add);
+        assertEquals(2, found.size());
+        assertTrue(found.containsAll(List.of(enemies.get(0), enemies.get(1))));
+        level.move(enemies.get(1), Vector2D.RIGHT);
+        assertSame(enemies.get(0), level.enemyAt(new Vector2D(1, 0)));
+
+        // walk everyone far away and back, the index must follow
+        for (var enemy : enemies) {
+            enemy.setPosition(enemy.getPosition().add(new Vector2D(50, 50)));
+        }
+        assertFalse(level.isEnemyAt(new Vector2D(3, 2)));
+        assertSame(enemies.get(23), level.enemyAt(new Vector2D(53, 52)));
+
+        found.clear();
+        level.forEachEnemyNear(new Vector2D(51, 51), 1, found::add);
+        // cells (50..52, 50..52): enemies 10, 11, 12, 20, 21, 22, 0 at (51, 50), 1 and 2 at (52, 50)
+        assertEquals(9, found.size());
+    }
+
     @Test
     public void testMoveEnemy() {
         when(mockEnemy.getPosition()).thenReturn(new Vector2D(10, 10));
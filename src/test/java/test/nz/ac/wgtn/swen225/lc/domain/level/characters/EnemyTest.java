@@ -20,9 +20,15 @@ public class EnemyTest {
             public Vector2D nextMove() {
                 return null;
             }
+
+            @Override
+            public Enemy copy() {
+                throw new AssertionError("Not copied in this test");
+            }
         };
         toTest.setLevel(mockLevel);
         when(mockLevel.getGame()).thenReturn(mockGame);
+        when(mockGame.hasListeners(EnemyMovedEvent.class)).thenReturn(true);
         toTest.setPosition(Vector2D.ZERO);
         verify(mockGame).fire(any(EnemyMovedEvent.class));
     }
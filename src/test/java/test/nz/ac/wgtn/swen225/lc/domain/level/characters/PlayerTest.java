@@ -20,6 +20,7 @@ public class PlayerTest {
         var toTest = new Player(Vector2D.ZERO);
         toTest.setLevel(mockLevel);
         when(mockLevel.getGame()).thenReturn(mockGame);
+        when(mockGame.hasListeners(PlayerMovedEvent.class)).thenReturn(true);
         toTest.setPosition(Vector2D.ZERO);
         verify(mockGame).fire(any(PlayerMovedEvent.class));
     }
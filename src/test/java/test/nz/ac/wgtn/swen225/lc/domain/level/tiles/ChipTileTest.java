@@ -14,8 +14,6 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.util.Set;
-
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -38,7 +36,7 @@ public class ChipTileTest {
 
         toTest = new ChipTile(mockPosition, mockChip);
         toTest.setLevel(mockLevel);
-        when(mockLevel.getTiles()).thenReturn(Set.of(toTest));
+        when(mockLevel.containsTile(toTest)).thenReturn(true);
     }
 
     @Test
@@ -15,8 +15,6 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.util.Set;
-
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -42,19 +40,19 @@ public class ExitLockTest {
 
     @Test
     public void whenNoChipsLeft_shouldAllowPlayerToEnter() {
-        when(mockLevel.getTiles()).thenReturn(Set.of());
+        when(mockLevel.countTiles(ChipTile.class)).thenReturn(0);
         assertTrue(toTest.isEnterable(mockPlayer));
     }
 
     @Test
     public void whenHasChipsLeft_shouldNotAllowPlayerToEnter() {
-        when(mockLevel.getTiles()).thenReturn(Set.of(mock(ChipTile.class)));
+        when(mockLevel.countTiles(ChipTile.class)).thenReturn(1);
         assertFalse(toTest.isEnterable(mockPlayer));
     }
 
     @Test
     public void testOnEnter() {
-        when(mockLevel.getTiles()).thenReturn(Set.of());
+        when(mockLevel.countTiles(ChipTile.class)).thenReturn(0);
         when(mockLevel.getGame()).thenReturn(mockGame);
         toTest.onEnter(mockPlayer);
         verify(mockLevel).removeTile(eq(toTest));
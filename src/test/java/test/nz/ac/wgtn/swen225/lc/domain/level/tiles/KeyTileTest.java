@@ -15,8 +15,6 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.util.Set;
-
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
@@ -40,7 +38,7 @@ public class KeyTileTest {
 
         toTest = new KeyTile(mockPosition, mockKey);
         toTest.setLevel(mockLevel);
-        when(mockLevel.getTiles()).thenReturn(Set.of(toTest));
+        when(mockLevel.containsTile(toTest)).thenReturn(true);
     }
 
     @Test
@@ -0,0 +1,178 @@
+package test.nz.ac.wgtn.swen225.lc.persistence;
+
+import nz.ac.wgtn.swen225.lc.domain.Game;
+import nz.ac.wgtn.swen225.lc.domain.level.Level;
+import nz.ac.wgtn.swen225.lc.domain.level.characters.Player;
+import nz.ac.wgtn.swen225.lc.domain.level.items.Chip;
+import nz.ac.wgtn.swen225.lc.domain.level.items.Key;
+import nz.ac.wgtn.swen225.lc.domain.level.tiles.InfoField;
+import nz.ac.wgtn.swen225.lc.domain.level.tiles.LockedDoor;
+import nz.ac.wgtn.swen225.lc.levels.level2.Patroller;
+import nz.ac.wgtn.swen225.lc.persistency.BinaryPersistenceImpl;
+import nz.ac.wgtn.swen225.lc.persistency.FileBasedPersistenceImpl;
+import nz.ac.wgtn.swen225.lc.recorder.Moment;
+import nz.ac.wgtn.swen225.lc.recorder.Playback;
+import nz.ac.wgtn.swen225.lc.utils.Vector2D;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tests for the BinaryPersistenceImpl class
+ *
+ * @Author - Brett Penwarden
+ * Student ID - 300635306
+ */
+public class BinaryPersistenceImplTest {
+
+    private final BinaryPersistenceImpl binary = new BinaryPersistenceImpl();
+    private final FileBasedPersistenceImpl json = new FileBasedPersistenceImpl();
+    private File binaryFile;
+    private File jsonFile;
+
+    @BeforeEach
+    public void createFiles() throws IOException {
+        binaryFile = Files.createTempFile("save", ".lcb").toFile();
+        jsonFile = Files.createTempFile("save", ".json").toFile();
+    }
+
+    @AfterEach
+    public void deleteFiles() {
+        binaryFile.delete();
+        jsonFile.delete();
+    }
+
+    @Test
+    public void testGameRoundTripIsMuchSmallerThanJson() {
+        for (int levelNo : binary.getAllLevelNos()) {
+            Game game = binary.loadGame(levelNo);
+            game.update(Vector2D.RIGHT, Map.of());
+            binary.saveGame(binaryFile, game);
+            json.saveGame(jsonFile, game);
+
+            Game loaded = binary.loadGame(binaryFile);
+            Assertions.assertEquals(game.stateHash(), loaded.stateHash());
+            Assertions.assertEquals(game.getTickNo(), loaded.getTickNo());
+            Assertions.assertEquals(game.getTickRate(), loaded.getTickRate());
+            Assertions.assertEquals(game.getChipsLeft(), loaded.getChipsLeft());
+            Assertions.assertTrue(binaryFile.length() * 10 < jsonFile.length(),
+                    binaryFile.length() + " bytes is not 10x smaller than " + jsonFile.length());
+        }
+    }
+
+    @Test
+    public void testPlaybackRoundTrip() {
+        Player player = new Player(1, new Vector2D(0, 0), Set.of(new Key(13, Key.Color.RED)), Set.of(new Chip(14)));
+        Patroller patroller = new Patroller(2, new Vector2D(1, 0), List.of(Vector2D.of(2, 0)), 10);
+        var infoField = new InfoField(7, new Vector2D(3, 0), "héllo", true);
+        var door = new LockedDoor(8, new Vector2D(4, 0), Key.Color.GREEN);
+        Level level = new Level(11, 2, 10, 2, 60, Set.of(infoField, door), Set.of(patroller), player);
+        Game game = new Game(12, 5, level, 20);
+
+        Playback playback = new Playback();
+        playback.setSince(game);
+        playback.addMovement(new Moment(10, Vector2D.LEFT, Map.of(patroller, Vector2D.RIGHT)));
+        playback.addMovement(new Moment(300, Vector2D.of(0, 2), Map.of()));
+        playback.setEndTickNo(301);
+
+        binary.savePlayback(binaryFile, playback);
+        Playback loaded = binary.loadPlayback(binaryFile);
+
+        Assertions.assertEquals(20, loaded.getSince().getTickRate());
+        Assertions.assertEquals(301, loaded.getEndTickNo());
+        var enemy = loaded.getSince().getLevel().getEnemiesAsMap().get(2);
+        Assertions.assertEquals(patroller.getInterval(), ((Patroller) enemy).getInterval());
+        Assertions.assertEquals(patroller.getRoutine(), ((Patroller) enemy).getRoutine());
+        Assertions.assertEquals(new Moment(10, Vector2D.LEFT, Map.of(enemy, Vector2D.RIGHT)), loaded.getMoments().get(0));
+        Assertions.assertEquals(new Moment(300, Vector2D.of(0, 2), Map.of()), loaded.getMoments().get(1));
+        Assertions.assertEquals(game.stateHash(), loaded.getSince().stateHash());
+    }
+
+    @Test
+    public void testFormatIsSelectedByMagic() {
+        Game game = binary.loadGame(1);
+        json.saveGame(jsonFile, game);
+        binary.saveGame(binaryFile, game);
+
+        Assertions.assertFalse(BinaryPersistenceImpl.isBinary(jsonFile));
+        Assertions.assertTrue(BinaryPersistenceImpl.isBinary(binaryFile));
+        Assertions.assertEquals(game.stateHash(), binary.loadGame(jsonFile).stateHash());
+        // A game cannot be read as a playback
+        Assertions.assertThrows(IllegalArgumentException.class, () -> binary.loadPlayback(binaryFile));
+    }
+
+    @Test
+    public void testTruncatedFileIsRejected() throws IOException {
+        binary.saveGame(binaryFile, binary.loadGame(1));
+        var bytes = Files.readAllBytes(binaryFile.toPath());
+        Files.write(binaryFile.toPath(), Arrays.copyOf(bytes, bytes.length / 2));
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> binary.loadGame(binaryFile));
+    }
+
+    @Test
+    public void testLongInfoFieldMessageRoundTrip() {
+        var message = "Chips ".repeat(20_000) + "é";  // over the 64KB limit of writeUTF
+        Game loaded = saveAndLoadInfoField(message);
+
+        Assertions.assertEquals(message, infoFieldMessage(loaded));
+    }
+
+    @Test
+    public void testVersion2InfoFieldIsStillLoaded() throws IOException {
+        var message = "Collect every chip";
+        saveAndLoadInfoField(message);
+        // Rewrite the file as version 2 did, with the message in the format of writeUTF
+        var bytes = Files.readAllBytes(binaryFile.toPath());
+        var messageBytes = message.getBytes(StandardCharsets.UTF_8);
+        int start = indexOf(bytes, messageBytes);
+        Assertions.assertEquals(messageBytes.length, bytes[start - 1]);  // a one byte varint length
+        var old = new ByteArrayOutputStream();
+        old.write(bytes, 0, start - 1);
+        var out = new DataOutputStream(old);
+        out.writeUTF(message);
+        old.write(bytes, start + messageBytes.length, bytes.length - start - messageBytes.length);
+        var oldBytes = old.toByteArray();
+        oldBytes[BinaryPersistenceImpl.MAGIC.length] = 2;
+        Files.write(binaryFile.toPath(), oldBytes);
+
+        Assertions.assertEquals(message, infoFieldMessage(binary.loadGame(binaryFile)));
+    }
+
+    private Game saveAndLoadInfoField(String message) {
+        Player player = new Player(1, new Vector2D(0, 0), Set.of(), Set.of());
+        var infoField = new InfoField(7, new Vector2D(1, 0), message, false);
+        Level level = new Level(11, 1, 3, 1, 60, Set.of(infoField), Set.of(), player);
+        binary.saveGame(binaryFile, new Game(12, 0, level, Game.FRAME_RATE));
+        return binary.loadGame(binaryFile);
+    }
+
+    private static String infoFieldMessage(Game game) {
+        return game.getLevel().getTiles().stream()
+                .filter(t -> t instanceof InfoField)
+                .map(t -> ((InfoField) t).getMessage())
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static int indexOf(byte[] bytes, byte[] part) {
+        for (int i = 0; i + part.length <= bytes.length; i++) {
+            if (Arrays.equals(bytes, i, i + part.length, part, 0, part.length)) {
+                return i;
+            }
+        }
+        throw new AssertionError("Not found");
+    }
+}
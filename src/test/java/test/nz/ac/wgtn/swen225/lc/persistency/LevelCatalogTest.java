@@ -0,0 +1,116 @@
+package test.nz.ac.wgtn.swen225.lc.persistence;
+
+import nz.ac.wgtn.swen225.lc.persistency.FileBasedPersistenceImpl;
+import nz.ac.wgtn.swen225.lc.persistency.LevelCatalog;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+/**
+ * Tests for the LevelCatalog class
+ *
+ * @Author - Brett Penwarden
+ * Student ID - 300635306
+ */
+public class LevelCatalogTest {
+
+    @Test
+    public void testClasspathLevelsAreIndexed() throws IOException {
+        var catalog = new LevelCatalog();
+
+        Assertions.assertEquals(List.of(1, 2), catalog.getLevelNos());
+        var level1 = catalog.get(1).orElseThrow();
+        var game = new FileBasedPersistenceImpl().loadGame(1);
+        Assertions.assertEquals(game.getLevel().getWidth(), level1.width());
+        Assertions.assertEquals(game.getLevel().getHeight(), level1.height());
+        Assertions.assertEquals(game.getLevel().getTimeoutInSeconds(), level1.timeoutInSeconds());
+        Assertions.assertEquals(game.getChipsLeft(), level1.chipCount());
+
+        var crc = new CRC32();
+        try (var in = Objects.requireNonNull(LevelCatalog.class.getResourceAsStream("/levels/level1.json"))) {
+            crc.update(in.readAllBytes());
+        }
+        Assertions.assertEquals(crc.getValue(), level1.checksum());
+
+        Assertions.assertEquals(Optional.of(2), catalog.next(1));
+        Assertions.assertEquals(Optional.empty(), catalog.next(2));
+        Assertions.assertEquals(Optional.empty(), catalog.get(3));
+    }
+
+    @Test
+    public void testDirectoryLevelsAreAddedAndReplaceClasspathLevels() throws IOException {
+        Path directory = Files.createTempDirectory("levels");
+        try {
+            String level2;
+            try (var in = Objects.requireNonNull(LevelCatalog.class.getResourceAsStream("/levels/level2.json"))) {
+                level2 = new String(in.readAllBytes());
+            }
+            // A level 5 copied from level 2, and a level 2 with a longer timeout
+            Files.writeString(directory.resolve("level5.json"), level2.replace("\"levelNo\": 2", "\"levelNo\": 5"));
+            Files.writeString(directory.resolve("level2.json"),
+                    level2.replaceFirst("\"timeoutInSeconds\": \\d+", "\"timeoutInSeconds\": 999"));
+            var persistence = new FileBasedPersistenceImpl(new LevelCatalog(directory));
+
+            Assertions.assertEquals(List.of(1, 2, 5), persistence.getAllLevelNos());
+            Assertions.assertEquals(Optional.of(5), persistence.getNextLevelNo(2));
+            Assertions.assertEquals(5, persistence.loadGame(5).getLevel().getLevelNo());
+            Assertions.assertEquals(999, persistence.loadGame(2).getLevel().getTimeoutInSeconds());
+            Assertions.assertThrows(IllegalArgumentException.class, () -> persistence.loadGame(3));
+        } finally {
+            try (var files = Files.list(directory)) {
+                files.forEach(f -> f.toFile().delete());
+            }
+            Files.delete(directory);
+        }
+    }
+
+    @Test
+    public void testMalformedLevelFileIsNamed() throws IOException {
+        Path directory = Files.createTempDirectory("levels");
+        try {
+            var file = directory.resolve("broken.json");
+            for (var json : List.of("{\"levelNo\": 7, \"width\" 3}", "{\"levelNo\": 7, \"tiles\": [", "{\"levelNo\": \"x\"}")) {
+                Files.writeString(file, json);
+                var catalog = new LevelCatalog(directory);
+                var e = Assertions.assertThrows(IllegalArgumentException.class, catalog::getLevelNos, json);
+                Assertions.assertTrue(e.getMessage().contains("broken.json"), e.getMessage());
+            }
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void testDuplicateLevelNoInOneDirectoryIsRejected() throws IOException {
+        Path directory = Files.createTempDirectory("levels");
+        try {
+            String level2;
+            try (var in = Objects.requireNonNull(LevelCatalog.class.getResourceAsStream("/levels/level2.json"))) {
+                level2 = new String(in.readAllBytes());
+            }
+            Files.writeString(directory.resolve("a.json"), level2);
+            Files.writeString(directory.resolve("b.json"), level2);
+            var catalog = new LevelCatalog(directory);
+
+            var e = Assertions.assertThrows(IllegalArgumentException.class, catalog::getLevelNos);
+            Assertions.assertTrue(e.getMessage().contains("a.json") && e.getMessage().contains("b.json"),
+                    e.getMessage());
+        } finally {
+            delete(directory);
+        }
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (var files = Files.list(directory)) {
+            files.forEach(f -> f.toFile().delete());
+        }
+        Files.delete(directory);
+    }
+}
@@ -0,0 +1,117 @@
+package test.nz.ac.wgtn.swen225.lc.persistence;
+
+import nz.ac.wgtn.swen225.lc.domain.Game;
+import nz.ac.wgtn.swen225.lc.domain.level.characters.Enemy;
+import nz.ac.wgtn.swen225.lc.persistency.BinaryPersistenceImpl;
+import nz.ac.wgtn.swen225.lc.persistency.FileBasedPersistenceImpl;
+import nz.ac.wgtn.swen225.lc.persistency.MappedPlayback;
+import nz.ac.wgtn.swen225.lc.recorder.Moment;
+import nz.ac.wgtn.swen225.lc.recorder.Playback;
+import nz.ac.wgtn.swen225.lc.recorder.PlaybackSource;
+import nz.ac.wgtn.swen225.lc.utils.Vector2D;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests for the MappedPlayback class
+ *
+ * @Author - Brett Penwarden
+ * Student ID - 300635306
+ */
+public class MappedPlaybackTest {
+
+    private final BinaryPersistenceImpl persistence = new BinaryPersistenceImpl();
+    private File file;
+
+    @BeforeEach
+    public void createFile() throws IOException {
+        file = Files.createTempFile("playback", ".lcb").toFile();
+    }
+
+    @AfterEach
+    public void deleteFile() {
+        file.delete();
+    }
+
+    /**
+     * Records a playback of level 2 with a moment every third tick, the enemies moving on every other moment.
+     */
+    private Playback record(int momentCount) {
+        Game game = persistence.loadGame(2);
+        List<Enemy> enemies = List.copyOf(game.getLevel().getEnemies());
+        Playback playback = new Playback();
+        playback.setSince(game);
+        for (int i = 0; i < momentCount; i++) {
+            var move = List.of(Vector2D.LEFT, Vector2D.UP, Vector2D.RIGHT, Vector2D.DOWN).get(i % 4);
+            playback.addMovement(new Moment(3 * i + 1, move, i % 2 == 0 ? Map.of(enemies.get(0), move) : Map.of()));
+        }
+        playback.setEndTickNo(3 * momentCount + 1);
+        return playback;
+    }
+
+    @Test
+    public void testRandomAccessMatchesRecording() {
+        Playback playback = record(10_000);
+        persistence.savePlayback(file, playback);
+
+        try (var mapped = MappedPlayback.open(file)) {
+            Assertions.assertEquals(10_000, mapped.getMomentCount());
+            Assertions.assertEquals(playback.getEndTickNo(), mapped.getEndTickNo());
+            var enemy = mapped.getSince().getLevel().getEnemiesAsMap().get(playback.getMoments().get(0)
+                    .enemyMovementMap().keySet().iterator().next().getId());
+            // Jump around, backwards included
+            for (int tickNo : new int[]{29_998, 1, 15_001, 2, 0, 30_001, 4}) {
+                var expected = playback.getMoment(tickNo);
+                var actual = mapped.getMoment(tickNo);
+                if (expected == null) {
+                    Assertions.assertNull(actual, "tick " + tickNo);
+                    continue;
+                }
+                Assertions.assertEquals(expected.playerMovement(), actual.playerMovement());
+                var expectedEnemyMoves = expected.enemyMovementMap().isEmpty()
+                        ? Map.of() : Map.of(enemy, expected.playerMovement());
+                Assertions.assertEquals(expectedEnemyMoves, actual.enemyMovementMap());
+            }
+        }
+    }
+
+    @Test
+    public void testPersistenceOpensIndexedPlaybacksMapped() {
+        persistence.savePlayback(file, record(3));
+        try (PlaybackSource source = persistence.openPlayback(file)) {
+            Assertions.assertInstanceOf(MappedPlayback.class, source);
+            Assertions.assertEquals(Vector2D.UP, source.getMoment(4).playerMovement());
+        }
+        // Sequential loading ignores the index
+        Assertions.assertEquals(3, persistence.loadPlayback(file).getMoments().size());
+
+        // Json playbacks are loaded as a whole
+        new FileBasedPersistenceImpl().savePlayback(file, record(3));
+        try (PlaybackSource source = persistence.openPlayback(file)) {
+            Assertions.assertInstanceOf(Playback.class, source);
+            Assertions.assertEquals(Vector2D.UP, source.getMoment(4).playerMovement());
+        }
+    }
+
+    @Test
+    public void testClosedPlaybackCannotBeRead() {
+        persistence.savePlayback(file, record(3));
+        var mapped = MappedPlayback.open(file);
+        mapped.close();
+        Assertions.assertThrows(IllegalStateException.class, () -> mapped.getMoment(1));
+    }
+
+    @Test
+    public void testGameFileIsRejected() {
+        persistence.saveGame(file, persistence.loadGame(1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> MappedPlayback.open(file));
+    }
+}
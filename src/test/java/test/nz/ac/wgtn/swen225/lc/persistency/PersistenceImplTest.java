@@ -1,5 +1,6 @@
 package test.nz.ac.wgtn.swen225.lc.persistence;
 
+import nz.ac.wgtn.swen225.lc.domain.Entity;
 import nz.ac.wgtn.swen225.lc.domain.Game;
 import nz.ac.wgtn.swen225.lc.domain.level.Level;
 import nz.ac.wgtn.swen225.lc.domain.level.characters.Player;
@@ -8,6 +9,7 @@ import nz.ac.wgtn.swen225.lc.domain.level.items.Key;
 import nz.ac.wgtn.swen225.lc.domain.level.tiles.*;
 import nz.ac.wgtn.swen225.lc.levels.level2.Patroller;
 import nz.ac.wgtn.swen225.lc.persistency.FileBasedPersistenceImpl;
+import nz.ac.wgtn.swen225.lc.persistency.LevelCatalog;
 import nz.ac.wgtn.swen225.lc.recorder.Moment;
 import nz.ac.wgtn.swen225.lc.recorder.Playback;
 import nz.ac.wgtn.swen225.lc.utils.Vector2D;
@@ -18,12 +20,17 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Tests for the PersistenceImpl class
@@ -98,4 +105,142 @@ public class PersistenceImplTest {
         // too hard to verify each tile, so just verify the size
         Assertions.assertEquals(7, playback.getSince().getLevel().getTiles().size());
     }
+
+    @Test
+    public void testLoadLevelFromClasspath() {
+        FileBasedPersistenceImpl persistence = new FileBasedPersistenceImpl();
+        Game game = Entity.withOwnIdSpace(() -> persistence.loadGame(1));
+        Game other = Entity.withOwnIdSpace(() -> persistence.loadGame(1));
+
+        Assertions.assertEquals(1, game.getLevel().getLevelNo());
+        Assertions.assertEquals(11, game.getChipsLeft());
+        // each game is loaded in its own ID space, so generated ids are identical
+        Assertions.assertEquals(game.getId(), other.getId());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> persistence.loadGame(0));
+    }
+
+    @Test
+    public void testPlaybackRoundTrip() throws IOException {
+        Player player = new Player(1, new Vector2D(0, 0), Set.of(new Key(13, Key.Color.RED)), Set.of(new Chip(14)));
+        Patroller patroller = new Patroller(2, new Vector2D(1, 0), List.of(Vector2D.of(1, 0)), 10);
+        var infoField = new InfoField(7, new Vector2D(5, 0), "message \"quoted\"", true);
+        Level level = new Level(11, 1, 10, 1, 60, Set.of(infoField), Set.of(patroller), player);
+        Game game = new Game(12, 5, level, 20);
+
+        Playback playback = new Playback();
+        playback.setSince(game);
+        playback.addMovement(new Moment(10, Vector2D.LEFT, Map.of(patroller, Vector2D.RIGHT)));
+        playback.addMovement(new Moment(11, Vector2D.ZERO, Map.of()));
+        playback.setEndTickNo(15);
+
+        FileBasedPersistenceImpl persistence = new FileBasedPersistenceImpl();
+        var file = Files.createTempFile("playback", ".json").toFile();
+        try {
+            persistence.savePlayback(file, playback);
+            Playback loaded = persistence.loadPlayback(file);
+
+            Assertions.assertEquals(20, loaded.getSince().getTickRate());
+            Assertions.assertEquals(2, loaded.getMoments().size());
+            var enemy = loaded.getSince().getLevel().getEnemies().iterator().next();
+            Assertions.assertEquals(Map.of(enemy, Vector2D.RIGHT), loaded.getMoments().get(0).enemyMovementMap());
+            Assertions.assertEquals(patroller.getInterval(), ((Patroller) enemy).getInterval());
+            var tile = (InfoField) loaded.getSince().getLevel().getTiles().iterator().next();
+            Assertions.assertEquals(infoField.getMessage(), tile.getMessage());
+            Assertions.assertEquals(Set.of(Key.Color.RED), loaded.getSince().getLevel().getPlayer().getKeys().stream()
+                    .map(Key::getColor).collect(Collectors.toSet()));
+            Assertions.assertEquals(15, loaded.getEndTickNo());
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testLoadPlaybackWithFieldsInAnyOrder() throws IOException {
+        var json = """
+                {"endTickNo": 3, "unknown": [1, {"a": null}],
+                 "moments": [{"enemyMovementMap": {"2": {"y": 0, "x": 1}}, "playerMovement": {"x": -1, "y": 0},
+                              "tickNo": 1}],
+                 "since": {"level": {"player": {"keys": [], "chips": [], "position": {"x": 0, "y": 0}, "id": 1},
+                                     "enemies": [{"intervalInTicks": 5, "type": "Chaser", "position": {"x": 1, "y": 0},
+                                                  "id": 2}],
+                                     "tiles": [], "timeoutInSeconds": 60, "height": 1, "width": 2, "levelNo": 2,
+                                     "id": 3},
+                           "tickNo": 0, "id": 4}}
+                """;
+        FileBasedPersistenceImpl persistence = new FileBasedPersistenceImpl();
+        var file = Files.createTempFile("playback", ".json").toFile();
+        try {
+            Files.writeString(file.toPath(), json);
+            Playback playback = persistence.loadPlayback(file);
+
+            Assertions.assertEquals(Game.FRAME_RATE, playback.getSince().getTickRate());
+            var enemy = playback.getSince().getLevel().getEnemiesAsMap().get(2);
+            Assertions.assertEquals(Map.of(enemy, Vector2D.RIGHT), playback.getMoments().get(0).enemyMovementMap());
+            Assertions.assertEquals(3, playback.getEndTickNo());
+
+            Files.writeString(file.toPath(), json.replace("\"tickNo\": 0, ", ""));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> persistence.loadPlayback(file));
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testLoadSyntacticallyBrokenJson() throws IOException {
+        FileBasedPersistenceImpl persistence = new FileBasedPersistenceImpl();
+        var file = Files.createTempFile("save", ".json").toFile();
+        try {
+            for (var json : List.of("{\"level\": {\"levelNo\" 1}}", "{\"tickNo\": 0,, \"id\": 4}", "[1, 2}",
+                    "{\"tickNo\": 0, \"level\": {")) {
+                Files.writeString(file.toPath(), json);
+                Assertions.assertThrows(IllegalArgumentException.class, () -> persistence.loadGame(file), json);
+                Assertions.assertThrows(IllegalArgumentException.class, () -> persistence.loadPlayback(file), json);
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testLoadedLevelsAreIndependentCopies() {
+        FileBasedPersistenceImpl persistence = new FileBasedPersistenceImpl();
+        Game game = persistence.loadGame(1);
+        var start = game.getLevel().getPlayer().getPosition();
+        for (int i = 0; i < 3; i++) {
+            game.update(Vector2D.DOWN, Map.of());
+            game.update(Vector2D.RIGHT, Map.of());
+        }
+        Game other = persistence.loadGame(1);
+
+        Assertions.assertNotSame(game.getLevel(), other.getLevel());
+        Assertions.assertEquals(start, other.getLevel().getPlayer().getPosition());
+        Assertions.assertEquals(0, other.getTickNo());
+        Assertions.assertEquals(11, other.getChipsLeft());
+    }
+
+    @Test
+    public void testModifiedLevelFileIsParsedAgain() throws IOException {
+        Path directory = Files.createTempDirectory("levels");
+        try {
+            String level2;
+            try (var in = Objects.requireNonNull(FileBasedPersistenceImpl.class.getResourceAsStream("/levels/level2.json"))) {
+                level2 = new String(in.readAllBytes());
+            }
+            var file = directory.resolve("level2.json");
+            Files.writeString(file, level2);
+            FileBasedPersistenceImpl persistence = new FileBasedPersistenceImpl(new LevelCatalog(directory));
+            Assertions.assertEquals(60, persistence.loadGame(2).getLevel().getTimeoutInSeconds());
+
+            Files.writeString(file, level2.replaceFirst("\"timeoutInSeconds\": \\d+", "\"timeoutInSeconds\": 999"));
+            Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 10_000));
+
+            Assertions.assertEquals(999, persistence.loadGame(2).getLevel().getTimeoutInSeconds());
+            Assertions.assertEquals(999, persistence.getLevelCatalog().get(2).orElseThrow().timeoutInSeconds());
+        } finally {
+            try (var files = Files.list(directory)) {
+                files.forEach(f -> f.toFile().delete());
+            }
+            Files.delete(directory);
+        }
+    }
 }
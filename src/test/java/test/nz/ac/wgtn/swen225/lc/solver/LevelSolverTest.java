@@ -0,0 +1,96 @@
+package test.nz.ac.wgtn.swen225.lc.solver;
+
+import nz.ac.wgtn.swen225.lc.domain.Game;
+import nz.ac.wgtn.swen225.lc.domain.events.GameOverEvent;
+import nz.ac.wgtn.swen225.lc.domain.events.PlayerWonEvent;
+import nz.ac.wgtn.swen225.lc.domain.level.Level;
+import nz.ac.wgtn.swen225.lc.domain.level.characters.Enemy;
+import nz.ac.wgtn.swen225.lc.domain.level.characters.Player;
+import nz.ac.wgtn.swen225.lc.domain.level.items.Chip;
+import nz.ac.wgtn.swen225.lc.domain.level.items.Key;
+import nz.ac.wgtn.swen225.lc.domain.level.tiles.*;
+import nz.ac.wgtn.swen225.lc.persistency.FileBasedPersistenceImpl;
+import nz.ac.wgtn.swen225.lc.persistency.Persistence;
+import nz.ac.wgtn.swen225.lc.recorder.Moment;
+import nz.ac.wgtn.swen225.lc.recorder.Playback;
+import nz.ac.wgtn.swen225.lc.solver.LevelSolver;
+import nz.ac.wgtn.swen225.lc.utils.Vector2D;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class LevelSolverTest {
+
+    @Test
+    public void shouldFindShortestSolution() {
+        var game = createInstance(true);
+        var persistence = mock(Persistence.class);
+        when(persistence.loadGame(1)).thenReturn(game);
+
+        try (var solver = new LevelSolver(persistence, 2, 1000)) {
+            var playback = solver.solve(1).orElseThrow();
+            // 2 steps to the key, 2 back, then 6 through the door, the chip and the exit lock into the exit
+            assertEquals(10, playback.getEndTickNo());
+            assertEquals(0, game.getTickNo());   // the loaded game is not changed
+            assertInstanceOf(PlayerWonEvent.class, replay(playback));
+        }
+    }
+
+    @Test
+    public void shouldReportUnsolvableLevel() {
+        try (var solver = new LevelSolver(mock(Persistence.class), 2, 1000)) {
+            assertTrue(solver.solve(createInstance(false)).isEmpty());
+        }
+    }
+
+    @Test
+    public void shouldSolveLevelWithPatrollers() {
+        try (var solver = new LevelSolver(new FileBasedPersistenceImpl())) {
+            var playback = solver.solve(2).orElseThrow();
+            assertInstanceOf(PlayerWonEvent.class, replay(playback));
+        }
+    }
+
+    @Test
+    public void shouldGiveUpOnTooManyStates() {
+        try (var solver = new LevelSolver(mock(Persistence.class), 2, 10)) {
+            assertThrows(IllegalStateException.class, () -> solver.solve(createInstance(true)));
+        }
+    }
+
+    // Replays a playback the way the replayer does and returns the event that ended the game
+    private GameOverEvent replay(Playback playback) {
+        var game = playback.getSince();
+        var ended = new ArrayList<GameOverEvent>();
+        game.addListener(GameOverEvent.class, event -> ended.add((GameOverEvent) event));
+        while (game.getTickNo() < playback.getEndTickNo()) {
+            var moment = playback.getMoments().stream().filter(m -> m.tickNo() == game.getTickNo()).findFirst();
+            game.update(moment.map(Moment::playerMovement).orElse(null),
+                    moment.map(Moment::enemyMovementMap).orElse(Map.<Enemy, Vector2D>of()));
+        }
+        return ended.isEmpty() ? null : ended.get(0);
+    }
+
+    // A corridor: key and player on the left, then a door, a chip, the exit lock and the exit
+    private Game createInstance(boolean solvable) {
+        var level = new Level(1, 9, 3, 60);
+        for (int x = 0; x < 9; x++) {
+            level.addTile(new Wall(new Vector2D(x, 0)));
+            level.addTile(new Wall(new Vector2D(x, 2)));
+        }
+        level.addTile(new KeyTile(new Vector2D(0, 1), new Key(Key.Color.RED)));
+        level.addTile(new LockedDoor(new Vector2D(3, 1), solvable ? Key.Color.RED : Key.Color.BLUE));
+        level.addTile(new ChipTile(new Vector2D(5, 1), new Chip()));
+        level.addTile(new ExitLock(new Vector2D(7, 1)));
+        level.addTile(new Exit(new Vector2D(8, 1)));
+        level.setPlayer(new Player(new Vector2D(2, 1)));
+        var game = new Game();
+        game.setLevel(level);
+        return game;
+    }
+}